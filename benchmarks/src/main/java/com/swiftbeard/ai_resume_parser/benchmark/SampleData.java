@@ -0,0 +1,129 @@
+package com.swiftbeard.ai_resume_parser.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftbeard.ai_resume_parser.model.JobDescription;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seed data for the benchmarks: the application's test samples ({@code sample-resumes}, {@code sample-jobs})
+ * and recorded model responses ({@code responses}), all on the classpath.
+ */
+public final class SampleData {
+
+    public static final String RESUME = "sample-resumes/john-doe-resume.txt";
+    public static final String JOB = "sample-jobs/senior-java-developer.json";
+    public static final String DOCX_CONTENT_TYPE =
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+    private static final float FONT_SIZE = 10;
+    private static final float LEADING = 12;
+    private static final float MARGIN = 50;
+    private static final int WRAP_COLUMNS = 95;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private SampleData() {
+    }
+
+    public static String text(String path) {
+        try (InputStream in = SampleData.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark resource " + path);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static String resumeText() {
+        return text(RESUME);
+    }
+
+    public static JobDescription job() {
+        try {
+            return OBJECT_MAPPER.readValue(text(JOB), JobDescription.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The sample resume as a PDF, generated because the repository has no binary samples: one line of text
+     * per line of the sample, wrapped and paged like a typical one- or two-page resume.
+     */
+    public static byte[] resumePdf() throws IOException {
+        List<String> lines = resumeText().lines().toList();
+        List<String> wrapped = new ArrayList<>();
+        for (String line : lines) {
+            wrapped.addAll(wrap(line));
+        }
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            int linesPerPage = (int) ((PDPage.PAGE_SIZE_LETTER.getHeight() - 2 * MARGIN) / LEADING);
+            for (int start = 0; start < wrapped.size(); start += linesPerPage) {
+                PDPage page = new PDPage(PDPage.PAGE_SIZE_LETTER);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, FONT_SIZE);
+                    content.setLeading(LEADING);
+                    content.newLineAtOffset(MARGIN, page.getMediaBox().getHeight() - MARGIN);
+                    for (String line : wrapped.subList(start, Math.min(wrapped.size(), start + linesPerPage))) {
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * The sample resume as a DOCX, one paragraph per line.
+     */
+    public static byte[] resumeDocx() throws IOException {
+        List<String> lines = resumeText().lines().toList();
+        try (XWPFDocument document = new XWPFDocument()) {
+            for (String line : lines) {
+                document.createParagraph().createRun().setText(line);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static List<String> wrap(String line) {
+        List<String> wrapped = new ArrayList<>();
+        String rest = line;
+        while (rest.length() > WRAP_COLUMNS) {
+            int cut = rest.lastIndexOf(' ', WRAP_COLUMNS);
+            if (cut <= 0) {
+                cut = WRAP_COLUMNS;
+            }
+            wrapped.add(rest.substring(0, cut));
+            rest = rest.substring(cut).stripLeading();
+        }
+        wrapped.add(rest);
+        return wrapped;
+    }
+}
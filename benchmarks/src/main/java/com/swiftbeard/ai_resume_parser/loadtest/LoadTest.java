@@ -0,0 +1,298 @@
+package com.swiftbeard.ai_resume_parser.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.swiftbeard.ai_resume_parser.benchmark.SampleData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-model load test for a running instance, normally started with {@code app.ai.mode: replay} so that
+ * no model is called. Requests are sent at a fixed rate regardless of how fast responses come back, and
+ * latency is measured from when each request was due, not when it was sent, so a server that falls behind
+ * shows up in the percentiles instead of silently lowering the request rate.
+ * <p>
+ * Options (all {@code --name=value}):
+ * <ul>
+ *     <li>{@code url}: base URL, default {@code http://localhost:8080}</li>
+ *     <li>{@code rps}: target requests per second, default 10; a comma-separated list runs one step per rate,
+ *     to find the rate at which the server stops keeping up</li>
+ *     <li>{@code duration}: measured seconds, default 60, after {@code warmup} seconds (default 10)</li>
+ *     <li>{@code mix}: endpoint weights, default {@code upload=1,get=4,match=2,ats=1,search=2}</li>
+ *     <li>{@code max-in-flight}: requests above this are counted as dropped, default 512</li>
+ *     <li>{@code out}: JSON results file, default {@code loadtest-result.json}</li>
+ * </ul>
+ * The README describes how to compare {@code app.execution.mode} platform and virtual with it; no results
+ * of that comparison have been recorded yet.
+ */
+public final class LoadTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(120);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final byte[] uploadBody;
+    private final String uploadBoundary;
+    private final String jobJson;
+    private String resumeId;
+
+    private LoadTest(String baseUrl) throws IOException {
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(10)).build();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.uploadBoundary = "loadtest-" + UUID.randomUUID();
+        this.uploadBody = multipart(uploadBoundary, "john-doe-resume.docx", SampleData.DOCX_CONTENT_TYPE,
+                SampleData.resumeDocx());
+        this.jobJson = OBJECT_MAPPER.writeValueAsString(SampleData.job());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        double[] rates = Arrays.stream(options.getOrDefault("rps", "10").split(","))
+                .mapToDouble(rate -> Double.parseDouble(rate.trim()))
+                .toArray();
+        long warmupSeconds = Long.parseLong(options.getOrDefault("warmup", "10"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration", "60"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "512"));
+        Map<String, Integer> mix = mix(options.getOrDefault("mix", "upload=1,get=4,match=2,ats=1,search=2"));
+
+        LoadTest loadTest = new LoadTest(options.getOrDefault("url", "http://localhost:8080"));
+        loadTest.seed();
+        ObjectNode result = OBJECT_MAPPER.createObjectNode();
+        result.put("durationSeconds", durationSeconds);
+        ArrayNode steps = result.putArray("steps");
+        for (double rps : rates) {
+            Step step = loadTest.run(mix, rps, warmupSeconds, durationSeconds, maxInFlight);
+            steps.add(report(step, rps, durationSeconds));
+        }
+        Path out = Path.of(options.getOrDefault("out", "loadtest-result.json"));
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(out.toFile(), result);
+        System.out.printf("%nResults written to %s%n", out.toAbsolutePath());
+    }
+
+    /**
+     * Uploads the sample resume once and waits for it to be indexed, for the endpoints that need a resume id.
+     */
+    private void seed() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(upload(true), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seed upload failed with " + response.statusCode() + ": " + response.body());
+        }
+        resumeId = OBJECT_MAPPER.readTree(response.body()).path("id").asText();
+        System.out.printf("Seeded resume %s%n", resumeId);
+    }
+
+    private record Step(Map<String, EndpointStats> stats, int peakInFlight) {
+    }
+
+    private Step run(Map<String, Integer> mix, double rps, long warmupSeconds, long durationSeconds,
+                     int maxInFlight) {
+        Map<String, Supplier<HttpRequest>> endpoints = endpoints();
+        List<String> schedule = new ArrayList<>();
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        mix.forEach((name, weight) -> {
+            if (!endpoints.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown endpoint '" + name + "'. Use " + endpoints.keySet());
+            }
+            for (int i = 0; i < weight; i++) {
+                schedule.add(name);
+            }
+            stats.put(name, new EndpointStats());
+        });
+
+        Random random = new Random(42);
+        AtomicInteger inFlight = new AtomicInteger();
+        int peakInFlight = 0;
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rps);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        System.out.printf("Sending %.1f requests/s for %d s (+%d s warmup)%n", rps, durationSeconds, warmupSeconds);
+
+        for (long n = 0; ; n++) {
+            long due = start + n * intervalNanos;
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String name = schedule.get(random.nextInt(schedule.size()));
+            EndpointStats endpoint = due >= measureFrom ? stats.get(name) : null;
+            if (inFlight.get() >= maxInFlight) {
+                if (endpoint != null) {
+                    endpoint.dropped.incrementAndGet();
+                }
+                continue;
+            }
+            int sending = inFlight.incrementAndGet();
+            if (endpoint != null) {
+                peakInFlight = Math.max(peakInFlight, sending);
+            }
+            client.sendAsync(endpoints.get(name).get(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.decrementAndGet();
+                        if (endpoint != null) {
+                            endpoint.record(System.nanoTime() - due, error == null && response.statusCode() / 100 == 2);
+                        }
+                    });
+        }
+
+        long drainUntil = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        return new Step(stats, peakInFlight);
+    }
+
+    private Map<String, Supplier<HttpRequest>> endpoints() {
+        Map<String, Supplier<HttpRequest>> endpoints = new LinkedHashMap<>();
+        endpoints.put("upload", () -> upload(false));
+        endpoints.put("get", () -> request("/api/resumes/" + resumeId).GET().build());
+        endpoints.put("match", () -> request("/api/resumes/" + resumeId + "/match")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jobJson))
+                .build());
+        endpoints.put("ats", () -> request("/api/resumes/" + resumeId + "/optimize-ats")
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build());
+        endpoints.put("search", () -> request("/api/resumes/search?topK=5&query="
+                + URLEncoder.encode("Senior Java developer with Spring Boot and AWS", StandardCharsets.UTF_8))
+                .GET().build());
+        return endpoints;
+    }
+
+    private HttpRequest upload(boolean waitForIndex) {
+        return request("/api/resumes/upload" + (waitForIndex ? "?waitForIndex=true" : ""))
+                .header("Content-Type", "multipart/form-data; boundary=" + uploadBoundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(uploadBody))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private static byte[] multipart(String boundary, String fileName, String contentType, byte[] content)
+            throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private static ObjectNode report(Step step, double rps, long durationSeconds) {
+        ObjectNode result = OBJECT_MAPPER.createObjectNode();
+        result.put("targetRps", rps);
+        result.put("peakInFlight", step.peakInFlight());
+        ArrayNode endpoints = result.putArray("endpoints");
+
+        System.out.printf("%n%.1f requests/s, at most %d in flight%n", rps, step.peakInFlight());
+        System.out.printf("%-8s %9s %7s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "dropped", "ok/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        step.stats().forEach((name, endpoint) -> {
+            long[] latencies = endpoint.latencies();
+            Arrays.sort(latencies);
+            double throughput = (double) endpoint.successes.get() / durationSeconds;
+            System.out.printf("%-8s %9d %7d %8d %10.2f %9.1f %9.1f %9.1f %9.1f%n", name, latencies.length,
+                    endpoint.errors.get(), endpoint.dropped.get(), throughput, percentileMs(latencies, 0.50),
+                    percentileMs(latencies, 0.95), percentileMs(latencies, 0.99), percentileMs(latencies, 1.0));
+
+            ObjectNode node = endpoints.addObject();
+            node.put("endpoint", name);
+            node.put("requests", latencies.length);
+            node.put("errors", endpoint.errors.get());
+            node.put("dropped", endpoint.dropped.get());
+            node.put("throughput", throughput);
+            node.put("p50Ms", percentileMs(latencies, 0.50));
+            node.put("p95Ms", percentileMs(latencies, 0.95));
+            node.put("p99Ms", percentileMs(latencies, 0.99));
+            node.put("maxMs", percentileMs(latencies, 1.0));
+        });
+        return result;
+    }
+
+    /**
+     * Nearest-rank percentile of sorted latencies in nanoseconds, in milliseconds.
+     */
+    static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)] / 1_000_000.0;
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private static Map<String, Integer> mix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            mix.put(parts[0], parts.length > 1 ? Integer.parseInt(parts[1]) : 1);
+        }
+        return mix;
+    }
+
+    private static final class EndpointStats {
+        private final AtomicLong successes = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private long[] latencies = new long[1024];
+        private int count;
+
+        synchronized void record(long latencyNanos, boolean success) {
+            (success ? successes : errors).incrementAndGet();
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+
+        synchronized long[] latencies() {
+            return Arrays.copyOf(latencies, count);
+        }
+    }
+}
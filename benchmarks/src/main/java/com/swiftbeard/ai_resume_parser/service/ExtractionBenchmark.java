@@ -0,0 +1,53 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.benchmark.SampleData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text extraction by {@link DocumentParsingService} from the sample resume as PDF and DOCX
+ * (see {@link SampleData#resumePdf()}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionBenchmark {
+
+    private DocumentParsingService documentParsingService;
+    private MockMultipartFile pdf;
+    private MockMultipartFile docx;
+
+    @Setup
+    public void setUp() throws IOException {
+        documentParsingService = new DocumentParsingService(new StageMetrics(new SimpleMeterRegistry()));
+        pdf = new MockMultipartFile("file", "john-doe-resume.pdf", "application/pdf", SampleData.resumePdf());
+        docx = new MockMultipartFile("file", "john-doe-resume.docx", SampleData.DOCX_CONTENT_TYPE,
+                SampleData.resumeDocx());
+    }
+
+    @Benchmark
+    public String extractPdf() throws IOException {
+        return documentParsingService.extractTextFromFile(pdf);
+    }
+
+    @Benchmark
+    public String extractDocx() throws IOException {
+        return documentParsingService.extractTextFromFile(docx);
+    }
+}
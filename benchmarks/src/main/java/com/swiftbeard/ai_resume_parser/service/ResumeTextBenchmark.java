@@ -0,0 +1,85 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.benchmark.SampleData;
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.model.JobDescription;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The local work around each model call: building the resume text for prompts and embeddings, the ATS
+ * metrics and the rule-based skills match. The resume is the recorded parse response for the sample resume.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResumeTextBenchmark {
+
+    private VectorStoreService vectorStoreService;
+    private ATSOptimizationService atsOptimizationService;
+    private ParsedResume resume;
+    private JobDescription job;
+
+    @Setup
+    public void setUp() throws Exception {
+        AppProperties appProperties = new AppProperties();
+        StageMetrics stageMetrics = new StageMetrics(new SimpleMeterRegistry());
+        // Only the text builders and metrics are exercised, which use neither the stores nor the model
+        vectorStoreService = new VectorStoreService(null, appProperties, stageMetrics);
+        atsOptimizationService = new ATSOptimizationService(null, appProperties, null, null, null, null, stageMetrics);
+
+        resume = new StructuredOutputDecoder().decode(AiOperation.PARSE,
+                SampleData.text("responses/parse.json"), ParsedResume.class);
+        resume.setId("benchmark-resume");
+        resume.setRawText(SampleData.resumeText());
+        job = SampleData.job();
+    }
+
+    @Benchmark
+    public String vectorStoreResumeText() {
+        return vectorStoreService.buildResumeText(resume);
+    }
+
+    @Benchmark
+    public String atsResumeText() {
+        return atsOptimizationService.buildResumeText(resume);
+    }
+
+    /**
+     * Metrics for a resume stored without text statistics, which are computed from the raw text first.
+     */
+    @Benchmark
+    public Map<String, Object> calculateMetrics() {
+        resume.setTextStatistics(null);
+        return atsOptimizationService.calculateMetrics(resume);
+    }
+
+    /**
+     * Metrics for a resume whose text statistics were computed at parse time.
+     */
+    @Benchmark
+    public Map<String, Object> calculateMetricsPrecomputed() {
+        return atsOptimizationService.calculateMetrics(resume);
+    }
+
+    @Benchmark
+    public double calculateSkillsMatch() {
+        return ResumeAnalysisService.calculateSkillsMatch(resume.getSkills(), job.getRequiredSkills());
+    }
+}
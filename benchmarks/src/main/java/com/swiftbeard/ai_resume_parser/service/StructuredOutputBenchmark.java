@@ -0,0 +1,71 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.swiftbeard.ai_resume_parser.benchmark.SampleData;
+import com.swiftbeard.ai_resume_parser.dto.MatchResult;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of model responses by {@link StructuredOutputDecoder}: a clean body, the same body in Markdown
+ * fences, and a malformed body that fails strict parsing and goes through {@link JsonRepair}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StructuredOutputBenchmark {
+
+    private final StructuredOutputDecoder decoder = new StructuredOutputDecoder();
+
+    private String parseResponse;
+    private String fencedParseResponse;
+    private String malformedParseResponse;
+    private String matchResponse;
+
+    @Setup
+    public void setUp() {
+        parseResponse = SampleData.text("responses/parse.json");
+        fencedParseResponse = "```json\n" + parseResponse + "```\n";
+        malformedParseResponse = SampleData.text("responses/parse-malformed.txt");
+        matchResponse = SampleData.text("responses/match.json");
+    }
+
+    @Benchmark
+    public ParsedResume decodeParse() throws JsonProcessingException {
+        return decoder.decode(AiOperation.PARSE, parseResponse, ParsedResume.class);
+    }
+
+    @Benchmark
+    public ParsedResume decodeFencedParse() throws JsonProcessingException {
+        return decoder.decode(AiOperation.PARSE, fencedParseResponse, ParsedResume.class);
+    }
+
+    @Benchmark
+    public ParsedResume decodeMalformedParse() throws JsonProcessingException {
+        return decoder.decode(AiOperation.PARSE, malformedParseResponse, ParsedResume.class);
+    }
+
+    @Benchmark
+    public String repairMalformedParse() {
+        return JsonRepair.repair(malformedParseResponse);
+    }
+
+    @Benchmark
+    public MatchResult decodeMatch() throws JsonProcessingException {
+        return decoder.decode(AiOperation.MATCH, matchResponse, MatchResult.class);
+    }
+}
@@ -0,0 +1,69 @@
+package com.swiftbeard.ai_resume_parser.vectorstore;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Embedding model for benchmarks: hashes each lower-cased word into one of {@code dimensions} buckets
+ * (with a hashed sign), so texts that share words get similar vectors and the same text always gets the
+ * same vector, without any network call.
+ */
+public class DeterministicEmbeddingModel implements EmbeddingModel {
+
+    private final int dimensions;
+
+    public DeterministicEmbeddingModel(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<Embedding> embeddings = new ArrayList<>();
+        List<String> texts = request.getInstructions();
+        for (int i = 0; i < texts.size(); i++) {
+            embeddings.add(new Embedding(embed(texts.get(i)), i));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getContent());
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        long hash = 0xcbf29ce484222325L;
+        boolean inWord = false;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? Character.toLowerCase(text.charAt(i)) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                hash = (hash ^ c) * 0x100000001b3L;
+                inWord = true;
+            } else if (inWord) {
+                int bucket = (int) Math.floorMod(hash, (long) dimensions);
+                vector[bucket] += (hash & (1L << 62)) == 0 ? 1f : -1f;
+                hash = 0xcbf29ce484222325L;
+                inWord = false;
+            }
+        }
+        return vector;
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        return texts.stream().map(this::embed).toList();
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+}
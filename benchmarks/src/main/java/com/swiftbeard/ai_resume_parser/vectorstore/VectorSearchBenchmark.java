@@ -0,0 +1,112 @@
+package com.swiftbeard.ai_resume_parser.vectorstore;
+
+import com.swiftbeard.ai_resume_parser.benchmark.SampleData;
+import com.swiftbeard.ai_resume_parser.model.JobDescription;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-10 similarity search on the sharded in-memory store at 10k, 100k and 1M vectors, one shard per core.
+ * The corpus is generated from the skills and roles of the sample resume and job, embedded with
+ * {@link DeterministicEmbeddingModel}; queries are built from the sample job. {@code searchByText} includes
+ * embedding the query, {@code searchByEmbedding} measures the scan and merge alone.
+ * <p>
+ * The 1M case needs about 3 GB of heap at the default 384 dimensions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class VectorSearchBenchmark {
+
+    private static final int TOP_K = 10;
+    private static final int LOAD_BATCH = 10_000;
+
+    private static final List<String> ROLES = List.of(
+            "Software Engineer", "Senior Software Engineer", "Backend Developer", "Full-Stack Developer",
+            "Data Engineer", "DevOps Engineer", "Engineering Manager", "Frontend Developer");
+
+    @Param({"10000", "100000", "1000000"})
+    private int vectors;
+
+    @Param({"384"})
+    private int dimensions;
+
+    private ShardedVectorStore store;
+    private DeterministicEmbeddingModel embeddingModel;
+    private List<String> queries;
+    private List<float[]> queryEmbeddings;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        embeddingModel = new DeterministicEmbeddingModel(dimensions);
+        store = new ShardedVectorStore(embeddingModel, Runtime.getRuntime().availableProcessors(), null, Set.of());
+
+        JobDescription job = SampleData.job();
+        List<String> vocabulary = new ArrayList<>(job.getRequiredSkills());
+        vocabulary.addAll(job.getPreferredSkills());
+        vocabulary.addAll(List.of("JavaScript", "TypeScript", "Python", "SQL", "Node.js", "MongoDB", "Jenkins",
+                "Git", "Maven", "Gradle", "Agile", "Scrum", "TDD", "Spark", "Kafka", "Terraform", "Go", "Angular"));
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<Document> batch = new ArrayList<>(LOAD_BATCH);
+        for (int i = 0; i < vectors; i++) {
+            StringBuilder text = new StringBuilder(ROLES.get(random.nextInt(ROLES.size()))).append(". Skills:");
+            for (int s = 0; s < 12; s++) {
+                text.append(' ').append(vocabulary.get(random.nextInt(vocabulary.size())));
+            }
+            batch.add(new Document("resume-" + i, text.toString(), Map.of("resumeId", "resume-" + i)));
+            if (batch.size() == LOAD_BATCH) {
+                store.add(batch);
+                batch = new ArrayList<>(LOAD_BATCH);
+            }
+        }
+        store.add(batch);
+
+        queries = List.of(
+                job.getTitle() + ". Skills: " + String.join(" ", job.getRequiredSkills()),
+                job.getTitle() + ". Skills: " + String.join(" ", job.getPreferredSkills()),
+                "Data Engineer. Skills: Python SQL Spark Kafka AWS",
+                "Frontend Developer. Skills: React TypeScript JavaScript Angular");
+        queryEmbeddings = queries.stream().map(embeddingModel::embed).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.destroy();
+    }
+
+    @Benchmark
+    public List<Document> searchByText() {
+        String query = queries.get(next++ & 3);
+        return store.similaritySearch(SearchRequest.query(query).withTopK(TOP_K));
+    }
+
+    @Benchmark
+    public List<Document> searchByEmbedding() {
+        return store.search(queryEmbeddings.get(next++ & 3), TOP_K, 0.0, null);
+    }
+}
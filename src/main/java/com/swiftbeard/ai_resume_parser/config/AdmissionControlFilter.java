@@ -0,0 +1,164 @@
+package com.swiftbeard.ai_resume_parser.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the model-backed endpoints configured under {@code app.admission.endpoints}. Each
+ * endpoint gets its own {@link AdmissionGate}, so a burst of uploads cannot starve matching. Rejected
+ * requests get an immediate {@code 429} or {@code 503} with {@code Retry-After} instead of holding a Tomcat
+ * thread until the client gives up.
+ * <p>
+ * Clients choose their class with the priority header ({@code interactive} or {@code bulk}) and may send
+ * the time they are willing to wait in the timeout header. Meters: {@code resume.admission.queue.depth}
+ * (by endpoint and priority), {@code resume.admission.in.flight} and {@code resume.admission.rejected}
+ * (by endpoint and reason).
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AppProperties.Admission config;
+    private final MeterRegistry meterRegistry;
+    private final List<GuardedEndpoint> endpoints = new ArrayList<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private record GuardedEndpoint(String name, AppProperties.AdmissionEndpoint config, AdmissionGate gate) {
+    }
+
+    public AdmissionControlFilter(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.config = appProperties.getAdmission();
+        this.meterRegistry = meterRegistry;
+        for (Map.Entry<String, AppProperties.AdmissionEndpoint> entry : config.getEndpoints().entrySet()) {
+            String name = entry.getKey();
+            AppProperties.AdmissionEndpoint endpoint = entry.getValue();
+            if (endpoint.getPath() == null) {
+                throw new IllegalArgumentException("app.admission.endpoints." + name + ".path is required");
+            }
+            priority(endpoint.getPriority());
+            AdmissionGate gate = new AdmissionGate(endpoint.getMaxConcurrent(), endpoint.getMaxQueue(),
+                    config.getBulkQueueShare(), endpoint.getExpectedMs());
+            endpoints.add(new GuardedEndpoint(name, endpoint, gate));
+
+            Gauge.builder("resume.admission.queue.depth", gate, AdmissionGate::getQueuedInteractive)
+                    .tag("endpoint", name).tag("priority", "interactive").register(meterRegistry);
+            Gauge.builder("resume.admission.queue.depth", gate, AdmissionGate::getQueuedBulk)
+                    .tag("endpoint", name).tag("priority", "bulk").register(meterRegistry);
+            Gauge.builder("resume.admission.in.flight", gate, AdmissionGate::getInFlight)
+                    .tag("endpoint", name).register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !config.isEnabled() || endpoints.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        GuardedEndpoint endpoint = match(request);
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AdmissionGate.Permit permit;
+        try {
+            AdmissionGate.Priority priority = priority(headerOr(request, config.getPriorityHeader(),
+                    endpoint.config().getPriority()));
+            long timeoutMs = timeoutMs(headerOr(request, config.getTimeoutHeader(),
+                    Long.toString(endpoint.config().getTimeoutMs())));
+            permit = endpoint.gate().acquire(priority, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+        } catch (IllegalArgumentException e) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage(), null);
+            return;
+        } catch (AdmissionGate.RejectedException e) {
+            Counter.builder("resume.admission.rejected")
+                    .tag("endpoint", endpoint.name())
+                    .tag("reason", e.getReason())
+                    .register(meterRegistry)
+                    .increment();
+            log.debug("Rejected {} request ({}): {}", endpoint.name(), e.getReason(), e.getMessage());
+            writeError(response, e.getStatus(), e.getMessage(), e.getRetryAfterSeconds());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server is shutting down", null);
+            return;
+        }
+
+        try (permit) {
+            chain.doFilter(request, response);
+            if (response.getStatus() >= 400 && response.getStatus() < 500) {
+                // Client errors (unknown resume, invalid input) return before any model call
+                permit.discardTiming();
+            }
+        }
+    }
+
+    private GuardedEndpoint match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (GuardedEndpoint endpoint : endpoints) {
+            if (endpoint.config().getMethod().equalsIgnoreCase(request.getMethod())
+                    && pathMatcher.match(endpoint.config().getPath(), path)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    private static String headerOr(HttpServletRequest request, String header, String defaultValue) {
+        String value = header != null ? request.getHeader(header) : null;
+        return value != null && !value.isBlank() ? value.trim() : defaultValue;
+    }
+
+    private long timeoutMs(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(config.getTimeoutHeader() + " must be a number of milliseconds");
+        }
+    }
+
+    private static AdmissionGate.Priority priority(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "interactive" -> AdmissionGate.Priority.INTERACTIVE;
+            case "bulk" -> AdmissionGate.Priority.BULK;
+            default -> throw new IllegalArgumentException("Unknown priority '" + value + "'. Use interactive or bulk");
+        };
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message, Long retryAfterSeconds)
+            throws IOException {
+        response.setStatus(status);
+        if (retryAfterSeconds != null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", message));
+    }
+}
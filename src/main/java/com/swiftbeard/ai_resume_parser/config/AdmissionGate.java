@@ -0,0 +1,250 @@
+package com.swiftbeard.ai_resume_parser.config;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit with a bounded, two-class wait queue for one endpoint. At most {@code maxConcurrent}
+ * requests run; up to {@code maxQueue} more wait, of which bulk requests may take at most
+ * {@code bulkQueueShare}. A finished request hands its slot to the oldest interactive waiter, or the oldest
+ * bulk waiter if there is none.
+ * <p>
+ * Shedding is deadline-aware. The gate keeps a moving average of how long admitted requests take. A request
+ * that has to queue is rejected up front if its expected queue wait plus that average would pass its
+ * deadline. A waiting request gives up once starting would leave less than the average before its deadline.
+ * Either way the model work is never started for a client that will have timed out. A free slot is always
+ * taken, whatever the estimate, and the estimate drifts back to {@code expectedMs} while no requests
+ * complete, so a slow spell cannot lock an endpoint out.
+ */
+public class AdmissionGate {
+
+    public enum Priority {
+        INTERACTIVE, BULK
+    }
+
+    /**
+     * A request that was not admitted: {@code 429} when the queue is full, {@code 503} when it could not
+     * finish before its deadline. {@code retryAfterSeconds} is the estimated time for the queue to drain.
+     */
+    public static class RejectedException extends RuntimeException {
+        private final int status;
+        private final String reason;
+        private final long retryAfterSeconds;
+
+        RejectedException(int status, String reason, String message, long retryAfterSeconds) {
+            super(message);
+            this.status = status;
+            this.reason = reason;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+
+    private static final double EWMA_WEIGHT = 0.2;
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final int maxBulkQueue;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Waiter> interactive = new ArrayDeque<>();
+    private final Deque<Waiter> bulk = new ArrayDeque<>();
+
+    private final double expectedNanos;
+    private int running;
+    private double averageServiceNanos;
+    private long lastSampleNanos = System.nanoTime();
+    private volatile int queuedInteractive;
+    private volatile int queuedBulk;
+    private volatile int inFlight;
+
+    public AdmissionGate(int maxConcurrent, int maxQueue, double bulkQueueShare, long expectedMs) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxBulkQueue = (int) Math.floor(this.maxQueue * Math.max(0, Math.min(1, bulkQueueShare)));
+        this.expectedNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, expectedMs));
+        this.averageServiceNanos = expectedNanos;
+    }
+
+    /**
+     * Waits for a slot.
+     * @param deadlineNanos {@link System#nanoTime()} by which the response is needed
+     * @return the slot, to be closed when the request is done
+     * @throws RejectedException if the request is not admitted
+     */
+    public Permit acquire(Priority priority, long deadlineNanos) throws InterruptedException {
+        Waiter waiter;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            long service = (long) serviceNanos(now);
+            int queued = interactive.size() + bulk.size();
+            int ahead = priority == Priority.INTERACTIVE ? interactive.size() : queued;
+            boolean free = running < maxConcurrent && queued == 0;
+
+            if (!free && (queued >= maxQueue || priority == Priority.BULK && bulk.size() >= maxBulkQueue)) {
+                throw rejected(429, "queue_full", "Too many requests in progress, try again later", queued);
+            }
+            if (free) {
+                // Admitted whatever the estimate: only admitted requests can bring it back down
+                running++;
+                inFlight = running;
+                return new Permit(now);
+            }
+            long expectedWait = (ahead / maxConcurrent + 1) * service;
+            if (now + expectedWait + service > deadlineNanos) {
+                throw rejected(503, "deadline", "Request cannot be completed before its deadline", queued);
+            }
+
+            waiter = new Waiter(lock.newCondition());
+            (priority == Priority.INTERACTIVE ? interactive : bulk).addLast(waiter);
+            updateQueueDepth();
+
+            // Starting later than this would finish after the deadline
+            long latestStart = deadlineNanos - service;
+            try {
+                while (!waiter.granted) {
+                    long remaining = latestStart - System.nanoTime();
+                    if (remaining <= 0) {
+                        remove(waiter);
+                        throw rejected(503, "timeout", "Request timed out waiting for capacity",
+                                interactive.size() + bulk.size());
+                    }
+                    waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    handOff();
+                } else {
+                    remove(waiter);
+                }
+                throw e;
+            }
+            return new Permit(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueuedInteractive() {
+        return queuedInteractive;
+    }
+
+    public int getQueuedBulk() {
+        return queuedBulk;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    private void release(long startNanos, boolean sample) {
+        lock.lock();
+        try {
+            if (sample) {
+                long now = System.nanoTime();
+                double current = serviceNanos(now);
+                averageServiceNanos = current + EWMA_WEIGHT * ((now - startNanos) - current);
+                lastSampleNanos = now;
+            }
+            handOff();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void handOff() {
+        lock.lock();
+        try {
+            Waiter next = interactive.pollFirst();
+            if (next == null) {
+                next = bulk.pollFirst();
+            }
+            if (next != null) {
+                // The slot passes straight to the next waiter, so running stays the same
+                next.granted = true;
+                next.condition.signal();
+                updateQueueDepth();
+            } else {
+                running--;
+                inFlight = running;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The moving average, decayed towards the configured expectation by the time since the last sample.
+     */
+    private double serviceNanos(long now) {
+        double idle = Math.max(0, now - lastSampleNanos);
+        return expectedNanos + (averageServiceNanos - expectedNanos) * Math.exp(-idle / DECAY_NANOS);
+    }
+
+    private void remove(Waiter waiter) {
+        if (!interactive.remove(waiter)) {
+            bulk.remove(waiter);
+        }
+        updateQueueDepth();
+    }
+
+    private void updateQueueDepth() {
+        queuedInteractive = interactive.size();
+        queuedBulk = bulk.size();
+    }
+
+    private RejectedException rejected(int status, String reason, String message, int queued) {
+        double drainNanos = (queued / (double) maxConcurrent + 1) * serviceNanos(System.nanoTime());
+        long retryAfter = Math.max(1, (long) Math.ceil(drainNanos / TimeUnit.SECONDS.toNanos(1)));
+        return new RejectedException(status, reason, message, retryAfter);
+    }
+
+    private static final class Waiter {
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+
+    public final class Permit implements AutoCloseable {
+        private final long startNanos;
+        private boolean sample = true;
+        private boolean closed;
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Leaves this request out of the service time estimate, e.g. because it was rejected without model work.
+         */
+        public void discardTiming() {
+            sample = false;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(startNanos, sample);
+            }
+        }
+    }
+}
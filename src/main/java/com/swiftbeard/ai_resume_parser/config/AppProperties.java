@@ -4,6 +4,11 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "app")
@@ -11,6 +16,20 @@ public class AppProperties {
 
     private Resume resume = new Resume();
     private Ats ats = new Ats();
+    private Match match = new Match();
+    private Report report = new Report();
+    private Execution execution = new Execution();
+    private Routing routing = new Routing();
+    private Indexing indexing = new Indexing();
+    private Vector vector = new Vector();
+    private Pgvector pgvector = new Pgvector();
+    private Repository repository = new Repository();
+    private Dedup dedup = new Dedup();
+    private Parsing parsing = new Parsing();
+    private Listing listing = new Listing();
+    private Transfer transfer = new Transfer();
+    private Ai ai = new Ai();
+    private Admission admission = new Admission();
 
     @Data
     public static class Resume {
@@ -21,6 +40,9 @@ public class AppProperties {
     @Data
     public static class Ats {
         private Keywords keywords = new Keywords();
+        private boolean fusedAnalysis = false;
+        private String mode = "llm"; // llm, fast or preview
+        private int resultCacheSize = 10000; // Latest ATS results kept for GET /{resumeId}/ats
     }
 
     @Data
@@ -28,4 +50,184 @@ public class AppProperties {
         private double requiredDensity = 0.02;
         private int maxSuggestions = 10;
     }
+
+    @Data
+    public static class Match {
+        private Batch batch = new Batch();
+    }
+
+    @Data
+    public static class Batch {
+        private int tokenBudget = 6000;
+        private int maxCandidates = 25;
+        private int charsPerToken = 4;
+    }
+
+    @Data
+    public static class Report {
+        private long deadlineMs = 30000;
+    }
+
+    @Data
+    public static class Execution {
+        private String mode = "platform"; // platform or virtual (Java 21+; falls back to platform threads otherwise)
+        private int analysisPoolSize = 16; // Platform mode only; virtual mode starts a thread per task
+        private int sectionPoolSize = 16; // Platform mode only; section parse calls, kept off the analysis pool
+        private long connectTimeoutMs = 10000; // Model API connections in virtual mode
+    }
+
+    @Data
+    public static class Routing {
+        private boolean enabled = false;
+        private Map<String, OperationRouting> operations = new HashMap<>();
+    }
+
+    @Data
+    public static class OperationRouting {
+        private double minConfidence = 0.75;
+        private List<Tier> tiers = new ArrayList<>();
+    }
+
+    @Data
+    public static class Tier {
+        private String name;
+        private String model;
+        private Double temperature;
+    }
+
+    @Data
+    public static class Indexing {
+        private boolean writeBehind = true;
+        private String queuePath = "./data/index-queue";
+        private int workers = 2;
+        private int maxAttempts = 5;
+        private long retryBackoffMs = 1000;
+        private long waitTimeoutMs = 30000;
+        private long shutdownTimeoutMs = 10000;
+    }
+
+    @Data
+    public static class Vector {
+        private Chunking chunking = new Chunking();
+        private Filtering filtering = new Filtering();
+    }
+
+    @Data
+    public static class Chunking {
+        private boolean enabled = false;
+        private String aggregation = "max"; // max or sum of chunk similarities per resume
+        private int overfetchFactor = 4;
+        private int maxOverfetchFactor = 32;
+        private int maxChunkChars = 4000;
+    }
+
+    @Data
+    public static class Filtering {
+        // Used only when the vector store cannot filter natively and results are filtered after the search
+        private int overfetchFactor = 8;
+        private int maxOverfetchFactor = 64;
+    }
+
+    @Data
+    public static class Pgvector {
+        private String table = "resume_vectors";
+        private int dimensions = 1536; // text-embedding-3-small
+        private String distance = "cosine"; // cosine, l2 or inner-product
+        private String indexType = "hnsw"; // hnsw, ivfflat or none
+        private Hnsw hnsw = new Hnsw();
+        private Ivfflat ivfflat = new Ivfflat();
+        private String ingestion = "copy"; // copy or batch
+        private int copyThreshold = 50; // Smaller writes use a JDBC batch; COPY has a fixed setup cost
+        private int batchSize = 500;
+        private boolean initializeSchema = true;
+    }
+
+    @Data
+    public static class Hnsw {
+        private int m = 16;
+        private int efConstruction = 64;
+        private int efSearch = 40;
+    }
+
+    @Data
+    public static class Ivfflat {
+        private int lists = 100;
+        private int probes = 10;
+    }
+
+    @Data
+    public static class Repository {
+        private String type = "memory"; // memory or jdbc
+        private RawText rawText = new RawText();
+    }
+
+    @Data
+    public static class RawText {
+        private String storage = "compressed"; // compressed (off-heap segments) or heap; memory repository only
+        private String path = "./data/raw-text";
+        private int segmentMb = 64;
+        private int cacheSize = 256; // Decompressed texts kept on the heap
+    }
+
+    @Data
+    public static class Dedup {
+        private String policy = "off"; // off, collapse, reuse or reparse-changed
+        private double minSimilarity = 0.8; // Estimated Jaccard similarity of word shingles
+        private double maxChangedFraction = 0.3; // reparse-changed parses in full above this share of changed lines
+    }
+
+    @Data
+    public static class Parsing {
+        private String mode = "full"; // full or sections
+        private int sectionCacheSize = 10000;
+    }
+
+    @Data
+    public static class Listing {
+        private int defaultLimit = 50;
+        private int maxLimit = 500;
+        private int streamBatchSize = 200; // Resumes fetched per query when streaming NDJSON
+    }
+
+    @Data
+    public static class Transfer {
+        private int batchSize = 100; // Resumes per export page and per import write
+        private String checkpointPath = "./data/imports";
+    }
+
+    @Data
+    public static class Ai {
+        private String mode = "live"; // live, record (call the models and save every response) or replay (saved responses only)
+        private String recordingsPath = "./data/recordings";
+        private long seed = 42; // Seed for replay latencies
+        private Latency chatLatency = new Latency();
+        private Latency embeddingLatency = new Latency();
+    }
+
+    @Data
+    public static class Admission {
+        private boolean enabled = true;
+        private String priorityHeader = "X-Request-Priority"; // interactive or bulk
+        private String timeoutHeader = "X-Request-Timeout-Ms"; // How long the client will wait
+        private double bulkQueueShare = 0.5; // Share of each queue that bulk requests may take
+        private Map<String, AdmissionEndpoint> endpoints = new HashMap<>();
+    }
+
+    @Data
+    public static class AdmissionEndpoint {
+        private String method = "POST";
+        private String path; // Ant-style, e.g. /api/resumes/*/match
+        private int maxConcurrent = 8;
+        private int maxQueue = 32;
+        private long timeoutMs = 30000; // Deadline when the client sends no timeout header
+        private long expectedMs = 5000; // Initial estimate of the request time, refined as requests complete
+        private String priority = "interactive"; // Default priority class
+    }
+
+    @Data
+    public static class Latency {
+        private String distribution = "recorded"; // none, recorded (as measured while recording), fixed (median) or lognormal
+        private long medianMs = 800;
+        private long p99Ms = 4000;
+    }
 }
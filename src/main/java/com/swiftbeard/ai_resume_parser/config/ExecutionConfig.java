@@ -0,0 +1,93 @@
+package com.swiftbeard.ai_resume_parser.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads for request handling, the analysis fan-out and outgoing model calls. With
+ * {@code app.execution.mode: virtual} on Java 21 or later, Tomcat and the analysis executor start a virtual
+ * thread per task, so requests blocked on the model no longer hold one of a fixed number of platform
+ * threads, and the OpenAI client uses the JDK {@link HttpClient}, which blocks without pinning a carrier
+ * thread (unlike the {@code HttpURLConnection} client used by default). On older runtimes the mode falls
+ * back to platform threads with a warning.
+ */
+@Slf4j
+@Configuration
+public class ExecutionConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService analysisExecutor(AppProperties appProperties) {
+        return executor(appProperties, "analysis-", appProperties.getExecution().getAnalysisPoolSize());
+    }
+
+    /**
+     * Runs the per-section calls of section parsing. Parsing itself can be an analysis stage (a report's
+     * parse stage), so its section calls must not queue on the fixed analysis pool behind the stages that
+     * wait for them.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService sectionExecutor(AppProperties appProperties) {
+        return executor(appProperties, "section-parse-", appProperties.getExecution().getSectionPoolSize());
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler(AppProperties appProperties) {
+        Optional<ExecutorService> executor = virtual(appProperties)
+                ? VirtualThreads.newThreadPerTaskExecutor("tomcat-handler-")
+                : Optional.empty();
+        return protocolHandler -> executor.ifPresent(protocolHandler::setExecutor);
+    }
+
+    @Bean
+    public RestClientCustomizer virtualThreadRestClient(AppProperties appProperties) {
+        if (!virtual(appProperties)) {
+            return builder -> {
+            };
+        }
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(appProperties.getExecution().getConnectTimeoutMs()))
+                .build();
+        return builder -> builder.requestFactory(new JdkClientHttpRequestFactory(httpClient));
+    }
+
+    private static ExecutorService executor(AppProperties appProperties, String namePrefix, int poolSize) {
+        if (virtual(appProperties)) {
+            return VirtualThreads.newThreadPerTaskExecutor(namePrefix).orElseThrow();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(poolSize, threadFactory);
+    }
+
+    private static boolean virtual(AppProperties appProperties) {
+        String mode = appProperties.getExecution().getMode();
+        if ("platform".equals(mode)) {
+            return false;
+        }
+        if (!"virtual".equals(mode)) {
+            throw new IllegalArgumentException("Unknown app.execution.mode '" + mode + "'. Use platform or virtual");
+        }
+        if (!VirtualThreads.available()) {
+            log.warn("app.execution.mode is virtual but Java {} has no virtual threads; using platform threads",
+                    Runtime.version().feature());
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,35 @@
+package com.swiftbeard.ai_resume_parser.config;
+
+import com.swiftbeard.ai_resume_parser.service.IndexingQueueService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Micrometer gauges for the background work behind the API: the indexing backlog and the analysis pool.
+ * Stage timers and token counters are recorded by {@link com.swiftbeard.ai_resume_parser.service.StageMetrics}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder indexingQueueMetrics(IndexingQueueService indexingQueueService) {
+        return registry -> {
+            Gauge.builder("resume.indexing.pending", indexingQueueService, IndexingQueueService::pendingCount)
+                    .register(registry);
+            Gauge.builder("resume.indexing.lag", indexingQueueService, IndexingQueueService::indexLagMs)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder analysisExecutorMetrics(ExecutorService analysisExecutor) {
+        return registry -> new ExecutorServiceMetrics(analysisExecutor, "analysis", Tags.empty()).bindTo(registry);
+    }
+}
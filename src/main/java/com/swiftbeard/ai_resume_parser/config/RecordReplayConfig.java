@@ -0,0 +1,55 @@
+package com.swiftbeard.ai_resume_parser.config;
+
+import com.swiftbeard.ai_resume_parser.replay.ModelRecordings;
+import com.swiftbeard.ai_resume_parser.replay.RecordReplayChatModel;
+import com.swiftbeard.ai_resume_parser.replay.RecordReplayEmbeddingModel;
+import com.swiftbeard.ai_resume_parser.replay.ReplayLatency;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.nio.file.Path;
+
+/**
+ * Wraps the {@link ChatModel} and {@link EmbeddingModel} beans for {@code app.ai.mode: record} or
+ * {@code replay} (see {@link ModelRecordings}). Replay needs no API key and makes no network calls.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnExpression("'${app.ai.mode:live}' != 'live'")
+public class RecordReplayConfig {
+
+    @Bean
+    public static BeanPostProcessor recordReplayModels(Environment environment) {
+        // Post-processors are created before @ConfigurationProperties beans, so bind the section directly
+        AppProperties.Ai ai = Binder.get(environment).bind("app.ai", AppProperties.Ai.class)
+                .orElseGet(AppProperties.Ai::new);
+        if (!"record".equals(ai.getMode()) && !"replay".equals(ai.getMode())) {
+            throw new IllegalArgumentException("Unknown app.ai.mode '" + ai.getMode() + "'. Use live, record or replay");
+        }
+        boolean replay = "replay".equals(ai.getMode());
+        ModelRecordings recordings = new ModelRecordings(Path.of(ai.getRecordingsPath()));
+        ReplayLatency chatLatency = new ReplayLatency(ai.getChatLatency(), ai.getSeed());
+        ReplayLatency embeddingLatency = new ReplayLatency(ai.getEmbeddingLatency(), ai.getSeed());
+        log.info("AI models in {} mode, recordings in {}", ai.getMode(), recordings.getDirectory());
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ChatModel chatModel && !(bean instanceof RecordReplayChatModel)) {
+                    return new RecordReplayChatModel(chatModel, recordings, replay, chatLatency);
+                }
+                if (bean instanceof EmbeddingModel embeddingModel && !(bean instanceof RecordReplayEmbeddingModel)) {
+                    return new RecordReplayEmbeddingModel(embeddingModel, recordings, replay, embeddingLatency);
+                }
+                return bean;
+            }
+        };
+    }
+}
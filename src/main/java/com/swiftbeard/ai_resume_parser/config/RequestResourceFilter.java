@@ -0,0 +1,63 @@
+package com.swiftbeard.ai_resume_parser.config;
+
+import com.swiftbeard.ai_resume_parser.service.StageMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the CPU time and heap allocated by the request thread for every API request, as
+ * {@code http.server.requests.cpu} and {@code http.server.requests.allocated}, tagged like Spring's own
+ * {@code http.server.requests} timer. Work handed to the analysis pool or the indexing workers is not
+ * included; it shows up in the {@code resume.stage.*} meters instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestResourceFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long startCpuNanos = StageMetrics.threadCpuNanos();
+        long startAllocatedBytes = StageMetrics.threadAllocatedBytes();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            if (startCpuNanos >= 0) {
+                Timer.builder("http.server.requests.cpu")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .record(StageMetrics.threadCpuNanos() - startCpuNanos, TimeUnit.NANOSECONDS);
+            }
+            if (startAllocatedBytes >= 0) {
+                DistributionSummary.builder("http.server.requests.allocated")
+                        .baseUnit("bytes")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .record(StageMetrics.threadAllocatedBytes() - startAllocatedBytes);
+            }
+        }
+    }
+}
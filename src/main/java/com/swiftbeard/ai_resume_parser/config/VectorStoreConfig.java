@@ -1,18 +1,66 @@
 package com.swiftbeard.ai_resume_parser.config;
 
+import com.swiftbeard.ai_resume_parser.repository.CompressedTextStore;
+import com.swiftbeard.ai_resume_parser.repository.InMemoryResumeRepository;
+import com.swiftbeard.ai_resume_parser.repository.JdbcResumeRepository;
+import com.swiftbeard.ai_resume_parser.repository.ResumeRepository;
+import com.swiftbeard.ai_resume_parser.vectorstore.PgVectorResumeStore;
+import com.swiftbeard.ai_resume_parser.vectorstore.ShardedVectorStore;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.vectorstore.SimpleVectorStore;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
 
 @Configuration
 public class VectorStoreConfig {
 
     @Bean
-    public VectorStore vectorStore(EmbeddingModel embeddingModel) {
+    public VectorStore vectorStore(EmbeddingModel embeddingModel,
+                                   AppProperties appProperties,
+                                   ObjectProvider<JdbcTemplate> jdbcTemplate,
+                                   @Value("${vector.store.type:simple}") String type,
+                                   @Value("${vector.store.shards:0}") int shards,
+                                   @Value("${vector.store.partition-key:}") String partitionKey,
+                                   @Value("${vector.store.filter-fields:skills,certifications,location,yearsOfExperience,type,section}")
+                                   List<String> filterFields) {
+        if ("sharded".equalsIgnoreCase(type)) {
+            // Partitioned in-memory store searched in parallel, one shard per core by default
+            int shardCount = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+            return new ShardedVectorStore(embeddingModel, shardCount, partitionKey, new HashSet<>(filterFields));
+        }
+
+        if ("pgvector".equalsIgnoreCase(type)) {
+            // Shared across API nodes; needs spring.datasource (see application-pgvector.yaml)
+            return new PgVectorResumeStore(jdbcTemplate.getObject(), embeddingModel, appProperties.getPgvector());
+        }
+
         // Using SimpleVectorStore (in-memory) for simplicity
-        // For production, consider using PgVectorStore or other persistent options
         return new SimpleVectorStore(embeddingModel);
     }
+
+    @Bean
+    public ResumeRepository resumeRepository(AppProperties appProperties, ObjectProvider<JdbcTemplate> jdbcTemplate,
+                                             ObjectProvider<CompressedTextStore> rawTextStore) {
+        if ("jdbc".equalsIgnoreCase(appProperties.getRepository().getType())) {
+            return new JdbcResumeRepository(jdbcTemplate.getObject(), appProperties.getPgvector().isInitializeSchema());
+        }
+        return new InMemoryResumeRepository(rawTextStore.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnExpression("'${app.repository.type:memory}' == 'memory' && '${app.repository.raw-text.storage:compressed}' == 'compressed'")
+    public CompressedTextStore rawTextStore(AppProperties appProperties) {
+        // PostgreSQL already compresses large JSONB values, so only the in-memory repository uses this
+        AppProperties.RawText rawText = appProperties.getRepository().getRawText();
+        return new CompressedTextStore(Path.of(rawText.getPath()), rawText.getSegmentMb() << 20, rawText.getCacheSize());
+    }
 }
@@ -0,0 +1,59 @@
+package com.swiftbeard.ai_resume_parser.controller;
+
+import com.swiftbeard.ai_resume_parser.model.JobDescription;
+import com.swiftbeard.ai_resume_parser.service.JobRegistryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+public class JobController {
+
+    private final JobRegistryService jobRegistryService;
+
+    @PostMapping
+    public ResponseEntity<?> registerJob(@RequestBody JobDescription jobDescription) {
+        try {
+            log.info("Registering job: {}", jobDescription.getTitle());
+
+            JobRegistryService.RegisteredJob job = jobRegistryService.register(jobDescription);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(job.description());
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error registering job: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to register job: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+        return jobRegistryService.findById(jobId)
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(job.description()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping
+    public ResponseEntity<List<JobDescription>> getAllJobs() {
+        return ResponseEntity.ok(jobRegistryService.findAll());
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<Void> deleteJob(@PathVariable String jobId) {
+        return jobRegistryService.remove(jobId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
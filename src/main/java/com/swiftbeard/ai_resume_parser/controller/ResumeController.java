@@ -1,21 +1,32 @@
 package com.swiftbeard.ai_resume_parser.controller;
 
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
 import com.swiftbeard.ai_resume_parser.dto.ATSOptimizationResult;
+import com.swiftbeard.ai_resume_parser.dto.BatchMatchRequest;
 import com.swiftbeard.ai_resume_parser.dto.MatchResult;
+import com.swiftbeard.ai_resume_parser.dto.ResumeReport;
 import com.swiftbeard.ai_resume_parser.model.JobDescription;
 import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import com.swiftbeard.ai_resume_parser.repository.ResumeRepository;
 import com.swiftbeard.ai_resume_parser.service.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @RestController
@@ -23,16 +34,29 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ResumeController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String INDEXING_STATUS_HEADER = "X-Indexing-Status";
+    private static final String INDEX_PENDING = "pending";
+    private static final String INDEX_FAILED = "failed";
+
     private final DocumentParsingService documentParsingService;
-    private final ResumeParsingService resumeParsingService;
     private final VectorStoreService vectorStoreService;
     private final ResumeAnalysisService resumeAnalysisService;
     private final ATSOptimizationService atsOptimizationService;
-
-    private final Map<String, ParsedResume> resumeStore = new HashMap<>();
+    private final ResumeReportService resumeReportService;
+    private final IndexingQueueService indexingQueueService;
+    private final AppProperties appProperties;
+    private final ResumeRepository resumeRepository;
+    private final ResumeDeduplicationService resumeDeduplicationService;
+    private final JobRegistryService jobRegistryService;
+    private final ResumeListingService resumeListingService;
+    private final ResumeTransferService resumeTransferService;
 
     @PostMapping("/upload")
-    public ResponseEntity<?> uploadAndParseResume(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> uploadAndParseResume(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "false") boolean waitForIndex,
+            @RequestParam(value = "fused", required = false) Boolean fused) {
         try {
             log.info("Received resume upload: {}", file.getOriginalFilename());
 
@@ -46,14 +70,49 @@ public class ResumeController {
             String extractedText = documentParsingService.extractTextFromFile(file);
             log.debug("Extracted {} characters from document", extractedText.length());
 
-            // Parse resume using AI
-            ParsedResume parsedResume = resumeParsingService.parseResume(extractedText, file.getOriginalFilename());
-
-            // Store in memory (in production, use a database)
-            resumeStore.put(parsedResume.getId(), parsedResume);
-
-            // Store in vector database
-            vectorStoreService.storeResume(parsedResume);
+            // Parse resume using AI, unless it is a near-duplicate the dedup policy can reuse. A fused parse
+            // also runs the ATS analysis, which /optimize-ats then returns without another model call.
+            ResumeDeduplicationService.ParseOutcome outcome;
+            if (fused != null ? fused : appProperties.getAts().isFusedAnalysis()) {
+                ParsedResume resume = atsOptimizationService
+                        .parseAndOptimize(extractedText, file.getOriginalFilename()).getResume();
+                resumeDeduplicationService.register(resume);
+                outcome = new ResumeDeduplicationService.ParseOutcome(resume, null);
+            } else {
+                outcome = resumeDeduplicationService.parse(extractedText, file.getOriginalFilename());
+            }
+            ParsedResume parsedResume = outcome.resume();
+
+            resumeRepository.save(parsedResume);
+
+            // Store in vector database, in the background unless the caller needs immediate searchability.
+            // The resume is saved by now, so an indexing failure returns it rather than an error that a
+            // client would retry into a duplicate upload.
+            try {
+                if (outcome.reusedFrom() != null) {
+                    // Usually no embedding call, so this is done inline even with write-behind indexing; the
+                    // queue then drops the previous version if it is still waiting to be indexed
+                    if (appProperties.getIndexing().isWriteBehind()) {
+                        indexingQueueService.storeReusedResume(parsedResume, outcome.reusedFrom());
+                    } else {
+                        vectorStoreService.storeReusedResume(parsedResume, outcome.reusedFrom());
+                    }
+                    log.info("Resume {} indexed with the embeddings of its previous version {}",
+                            parsedResume.getId(), outcome.reusedFrom().getId());
+                } else if (!appProperties.getIndexing().isWriteBehind()) {
+                    vectorStoreService.storeResume(parsedResume);
+                } else if (waitForIndex) {
+                    indexingQueueService.enqueueAndWait(parsedResume);
+                } else {
+                    indexingQueueService.enqueue(parsedResume);
+                }
+            } catch (TimeoutException e) {
+                log.warn("Resume {} parsed but not yet indexed after waiting", parsedResume.getId());
+                return indexingIncomplete(parsedResume, INDEX_PENDING);
+            } catch (Exception e) {
+                log.error("Resume {} parsed but indexing failed: {}", parsedResume.getId(), e.getMessage(), e);
+                return indexingIncomplete(parsedResume, INDEX_FAILED);
+            }
 
             log.info("Successfully parsed resume: {}", parsedResume.getId());
 
@@ -66,33 +125,128 @@ public class ResumeController {
         }
     }
 
+    @PostMapping("/report")
+    public ResponseEntity<?> generateFullReport(
+            @RequestPart("file") MultipartFile file,
+            @RequestPart(value = "jobDescription", required = false) JobDescription jobDescription,
+            @RequestParam(value = "fused", required = false) Boolean fused) {
+        try {
+            log.info("Received resume for full report: {}", file.getOriginalFilename());
+
+            if (!documentParsingService.isValidFileType(file.getOriginalFilename())) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Invalid file type. Supported: PDF, DOCX, DOC"));
+            }
+
+            String extractedText = documentParsingService.extractTextFromFile(file);
+            log.debug("Extracted {} characters from document", extractedText.length());
+
+            ResumeReport report = fused != null
+                    ? resumeReportService.generateReport(extractedText, file.getOriginalFilename(), jobDescription, fused)
+                    : resumeReportService.generateReport(extractedText, file.getOriginalFilename(), jobDescription);
+
+            if (report.getResume() == null) {
+                // Parsing did not finish before the deadline (or failed); the stages say which
+                String parseStatus = report.getStages().get(ResumeReportService.STAGE_PARSE).getStatus();
+                HttpStatus status = "TIMED_OUT".equals(parseStatus)
+                        ? HttpStatus.GATEWAY_TIMEOUT
+                        : HttpStatus.INTERNAL_SERVER_ERROR;
+                return ResponseEntity.status(status).body(report);
+            }
+            resumeRepository.save(report.getResume());
+
+            return ResponseEntity.ok(report);
+
+        } catch (Exception e) {
+            log.error("Error generating resume report: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to generate report: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/{resumeId}")
     public ResponseEntity<?> getResume(@PathVariable String resumeId) {
-        ParsedResume resume = resumeStore.get(resumeId);
-        if (resume == null) {
-            return ResponseEntity.notFound().build();
-        }
-        return ResponseEntity.ok(resume);
+        return resumeRepository.findById(resumeId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping
-    public ResponseEntity<List<ParsedResume>> getAllResumes() {
-        return ResponseEntity.ok(resumeStore.values().stream().toList());
+    public ResponseEntity<?> getAllResumes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        try {
+            return ResponseEntity.ok(resumeListingService.page(cursor, limit, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<?> streamAllResumes(@RequestParam(required = false) String fields) {
+        ResumeListingService.Projection projection;
+        try {
+            projection = resumeListingService.projection(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", e.getMessage()));
+        }
+        StreamingResponseBody body = out -> resumeListingService.stream(projection, out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportResumes(@RequestParam(defaultValue = "true") boolean embeddings) {
+        StreamingResponseBody body = out -> resumeTransferService.export(out, embeddings);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<?> importResumes(
+            InputStream body,
+            @RequestParam(required = false) String importId,
+            @RequestParam(defaultValue = ResumeTransferService.MODE_COPY) String mode) {
+        String id = importId != null ? importId : UUID.randomUUID().toString();
+        try {
+            return ResponseEntity.ok(resumeTransferService.importResumes(body, id, mode));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage(), "importId", id));
+        } catch (Exception e) {
+            log.error("Error importing resumes (import {}): {}", id, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Import failed: " + e.getMessage(), "importId", id));
+        }
     }
 
     @PostMapping("/{resumeId}/match")
     public ResponseEntity<?> matchWithJob(
             @PathVariable String resumeId,
-            @RequestBody JobDescription jobDescription) {
+            @RequestBody(required = false) JobDescription jobDescription,
+            @RequestParam(required = false) String jobId) {
         try {
-            ParsedResume resume = resumeStore.get(resumeId);
+            if (jobDescription == null && jobId == null) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "A job description body or a jobId is required"));
+            }
+
+            ParsedResume resume = resumeRepository.findById(resumeId, false).orElse(null);
             if (resume == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            log.info("Matching resume {} with job {}", resumeId, jobDescription.getTitle());
-
-            MatchResult matchResult = resumeAnalysisService.analyzeMatch(resume, jobDescription);
+            MatchResult matchResult;
+            if (jobId != null) {
+                JobRegistryService.RegisteredJob job = jobRegistryService.findById(jobId).orElse(null);
+                if (job == null) {
+                    return jobNotFound(jobId);
+                }
+                log.info("Matching resume {} with registered job {}", resumeId, jobId);
+                matchResult = resumeAnalysisService.analyzeMatch(resume, job);
+            } else {
+                log.info("Matching resume {} with job {}", resumeId, jobDescription.getTitle());
+                matchResult = resumeAnalysisService.analyzeMatch(resume, jobDescription);
+            }
 
             return ResponseEntity.ok(matchResult);
 
@@ -103,20 +257,103 @@ public class ResumeController {
         }
     }
 
+    @PostMapping("/batch-match")
+    public ResponseEntity<?> batchMatchWithJob(@RequestBody BatchMatchRequest request) {
+        try {
+            if ((request.getJobDescription() == null && request.getJobId() == null)
+                    || request.getResumeIds() == null || request.getResumeIds().isEmpty()) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "jobDescription or jobId, and a non-empty resumeIds list are required"));
+            }
+
+            JobRegistryService.RegisteredJob job = null;
+            if (request.getJobId() != null) {
+                job = jobRegistryService.findById(request.getJobId()).orElse(null);
+                if (job == null) {
+                    return jobNotFound(request.getJobId());
+                }
+            }
+
+            List<ParsedResume> resumes = new ArrayList<>();
+            List<String> missingIds = new ArrayList<>();
+            for (String resumeId : request.getResumeIds()) {
+                ParsedResume resume = resumeRepository.findById(resumeId, false).orElse(null);
+                if (resume == null) {
+                    missingIds.add(resumeId);
+                } else {
+                    resumes.add(resume);
+                }
+            }
+            if (!missingIds.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Resumes not found", "resumeIds", missingIds));
+            }
+
+            List<MatchResult> matchResults;
+            if (job != null) {
+                log.info("Batch matching {} resumes with registered job {}", resumes.size(), request.getJobId());
+                matchResults = resumeAnalysisService.analyzeMatches(resumes, job);
+            } else {
+                log.info("Batch matching {} resumes with job {}", resumes.size(), request.getJobDescription().getTitle());
+                matchResults = resumeAnalysisService.analyzeMatches(resumes, request.getJobDescription());
+            }
+
+            return ResponseEntity.ok(matchResults);
+
+        } catch (Exception e) {
+            log.error("Error batch matching resumes with job: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to analyze batch match: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{resumeId}/jobs")
+    public ResponseEntity<?> findJobsForResume(
+            @PathVariable String resumeId,
+            @RequestParam(defaultValue = "5") int topK) {
+        try {
+            ParsedResume resume = resumeRepository.findById(resumeId, false).orElse(null);
+            if (resume == null) {
+                return ResponseEntity.notFound().build();
+            }
+
+            log.info("Finding open jobs for resume {}", resumeId);
+
+            return ResponseEntity.ok(jobRegistryService.recommendJobs(resume, topK));
+
+        } catch (Exception e) {
+            log.error("Error finding jobs for resume: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to find jobs: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/{resumeId}/optimize-ats")
-    public ResponseEntity<?> optimizeForATS(@PathVariable String resumeId) {
+    public ResponseEntity<?> optimizeForATS(
+            @PathVariable String resumeId,
+            @RequestParam(required = false) String mode) {
         try {
-            ParsedResume resume = resumeStore.get(resumeId);
+            // The raw text is only read to compute statistics for resumes stored before they existed
+            ParsedResume resume = resumeRepository.findById(resumeId, false)
+                    .flatMap(found -> found.getTextStatistics() != null
+                            ? Optional.of(found)
+                            : resumeRepository.findById(resumeId, true))
+                    .orElse(null);
             if (resume == null) {
                 return ResponseEntity.notFound().build();
             }
 
             log.info("Optimizing resume {} for ATS", resumeId);
 
-            ATSOptimizationResult optimizationResult = atsOptimizationService.optimizeForATS(resume);
+            ATSOptimizationResult optimizationResult = mode != null
+                    ? atsOptimizationService.optimizeForATS(resume, mode)
+                    : atsOptimizationService.optimizeForATS(resume);
 
             return ResponseEntity.ok(optimizationResult);
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Error optimizing resume for ATS: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -124,14 +361,22 @@ public class ResumeController {
         }
     }
 
+    @GetMapping("/{resumeId}/ats")
+    public ResponseEntity<?> getLatestATSResult(@PathVariable String resumeId) {
+        return atsOptimizationService.latestResult(resumeId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/search")
     public ResponseEntity<?> searchSimilarResumes(
             @RequestParam String query,
-            @RequestParam(defaultValue = "5") int topK) {
+            @RequestParam(defaultValue = "5") int topK,
+            @RequestParam(required = false) String filter) {
         try {
             log.info("Searching for resumes similar to: {}", query);
 
-            List<Document> similarDocuments = vectorStoreService.searchSimilarResumes(query, topK);
+            List<Document> similarDocuments = vectorStoreService.searchSimilarResumes(query, topK, filter);
 
             List<Map<String, Object>> results = similarDocuments.stream()
                     .map(doc -> {
@@ -144,6 +389,9 @@ public class ResumeController {
 
             return ResponseEntity.ok(results);
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Error searching resumes: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -152,12 +400,27 @@ public class ResumeController {
     }
 
     @PostMapping("/find-candidates")
-    public ResponseEntity<?> findCandidatesForJob(@RequestBody JobDescription jobDescription) {
+    public ResponseEntity<?> findCandidatesForJob(
+            @RequestBody(required = false) JobDescription jobDescription,
+            @RequestParam(required = false) String jobId,
+            @RequestParam(required = false) String filter) {
         try {
-            log.info("Finding candidates for job: {}", jobDescription.getTitle());
-
-            String jobQuery = buildJobQuery(jobDescription);
-            List<Document> matchingResumes = vectorStoreService.findMatchingResumes(jobQuery, 10);
+            List<Document> matchingResumes;
+            if (jobId != null) {
+                JobRegistryService.RegisteredJob job = jobRegistryService.findById(jobId).orElse(null);
+                if (job == null) {
+                    return jobNotFound(jobId);
+                }
+                log.info("Finding candidates for registered job: {}", jobId);
+                matchingResumes = vectorStoreService.findMatchingResumes(job.embedding(), job.query(), 10, filter);
+            } else if (jobDescription != null) {
+                log.info("Finding candidates for job: {}", jobDescription.getTitle());
+                String jobQuery = jobRegistryService.buildJobQuery(jobDescription);
+                matchingResumes = vectorStoreService.findMatchingResumes(jobQuery, 10, filter);
+            } else {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "A job description body or a jobId is required"));
+            }
 
             List<Map<String, Object>> results = matchingResumes.stream()
                     .map(doc -> {
@@ -171,6 +434,9 @@ public class ResumeController {
 
             return ResponseEntity.ok(results);
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Error finding candidates: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -178,18 +444,18 @@ public class ResumeController {
         }
     }
 
-    private String buildJobQuery(JobDescription jobDescription) {
-        StringBuilder query = new StringBuilder();
-        query.append(jobDescription.getTitle()).append(" ");
-
-        if (jobDescription.getRequiredSkills() != null) {
-            query.append(String.join(" ", jobDescription.getRequiredSkills())).append(" ");
-        }
-
-        if (jobDescription.getDescription() != null) {
-            query.append(jobDescription.getDescription());
-        }
+    /**
+     * 202 with the saved resume when it is not searchable yet: {@code pending} while it is still queued,
+     * {@code failed} when indexing gave up (a write-behind entry is kept in the queue's failed directory).
+     */
+    private static ResponseEntity<?> indexingIncomplete(ParsedResume resume, String status) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(INDEXING_STATUS_HEADER, status)
+                .body(resume);
+    }
 
-        return query.toString();
+    private static ResponseEntity<?> jobNotFound(String jobId) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", "Job not found", "jobId", jobId));
     }
 }
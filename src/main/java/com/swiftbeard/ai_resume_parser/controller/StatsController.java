@@ -0,0 +1,60 @@
+package com.swiftbeard.ai_resume_parser.controller;
+
+import com.swiftbeard.ai_resume_parser.repository.CompressedTextStore;
+import com.swiftbeard.ai_resume_parser.service.IndexingQueueService;
+import com.swiftbeard.ai_resume_parser.service.ResumeDeduplicationService;
+import com.swiftbeard.ai_resume_parser.service.RoutingMetrics;
+import com.swiftbeard.ai_resume_parser.service.SectionedResumeParser;
+import com.swiftbeard.ai_resume_parser.service.StructuredOutputDecoder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final RoutingMetrics routingMetrics;
+    private final StructuredOutputDecoder structuredOutputDecoder;
+    private final IndexingQueueService indexingQueueService;
+    private final ResumeDeduplicationService resumeDeduplicationService;
+    private final SectionedResumeParser sectionedResumeParser;
+    private final ObjectProvider<CompressedTextStore> rawTextStore;
+
+    @GetMapping("/routing")
+    public ResponseEntity<Map<String, Map<String, Object>>> routingStats() {
+        return ResponseEntity.ok(routingMetrics.snapshot());
+    }
+
+    @GetMapping("/structured-output")
+    public ResponseEntity<Map<String, Map<String, Object>>> structuredOutputStats() {
+        return ResponseEntity.ok(structuredOutputDecoder.snapshot());
+    }
+
+    @GetMapping("/indexing")
+    public ResponseEntity<Map<String, Object>> indexingStats() {
+        return ResponseEntity.ok(indexingQueueService.stats());
+    }
+
+    @GetMapping("/dedup")
+    public ResponseEntity<Map<String, Object>> dedupStats() {
+        return ResponseEntity.ok(resumeDeduplicationService.stats());
+    }
+
+    @GetMapping("/parsing")
+    public ResponseEntity<Map<String, Map<String, Object>>> parsingStats() {
+        return ResponseEntity.ok(sectionedResumeParser.snapshot());
+    }
+
+    @GetMapping("/raw-text")
+    public ResponseEntity<Map<String, Object>> rawTextStats() {
+        CompressedTextStore store = rawTextStore.getIfAvailable();
+        return ResponseEntity.ok(store != null ? store.stats() : Map.of("storage", "heap"));
+    }
+}
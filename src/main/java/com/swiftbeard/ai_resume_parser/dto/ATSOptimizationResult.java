@@ -18,6 +18,7 @@ public class ATSOptimizationResult {
     private List<Suggestion> suggestions;
     private Map<String, Object> metrics;
     private String overallAssessment;
+    private String source; // llm, local, local-preview or local-fallback
 
     @Data
     @Builder
@@ -0,0 +1,19 @@
+package com.swiftbeard.ai_resume_parser.dto;
+
+import com.swiftbeard.ai_resume_parser.model.JobDescription;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchMatchRequest {
+    private List<String> resumeIds;
+    private JobDescription jobDescription;
+    private String jobId; // Registered job, used instead of jobDescription
+}
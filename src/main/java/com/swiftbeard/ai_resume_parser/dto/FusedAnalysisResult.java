@@ -0,0 +1,17 @@
+package com.swiftbeard.ai_resume_parser.dto;
+
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FusedAnalysisResult {
+    private ParsedResume resume;
+    private ATSOptimizationResult atsOptimization;
+    private boolean fused; // false when the single-call response was unusable and two calls were made
+}
@@ -0,0 +1,19 @@
+package com.swiftbeard.ai_resume_parser.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResult {
+    private String importId;
+    private String mode; // copy or re-embed
+    private long resumesImported;
+    private long resumesSkipped; // Already imported by an earlier, interrupted run with the same importId
+    private long documentsCopied; // Written with their exported embedding
+    private long documentsEmbedded; // Embedded during the import
+}
@@ -0,0 +1,23 @@
+package com.swiftbeard.ai_resume_parser.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobRecommendation {
+    private String jobId;
+    private String title;
+    private String company;
+    private String location;
+    private double similarity; // Cosine similarity of resume and job embeddings
+    private double requiredSkillCoverage; // 0.0 to 1.0
+    private List<String> matchedSkills;
+    private List<String> missingSkills;
+}
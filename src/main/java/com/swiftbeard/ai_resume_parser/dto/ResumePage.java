@@ -0,0 +1,18 @@
+package com.swiftbeard.ai_resume_parser.dto;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumePage {
+    private List<ObjectNode> items; // Resumes reduced to the requested fields
+    private String nextCursor; // Pass as ?cursor= for the next page; null on the last page
+}
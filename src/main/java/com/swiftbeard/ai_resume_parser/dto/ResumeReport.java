@@ -0,0 +1,32 @@
+package com.swiftbeard.ai_resume_parser.dto;
+
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumeReport {
+    private ParsedResume resume;
+    private ATSOptimizationResult atsOptimization;
+    private MatchResult match;
+    private boolean indexed;
+    private Map<String, StageResult> stages;
+    private long elapsedMs;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StageResult {
+        private String status; // COMPLETED, TIMED_OUT, FAILED, SKIPPED
+        private long durationMs;
+        private String error;
+    }
+}
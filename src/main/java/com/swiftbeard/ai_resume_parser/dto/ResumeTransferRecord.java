@@ -0,0 +1,33 @@
+package com.swiftbeard.ai_resume_parser.dto;
+
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One line of a bulk export: a stored resume and the vector documents indexed for it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumeTransferRecord {
+    private ParsedResume resume;
+    private List<VectorDocument> vectors;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VectorDocument {
+        private String id;
+        private String content;
+        private Map<String, Object> metadata;
+        private String embedding; // Base64 of little-endian float32 values; null if the store does not expose it
+    }
+}
@@ -0,0 +1,74 @@
+package com.swiftbeard.ai_resume_parser.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chat model health from the outcome of recent calls rather than a probe request, which would cost tokens
+ * on every health check. The model is reported down after {@value #MAX_CONSECUTIVE_FAILURES} failed calls
+ * in a row and up again after the next successful one; before the first call its status is unknown. Without
+ * further calls a down model turns unknown after {@link #RECOVERY_WINDOW}, so the status does not depend on
+ * traffic that may no longer arrive.
+ * <p>
+ * The indicator is not part of the readiness group: a provider outage would otherwise take every replica
+ * out of rotation, and with no traffic there would be no successful call to bring them back.
+ */
+@Component("model")
+public class ModelHealthIndicator implements HealthIndicator {
+
+    static final int MAX_CONSECUTIVE_FAILURES = 5;
+    static final Duration RECOVERY_WINDOW = Duration.ofMinutes(1);
+
+    private final Clock clock;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile Instant lastSuccess;
+    private volatile Instant lastFailure;
+    private volatile String lastError;
+
+    public ModelHealthIndicator() {
+        this(Clock.systemUTC());
+    }
+
+    ModelHealthIndicator(Clock clock) {
+        this.clock = clock;
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        lastSuccess = clock.instant();
+    }
+
+    public void recordFailure(Exception e) {
+        consecutiveFailures.incrementAndGet();
+        lastFailure = clock.instant();
+        lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    @Override
+    public Health health() {
+        int failures = consecutiveFailures.get();
+        Health.Builder builder;
+        Instant failedAt = lastFailure;
+        if (failures >= MAX_CONSECUTIVE_FAILURES && failedAt.plus(RECOVERY_WINDOW).isAfter(clock.instant())) {
+            builder = Health.down();
+        } else if (failures >= MAX_CONSECUTIVE_FAILURES || lastSuccess == null && failedAt == null) {
+            builder = Health.unknown();
+        } else {
+            builder = Health.up();
+        }
+        builder.withDetail("consecutiveFailures", failures);
+        if (lastSuccess != null) {
+            builder.withDetail("lastSuccess", lastSuccess.toString());
+        }
+        if (lastFailure != null) {
+            builder.withDetail("lastFailure", lastFailure.toString()).withDetail("lastError", lastError);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.swiftbeard.ai_resume_parser.health;
+
+import com.swiftbeard.ai_resume_parser.service.IndexingQueueService;
+import com.swiftbeard.ai_resume_parser.vectorstore.PgVectorResumeStore;
+import com.swiftbeard.ai_resume_parser.vectorstore.ShardedVectorStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Vector store health: pgvector must answer a count query; the in-memory stores are always reachable.
+ * The write-behind queue's backlog is reported alongside, since a growing backlog means new uploads are
+ * not yet searchable.
+ */
+@Component("vectorStore")
+@RequiredArgsConstructor
+public class VectorStoreHealthIndicator implements HealthIndicator {
+
+    private final VectorStore vectorStore;
+    private final IndexingQueueService indexingQueueService;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = Health.up().withDetail("type", vectorStore.getClass().getSimpleName());
+        try {
+            if (vectorStore instanceof PgVectorResumeStore pgvector) {
+                builder.withDetail("documents", pgvector.count());
+            } else if (vectorStore instanceof ShardedVectorStore sharded) {
+                builder.withDetail("documents", sharded.size());
+            }
+        } catch (RuntimeException e) {
+            builder = Health.down(e).withDetail("type", vectorStore.getClass().getSimpleName());
+        }
+        return builder
+                .withDetail("pendingIndexing", indexingQueueService.pendingCount())
+                .withDetail("indexLagMs", indexingQueueService.indexLagMs())
+                .build();
+    }
+}
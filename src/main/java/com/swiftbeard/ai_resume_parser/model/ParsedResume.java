@@ -10,7 +10,7 @@ import java.util.List;
 import java.util.Map;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ParsedResume {
@@ -20,16 +20,19 @@ public class ParsedResume {
     private String candidateName;
     private String email;
     private String phone;
+    private String location;
     private String summary;
+    private Double yearsOfExperience;
     private List<String> skills;
     private List<Experience> experiences;
     private List<Education> educations;
     private List<String> certifications;
     private Map<String, Object> metadata;
+    private TextStatistics textStatistics;
     private LocalDateTime parsedAt;
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Experience {
@@ -41,7 +44,7 @@ public class ParsedResume {
     }
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Education {
@@ -0,0 +1,28 @@
+package com.swiftbeard.ai_resume_parser.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Word-level statistics of a resume's raw text, computed once when the resume is parsed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TextStatistics {
+    private int totalWords;
+    private int uniqueWords; // Case-insensitive
+    private int actionVerbs; // Occurrences of achievement verbs such as "led" or "reduced"
+    private int bulletLines;
+    private int quantifiedBullets; // Bullet lines with a number other than a year
+    private int tableLines; // Lines with three or more column separators (| or tab)
+    private int unreadableCharacters; // Replacement characters and icon-font glyphs
+    private List<String> sections; // Standard sections found by their headings, in document order
+    private Map<String, Integer> skillOccurrences; // Parsed skill -> occurrences in the text
+}
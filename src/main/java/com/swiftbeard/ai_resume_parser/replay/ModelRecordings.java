@@ -0,0 +1,144 @@
+package com.swiftbeard.ai_resume_parser.replay;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Recorded model responses, keyed by a SHA-256 of the request. Chat responses are kept in
+ * {@code chat.ndjson} and embeddings in {@code embeddings.ndjson}, one JSON object per line, so recordings
+ * can be inspected, edited and committed as test data. Everything is loaded into memory on startup; new
+ * recordings are appended and flushed one line at a time. The first recording of a key wins.
+ */
+@Slf4j
+public class ModelRecordings {
+
+    static final String CHAT_FILE = "chat.ndjson";
+    static final String EMBEDDINGS_FILE = "embeddings.ndjson";
+
+    public record ChatRecording(String key, String model, String prompt, String response,
+                                Long promptTokens, Long completionTokens, long latencyMs) {
+    }
+
+    public record EmbeddingRecording(String key, String text, float[] embedding, long latencyMs) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final Path directory;
+    private final Map<String, ChatRecording> chat = new ConcurrentHashMap<>();
+    private final Map<String, EmbeddingRecording> embeddings = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public ModelRecordings(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            load(directory.resolve(CHAT_FILE), ChatRecording.class, recording -> chat.putIfAbsent(recording.key(), recording));
+            load(directory.resolve(EMBEDDINGS_FILE), EmbeddingRecording.class,
+                    recording -> embeddings.putIfAbsent(recording.key(), recording));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read model recordings from " + directory, e);
+        }
+        log.info("Loaded {} chat and {} embedding recordings from {}", chat.size(), embeddings.size(), directory);
+    }
+
+    public Optional<ChatRecording> chat(String key) {
+        return Optional.ofNullable(chat.get(key));
+    }
+
+    public Optional<EmbeddingRecording> embedding(String key) {
+        return Optional.ofNullable(embeddings.get(key));
+    }
+
+    public void record(ChatRecording recording) {
+        if (chat.putIfAbsent(recording.key(), recording) == null) {
+            append(CHAT_FILE, recording);
+        }
+    }
+
+    public void record(EmbeddingRecording recording) {
+        if (embeddings.putIfAbsent(recording.key(), recording) == null) {
+            append(EMBEDDINGS_FILE, recording);
+        }
+    }
+
+    /**
+     * Dimensions of the recorded embeddings, or 0 if there are none.
+     */
+    public int embeddingDimensions() {
+        return embeddings.values().stream().findAny().map(recording -> recording.embedding().length).orElse(0);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * SHA-256 (hex) of the parts, each terminated by a NUL so that ("ab", "c") and ("a", "bc") differ.
+     */
+    public static String key(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update((part != null ? part : "").getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void append(String file, Object recording) {
+        writeLock.lock();
+        try {
+            Files.writeString(directory.resolve(file), objectMapper.writeValueAsString(recording) + "\n",
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            // Losing a recording must not fail the live request it came from
+            log.warn("Could not save a recording to {}: {}", file, e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private <T> void load(Path file, Class<T> type, Consumer<T> consumer) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    consumer.accept(objectMapper.readValue(line, type));
+                } catch (JsonProcessingException e) {
+                    // Typically the last line of a recording session that was killed mid-write
+                    log.warn("Skipping unreadable line {} of {}: {}", number, file, e.getOriginalMessage());
+                }
+            }
+        }
+    }
+}
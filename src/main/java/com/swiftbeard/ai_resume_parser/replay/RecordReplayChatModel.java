@@ -0,0 +1,103 @@
+package com.swiftbeard.ai_resume_parser.replay;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+
+import java.util.List;
+
+/**
+ * {@link ChatModel} that records the responses of the real model, or replays recorded ones without calling
+ * it. A request is identified by its model and the type and text of each message, so the same prompt built
+ * from the same resume replays the same response; prompts containing generated ids (e.g. batch matching)
+ * only replay against the data they were recorded with. A prompt with no recording fails in replay mode,
+ * which the services handle like any other model error.
+ */
+public class RecordReplayChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final ModelRecordings recordings;
+    private final boolean replay;
+    private final ReplayLatency latency;
+
+    public RecordReplayChatModel(ChatModel delegate, ModelRecordings recordings, boolean replay,
+                                 ReplayLatency latency) {
+        this.delegate = delegate;
+        this.recordings = recordings;
+        this.replay = replay;
+        this.latency = latency;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        String model = model(prompt);
+        String text = text(prompt);
+        String key = ModelRecordings.key("chat", model, text);
+
+        if (replay) {
+            ModelRecordings.ChatRecording recording = recordings.chat(key).orElseThrow(() -> new IllegalStateException(
+                    "No recorded chat response for prompt " + key.substring(0, 12) + " in " + recordings.getDirectory()));
+            latency.await(recording.latencyMs());
+            return response(recording);
+        }
+
+        long start = System.nanoTime();
+        ChatResponse response = delegate.call(prompt);
+        long latencyMs = (System.nanoTime() - start) / 1_000_000;
+        Usage usage = response.getMetadata() != null ? response.getMetadata().getUsage() : null;
+        recordings.record(new ModelRecordings.ChatRecording(key, model, text,
+                response.getResult().getOutput().getContent(),
+                usage != null ? usage.getPromptTokens() : null,
+                usage != null ? usage.getGenerationTokens() : null,
+                latencyMs));
+        return response;
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate.getDefaultOptions();
+    }
+
+    private static ChatResponse response(ModelRecordings.ChatRecording recording) {
+        ChatResponseMetadata metadata = ChatResponseMetadata.builder()
+                .withModel(recording.model() != null ? recording.model() : "")
+                .withUsage(new RecordedUsage(recording.promptTokens(), recording.completionTokens()))
+                .build();
+        return new ChatResponse(List.of(new Generation(recording.response())), metadata);
+    }
+
+    private String model(Prompt prompt) {
+        if (prompt.getOptions() instanceof OpenAiChatOptions options && options.getModel() != null) {
+            return options.getModel();
+        }
+        return delegate.getDefaultOptions() instanceof OpenAiChatOptions defaults ? defaults.getModel() : null;
+    }
+
+    private static String text(Prompt prompt) {
+        StringBuilder text = new StringBuilder();
+        for (Message message : prompt.getInstructions()) {
+            text.append('[').append(message.getMessageType().getValue()).append("]\n")
+                    .append(message.getContent()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private record RecordedUsage(Long promptTokens, Long completionTokens) implements Usage {
+
+        @Override
+        public Long getPromptTokens() {
+            return promptTokens;
+        }
+
+        @Override
+        public Long getGenerationTokens() {
+            return completionTokens;
+        }
+    }
+}
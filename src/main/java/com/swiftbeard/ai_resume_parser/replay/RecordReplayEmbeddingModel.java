@@ -0,0 +1,72 @@
+package com.swiftbeard.ai_resume_parser.replay;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link EmbeddingModel} that records the embeddings of the real model, or replays recorded ones without
+ * calling it. Each input text is recorded separately, so batches may be split or combined differently on
+ * replay. A text with no recording fails in replay mode.
+ */
+public class RecordReplayEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final ModelRecordings recordings;
+    private final boolean replay;
+    private final ReplayLatency latency;
+
+    public RecordReplayEmbeddingModel(EmbeddingModel delegate, ModelRecordings recordings, boolean replay,
+                                      ReplayLatency latency) {
+        this.delegate = delegate;
+        this.recordings = recordings;
+        this.replay = replay;
+        this.latency = latency;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<String> texts = request.getInstructions();
+        if (replay) {
+            List<Embedding> embeddings = new ArrayList<>(texts.size());
+            long recordedMs = 0;
+            for (int i = 0; i < texts.size(); i++) {
+                String key = ModelRecordings.key("embedding", texts.get(i));
+                ModelRecordings.EmbeddingRecording recording = recordings.embedding(key).orElseThrow(
+                        () -> new IllegalStateException("No recorded embedding for text " + key.substring(0, 12)
+                                + " in " + recordings.getDirectory()));
+                embeddings.add(new Embedding(recording.embedding(), i));
+                recordedMs = Math.max(recordedMs, recording.latencyMs());
+            }
+            latency.await(recordedMs);
+            return new EmbeddingResponse(embeddings);
+        }
+
+        long start = System.nanoTime();
+        EmbeddingResponse response = delegate.call(request);
+        long latencyMs = (System.nanoTime() - start) / 1_000_000;
+        List<Embedding> results = response.getResults();
+        for (int i = 0; i < results.size() && i < texts.size(); i++) {
+            recordings.record(new ModelRecordings.EmbeddingRecording(ModelRecordings.key("embedding", texts.get(i)),
+                    texts.get(i), results.get(i).getOutput(), latencyMs));
+        }
+        return response;
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getContent());
+    }
+
+    @Override
+    public int dimensions() {
+        // The default implementation embeds a probe text, which has no recording
+        int recorded = recordings.embeddingDimensions();
+        return recorded > 0 ? recorded : delegate.dimensions();
+    }
+}
@@ -0,0 +1,61 @@
+package com.swiftbeard.ai_resume_parser.replay;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+
+import java.util.Random;
+
+/**
+ * Latency added to replayed responses, so that load tests see the concurrency a real model would cause.
+ * <ul>
+ *     <li>{@code none}: respond immediately</li>
+ *     <li>{@code recorded}: the latency measured when the response was recorded</li>
+ *     <li>{@code fixed}: always {@code median-ms}</li>
+ *     <li>{@code lognormal}: log-normal with the configured median and 99th percentile, the usual shape of
+ *     model latency (a long right tail)</li>
+ * </ul>
+ * Samples come from one seeded generator, so a single-threaded run replays the same latencies every time.
+ */
+public class ReplayLatency {
+
+    private static final double Z_99 = 2.3263;
+
+    private final String distribution;
+    private final long medianMs;
+    private final double mu;
+    private final double sigma;
+    private final Random random;
+
+    public ReplayLatency(AppProperties.Latency config, long seed) {
+        this.distribution = config.getDistribution();
+        this.medianMs = config.getMedianMs();
+        this.mu = Math.log(Math.max(1, config.getMedianMs()));
+        this.sigma = Math.max(0, Math.log(Math.max(config.getMedianMs(), config.getP99Ms())) - mu) / Z_99;
+        this.random = new Random(seed);
+        if (!"none".equals(distribution) && !"recorded".equals(distribution)
+                && !"fixed".equals(distribution) && !"lognormal".equals(distribution)) {
+            throw new IllegalArgumentException("Unknown latency distribution '" + distribution
+                    + "'. Use none, recorded, fixed or lognormal");
+        }
+    }
+
+    public long sampleMs(long recordedMs) {
+        return switch (distribution) {
+            case "none" -> 0;
+            case "recorded" -> recordedMs;
+            case "fixed" -> medianMs;
+            default -> Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+        };
+    }
+
+    public void await(long recordedMs) {
+        long delay = sampleMs(recordedMs);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
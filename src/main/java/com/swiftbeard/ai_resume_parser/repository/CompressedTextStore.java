@@ -0,0 +1,376 @@
+package com.swiftbeard.ai_resume_parser.repository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Off-heap store for the raw text of resumes. Each text is deflated with a preset dictionary of common
+ * resume vocabulary, so even a short text compresses well, and appended to a memory-mapped segment file;
+ * only its location stays on the heap. Texts are inflated when read, and the most recently read ones are
+ * kept in a small LRU cache.
+ * <p>
+ * Segments are append-only: replacing a text leaves the old bytes unused until restart. They back the
+ * process-local repository, so they are scratch files, deleted on startup and on close.
+ */
+@Slf4j
+public class CompressedTextStore implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "raw-text-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int LATENCY_SAMPLES = 1024;
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Deflate looks back into the dictionary as if it preceded the text; the most frequent strings go last
+     * because closer matches are encoded in fewer bits.
+     */
+    static final byte[] DICTIONARY = String.join(" ",
+            "Certifications Languages Projects Publications Volunteer Awards Interests References available upon request",
+            "Bachelor of Science Master of Science Ph.D. University College Institute of Technology GPA Graduated",
+            "Microsoft Azure Google Cloud Platform Amazon Web Services AWS Docker Kubernetes Terraform Jenkins CI/CD",
+            "JavaScript TypeScript React Angular Node.js Python Java Spring Boot SQL PostgreSQL MySQL MongoDB Redis Kafka",
+            "stakeholders cross-functional team members clients customers requirements production performance",
+            "Responsible for Worked on Collaborated with Participated in Led a team of Managed Developed Designed",
+            "Implemented Built Improved Reduced Increased Created Delivered Maintained Supported Optimized by %",
+            "January February March April May June July August September October November December Present",
+            "Senior Software Engineer Developer Manager Analyst Consultant Intern Lead Architect Specialist",
+            "PROFESSIONAL SUMMARY SKILLS TECHNICAL SKILLS WORK EXPERIENCE PROFESSIONAL EXPERIENCE EDUCATION",
+            "Summary Skills Experience Education Email: Phone: LinkedIn: linkedin.com/in/ github.com/ @gmail.com",
+            "experience in development of and the for with to in a of the and ")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private record Location(int segment, int offset, int length, int textBytes, int heapBytes) {
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int cacheSize;
+
+    private final Map<String, Location> locations = new ConcurrentHashMap<>();
+    private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+    private final Lock writeLock = new ReentrantLock();
+    private int writeOffset;
+    private long deadBytes;
+
+    private final Map<String, String> cache;
+    private final Lock cacheLock = new ReentrantLock();
+
+    // Pooled rather than thread-local: with a virtual thread per request, a thread-local zlib stream would be
+    // allocated (in native memory) for every request and never reused
+    private final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+    private final BlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final AtomicLongArray inflateNanos = new AtomicLongArray(LATENCY_SAMPLES);
+    private final AtomicInteger inflateCount = new AtomicInteger();
+
+    public CompressedTextStore(Path directory, int segmentBytes, int cacheSize) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > CompressedTextStore.this.cacheSize;
+            }
+        };
+        try {
+            Files.createDirectories(directory);
+            deleteSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to prepare raw text directory " + directory, e);
+        }
+    }
+
+    /**
+     * Stores the text under the id, replacing any previous text; a null text removes it.
+     */
+    public void put(String id, String text) {
+        if (text == null) {
+            remove(id);
+            return;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = deflate(utf8);
+        if (compressed.length > segmentBytes) {
+            throw new IllegalStateException("Compressed text of " + id + " (" + compressed.length
+                    + " bytes) is larger than a segment");
+        }
+
+        Location previous;
+        writeLock.lock();
+        try {
+            if (segments.isEmpty() || writeOffset + compressed.length > segmentBytes) {
+                segments.add(mapSegment(segments.size()));
+                writeOffset = 0;
+            }
+            segments.get(segments.size() - 1).put(writeOffset, compressed);
+            // Publishing the location through the concurrent map makes the written bytes visible to readers
+            previous = locations.put(id, new Location(segments.size() - 1, writeOffset, compressed.length,
+                    utf8.length, heapBytes(text)));
+            writeOffset += compressed.length;
+            if (previous != null) {
+                deadBytes += previous.length();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (previous != null) {
+            invalidate(id);
+        }
+    }
+
+    /**
+     * @return the text stored under the id, or null if there is none
+     */
+    public String get(String id) {
+        cacheLock.lock();
+        try {
+            String cached = cache.get(id);
+            if (cached != null) {
+                cacheHits.increment();
+                return cached;
+            }
+        } finally {
+            cacheLock.unlock();
+        }
+
+        Location location = locations.get(id);
+        if (location == null) {
+            return null;
+        }
+        cacheMisses.increment();
+        long start = System.nanoTime();
+        byte[] compressed = new byte[location.length()];
+        segments.get(location.segment()).get(location.offset(), compressed);
+        String text = new String(inflate(compressed, location.textBytes()), StandardCharsets.UTF_8);
+        inflateNanos.set(inflateCount.getAndIncrement() & (LATENCY_SAMPLES - 1), System.nanoTime() - start);
+
+        cacheLock.lock();
+        try {
+            // A concurrent put may have replaced the text while it was inflated; cache only the current one
+            if (locations.get(id) == location) {
+                cache.put(id, text);
+            }
+        } finally {
+            cacheLock.unlock();
+        }
+        return text;
+    }
+
+    public void remove(String id) {
+        writeLock.lock();
+        try {
+            Location previous = locations.remove(id);
+            if (previous != null) {
+                deadBytes += previous.length();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        invalidate(id);
+    }
+
+    public Map<String, Object> stats() {
+        long texts = 0;
+        long textBytes = 0;
+        long compressedBytes = 0;
+        long heapSaved = 0;
+        for (Location location : locations.values()) {
+            texts++;
+            textBytes += location.textBytes();
+            compressedBytes += location.length();
+            // What the String would have cost, less this store's map entry and location record
+            heapSaved += location.heapBytes() - 96;
+        }
+        long segmentCount;
+        long dead;
+        writeLock.lock();
+        try {
+            segmentCount = segments.size();
+            dead = deadBytes;
+        } finally {
+            writeLock.unlock();
+        }
+
+        int samples = Math.min(inflateCount.get(), LATENCY_SAMPLES);
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            nanos[i] = inflateNanos.get(i);
+        }
+        Arrays.sort(nanos);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("storage", "compressed");
+        stats.put("texts", texts);
+        stats.put("segments", segmentCount);
+        stats.put("textBytes", textBytes);
+        stats.put("compressedBytes", compressedBytes);
+        stats.put("compressionRatio", compressedBytes > 0 ? Math.round(100.0 * textBytes / compressedBytes) / 100.0 : 0);
+        stats.put("unusedSegmentBytes", dead);
+        stats.put("heapBytesSaved", heapSaved);
+        stats.put("heapMbSavedPer100k", texts > 0 ? Math.round(heapSaved * 100_000.0 / texts / (1 << 20)) : 0);
+        stats.put("cacheHits", cacheHits.sum());
+        stats.put("cacheMisses", cacheMisses.sum());
+        stats.put("inflateP50Micros", percentileMicros(nanos, 0.50));
+        stats.put("inflateP99Micros", percentileMicros(nanos, 0.99));
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            locations.clear();
+            segments.clear();
+            deleteSegments();
+        } catch (IOException e) {
+            log.warn("Unable to delete raw text segments in {}: {}", directory, e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+        for (Deflater deflater; (deflater = deflaters.poll()) != null; ) {
+            deflater.end();
+        }
+        for (Inflater inflater; (inflater = inflaters.poll()) != null; ) {
+            inflater.end();
+        }
+    }
+
+    private byte[] deflate(byte[] input) {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        }
+        try {
+            return deflate(deflater, input);
+        } finally {
+            deflater.reset();
+            if (!deflaters.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] input) {
+        deflater.setDictionary(DICTIONARY);
+        deflater.setInput(input);
+        deflater.finish();
+        byte[] output = new byte[Math.max(64, input.length / 2)];
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == output.length) {
+                output = Arrays.copyOf(output, output.length * 2);
+            }
+            length += deflater.deflate(output, length, output.length - length);
+        }
+        return Arrays.copyOf(output, length);
+    }
+
+    private byte[] inflate(byte[] compressed, int textBytes) {
+        Inflater inflater = inflaters.poll();
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        }
+        try {
+            return inflate(inflater, compressed, textBytes);
+        } finally {
+            inflater.reset();
+            if (!inflaters.offer(inflater)) {
+                inflater.end();
+            }
+        }
+    }
+
+    private static byte[] inflate(Inflater inflater, byte[] compressed, int textBytes) {
+        // Raw deflate streams carry no dictionary marker, so the dictionary is set before any input
+        inflater.setDictionary(DICTIONARY);
+        inflater.setInput(compressed);
+        byte[] output = new byte[textBytes];
+        try {
+            int length = 0;
+            while (length < textBytes && !inflater.finished()) {
+                int inflated = inflater.inflate(output, length, textBytes - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    throw new IllegalStateException("Truncated raw text entry");
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt raw text entry", e);
+        }
+        return output;
+    }
+
+    private MappedByteBuffer mapSegment(int index) {
+        Path path = directory.resolve(SEGMENT_PREFIX + index + SEGMENT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Mapping past the end grows the file sparsely; the mapping outlives the channel
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to map raw text segment " + path, e);
+        }
+    }
+
+    private void deleteSegments() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path segment : stream) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    private void invalidate(String id) {
+        cacheLock.lock();
+        try {
+            cache.remove(id);
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    /**
+     * Heap size of the text as a String: object header and fields, array header, and one byte per char
+     * if every char is Latin-1 (compact strings), two otherwise.
+     */
+    private static int heapBytes(String text) {
+        boolean latin1 = text.chars().allMatch(c -> c < 256);
+        return 24 + 16 + (latin1 ? text.length() : text.length() * 2);
+    }
+
+    private static double percentileMicros(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return Math.round(sortedNanos[Math.max(0, index)] / 100.0) / 10.0;
+    }
+}
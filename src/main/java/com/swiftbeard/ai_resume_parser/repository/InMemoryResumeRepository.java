@@ -0,0 +1,71 @@
+package com.swiftbeard.ai_resume_parser.repository;
+
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Process-local repository; resumes are lost on restart and not shared between instances. With a
+ * {@link CompressedTextStore} the raw text is kept compressed off the heap and put back into the copy
+ * of the resume returned by a read that asks for it; otherwise resumes are stored and returned as they are.
+ */
+public class InMemoryResumeRepository implements ResumeRepository {
+
+    // Sorted by id so pages can resume after any id, even if resumes are added in between
+    private final NavigableMap<String, ParsedResume> resumes = new ConcurrentSkipListMap<>();
+    private final CompressedTextStore rawTextStore;
+
+    public InMemoryResumeRepository() {
+        this(null);
+    }
+
+    public InMemoryResumeRepository(CompressedTextStore rawTextStore) {
+        this.rawTextStore = rawTextStore;
+    }
+
+    @Override
+    public ParsedResume save(ParsedResume resume) {
+        if (rawTextStore == null) {
+            resumes.put(resume.getId(), resume);
+            return resume;
+        }
+        rawTextStore.put(resume.getId(), resume.getRawText());
+        // The caller keeps its resume as it is; the stored copy drops the text
+        resumes.put(resume.getId(), resume.toBuilder().rawText(null).build());
+        return resume;
+    }
+
+    @Override
+    public Optional<ParsedResume> findById(String id, boolean includeRawText) {
+        return Optional.ofNullable(resumes.get(id)).map(resume -> includeRawText ? withRawText(resume) : resume);
+    }
+
+    @Override
+    public List<ParsedResume> findAll(boolean includeRawText) {
+        return resumes.values().stream().map(resume -> includeRawText ? withRawText(resume) : resume).toList();
+    }
+
+    @Override
+    public List<ParsedResume> findPage(String afterId, int limit, boolean includeRawText) {
+        NavigableMap<String, ParsedResume> tail = afterId != null ? resumes.tailMap(afterId, false) : resumes;
+        List<ParsedResume> page = new ArrayList<>(Math.min(limit, 1024));
+        for (ParsedResume resume : tail.values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(includeRawText ? withRawText(resume) : resume);
+        }
+        return page;
+    }
+
+    private ParsedResume withRawText(ParsedResume resume) {
+        if (rawTextStore == null) {
+            return resume;
+        }
+        return resume.toBuilder().rawText(rawTextStore.get(resume.getId())).build();
+    }
+}
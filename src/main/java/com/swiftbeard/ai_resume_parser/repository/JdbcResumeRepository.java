@@ -0,0 +1,88 @@
+package com.swiftbeard.ai_resume_parser.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stores each parsed resume as a JSONB document in PostgreSQL, on the same database as the
+ * pgvector index, so every API node sees the same resumes.
+ */
+@Slf4j
+public class JdbcResumeRepository implements ResumeRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final RowMapper<ParsedResume> rowMapper = (rs, rowNum) -> fromJson(rs.getString("document"));
+
+    public JdbcResumeRepository(JdbcTemplate jdbcTemplate, boolean initializeSchema) {
+        this.jdbcTemplate = jdbcTemplate;
+        if (initializeSchema) {
+            jdbcTemplate.execute("""
+                    CREATE TABLE IF NOT EXISTS resumes (
+                        id text PRIMARY KEY,
+                        document jsonb NOT NULL,
+                        parsed_at timestamp
+                    )""");
+        }
+    }
+
+    @Override
+    public ParsedResume save(ParsedResume resume) {
+        jdbcTemplate.update("""
+                        INSERT INTO resumes (id, document, parsed_at) VALUES (?, ?::jsonb, ?)
+                        ON CONFLICT (id) DO UPDATE SET document = EXCLUDED.document, parsed_at = EXCLUDED.parsed_at""",
+                resume.getId(), toJson(resume),
+                resume.getParsedAt() != null ? Timestamp.valueOf(resume.getParsedAt()) : null);
+        return resume;
+    }
+
+    @Override
+    public Optional<ParsedResume> findById(String id, boolean includeRawText) {
+        return jdbcTemplate.query("SELECT " + document(includeRawText) + " FROM resumes WHERE id = ?", rowMapper, id)
+                .stream().findFirst();
+    }
+
+    @Override
+    public List<ParsedResume> findAll(boolean includeRawText) {
+        return jdbcTemplate.query("SELECT " + document(includeRawText) + " FROM resumes ORDER BY parsed_at", rowMapper);
+    }
+
+    @Override
+    public List<ParsedResume> findPage(String afterId, int limit, boolean includeRawText) {
+        String document = document(includeRawText);
+        return jdbcTemplate.query("SELECT " + document + " FROM resumes WHERE id > ? ORDER BY id LIMIT ?",
+                rowMapper, afterId != null ? afterId : "", limit);
+    }
+
+    /**
+     * The selected document column; dropping rawText in the database keeps the largest field off the wire
+     * and out of the heap.
+     */
+    private static String document(boolean includeRawText) {
+        return includeRawText ? "document" : "document - 'rawText' AS document";
+    }
+
+    private String toJson(ParsedResume resume) {
+        try {
+            return objectMapper.writeValueAsString(resume);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize resume " + resume.getId(), e);
+        }
+    }
+
+    private ParsedResume fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, ParsedResume.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to deserialize stored resume", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.swiftbeard.ai_resume_parser.repository;
+
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage for parsed resumes, keyed by resume id. Saving a resume with an existing id replaces it.
+ */
+public interface ResumeRepository {
+
+    ParsedResume save(ParsedResume resume);
+
+    default Optional<ParsedResume> findById(String id) {
+        return findById(id, true);
+    }
+
+    /**
+     * @param includeRawText when false the store may leave {@code rawText} unset to avoid loading it
+     */
+    Optional<ParsedResume> findById(String id, boolean includeRawText);
+
+    default List<ParsedResume> findAll() {
+        return findAll(true);
+    }
+
+    /**
+     * @param includeRawText when false the store may leave {@code rawText} unset to avoid loading it
+     */
+    List<ParsedResume> findAll(boolean includeRawText);
+
+    /**
+     * Keyset page of resumes in id order, starting after {@code afterId} (from the start if null).
+     * @param includeRawText when false the store may leave {@code rawText} unset to avoid loading it
+     */
+    List<ParsedResume> findPage(String afterId, int limit, boolean includeRawText);
+}
@@ -1,28 +1,78 @@
 package com.swiftbeard.ai_resume_parser.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.swiftbeard.ai_resume_parser.config.AppProperties;
 import com.swiftbeard.ai_resume_parser.dto.ATSOptimizationResult;
+import com.swiftbeard.ai_resume_parser.dto.FusedAnalysisResult;
 import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import com.swiftbeard.ai_resume_parser.model.TextStatistics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ATSOptimizationService {
 
-    private final ChatModel chatModel;
+    private final ModelRouter modelRouter;
     private final AppProperties appProperties;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ResumeParsingService resumeParsingService;
+    private final StructuredOutputDecoder structuredOutputDecoder;
+    private final LocalATSScorer localATSScorer;
+    private final ExecutorService analysisExecutor;
+    private final StageMetrics stageMetrics;
+
+    // Access-ordered and bounded by app.ats.result-cache-size, guarded by the lock
+    private final Lock latestResultsLock = new ReentrantLock();
+    private Map<String, ATSOptimizationResult> latestResults;
+
+    // Resumes with a preview's model analysis submitted and not yet finished
+    private final Set<String> pendingPreviews = ConcurrentHashMap.newKeySet();
+
+    static final String SOURCE_LLM = "llm";
+    static final String SOURCE_LOCAL = "local";
+    static final String SOURCE_PREVIEW = "local-preview";
+    static final String SOURCE_FALLBACK = "local-fallback";
+
+    private static final Set<String> VALID_PRIORITIES = Set.of("HIGH", "MEDIUM", "LOW");
+
+    private static final Set<String> NON_MODEL_FIELDS = Set.of("resumeId", "metrics", "source");
+
+    private static final String ATS_FORMAT = JsonSchemaGenerator.formatInstructions(
+            JsonSchemaGenerator.schemaFor(ATSOptimizationResult.class, NON_MODEL_FIELDS));
+
+    private static final String FUSED_FORMAT = JsonSchemaGenerator.formatInstructions(fusedSchema());
+
+    /**
+     * Shape of an ATS response; mirrors the model-produced fields of {@link ATSOptimizationResult}.
+     */
+    record AtsResponse(Double atsScore, List<ATSOptimizationResult.Suggestion> suggestions, String overallAssessment) {
+    }
+
+    /**
+     * Shape of a fused parse + ATS response.
+     */
+    record FusedResponse(ParsedResume resume, AtsResponse ats) {
+    }
+
+    private static ObjectNode fusedSchema() {
+        ObjectNode schema = JsonSchemaGenerator.schemaFor(FusedResponse.class, Set.of());
+        ObjectNode properties = (ObjectNode) schema.get("properties");
+        properties.set("resume", JsonSchemaGenerator.schemaFor(ParsedResume.class, ResumeParsingService.NON_MODEL_FIELDS));
+        properties.set("ats", JsonSchemaGenerator.schemaFor(ATSOptimizationResult.class, NON_MODEL_FIELDS));
+        return schema;
+    }
 
     private static final String ATS_OPTIMIZATION_PROMPT = """
             You are an ATS (Applicant Tracking System) optimization expert. Analyze this resume for ATS-friendliness.
@@ -43,39 +93,195 @@ public class ATSOptimizationService {
             - Specific suggestions for improvement with priority (HIGH/MEDIUM/LOW)
             - Overall assessment
 
-            Return the response in this JSON format:
-            {
-              "atsScore": 0.0,
-              "suggestions": [
-                {
-                  "category": "Keywords",
-                  "issue": "Low keyword density",
-                  "recommendation": "Add more relevant technical skills",
-                  "priority": "HIGH"
-                }
-              ],
-              "overallAssessment": ""
-            }
+            {format}
 
             Provide at least 5 actionable suggestions. Return ONLY valid JSON, no additional text.
             """;
 
+    private static final String FUSED_PARSE_AND_ATS_PROMPT = """
+            You are an expert resume parser and ATS (Applicant Tracking System) optimization expert.
+            In a single pass, extract structured information from the resume below and analyze it for ATS-friendliness.
+
+            Resume Text:
+            {resumeText}
+
+            Return one JSON object with exactly two top-level fields, "resume" and "ats".
+
+            "resume" must contain:
+            - candidateName: Full name of the candidate
+            - email: Email address
+            - phone: Phone number
+            - location: City and country the candidate is based in (if present)
+            - summary: Professional summary or objective (if present)
+            - yearsOfExperience: Total years of professional work experience, as a number
+            - skills: Array of technical and soft skills
+            - experiences: Array of work experiences with company, position, duration, description, and achievements
+            - educations: Array of education entries with institution, degree, field, and year
+            - certifications: Array of certifications
+
+            "ats" must contain:
+            - atsScore: ATS score from 0 to 100, based on keyword optimization and density, formatting and structure,
+              contact information completeness, standard section names, avoidance of complex formatting,
+              and action verbs with quantifiable achievements
+            - suggestions: Array of at least 5 actionable suggestions, each with category, issue, recommendation
+              and priority (HIGH/MEDIUM/LOW)
+            - overallAssessment: Overall assessment
+
+            {format}
+
+            Return ONLY valid JSON, no additional text.
+            """;
+
+    @PostConstruct
+    void initCache() {
+        int maxEntries = appProperties.getAts().getResultCacheSize();
+        latestResults = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ATSOptimizationResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Parses a resume and evaluates it for ATS in one completion instead of two, filling both the
+     * {@link ParsedResume} and the {@link ATSOptimizationResult} from the same response. If the fused
+     * response cannot be used, falls back to the regular parse-then-optimize calls.
+     */
+    public FusedAnalysisResult parseAndOptimize(String resumeText, String fileName) {
+        try (StageMetrics.Stage stage = stageMetrics.start("ats.fused")) {
+            log.info("Parsing and optimizing resume for ATS in one call: {}", fileName);
+            structuredOutputDecoder.recordRequest(AiOperation.ATS);
+
+            PromptTemplate promptTemplate = new PromptTemplate(FUSED_PARSE_AND_ATS_PROMPT);
+            Map<String, Object> params = new HashMap<>();
+            params.put("resumeText", resumeText);
+            params.put("format", FUSED_FORMAT);
+
+            Prompt prompt = promptTemplate.create(params);
+
+            FusedAnalysisResult fusedResult = modelRouter.call(AiOperation.ATS, prompt,
+                    response -> parseFusedResponse(response, resumeText, fileName),
+                    fused -> Math.min(resumeParsingService.assessConfidence(fused.getResume(), resumeText),
+                            assessConfidence(fused.getAtsOptimization())));
+
+            fusedResult.getAtsOptimization().setResumeId(fusedResult.getResume().getId());
+            fusedResult.getAtsOptimization().setMetrics(calculateMetrics(fusedResult.getResume()));
+            remember(fusedResult.getResume(), fusedResult.getAtsOptimization());
+            return fusedResult;
+
+        } catch (Exception e) {
+            log.error("Error in fused parse and ATS analysis, falling back to separate calls: {}", e.getMessage(), e);
+            structuredOutputDecoder.recordFallback(AiOperation.ATS);
+            ParsedResume resume = resumeParsingService.parseResume(resumeText, fileName);
+            return FusedAnalysisResult.builder()
+                    .resume(resume)
+                    .atsOptimization(optimizeForATS(resume))
+                    .fused(false)
+                    .build();
+        }
+    }
+
     public ATSOptimizationResult optimizeForATS(ParsedResume resume) {
+        return optimizeForATS(resume, appProperties.getAts().getMode());
+    }
+
+    /**
+     * @param mode {@code llm} (model analysis, rule-based score if the model fails; a model analysis already
+     * made for the resume, e.g. by {@link #parseAndOptimize}, is returned without another call), {@code fast}
+     * (rule-based only) or {@code preview} (rule-based now, model analysis in the background; see
+     * {@link #latestResult})
+     * @throws IllegalArgumentException for an unknown mode
+     */
+    public ATSOptimizationResult optimizeForATS(ParsedResume resume, String mode) {
+        return switch (mode.toLowerCase(Locale.ROOT)) {
+            case "fast" -> remember(resume, scoreLocally(resume, SOURCE_LOCAL));
+            case "preview" -> {
+                ATSOptimizationResult preview = remember(resume, scoreLocally(resume, SOURCE_PREVIEW));
+                analyzeInBackground(resume);
+                yield preview;
+            }
+            case "llm" -> latestResult(resume.getId())
+                    .filter(latest -> SOURCE_LLM.equals(latest.getSource()))
+                    .orElseGet(() -> remember(resume, analyzeWithModel(resume)));
+            default -> throw new IllegalArgumentException("Unknown ATS mode: " + mode + " (expected llm, fast or preview)");
+        };
+    }
+
+    /**
+     * Submits a preview's model analysis unless one is already running for the resume; repeated previews
+     * then share its result.
+     */
+    private void analyzeInBackground(ParsedResume resume) {
+        String resumeId = resume.getId();
+        if (resumeId != null && !pendingPreviews.add(resumeId)) {
+            log.debug("Model analysis of resume {} already pending", resumeId);
+            return;
+        }
+        try {
+            analysisExecutor.submit(() -> {
+                ATSOptimizationResult result;
+                try {
+                    result = analyzeWithModel(resume);
+                } finally {
+                    if (resumeId != null) {
+                        pendingPreviews.remove(resumeId);
+                    }
+                }
+                remember(resume, result);
+            });
+        } catch (RuntimeException e) {
+            if (resumeId != null) {
+                pendingPreviews.remove(resumeId);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The most recent ATS result for a resume; after a preview, the model's analysis once it has finished.
+     * Only the {@code app.ats.result-cache-size} most recently used results are kept.
+     */
+    public Optional<ATSOptimizationResult> latestResult(String resumeId) {
+        if (resumeId == null) {
+            return Optional.empty();
+        }
+        latestResultsLock.lock();
         try {
+            return Optional.ofNullable(latestResults.get(resumeId));
+        } finally {
+            latestResultsLock.unlock();
+        }
+    }
+
+    private ATSOptimizationResult remember(ParsedResume resume, ATSOptimizationResult result) {
+        if (resume.getId() != null) {
+            latestResultsLock.lock();
+            try {
+                latestResults.put(resume.getId(), result);
+            } finally {
+                latestResultsLock.unlock();
+            }
+        }
+        return result;
+    }
+
+    private ATSOptimizationResult analyzeWithModel(ParsedResume resume) {
+        try (StageMetrics.Stage stage = stageMetrics.start("ats")) {
             log.info("Optimizing resume for ATS: {}", resume.getId());
+            structuredOutputDecoder.recordRequest(AiOperation.ATS);
 
             String resumeText = buildResumeText(resume);
 
             PromptTemplate promptTemplate = new PromptTemplate(ATS_OPTIMIZATION_PROMPT);
             Map<String, Object> params = new HashMap<>();
             params.put("resumeText", resumeText);
+            params.put("format", ATS_FORMAT);
 
             Prompt prompt = promptTemplate.create(params);
-            String response = chatModel.call(prompt).getResult().getOutput().getContent();
-
-            log.debug("ATS Optimization Response: {}", response);
 
-            ATSOptimizationResult result = parseOptimizationResponse(response);
+            ATSOptimizationResult result = modelRouter.call(AiOperation.ATS, prompt,
+                    this::parseOptimizationResponse, this::assessConfidence);
             result.setResumeId(resume.getId());
 
             // Calculate metrics
@@ -85,12 +291,61 @@ public class ATSOptimizationService {
             return result;
 
         } catch (Exception e) {
-            log.error("Error optimizing resume for ATS: {}", e.getMessage(), e);
-            return createFallbackOptimizationResult(resume);
+            log.error("Error optimizing resume for ATS, using the rule-based score: {}", e.getMessage(), e);
+            structuredOutputDecoder.recordFallback(AiOperation.ATS);
+            return scoreLocally(resume, SOURCE_FALLBACK);
+        }
+    }
+
+    private FusedAnalysisResult parseFusedResponse(String response, String resumeText, String fileName)
+            throws JsonProcessingException {
+        FusedResponse fused = structuredOutputDecoder.decode(AiOperation.ATS, response, FusedResponse.class);
+        if (fused.resume() == null || fused.ats() == null) {
+            throw new IllegalStateException("Fused response is missing the resume or ats object");
+        }
+
+        return FusedAnalysisResult.builder()
+                .resume(resumeParsingService.completeParsedResume(fused.resume(), resumeText, fileName))
+                .atsOptimization(toOptimizationResult(fused.ats()))
+                .fused(true)
+                .build();
+    }
+
+    /**
+     * Scores an ATS result for schema validity: score in range, enough suggestions with known
+     * priorities, and a non-empty assessment.
+     */
+    double assessConfidence(ATSOptimizationResult result) {
+        int checks = 0;
+        int passed = 0;
+
+        checks++;
+        if (result.getAtsScore() >= 0.0 && result.getAtsScore() <= 100.0) {
+            passed++;
+        }
+
+        checks++;
+        if (result.getSuggestions() != null && result.getSuggestions().size() >= 3) {
+            passed++;
+        }
+
+        checks++;
+        if (result.getSuggestions() != null && result.getSuggestions().stream()
+                .allMatch(suggestion -> suggestion.getPriority() != null
+                        && VALID_PRIORITIES.contains(suggestion.getPriority())
+                        && suggestion.getRecommendation() != null && !suggestion.getRecommendation().isBlank())) {
+            passed++;
+        }
+
+        checks++;
+        if (result.getOverallAssessment() != null && !result.getOverallAssessment().isBlank()) {
+            passed++;
         }
+
+        return (double) passed / checks;
     }
 
-    private String buildResumeText(ParsedResume resume) {
+    String buildResumeText(ParsedResume resume) {
         StringBuilder text = new StringBuilder();
 
         if (resume.getCandidateName() != null) {
@@ -138,85 +393,96 @@ public class ATSOptimizationService {
     }
 
     private ATSOptimizationResult parseOptimizationResponse(String response) throws JsonProcessingException {
-        String jsonResponse = extractJson(response);
-        Map<String, Object> data = objectMapper.readValue(jsonResponse, new TypeReference<>() {});
+        return toOptimizationResult(structuredOutputDecoder.decode(AiOperation.ATS, response, AtsResponse.class));
+    }
 
+    private ATSOptimizationResult toOptimizationResult(AtsResponse response) {
         List<ATSOptimizationResult.Suggestion> suggestions = new ArrayList<>();
-        List<Map<String, String>> suggestionsData = (List<Map<String, String>>) data.getOrDefault("suggestions", new ArrayList<>());
-
-        for (Map<String, String> suggestionData : suggestionsData) {
-            suggestions.add(ATSOptimizationResult.Suggestion.builder()
-                    .category(suggestionData.getOrDefault("category", "General"))
-                    .issue(suggestionData.getOrDefault("issue", ""))
-                    .recommendation(suggestionData.getOrDefault("recommendation", ""))
-                    .priority(suggestionData.getOrDefault("priority", "MEDIUM"))
-                    .build());
+        if (response.suggestions() != null) {
+            for (ATSOptimizationResult.Suggestion suggestion : response.suggestions()) {
+                if (suggestion == null) {
+                    continue;
+                }
+                suggestions.add(ATSOptimizationResult.Suggestion.builder()
+                        .category(suggestion.getCategory() != null ? suggestion.getCategory() : "General")
+                        .issue(suggestion.getIssue() != null ? suggestion.getIssue() : "")
+                        .recommendation(suggestion.getRecommendation() != null ? suggestion.getRecommendation() : "")
+                        .priority(suggestion.getPriority() != null ? suggestion.getPriority().toUpperCase() : "MEDIUM")
+                        .build());
+            }
         }
 
         return ATSOptimizationResult.builder()
-                .atsScore(((Number) data.getOrDefault("atsScore", 50.0)).doubleValue())
+                .atsScore(response.atsScore() != null ? response.atsScore() : 50.0)
                 .suggestions(suggestions)
-                .overallAssessment((String) data.getOrDefault("overallAssessment", ""))
+                .overallAssessment(response.overallAssessment() != null ? response.overallAssessment() : "")
+                .source(SOURCE_LLM)
                 .build();
     }
 
-    private String extractJson(String response) {
-        response = response.trim();
-        if (response.startsWith("```json")) {
-            response = response.substring(7);
-        } else if (response.startsWith("```")) {
-            response = response.substring(3);
-        }
-        if (response.endsWith("```")) {
-            response = response.substring(0, response.length() - 3);
-        }
-        return response.trim();
-    }
-
-    private Map<String, Object> calculateMetrics(ParsedResume resume) {
+    /**
+     * Metrics from the text statistics of the resume. Keyword density is measured per parsed skill, as its
+     * occurrences per word of the raw text, against {@code app.ats.keywords.required-density}.
+     */
+    Map<String, Object> calculateMetrics(ParsedResume resume) {
         Map<String, Object> metrics = new HashMap<>();
 
-        // Calculate keyword density
-        if (resume.getRawText() != null) {
-            String[] words = resume.getRawText().split("\\s+");
-            metrics.put("totalWords", words.length);
-
-            Set<String> uniqueWords = new HashSet<>(Arrays.asList(words));
-            metrics.put("uniqueWords", uniqueWords.size());
-
-            double keywordDensity = resume.getSkills() != null
-                    ? (double) resume.getSkills().size() / words.length
-                    : 0.0;
-            metrics.put("keywordDensity", keywordDensity);
+        TextStatistics statistics = statisticsFor(resume);
+        metrics.put("totalWords", statistics.getTotalWords());
+        metrics.put("uniqueWords", statistics.getUniqueWords());
+        metrics.put("actionVerbs", statistics.getActionVerbs());
+        metrics.put("quantifiedBullets", statistics.getQuantifiedBullets());
+        metrics.put("bulletLines", statistics.getBulletLines());
+        metrics.put("sections", statistics.getSections());
+
+        AppProperties.Keywords keywords = appProperties.getAts().getKeywords();
+        int words = Math.max(1, statistics.getTotalWords());
+        int skillMentions = 0;
+        Map<String, Double> skillDensity = new LinkedHashMap<>();
+        List<String> belowRequiredDensity = new ArrayList<>();
+        for (Map.Entry<String, Integer> skill : statistics.getSkillOccurrences().entrySet()) {
+            double density = (double) skill.getValue() / words;
+            skillMentions += skill.getValue();
+            skillDensity.put(skill.getKey(), density);
+            if (density < keywords.getRequiredDensity() && belowRequiredDensity.size() < keywords.getMaxSuggestions()) {
+                belowRequiredDensity.add(skill.getKey());
+            }
         }
+        metrics.put("keywordDensity", (double) skillMentions / words);
+        metrics.put("requiredDensity", keywords.getRequiredDensity());
+        metrics.put("skillDensity", skillDensity);
+        metrics.put("skillsBelowRequiredDensity", belowRequiredDensity);
 
         // Check contact information
         boolean hasContactInfo = resume.getEmail() != null || resume.getPhone() != null;
         metrics.put("hasContactInfo", hasContactInfo);
 
-        // Check standard sections
-        boolean hasStandardSections = resume.getSkills() != null && resume.getExperiences() != null;
+        // Check standard sections, by parsed content or by headings in the text
+        boolean hasStandardSections = resume.getSkills() != null && resume.getExperiences() != null
+                || statistics.getSections().containsAll(List.of("experience", "skills"));
         metrics.put("hasStandardSections", hasStandardSections);
 
         return metrics;
     }
 
-    private ATSOptimizationResult createFallbackOptimizationResult(ParsedResume resume) {
-        List<ATSOptimizationResult.Suggestion> suggestions = Arrays.asList(
-                ATSOptimizationResult.Suggestion.builder()
-                        .category("General")
-                        .issue("Unable to perform automated analysis")
-                        .recommendation("Please review resume manually for ATS optimization")
-                        .priority("MEDIUM")
-                        .build()
-        );
+    /**
+     * The statistics computed when the resume was parsed; computed here for resumes stored before they
+     * existed, from the raw text or, without one, from the parsed fields.
+     */
+    private TextStatistics statisticsFor(ParsedResume resume) {
+        if (resume.getTextStatistics() == null) {
+            String text = resume.getRawText() != null ? resume.getRawText() : buildResumeText(resume);
+            resume.setTextStatistics(TextAnalyzer.analyze(text, resume.getSkills()));
+        }
+        return resume.getTextStatistics();
+    }
 
-        return ATSOptimizationResult.builder()
-                .resumeId(resume.getId())
-                .atsScore(50.0)
-                .suggestions(suggestions)
-                .metrics(calculateMetrics(resume))
-                .overallAssessment("Manual review recommended")
-                .build();
+    private ATSOptimizationResult scoreLocally(ParsedResume resume, String source) {
+        try (StageMetrics.Stage stage = stageMetrics.start("ats.local")) {
+            ATSOptimizationResult result = localATSScorer.score(resume, statisticsFor(resume));
+            result.setMetrics(calculateMetrics(resume));
+            result.setSource(source);
+            return result;
+        }
     }
 }
@@ -0,0 +1,22 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+/**
+ * The LLM-backed operations that can be routed to different model tiers.
+ * The key matches the entry under {@code app.routing.operations}.
+ */
+public enum AiOperation {
+    PARSE("parse"),
+    MATCH("match"),
+    ATS("ats"),
+    KEYWORDS("keywords");
+
+    private final String key;
+
+    AiOperation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
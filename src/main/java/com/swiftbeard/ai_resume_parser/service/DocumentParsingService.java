@@ -23,6 +23,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class DocumentParsingService {
 
+    private final StageMetrics stageMetrics;
+
     public String extractTextFromFile(MultipartFile file) throws IOException {
         String fileName = file.getOriginalFilename();
         if (fileName == null) {
@@ -31,11 +33,14 @@ public class DocumentParsingService {
 
         String extension = getFileExtension(fileName).toLowerCase();
 
-        return switch (extension) {
-            case "pdf" -> extractTextFromPdf(file.getInputStream());
-            case "docx", "doc" -> extractTextFromDocx(file.getInputStream());
-            default -> throw new IllegalArgumentException("Unsupported file format: " + extension);
-        };
+        if (!extension.equals("pdf") && !extension.equals("docx") && !extension.equals("doc")) {
+            throw new IllegalArgumentException("Unsupported file format: " + extension);
+        }
+        try (StageMetrics.Stage stage = stageMetrics.start("extract", "format", extension)) {
+            return extension.equals("pdf")
+                    ? extractTextFromPdf(file.getInputStream())
+                    : extractTextFromDocx(file.getInputStream());
+        }
     }
 
     private String extractTextFromPdf(InputStream inputStream) throws IOException {
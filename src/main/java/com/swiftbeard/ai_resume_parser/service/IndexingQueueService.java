@@ -0,0 +1,310 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Durable write-behind queue for vector indexing. Each entry is written to its own file under
+ * {@code app.indexing.queue-path} before the upload returns, indexed in the background by worker
+ * threads with exponential-backoff retries, and deleted once it is in the vector store. Entries left
+ * on disk by a crash or restart are picked up again on startup; entries that exhaust their retries
+ * are moved to a {@code failed} sub-directory. On shutdown the workers finish the entries already due, for
+ * up to {@code app.indexing.shutdown-timeout-ms}, before they are interrupted. A resume replaced by a
+ * newer version while still queued is {@linkplain #storeReusedResume superseded}: its entry is dropped, or
+ * its documents removed again if a worker was already writing them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IndexingQueueService {
+
+    private static final String ENTRY_SUFFIX = ".json";
+    private static final long POLL_MS = 200;
+
+    private final VectorStoreService vectorStoreService;
+    private final AppProperties appProperties;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final DelayQueue<Entry> queue = new DelayQueue<>();
+    private final Map<Path, Entry> pending = new ConcurrentHashMap<>();
+    // Ids of queued resumes replaced by a newer version; workers must not leave them in the vector store
+    private final Set<String> superseded = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder indexed = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private Path queueDir;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() throws IOException {
+        AppProperties.Indexing config = appProperties.getIndexing();
+        queueDir = Paths.get(config.getQueuePath());
+        Files.createDirectories(queueDir.resolve("failed"));
+
+        recover();
+
+        running = true;
+        for (int i = 0; i < Math.max(1, config.getWorkers()); i++) {
+            Thread worker = new Thread(this::runWorker, "index-writer-" + (i + 1));
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        long deadline = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(appProperties.getIndexing().getShutdownTimeoutMs());
+        try {
+            for (Thread worker : workers) {
+                TimeUnit.NANOSECONDS.timedJoin(worker, Math.max(0, deadline - System.nanoTime()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Thread> stuck = workers.stream().filter(Thread::isAlive).toList();
+        if (!stuck.isEmpty()) {
+            // Their entries are still on disk and are indexed again after the restart
+            log.warn("Interrupting {} index writers still busy at shutdown, {} entries left pending",
+                    stuck.size(), pending.size());
+            stuck.forEach(Thread::interrupt);
+        }
+    }
+
+    /**
+     * Persists the resume to the queue and returns a future that completes once it is indexed.
+     * The resume is durable as soon as this method returns.
+     */
+    public CompletableFuture<Void> enqueue(ParsedResume resume) throws IOException {
+        String fileName = String.format("%019d-%s%s", nextSequence(), resume.getId(), ENTRY_SUFFIX);
+        Path file = queueDir.resolve(fileName);
+        Path temp = queueDir.resolve(fileName + ".tmp");
+
+        objectMapper.writeValue(temp.toFile(), resume);
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+
+        Entry entry = new Entry(file, resume, System.currentTimeMillis());
+        pending.put(file, entry);
+        queue.put(entry);
+        log.debug("Queued resume {} for indexing", resume.getId());
+        return entry.completion;
+    }
+
+    /**
+     * Enqueues the resume and blocks until it is searchable, for callers that need read-your-writes.
+     */
+    public void enqueueAndWait(ParsedResume resume) throws IOException, TimeoutException, ExecutionException,
+            InterruptedException {
+        enqueue(resume).get(appProperties.getIndexing().getWaitTimeoutMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Indexes a new version of a resume with the previous version's embeddings, like
+     * {@link VectorStoreService#storeReusedResume}, after superseding any queue entry of the previous version.
+     * Without that, a worker indexing the previous version after this call would put it back in search next
+     * to the new one. A previous version still queued has no stored embeddings, so the new one is embedded.
+     * @return the number of documents embedded
+     */
+    public int storeReusedResume(ParsedResume resume, ParsedResume previous) {
+        String previousId = previous.getId();
+        superseded.add(previousId);
+        for (Entry entry : pending.values()) {
+            if (entry.resume.getId().equals(previousId) && queue.remove(entry)) {
+                // Not picked up by a worker yet: drop it
+                log.info("Dropped queued resume {}, superseded by {}", previousId, resume.getId());
+                complete(entry);
+            }
+        }
+        if (pending.values().stream().noneMatch(entry -> entry.resume.getId().equals(previousId))) {
+            superseded.remove(previousId);
+        }
+        return vectorStoreService.storeReusedResume(resume, previous);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", pendingCount());
+        stats.put("indexLagMs", indexLagMs());
+        stats.put("indexed", indexed.sum());
+        stats.put("retries", retries.sum());
+        stats.put("failed", failed.sum());
+        return stats;
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Age of the oldest entry not yet in the vector store, i.e. how far behind search is; 0 when caught up.
+     */
+    public long indexLagMs() {
+        long now = System.currentTimeMillis();
+        return now - pending.values().stream().mapToLong(entry -> entry.enqueuedAt).min().orElse(now);
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(queueDir)) {
+            files = stream.filter(path -> path.getFileName().toString().endsWith(ENTRY_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        for (Path file : files) {
+            try {
+                ParsedResume resume = objectMapper.readValue(file.toFile(), ParsedResume.class);
+                Entry entry = new Entry(file, resume, Files.getLastModifiedTime(file).toMillis());
+                pending.put(file, entry);
+                queue.put(entry);
+                sequence.accumulateAndGet(parseSequence(file), Math::max);
+            } catch (IOException e) {
+                log.error("Unreadable index queue entry {}, moving it aside: {}", file, e.getMessage());
+                moveToFailed(file);
+            }
+        }
+        if (!files.isEmpty()) {
+            log.info("Recovered {} pending index queue entries", pending.size());
+        }
+    }
+
+    private void runWorker() {
+        while (true) {
+            Entry entry;
+            try {
+                // Once stopping, only the entries already due are drained; retries waiting on backoff stay on disk
+                entry = running ? queue.poll(POLL_MS, TimeUnit.MILLISECONDS) : queue.poll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (entry != null) {
+                process(entry);
+            } else if (!running) {
+                return;
+            }
+        }
+    }
+
+    private void process(Entry entry) {
+        String resumeId = entry.resume.getId();
+        try {
+            if (!superseded.contains(resumeId)) {
+                vectorStoreService.storeResume(entry.resume);
+                indexed.increment();
+                if (superseded.contains(resumeId)) {
+                    // Superseded while being written; the new version's writer may have deleted it already
+                    vectorStoreService.deleteResume(entry.resume);
+                }
+            }
+            complete(entry);
+        } catch (Exception e) {
+            entry.attempts++;
+            AppProperties.Indexing config = appProperties.getIndexing();
+            if (entry.attempts >= config.getMaxAttempts()) {
+                log.error("Giving up indexing resume {} after {} attempts: {}",
+                        entry.resume.getId(), entry.attempts, e.getMessage(), e);
+                failed.increment();
+                pending.remove(entry.file);
+                moveToFailed(entry.file);
+                entry.completion.completeExceptionally(e);
+                return;
+            }
+
+            long backoff = config.getRetryBackoffMs() << Math.min(entry.attempts - 1, 16);
+            log.warn("Indexing resume {} failed (attempt {}), retrying in {} ms: {}",
+                    entry.resume.getId(), entry.attempts, backoff, e.getMessage());
+            retries.increment();
+            entry.notBefore = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff);
+            queue.put(entry);
+        }
+    }
+
+    private void complete(Entry entry) {
+        try {
+            Files.deleteIfExists(entry.file);
+        } catch (IOException e) {
+            // Indexed again after a restart, which overwrites the same documents
+            log.warn("Unable to delete index queue entry {}: {}", entry.file, e.getMessage());
+        }
+        pending.remove(entry.file);
+        String resumeId = entry.resume.getId();
+        if (superseded.contains(resumeId)
+                && pending.values().stream().noneMatch(other -> other.resume.getId().equals(resumeId))) {
+            superseded.remove(resumeId);
+        }
+        entry.completion.complete(null);
+    }
+
+    private void moveToFailed(Path file) {
+        try {
+            Files.move(file, queueDir.resolve("failed").resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("Unable to move {} to the failed directory: {}", file, e.getMessage());
+        }
+    }
+
+    private long nextSequence() {
+        // Time-based so that ordering survives restarts even if the directory was emptied
+        return sequence.updateAndGet(last -> Math.max(last + 1, System.currentTimeMillis() * 1000));
+    }
+
+    private static long parseSequence(Path file) {
+        String name = file.getFileName().toString();
+        int dash = name.indexOf('-');
+        try {
+            return dash > 0 ? Long.parseLong(name.substring(0, dash)) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static final class Entry implements Delayed {
+        private final Path file;
+        private final ParsedResume resume;
+        private final long enqueuedAt;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+        private volatile long notBefore = System.nanoTime();
+        private int attempts;
+
+        private Entry(Path file, ParsedResume resume, long enqueuedAt) {
+            this.file = file;
+            this.resume = resume;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(notBefore - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            int byDelay = Long.compare(notBefore, ((Entry) other).notBefore);
+            return byDelay != 0 ? byDelay : file.compareTo(((Entry) other).file);
+        }
+    }
+}
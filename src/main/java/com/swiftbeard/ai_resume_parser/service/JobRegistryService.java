@@ -0,0 +1,182 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.dto.JobRecommendation;
+import com.swiftbeard.ai_resume_parser.model.JobDescription;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import com.swiftbeard.ai_resume_parser.vectorstore.EmbeddingMatrix;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registered job descriptions with everything a match needs computed once at registration: the search
+ * query and its embedding, normalized skill sets and the prompt fragments of the match prompt. Job
+ * embeddings are kept in one {@link EmbeddingMatrix}, so ranking every open job for a resume is a
+ * single pass over a contiguous array. Jobs live in memory and are re-registered after a restart.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JobRegistryService {
+
+    private final EmbeddingModel embeddingModel;
+    private final VectorStoreService vectorStoreService;
+
+    private final Map<String, RegisteredJob> jobs = new LinkedHashMap<>();
+    private final Lock writeLock = new ReentrantLock();
+    // Readers never lock; writers rebuild the snapshot, which is cheap for the number of open jobs
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), List.of(), EmbeddingMatrix.EMPTY);
+
+    public record RegisteredJob(JobDescription description, String query, float[] embedding,
+                                Set<String> requiredSkills, Set<String> preferredSkills,
+                                Map<String, Object> promptParams) {
+    }
+
+    private record Snapshot(Map<String, RegisteredJob> byId, List<RegisteredJob> jobs, EmbeddingMatrix matrix) {
+    }
+
+    /**
+     * Registers a job, or replaces the job with the same id.
+     * @throws IllegalArgumentException if the job has no title
+     */
+    public RegisteredJob register(JobDescription jobDescription) {
+        if (jobDescription.getTitle() == null || jobDescription.getTitle().isBlank()) {
+            throw new IllegalArgumentException("Job title is required");
+        }
+        if (jobDescription.getId() == null || jobDescription.getId().isBlank()) {
+            jobDescription.setId(UUID.randomUUID().toString());
+        }
+
+        String query = buildJobQuery(jobDescription);
+        RegisteredJob job = new RegisteredJob(jobDescription, query, embeddingModel.embed(query),
+                normalizeSkills(jobDescription.getRequiredSkills()),
+                normalizeSkills(jobDescription.getPreferredSkills()),
+                Collections.unmodifiableMap(ResumeAnalysisService.buildJobParams(jobDescription)));
+
+        writeLock.lock();
+        try {
+            jobs.put(jobDescription.getId(), job);
+            publishSnapshot();
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Registered job {} ({})", jobDescription.getId(), jobDescription.getTitle());
+        return job;
+    }
+
+    public boolean remove(String jobId) {
+        writeLock.lock();
+        try {
+            if (jobs.remove(jobId) == null) {
+                return false;
+            }
+            publishSnapshot();
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Optional<RegisteredJob> findById(String jobId) {
+        return Optional.ofNullable(snapshot.byId().get(jobId));
+    }
+
+    public List<JobDescription> findAll() {
+        return snapshot.jobs().stream().map(RegisteredJob::description).toList();
+    }
+
+    /**
+     * Ranks registered jobs by the similarity of their embedding to the resume's, with the required
+     * skills the resume covers. An indexed resume's stored embedding is reused; otherwise the resume costs
+     * one embedding call, regardless of the number of jobs.
+     */
+    public List<JobRecommendation> recommendJobs(ParsedResume resume, int topK) {
+        Snapshot current = snapshot;
+        if (current.jobs().isEmpty()) {
+            return List.of();
+        }
+
+        float[] resumeEmbedding = vectorStoreService.findResumeEmbedding(resume)
+                .orElseGet(() -> embeddingModel.embed(vectorStoreService.buildResumeText(resume)));
+        Set<String> resumeSkills = normalizeSkills(resume.getSkills());
+
+        return current.matrix().top(resumeEmbedding, topK, -1.0).stream()
+                .map(hit -> toRecommendation(current.jobs().get(hit.row()), hit.score(), resumeSkills))
+                .toList();
+    }
+
+    /**
+     * Text embedded to find candidates for a job: title, required skills and description.
+     */
+    public String buildJobQuery(JobDescription jobDescription) {
+        StringBuilder query = new StringBuilder();
+        query.append(jobDescription.getTitle()).append(" ");
+
+        if (jobDescription.getRequiredSkills() != null) {
+            query.append(String.join(" ", jobDescription.getRequiredSkills())).append(" ");
+        }
+
+        if (jobDescription.getDescription() != null) {
+            query.append(jobDescription.getDescription());
+        }
+
+        return query.toString();
+    }
+
+    private void publishSnapshot() {
+        List<RegisteredJob> ordered = List.copyOf(jobs.values());
+        snapshot = new Snapshot(Map.copyOf(jobs), ordered,
+                new EmbeddingMatrix(ordered.stream().map(RegisteredJob::embedding).toList()));
+    }
+
+    private static JobRecommendation toRecommendation(RegisteredJob job, double similarity, Set<String> resumeSkills) {
+        JobDescription description = job.description();
+        List<String> matched = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        if (description.getRequiredSkills() != null) {
+            for (String skill : description.getRequiredSkills()) {
+                if (skill == null || skill.isBlank()) {
+                    continue;
+                }
+                (resumeSkills.contains(normalizeSkill(skill)) ? matched : missing).add(skill);
+            }
+        }
+
+        long covered = job.requiredSkills().stream().filter(resumeSkills::contains).count();
+
+        return JobRecommendation.builder()
+                .jobId(description.getId())
+                .title(description.getTitle())
+                .company(description.getCompany())
+                .location(description.getLocation())
+                .similarity(similarity)
+                .requiredSkillCoverage(job.requiredSkills().isEmpty()
+                        ? 0.0
+                        : (double) covered / job.requiredSkills().size())
+                .matchedSkills(matched)
+                .missingSkills(missing)
+                .build();
+    }
+
+    private static Set<String> normalizeSkills(List<String> skills) {
+        if (skills == null) {
+            return Set.of();
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String skill : skills) {
+            if (skill != null && !skill.isBlank()) {
+                normalized.add(normalizeSkill(skill));
+            }
+        }
+        return Collections.unmodifiableSet(normalized);
+    }
+
+    private static String normalizeSkill(String skill) {
+        return skill.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,254 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Single-pass repair of almost-valid JSON returned by a model. Handles the failure modes seen in
+ * practice: Markdown fences, prose before or after the payload, single-quoted strings, unquoted keys,
+ * Python-style literals, comments, trailing commas and output truncated mid-object.
+ */
+final class JsonRepair {
+
+    private JsonRepair() {
+    }
+
+    /**
+     * Strips Markdown code fences and surrounding whitespace. This is all the services used to do.
+     */
+    static String stripFences(String response) {
+        String text = response.trim();
+        int fence = text.indexOf("```");
+        if (fence >= 0) {
+            int bodyStart = text.indexOf('\n', fence);
+            int end = text.indexOf("```", fence + 3);
+            if (bodyStart >= 0 && (end < 0 || end > bodyStart)) {
+                text = text.substring(bodyStart + 1, end < 0 ? text.length() : end);
+            } else if (end > fence) {
+                text = text.substring(fence + 3, end);
+            }
+        }
+        return text.trim();
+    }
+
+    static String repair(String response) {
+        String text = stripFences(response);
+
+        int start = firstContainerStart(text);
+        if (start < 0) {
+            return text;
+        }
+
+        StringBuilder out = new StringBuilder(text.length() + 16);
+        Deque<Character> stack = new ArrayDeque<>();
+        boolean pendingKey = false;   // an object key string has been closed, colon not seen yet
+        boolean afterColon = false;   // colon seen, value not started yet
+        int i = start;
+        int length = text.length();
+
+        while (i < length) {
+            char c = text.charAt(i);
+
+            if (c == '"' || c == '\'') {
+                boolean isKey = !afterColon && !stack.isEmpty() && stack.peek() == '{';
+                i = copyString(text, i, out);
+                afterColon = false;
+                pendingKey = isKey;
+                continue;
+            }
+
+            if (c == '/' && i + 1 < length && text.charAt(i + 1) == '/') {
+                while (i < length && text.charAt(i) != '\n') {
+                    i++;
+                }
+                continue;
+            }
+            if (c == '/' && i + 1 < length && text.charAt(i + 1) == '*') {
+                int end = text.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                continue;
+            }
+
+            switch (c) {
+                case '{', '[' -> {
+                    stack.push(c);
+                    out.append(c);
+                    afterColon = false;
+                    pendingKey = false;
+                }
+                case '}', ']' -> {
+                    dropTrailingComma(out);
+                    if (afterColon) {
+                        out.append("null");
+                    }
+                    if (!stack.isEmpty()) {
+                        out.append(stack.pop() == '{' ? '}' : ']');
+                    }
+                    afterColon = false;
+                    pendingKey = false;
+                    if (stack.isEmpty()) {
+                        // Anything after the closing bracket is prose
+                        return out.toString();
+                    }
+                }
+                case ':' -> {
+                    out.append(c);
+                    afterColon = true;
+                    pendingKey = false;
+                }
+                case ',' -> {
+                    dropTrailingComma(out);
+                    if (afterColon) {
+                        out.append("null");
+                    }
+                    out.append(c);
+                    afterColon = false;
+                    pendingKey = false;
+                }
+                default -> {
+                    if (Character.isWhitespace(c)) {
+                        out.append(c);
+                    } else if (c == '-' || Character.isDigit(c)) {
+                        int end = scanWhile(text, i, ch -> Character.isDigit(ch) || ch == '.' || ch == '-'
+                                || ch == '+' || ch == 'e' || ch == 'E');
+                        out.append(text, i, end);
+                        afterColon = false;
+                        i = end;
+                        continue;
+                    } else if (Character.isLetter(c) || c == '_' || c == '$') {
+                        int end = scanWhile(text, i, ch -> Character.isLetterOrDigit(ch) || ch == '_' || ch == '$');
+                        String word = text.substring(i, end);
+                        boolean isKey = !afterColon && !stack.isEmpty() && stack.peek() == '{';
+                        out.append(isKey ? quote(word) : literal(word));
+                        afterColon = false;
+                        pendingKey = isKey;
+                        i = end;
+                        continue;
+                    }
+                    // Any other stray character outside a string is dropped
+                }
+            }
+            i++;
+        }
+
+        // Truncated output: close whatever is still open
+        trimTrailingNumberFragment(out);
+        dropTrailingComma(out);
+        if (pendingKey) {
+            out.append(":null");
+        } else if (afterColon) {
+            out.append("null");
+        }
+        while (!stack.isEmpty()) {
+            dropTrailingComma(out);
+            out.append(stack.pop() == '{' ? '}' : ']');
+        }
+        return out.toString();
+    }
+
+    private static int firstContainerStart(String text) {
+        int object = text.indexOf('{');
+        int array = text.indexOf('[');
+        if (object < 0) {
+            return array;
+        }
+        if (array < 0) {
+            return object;
+        }
+        return Math.min(object, array);
+    }
+
+    /**
+     * Copies a single- or double-quoted string starting at {@code start} to {@code out} as a valid
+     * double-quoted JSON string, closing it if the input ends first. Returns the index after the string.
+     */
+    private static int copyString(String text, int start, StringBuilder out) {
+        char quote = text.charAt(start);
+        out.append('"');
+        int i = start + 1;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(i + 1);
+                if (next == '\'') {
+                    out.append('\'');
+                } else {
+                    out.append(c).append(next);
+                }
+                i += 2;
+                continue;
+            }
+            if (c == quote) {
+                out.append('"');
+                return i + 1;
+            }
+            if (c == '"') {
+                out.append("\\\"");
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else if (c == '\r') {
+                out.append("\\r");
+            } else if (c == '\t') {
+                out.append("\\t");
+            } else {
+                out.append(c);
+            }
+            i++;
+        }
+        // Unterminated string: drop a dangling escape and close it
+        if (out.length() > 0 && out.charAt(out.length() - 1) == '\\') {
+            out.setLength(out.length() - 1);
+        }
+        out.append('"');
+        return i;
+    }
+
+    private static int scanWhile(String text, int start, CharPredicate predicate) {
+        int i = start;
+        while (i < text.length() && predicate.test(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static String literal(String word) {
+        return switch (word) {
+            case "true", "True", "TRUE" -> "true";
+            case "false", "False", "FALSE" -> "false";
+            case "null", "None", "NULL", "undefined" -> "null";
+            default -> quote(word);
+        };
+    }
+
+    private static String quote(String word) {
+        return "\"" + word + "\"";
+    }
+
+    private static void dropTrailingComma(StringBuilder out) {
+        int i = out.length() - 1;
+        while (i >= 0 && Character.isWhitespace(out.charAt(i))) {
+            i--;
+        }
+        if (i >= 0 && out.charAt(i) == ',') {
+            out.setLength(i);
+        }
+    }
+
+    private static void trimTrailingNumberFragment(StringBuilder out) {
+        int i = out.length() - 1;
+        while (i >= 0) {
+            char c = out.charAt(i);
+            boolean exponent = (c == 'e' || c == 'E') && i > 0 && Character.isDigit(out.charAt(i - 1));
+            if (c != '.' && c != '-' && c != '+' && !exponent) {
+                break;
+            }
+            i--;
+        }
+        out.setLength(i + 1);
+    }
+
+    @FunctionalInterface
+    private interface CharPredicate {
+        boolean test(char c);
+    }
+}
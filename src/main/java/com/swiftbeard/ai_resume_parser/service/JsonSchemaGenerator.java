@@ -0,0 +1,94 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a JSON Schema from the fields of a model or DTO class so prompts can ask for output in
+ * exactly the shape it is deserialized into.
+ */
+final class JsonSchemaGenerator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private JsonSchemaGenerator() {
+    }
+
+    /**
+     * @param excludedFields top-level fields filled in by the application rather than the model
+     */
+    static ObjectNode schemaFor(Class<?> type, Set<String> excludedFields) {
+        ObjectNode schema = MAPPER.createObjectNode();
+        schema.put("type", "object");
+        ObjectNode properties = schema.putObject("properties");
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || excludedFields.contains(field.getName())) {
+                continue;
+            }
+            properties.set(field.getName(), schemaForType(field.getGenericType()));
+        }
+        schema.put("additionalProperties", false);
+        return schema;
+    }
+
+    /**
+     * Prompt text asking the model to respond with JSON conforming to {@code schema}.
+     */
+    static String formatInstructions(ObjectNode schema) {
+        return "Respond with JSON that conforms to this JSON Schema:\n" + schema.toString();
+    }
+
+    static ObjectNode arrayOf(ObjectNode items) {
+        ObjectNode schema = MAPPER.createObjectNode();
+        schema.put("type", "array");
+        schema.set("items", items);
+        return schema;
+    }
+
+    private static ObjectNode schemaForType(Type type) {
+        ObjectNode schema = MAPPER.createObjectNode();
+
+        if (type instanceof ParameterizedType parameterized) {
+            Class<?> raw = (Class<?>) parameterized.getRawType();
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (Collection.class.isAssignableFrom(raw)) {
+                schema.put("type", "array");
+                schema.set("items", schemaForType(arguments[0]));
+                return schema;
+            }
+            if (Map.class.isAssignableFrom(raw)) {
+                schema.put("type", "object");
+                schema.set("additionalProperties", schemaForType(arguments[1]));
+                return schema;
+            }
+            return schemaForType(raw);
+        }
+
+        Class<?> clazz = type instanceof Class<?> c ? c : Object.class;
+        if (clazz == String.class || clazz == Character.class || clazz == char.class
+                || Temporal.class.isAssignableFrom(clazz) || clazz.isEnum()) {
+            schema.put("type", "string");
+        } else if (clazz == int.class || clazz == Integer.class || clazz == long.class || clazz == Long.class) {
+            schema.put("type", "integer");
+        } else if (Number.class.isAssignableFrom(clazz) || clazz == double.class || clazz == float.class) {
+            schema.put("type", "number");
+        } else if (clazz == boolean.class || clazz == Boolean.class) {
+            schema.put("type", "boolean");
+        } else if (clazz == Object.class) {
+            // Free-form value; leave unconstrained
+            return schema;
+        } else {
+            return schemaFor(clazz, Set.of());
+        }
+        return schema;
+    }
+}
@@ -0,0 +1,213 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.dto.ATSOptimizationResult;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import com.swiftbeard.ai_resume_parser.model.TextStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rule-based ATS scoring from the parsed fields and the {@link TextStatistics} of the raw text. It makes
+ * no model call and is deterministic, so it serves as {@code app.ats.mode: fast}, as the preview returned
+ * before the model's analysis, and as the result when the model call fails.
+ * <p>
+ * The score is out of 100: keyword coverage 30, quantified achievements 20, standard sections 20,
+ * contact details 15 and formatting 15.
+ */
+@Service
+@RequiredArgsConstructor
+public class LocalATSScorer {
+
+    static final int MIN_WORDS = 150;
+    static final int MAX_WORDS = 1200;
+    static final int TARGET_SKILLS = 10;
+
+    private final AppProperties appProperties;
+
+    public ATSOptimizationResult score(ParsedResume resume, TextStatistics statistics) {
+        List<ATSOptimizationResult.Suggestion> suggestions = new ArrayList<>();
+        double score = keywordScore(resume, statistics, suggestions)
+                + achievementScore(resume, statistics, suggestions)
+                + sectionScore(resume, statistics, suggestions)
+                + contactScore(resume, suggestions)
+                + formattingScore(statistics, suggestions);
+
+        return ATSOptimizationResult.builder()
+                .resumeId(resume.getId())
+                .atsScore(Math.round(score * 10) / 10.0)
+                .suggestions(suggestions)
+                .overallAssessment(assessment(score, suggestions))
+                .build();
+    }
+
+    private double keywordScore(ParsedResume resume, TextStatistics statistics,
+                                List<ATSOptimizationResult.Suggestion> suggestions) {
+        int skills = resume.getSkills() != null ? resume.getSkills().size() : 0;
+        if (skills < TARGET_SKILLS / 2) {
+            suggestions.add(suggestion("Keywords", "Only " + skills + " skills could be identified",
+                    "Add a dedicated skills section listing the tools and technologies you use", "HIGH"));
+        }
+
+        AppProperties.Keywords keywords = appProperties.getAts().getKeywords();
+        int words = Math.max(1, statistics.getTotalWords());
+        List<String> underused = new ArrayList<>();
+        int mentions = 0;
+        for (Map.Entry<String, Integer> skill : statistics.getSkillOccurrences().entrySet()) {
+            mentions += skill.getValue();
+            if ((double) skill.getValue() / words < keywords.getRequiredDensity()
+                    && underused.size() < keywords.getMaxSuggestions()) {
+                underused.add(skill.getKey());
+            }
+        }
+        double density = (double) mentions / words;
+        if (!underused.isEmpty() && density < keywords.getRequiredDensity()) {
+            suggestions.add(suggestion("Keywords", "Low keyword density for " + String.join(", ", underused),
+                    "Mention these skills in the experience bullets where you used them, not only in the skills list",
+                    skills > 0 ? "HIGH" : "MEDIUM"));
+        }
+
+        double coverage = Math.min(1.0, (double) skills / TARGET_SKILLS);
+        double densityRatio = Math.min(1.0, density / Math.max(1e-9, keywords.getRequiredDensity()));
+        return 30 * (0.5 * coverage + 0.5 * densityRatio);
+    }
+
+    private double achievementScore(ParsedResume resume, TextStatistics statistics,
+                                    List<ATSOptimizationResult.Suggestion> suggestions) {
+        int bullets = statistics.getBulletLines();
+        int quantified = statistics.getQuantifiedBullets();
+        if (bullets == 0 && resume.getExperiences() != null) {
+            // Extraction often drops bullet glyphs; fall back to the parsed achievements
+            for (ParsedResume.Experience experience : resume.getExperiences()) {
+                if (experience.getAchievements() != null) {
+                    for (String achievement : experience.getAchievements()) {
+                        bullets++;
+                        if (achievement != null && achievement.chars().anyMatch(Character::isDigit)) {
+                            quantified++;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (bullets == 0) {
+            suggestions.add(suggestion("Achievements", "No bullet-point achievements found",
+                    "Describe each role with 3-5 bullets starting with an action verb", "HIGH"));
+            return 0;
+        }
+        double quantifiedShare = (double) quantified / bullets;
+        if (quantifiedShare < 0.5) {
+            suggestions.add(suggestion("Achievements",
+                    quantified + " of " + bullets + " achievements include a number",
+                    "Quantify results with metrics such as percentages, amounts, team size or time saved",
+                    quantifiedShare < 0.2 ? "HIGH" : "MEDIUM"));
+        }
+        if (statistics.getActionVerbs() < Math.min(3, bullets)) {
+            suggestions.add(suggestion("Achievements", "Few achievements start with an action verb",
+                    "Start bullets with verbs such as led, built, reduced or delivered", "LOW"));
+        }
+        return 20 * Math.min(1.0, quantifiedShare / 0.5);
+    }
+
+    private double sectionScore(ParsedResume resume, TextStatistics statistics,
+                                List<ATSOptimizationResult.Suggestion> suggestions) {
+        List<String> sections = statistics.getSections();
+        double score = 0;
+        score += section(sections, "experience", 8, notEmpty(resume.getExperiences()), suggestions);
+        score += section(sections, "education", 5, notEmpty(resume.getEducations()), suggestions);
+        score += section(sections, "skills", 5, notEmpty(resume.getSkills()), suggestions);
+        score += section(sections, "summary", 2, resume.getSummary() != null, suggestions);
+        return score;
+    }
+
+    private double section(List<String> sections, String name, double points, boolean parsed,
+                           List<ATSOptimizationResult.Suggestion> suggestions) {
+        if (sections.contains(name)) {
+            return points;
+        }
+        String header = name.toUpperCase(Locale.ROOT);
+        if (parsed) {
+            suggestions.add(suggestion("Formatting", "No standard '" + header + "' heading found",
+                    "Use a plain heading named '" + header + "' so an ATS can locate the section", "MEDIUM"));
+            return points / 2;
+        }
+        suggestions.add(suggestion("Structure", "Missing " + name + " section",
+                "Add a section headed '" + header + "'", "experience".equals(name) ? "HIGH" : "MEDIUM"));
+        return 0;
+    }
+
+    private double contactScore(ParsedResume resume, List<ATSOptimizationResult.Suggestion> suggestions) {
+        double score = 0;
+        if (resume.getEmail() != null) {
+            score += 6;
+        } else {
+            suggestions.add(suggestion("Contact Information", "No email address found",
+                    "Add an email address in plain text at the top of the resume", "HIGH"));
+        }
+        if (resume.getPhone() != null) {
+            score += 5;
+        } else {
+            suggestions.add(suggestion("Contact Information", "No phone number found",
+                    "Add a phone number in plain text at the top of the resume", "MEDIUM"));
+        }
+        if (resume.getLocation() != null) {
+            score += 4;
+        } else {
+            suggestions.add(suggestion("Contact Information", "No location found",
+                    "Add your city and country; many ATS filter candidates by location", "LOW"));
+        }
+        return score;
+    }
+
+    private double formattingScore(TextStatistics statistics, List<ATSOptimizationResult.Suggestion> suggestions) {
+        double score = 15;
+        if (statistics.getTableLines() > 3) {
+            score -= 5;
+            suggestions.add(suggestion("Formatting", statistics.getTableLines() + " lines look like table rows",
+                    "Replace tables and multi-column layouts with a single column of text", "HIGH"));
+        }
+        if (statistics.getUnreadableCharacters() > 0) {
+            score -= 5;
+            suggestions.add(suggestion("Formatting",
+                    statistics.getUnreadableCharacters() + " characters could not be read as text",
+                    "Replace icons and special fonts with plain text labels such as 'Email:' and 'Phone:'", "HIGH"));
+        }
+        if (statistics.getTotalWords() < MIN_WORDS) {
+            score -= 5;
+            suggestions.add(suggestion("Content", "Only " + statistics.getTotalWords() + " words of text extracted",
+                    "Make sure the document is text, not an image, and describe your experience in more detail",
+                    "HIGH"));
+        } else if (statistics.getTotalWords() > MAX_WORDS) {
+            score -= 3;
+            suggestions.add(suggestion("Content", statistics.getTotalWords() + " words is longer than most recruiters read",
+                    "Trim older or less relevant roles to keep the resume to two pages", "LOW"));
+        }
+        return Math.max(0, score);
+    }
+
+    private static String assessment(double score, List<ATSOptimizationResult.Suggestion> suggestions) {
+        long high = suggestions.stream().filter(suggestion -> "HIGH".equals(suggestion.getPriority())).count();
+        String level = score >= 80 ? "Strong ATS compatibility" : score >= 60 ? "Moderate ATS compatibility"
+                : "Weak ATS compatibility";
+        return level + " (rule-based score); " + (high == 0 ? "no" : String.valueOf(high)) + " high-priority issues found";
+    }
+
+    private static boolean notEmpty(List<?> values) {
+        return values != null && !values.isEmpty();
+    }
+
+    private static ATSOptimizationResult.Suggestion suggestion(String category, String issue, String recommendation,
+                                                               String priority) {
+        return ATSOptimizationResult.Suggestion.builder()
+                .category(category)
+                .issue(issue)
+                .recommendation(recommendation)
+                .priority(priority)
+                .build();
+    }
+}
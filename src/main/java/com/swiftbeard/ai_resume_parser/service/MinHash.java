@@ -0,0 +1,130 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures over three-word shingles. The fraction of equal signature entries estimates
+ * the Jaccard similarity of two texts' shingle sets, so a resume with a new phone number or one
+ * more bullet point still scores close to 1.0 while unrelated resumes score near 0. Signatures are
+ * split into {@link #BANDS} bands for locality-sensitive hashing: near-duplicates almost always
+ * share at least one band exactly.
+ */
+final class MinHash {
+
+    static final int NUM_HASHES = 128;
+    static final int BANDS = 32;
+    static final int ROWS = NUM_HASHES / BANDS;
+    static final int SHINGLE_SIZE = 3;
+
+    private static final long[] SEEDS = new SplittableRandom(0x5EED_CAFEL).longs(NUM_HASHES).toArray();
+
+    private MinHash() {
+    }
+
+    /**
+     * @return the signature, or null when the text has no words (a scanned PDF or a failed extraction),
+     *         since every such text would get the same signature and match all the others
+     */
+    static int[] signature(CharSequence text) {
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        long[] window = new long[SHINGLE_SIZE];
+        int words = 0;
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i >= length) {
+                break;
+            }
+            // FNV-1a over the lower-cased word, without allocating a String per token
+            long wordHash = 0xcbf29ce484222325L;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                wordHash ^= Character.toLowerCase(text.charAt(i++));
+                wordHash *= 0x100000001b3L;
+            }
+
+            window[words % SHINGLE_SIZE] = wordHash;
+            words++;
+            if (words >= SHINGLE_SIZE) {
+                long shingle = 0;
+                for (int w = words - SHINGLE_SIZE; w < words; w++) {
+                    shingle = shingle * 31 + window[w % SHINGLE_SIZE];
+                }
+                update(signature, shingle);
+            }
+        }
+        if (words > 0 && words < SHINGLE_SIZE) {
+            // Too short for a full shingle; hash what there is
+            long shingle = 0;
+            for (int w = 0; w < words; w++) {
+                shingle = shingle * 31 + window[w];
+            }
+            update(signature, shingle);
+        }
+        return words > 0 ? signature : null;
+    }
+
+    /**
+     * Estimated Jaccard similarity of the two texts' shingle sets.
+     */
+    static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    /**
+     * Hash of one band's rows, salted with the band number so equal rows in different bands do not collide.
+     */
+    static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = mix(key * 31 + signature[row]);
+        }
+        return key;
+    }
+
+    static String encode(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(NUM_HASHES * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    static int[] decode(String encoded) {
+        int[] signature = new int[NUM_HASHES];
+        ByteBuffer.wrap(Base64.getDecoder().decode(encoded)).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    private static void update(int[] signature, long shingle) {
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int value = (int) (mix(shingle ^ SEEDS[i]) >>> 32);
+            if (value < signature[i]) {
+                signature[i] = value;
+            }
+        }
+    }
+
+    /**
+     * MurmurHash3 finalizer, so that every input bit affects every output bit.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe1a85ec9L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,129 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.health.ModelHealthIndicator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Routes LLM calls through a cascade of model tiers. Each operation tries its cheapest tier first,
+ * scores the decoded output with an operation-specific confidence check and escalates to the next
+ * tier only when the output cannot be decoded or scores below {@code min-confidence}. With routing
+ * disabled (or no tiers configured) a single call is made with the default model.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ModelRouter {
+
+    private static final AppProperties.Tier DEFAULT_TIER = new AppProperties.Tier();
+
+    static {
+        DEFAULT_TIER.setName("default");
+    }
+
+    private final ChatModel chatModel;
+    private final AppProperties appProperties;
+    private final RoutingMetrics routingMetrics;
+    private final StageMetrics stageMetrics;
+    private final ModelHealthIndicator modelHealthIndicator;
+
+    @FunctionalInterface
+    public interface ResponseDecoder<T> {
+        T decode(String response) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface ConfidenceCheck<T> {
+        /**
+         * @return confidence in the decoded result, from 0.0 (unusable) to 1.0
+         */
+        double confidence(T result);
+    }
+
+    public <T> T call(AiOperation operation, Prompt prompt, ResponseDecoder<T> decoder,
+                      ConfidenceCheck<T> confidenceCheck) throws Exception {
+        AppProperties.OperationRouting routing = appProperties.getRouting().getOperations().get(operation.getKey());
+        List<AppProperties.Tier> tiers = appProperties.getRouting().isEnabled() && routing != null && !routing.getTiers().isEmpty()
+                ? routing.getTiers()
+                : List.of(DEFAULT_TIER);
+        double minConfidence = routing != null ? routing.getMinConfidence() : 0.0;
+
+        T best = null;
+        double bestConfidence = -1.0;
+        Exception lastFailure = null;
+
+        for (int i = 0; i < tiers.size(); i++) {
+            AppProperties.Tier tier = tiers.get(i);
+            boolean lastTier = i == tiers.size() - 1;
+
+            long start = System.nanoTime();
+            T result = null;
+            double confidence = 0.0;
+            try {
+                ChatResponse chatResponse;
+                try (StageMetrics.Stage stage = stageMetrics.start("chat",
+                        "operation", operation.getKey(), "tier", tier.getName())) {
+                    chatResponse = chatModel.call(promptForTier(prompt, tier));
+                    modelHealthIndicator.recordSuccess();
+                } catch (RuntimeException e) {
+                    modelHealthIndicator.recordFailure(e);
+                    throw e;
+                }
+                stageMetrics.recordTokens(operation, tier.getName(), chatResponse.getMetadata().getUsage());
+                String response = chatResponse.getResult().getOutput().getContent();
+                log.debug("AI Response ({} / {}): {}", operation.getKey(), tier.getName(), response);
+
+                try (StageMetrics.Stage stage = stageMetrics.start("decode", "operation", operation.getKey())) {
+                    result = decoder.decode(response);
+                    confidence = confidenceCheck.confidence(result);
+                }
+            } catch (Exception e) {
+                log.warn("Tier {} could not produce a usable {} result: {}", tier.getName(), operation.getKey(), e.getMessage());
+                lastFailure = e;
+            }
+
+            boolean accepted = result != null && confidence >= minConfidence;
+            routingMetrics.recordCall(operation, tier.getName(), System.nanoTime() - start,
+                    result != null, !accepted && !lastTier);
+
+            if (result != null && confidence > bestConfidence) {
+                best = result;
+                bestConfidence = confidence;
+            }
+            if (accepted) {
+                break;
+            }
+            if (!lastTier) {
+                log.info("Escalating {} from tier {} (confidence {})", operation.getKey(), tier.getName(),
+                        String.format("%.2f", confidence));
+            }
+        }
+
+        if (best == null) {
+            throw lastFailure != null ? lastFailure : new IllegalStateException("No tier produced a result");
+        }
+        return best;
+    }
+
+    private Prompt promptForTier(Prompt prompt, AppProperties.Tier tier) {
+        if (tier.getModel() == null && tier.getTemperature() == null) {
+            return prompt;
+        }
+        OpenAiChatOptions.Builder options = OpenAiChatOptions.builder();
+        if (tier.getModel() != null) {
+            options.withModel(tier.getModel());
+        }
+        if (tier.getTemperature() != null) {
+            options.withTemperature(tier.getTemperature().floatValue());
+        }
+        return new Prompt(prompt.getInstructions(), options.build());
+    }
+}
@@ -1,14 +1,13 @@
 package com.swiftbeard.ai_resume_parser.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
 import com.swiftbeard.ai_resume_parser.dto.MatchResult;
 import com.swiftbeard.ai_resume_parser.model.JobDescription;
 import com.swiftbeard.ai_resume_parser.model.ParsedResume;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.stereotype.Service;
@@ -21,8 +20,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ResumeAnalysisService {
 
-    private final ChatModel chatModel;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ModelRouter modelRouter;
+    private final AppProperties appProperties;
+    private final StructuredOutputDecoder structuredOutputDecoder;
+    private final StageMetrics stageMetrics;
+
+    private static final Set<String> NON_MODEL_FIELDS = Set.of("resumeId", "jobDescriptionId", "categoryScores");
+
+    private static final String MATCH_FORMAT = JsonSchemaGenerator.formatInstructions(
+            JsonSchemaGenerator.schemaFor(MatchResult.class, NON_MODEL_FIELDS));
+
+    private static final String BATCH_MATCH_FORMAT = JsonSchemaGenerator.formatInstructions(batchMatchSchema());
 
     private static final String MATCH_ANALYSIS_PROMPT = """
             You are an expert recruiter analyzing how well a resume matches a job description.
@@ -46,31 +54,90 @@ public class ResumeAnalysisService {
             4. Detailed analysis (2-3 sentences)
             5. Specific recommendations for improvement
 
-            Return the response in this JSON format:
-            {
-              "matchScore": 0.0,
-              "matchedSkills": [],
-              "missingSkills": [],
-              "analysis": "",
-              "recommendations": []
-            }
+            {format}
 
             Return ONLY valid JSON, no additional text.
             """;
 
+    private static final String BATCH_MATCH_ANALYSIS_PROMPT = """
+            You are an expert recruiter analyzing how well several candidates match one job description.
+
+            Job Description:
+            - Title: {jobTitle}
+            - Required Skills: {requiredSkills}
+            - Responsibilities: {responsibilities}
+            - Qualifications: {qualifications}
+
+            Candidates (one per line, prefixed with their candidate id):
+            {candidates}
+
+            Analyze each candidate independently and return a JSON array with exactly {candidateCount} objects,
+            one per candidate, each with these fields:
+            - candidateId: the candidate id exactly as given above
+            - matchScore: number from 0.0 to 1.0
+            - matchedSkills: array of matched skills
+            - missingSkills: array of missing critical skills
+            - analysis: detailed analysis (2-3 sentences)
+            - recommendations: array of specific recommendations for improvement
+
+            {format}
+
+            Return ONLY the JSON array, no additional text.
+            """;
+
+    private static final int BATCH_PROMPT_OVERHEAD_CHARS =
+            BATCH_MATCH_ANALYSIS_PROMPT.length() + BATCH_MATCH_FORMAT.length();
+
+    /**
+     * Shape of a single-match response; mirrors the model-produced fields of {@link MatchResult}.
+     */
+    record MatchResponse(Double matchScore, List<String> matchedSkills, List<String> missingSkills,
+                         String analysis, List<String> recommendations) {
+    }
+
+    /**
+     * One entry of a batch-match response: a {@link MatchResponse} tagged with its candidate id.
+     */
+    record BatchMatchEntry(String candidateId, Double matchScore, List<String> matchedSkills,
+                           List<String> missingSkills, String analysis, List<String> recommendations) {
+
+        MatchResponse toMatchResponse() {
+            return new MatchResponse(matchScore, matchedSkills, missingSkills, analysis, recommendations);
+        }
+    }
+
+    private static ObjectNode batchMatchSchema() {
+        ObjectNode entry = JsonSchemaGenerator.schemaFor(MatchResult.class, NON_MODEL_FIELDS);
+        ((ObjectNode) entry.get("properties")).putObject("candidateId").put("type", "string");
+        return JsonSchemaGenerator.arrayOf(entry);
+    }
+
     public MatchResult analyzeMatch(ParsedResume resume, JobDescription jobDescription) {
-        try {
+        return analyzeMatch(resume, jobDescription, buildJobParams(jobDescription));
+    }
+
+    /**
+     * Matches against a registered job, reusing the job's prompt fragments computed at registration.
+     */
+    public MatchResult analyzeMatch(ParsedResume resume, JobRegistryService.RegisteredJob job) {
+        return analyzeMatch(resume, job.description(), job.promptParams());
+    }
+
+    private MatchResult analyzeMatch(ParsedResume resume, JobDescription jobDescription,
+                                     Map<String, Object> jobParams) {
+        try (StageMetrics.Stage stage = stageMetrics.start("match")) {
             log.info("Analyzing match between resume {} and job {}", resume.getId(), jobDescription.getId());
+            structuredOutputDecoder.recordRequest(AiOperation.MATCH);
 
             PromptTemplate promptTemplate = new PromptTemplate(MATCH_ANALYSIS_PROMPT);
-            Map<String, Object> params = buildPromptParams(resume, jobDescription);
+            Map<String, Object> params = buildResumeParams(resume);
+            params.putAll(jobParams);
+            params.put("format", MATCH_FORMAT);
 
             Prompt prompt = promptTemplate.create(params);
-            String response = chatModel.call(prompt).getResult().getOutput().getContent();
-
-            log.debug("AI Match Analysis Response: {}", response);
 
-            MatchResult matchResult = parseMatchResponse(response);
+            MatchResult matchResult = modelRouter.call(AiOperation.MATCH, prompt, this::parseMatchResponse,
+                    result -> assessConfidence(result, resume));
             matchResult.setResumeId(resume.getId());
             matchResult.setJobDescriptionId(jobDescription.getId());
 
@@ -82,11 +149,219 @@ public class ResumeAnalysisService {
 
         } catch (Exception e) {
             log.error("Error analyzing match: {}", e.getMessage(), e);
+            structuredOutputDecoder.recordFallback(AiOperation.MATCH);
             return createFallbackMatchResult(resume, jobDescription);
         }
     }
 
-    private Map<String, Object> buildPromptParams(ParsedResume resume, JobDescription jobDescription) {
+    /**
+     * Analyzes many resumes against one job description, packing compact resume summaries into
+     * as few prompts as the configured token budget allows so the job description is sent once
+     * per batch instead of once per candidate. Results are returned in the order of {@code resumes}.
+     */
+    public List<MatchResult> analyzeMatches(List<ParsedResume> resumes, JobDescription jobDescription) {
+        return analyzeMatches(resumes, jobDescription, buildJobParams(jobDescription));
+    }
+
+    public List<MatchResult> analyzeMatches(List<ParsedResume> resumes, JobRegistryService.RegisteredJob job) {
+        return analyzeMatches(resumes, job.description(), job.promptParams());
+    }
+
+    private List<MatchResult> analyzeMatches(List<ParsedResume> resumes, JobDescription jobDescription,
+                                             Map<String, Object> jobParams) {
+        log.info("Analyzing batch match of {} resumes against job {}", resumes.size(), jobDescription.getId());
+
+        Map<ParsedResume, MatchResult> results = new IdentityHashMap<>();
+
+        for (List<ParsedResume> batch : packBatches(resumes, jobParams)) {
+            analyzeBatch(batch, jobDescription, jobParams, results);
+        }
+
+        return resumes.stream().map(results::get).toList();
+    }
+
+    private List<List<ParsedResume>> packBatches(List<ParsedResume> resumes, Map<String, Object> jobParams) {
+        AppProperties.Batch config = appProperties.getMatch().getBatch();
+        int fixedChars = BATCH_PROMPT_OVERHEAD_CHARS + jobParams.values().stream()
+                .mapToInt(value -> String.valueOf(value).length())
+                .sum();
+        long fixedTokens = estimateTokens(fixedChars);
+
+        List<List<ParsedResume>> batches = new ArrayList<>();
+        List<ParsedResume> current = new ArrayList<>();
+        long currentTokens = fixedTokens;
+
+        for (ParsedResume resume : resumes) {
+            // Candidate ids are at most a few characters; the summary dominates the estimate
+            long candidateTokens = estimateTokens(buildCandidateSummary(resume).length() + 8);
+            boolean overBudget = currentTokens + candidateTokens > config.getTokenBudget();
+            if (!current.isEmpty() && (overBudget || current.size() >= config.getMaxCandidates())) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentTokens = fixedTokens;
+            }
+            current.add(resume);
+            currentTokens += candidateTokens;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+
+        log.debug("Packed {} resumes into {} batches", resumes.size(), batches.size());
+        return batches;
+    }
+
+    private long estimateTokens(int chars) {
+        int charsPerToken = Math.max(1, appProperties.getMatch().getBatch().getCharsPerToken());
+        return (chars + charsPerToken - 1) / charsPerToken;
+    }
+
+    private void analyzeBatch(List<ParsedResume> batch, JobDescription jobDescription,
+                              Map<String, Object> jobParams, Map<ParsedResume, MatchResult> results) {
+        if (batch.size() == 1) {
+            ParsedResume resume = batch.get(0);
+            results.put(resume, analyzeMatch(resume, jobDescription, jobParams));
+            return;
+        }
+
+        Map<String, ParsedResume> candidates = new LinkedHashMap<>();
+        StringBuilder candidateLines = new StringBuilder();
+        for (ParsedResume resume : batch) {
+            String candidateId = "c" + (candidates.size() + 1);
+            candidates.put(candidateId, resume);
+            candidateLines.append(candidateId).append(": ").append(buildCandidateSummary(resume)).append("\n");
+        }
+
+        Map<String, MatchResult> parsed;
+        try (StageMetrics.Stage stage = stageMetrics.start("match.batch")) {
+            Map<String, Object> params = new HashMap<>(jobParams);
+            params.put("candidates", candidateLines.toString());
+            params.put("candidateCount", batch.size());
+            params.put("format", BATCH_MATCH_FORMAT);
+
+            Prompt prompt = new PromptTemplate(BATCH_MATCH_ANALYSIS_PROMPT).create(params);
+
+            parsed = modelRouter.call(AiOperation.MATCH, prompt,
+                    response -> parseBatchMatchResponse(response, candidates.keySet()),
+                    results -> (double) results.size() / candidates.size());
+        } catch (Exception e) {
+            log.warn("Malformed batch match response for {} candidates, splitting batch: {}",
+                    batch.size(), e.getMessage());
+            int middle = batch.size() / 2;
+            analyzeBatch(batch.subList(0, middle), jobDescription, jobParams, results);
+            analyzeBatch(batch.subList(middle, batch.size()), jobDescription, jobParams, results);
+            return;
+        }
+
+        List<ParsedResume> retry = new ArrayList<>();
+        candidates.forEach((candidateId, resume) -> {
+            MatchResult matchResult = parsed.get(candidateId);
+            if (matchResult == null) {
+                retry.add(resume);
+                return;
+            }
+            matchResult.setResumeId(resume.getId());
+            matchResult.setJobDescriptionId(jobDescription.getId());
+            matchResult.setCategoryScores(calculateCategoryScores(resume, jobDescription));
+            results.put(resume, matchResult);
+        });
+
+        if (!retry.isEmpty()) {
+            log.warn("Batch match response missing {} of {} candidates, retrying them", retry.size(), batch.size());
+            if (retry.size() == batch.size()) {
+                // No usable entries at all: split so the retry makes progress
+                int middle = retry.size() / 2;
+                analyzeBatch(retry.subList(0, middle), jobDescription, jobParams, results);
+                analyzeBatch(retry.subList(middle, retry.size()), jobDescription, jobParams, results);
+            } else {
+                analyzeBatch(retry, jobDescription, jobParams, results);
+            }
+        }
+    }
+
+    /**
+     * Parses a batch response, keeping only entries whose candidate id belongs to the batch
+     * and appears once. Throws if the response is not a JSON array at all.
+     */
+    private Map<String, MatchResult> parseBatchMatchResponse(String response, Set<String> candidateIds)
+            throws JsonProcessingException {
+        List<BatchMatchEntry> entries = structuredOutputDecoder.decode(AiOperation.MATCH, response,
+                structuredOutputDecoder.listOf(BatchMatchEntry.class));
+
+        Map<String, MatchResult> results = new HashMap<>();
+        Set<String> duplicates = new HashSet<>();
+        for (BatchMatchEntry entry : entries) {
+            if (entry == null || entry.candidateId() == null || !candidateIds.contains(entry.candidateId())) {
+                log.debug("Ignoring batch match entry with unknown candidate id: {}",
+                        entry != null ? entry.candidateId() : null);
+                continue;
+            }
+            if (results.put(entry.candidateId(), toMatchResult(entry.toMatchResponse())) != null) {
+                duplicates.add(entry.candidateId());
+            }
+        }
+        duplicates.forEach(results::remove);
+
+        if (entries.size() != candidateIds.size()) {
+            log.debug("Batch match response returned {} entries for {} candidates", entries.size(), candidateIds.size());
+        }
+        return results;
+    }
+
+    private String buildCandidateSummary(ParsedResume resume) {
+        Map<String, Object> params = buildResumeParams(resume);
+        return "Candidate: " + params.get("candidateName")
+                + " | Skills: " + params.get("skills")
+                + " | Experience: " + params.get("experience")
+                + " | Education: " + params.get("education");
+    }
+
+    /**
+     * Scores a match result for schema validity and plausibility: score in range, populated analysis,
+     * disjoint matched/missing skills, and matched skills that the resume actually lists.
+     */
+    double assessConfidence(MatchResult result, ParsedResume resume) {
+        int checks = 0;
+        int passed = 0;
+
+        checks++;
+        if (result.getMatchScore() >= 0.0 && result.getMatchScore() <= 1.0) {
+            passed++;
+        }
+
+        checks++;
+        if (result.getAnalysis() != null && !result.getAnalysis().isBlank()) {
+            passed++;
+        }
+
+        checks++;
+        if (result.getRecommendations() != null && !result.getRecommendations().isEmpty()) {
+            passed++;
+        }
+
+        checks++;
+        if (result.getMatchedSkills() != null && result.getMissingSkills() != null
+                && Collections.disjoint(result.getMatchedSkills(), result.getMissingSkills())) {
+            passed++;
+        }
+
+        checks++;
+        if (result.getMatchedSkills() == null || result.getMatchedSkills().isEmpty() || resume.getSkills() == null) {
+            passed++;
+        } else {
+            String resumeSkills = String.join("|", resume.getSkills()).toLowerCase();
+            long grounded = result.getMatchedSkills().stream()
+                    .filter(skill -> skill != null && resumeSkills.contains(skill.toLowerCase()))
+                    .count();
+            if (grounded * 2 >= result.getMatchedSkills().size()) {
+                passed++;
+            }
+        }
+
+        return (double) passed / checks;
+    }
+
+    private Map<String, Object> buildResumeParams(ParsedResume resume) {
         Map<String, Object> params = new HashMap<>();
 
         params.put("candidateName", resume.getCandidateName() != null ? resume.getCandidateName() : "Unknown");
@@ -106,6 +381,12 @@ public class ResumeAnalysisService {
                 : "No education listed";
         params.put("education", education);
 
+        return params;
+    }
+
+    static Map<String, Object> buildJobParams(JobDescription jobDescription) {
+        Map<String, Object> params = new HashMap<>();
+
         params.put("jobTitle", jobDescription.getTitle());
         params.put("requiredSkills", jobDescription.getRequiredSkills() != null
                 ? String.join(", ", jobDescription.getRequiredSkills())
@@ -121,31 +402,19 @@ public class ResumeAnalysisService {
     }
 
     private MatchResult parseMatchResponse(String response) throws JsonProcessingException {
-        String jsonResponse = extractJson(response);
-        Map<String, Object> data = objectMapper.readValue(jsonResponse, new TypeReference<>() {});
+        return toMatchResult(structuredOutputDecoder.decode(AiOperation.MATCH, response, MatchResponse.class));
+    }
 
+    private MatchResult toMatchResult(MatchResponse response) {
         return MatchResult.builder()
-                .matchScore(((Number) data.getOrDefault("matchScore", 0.0)).doubleValue())
-                .matchedSkills((List<String>) data.getOrDefault("matchedSkills", new ArrayList<>()))
-                .missingSkills((List<String>) data.getOrDefault("missingSkills", new ArrayList<>()))
-                .analysis((String) data.getOrDefault("analysis", ""))
-                .recommendations((List<String>) data.getOrDefault("recommendations", new ArrayList<>()))
+                .matchScore(response.matchScore() != null ? response.matchScore() : 0.0)
+                .matchedSkills(response.matchedSkills() != null ? response.matchedSkills() : new ArrayList<>())
+                .missingSkills(response.missingSkills() != null ? response.missingSkills() : new ArrayList<>())
+                .analysis(response.analysis() != null ? response.analysis() : "")
+                .recommendations(response.recommendations() != null ? response.recommendations() : new ArrayList<>())
                 .build();
     }
 
-    private String extractJson(String response) {
-        response = response.trim();
-        if (response.startsWith("```json")) {
-            response = response.substring(7);
-        } else if (response.startsWith("```")) {
-            response = response.substring(3);
-        }
-        if (response.endsWith("```")) {
-            response = response.substring(0, response.length() - 3);
-        }
-        return response.trim();
-    }
-
     private Map<String, Double> calculateCategoryScores(ParsedResume resume, JobDescription jobDescription) {
         Map<String, Double> scores = new HashMap<>();
 
@@ -164,7 +433,7 @@ public class ResumeAnalysisService {
         return scores;
     }
 
-    private double calculateSkillsMatch(List<String> resumeSkills, List<String> requiredSkills) {
+    static double calculateSkillsMatch(List<String> resumeSkills, List<String> requiredSkills) {
         if (resumeSkills == null || resumeSkills.isEmpty() || requiredSkills == null || requiredSkills.isEmpty()) {
             return 0.0;
         }
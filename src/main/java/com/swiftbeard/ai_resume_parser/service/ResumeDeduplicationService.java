@@ -0,0 +1,206 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import com.swiftbeard.ai_resume_parser.repository.ResumeRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detects re-uploads of an already parsed resume with small edits. Each resume's raw text gets a
+ * {@link MinHash} signature whose bands are kept in an LSH index, so finding candidates is a handful
+ * of hash lookups regardless of corpus size. What happens to a near-duplicate depends on
+ * {@code app.dedup.policy}:
+ * <ul>
+ *   <li>{@code off} - nothing; every upload is parsed and indexed</li>
+ *   <li>{@code collapse} - parsed and indexed as usual, but versions share a duplicate group and
+ *       search returns only the best-matching version of each group</li>
+ *   <li>{@code reuse} - the previous parse is reused, and the new version is indexed with the previous
+ *       version's stored embeddings in its place</li>
+ *   <li>{@code reparse-changed} - only the changed lines are sent to the model to update the previous parse</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResumeDeduplicationService {
+
+    static final String SIGNATURE_KEY = "minHash";
+    static final String DUPLICATE_OF_KEY = "duplicateOf";
+    static final String DUPLICATE_GROUP_KEY = "duplicateGroup";
+    static final String SIMILARITY_KEY = "duplicateSimilarity";
+
+    private final ResumeParsingService resumeParsingService;
+    private final ResumeRepository resumeRepository;
+    private final AppProperties appProperties;
+
+    private final Map<Long, Set<String>> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder partiallyReparsed = new LongAdder();
+
+    /**
+     * @param reusedFrom the previous version whose parse was reused, or null when the resume was parsed
+     */
+    public record ParseOutcome(ParsedResume resume, ParsedResume reusedFrom) {
+    }
+
+    private record Entry(int[] signature, String group) {
+    }
+
+    private record Match(String resumeId, String group, double similarity) {
+    }
+
+    @PostConstruct
+    void rebuildIndex() {
+        // Stored resumes carry their signature, so a persistent repository restores the index after a restart
+        for (ParsedResume resume : resumeRepository.findAll(false)) {
+            Map<String, Object> metadata = resume.getMetadata();
+            if (metadata != null && metadata.get(SIGNATURE_KEY) instanceof String encoded) {
+                Object group = metadata.get(DUPLICATE_GROUP_KEY);
+                index(resume.getId(), MinHash.decode(encoded), group != null ? group.toString() : resume.getId());
+            }
+        }
+        if (!entries.isEmpty()) {
+            log.info("Rebuilt near-duplicate index with {} resumes", entries.size());
+        }
+    }
+
+    /**
+     * Parses an upload according to the deduplication policy and registers it for future lookups.
+     * When {@link ParseOutcome#reusedFrom()} is set, the resume should be indexed with
+     * {@link VectorStoreService#storeReusedResume} rather than embedded again.
+     */
+    public ParseOutcome parse(String resumeText, String fileName) {
+        AppProperties.Dedup config = appProperties.getDedup();
+        String policy = policy();
+        int[] signature = MinHash.signature(resumeText);
+
+        // A text without words has no signature; it is always parsed in full and never matched
+        Optional<Match> match = "off".equals(policy) || signature == null
+                ? Optional.empty()
+                : findNearDuplicate(signature, config.getMinSimilarity());
+        // Only a partial re-parse diffs against the previous version's text
+        ParsedResume previous = match
+                .flatMap(m -> resumeRepository.findById(m.resumeId(), "reparse-changed".equals(policy)))
+                .orElse(null);
+
+        ParsedResume resume;
+        ParsedResume reusedFrom = null;
+        if (previous == null) {
+            resume = resumeParsingService.parseResume(resumeText, fileName);
+        } else {
+            duplicates.increment();
+            log.info("{} is a near-duplicate of resume {} (similarity {})",
+                    fileName, previous.getId(), match.get().similarity());
+            switch (policy) {
+                case "reuse" -> {
+                    resume = resumeParsingService.reuseParse(previous, resumeText, fileName);
+                    reusedFrom = previous;
+                    reused.increment();
+                }
+                case "reparse-changed" -> {
+                    resume = resumeParsingService.reparseChanges(previous, resumeText, fileName,
+                            config.getMaxChangedFraction());
+                    partiallyReparsed.increment();
+                }
+                default -> resume = resumeParsingService.parseResume(resumeText, fileName);
+            }
+        }
+
+        register(resume, signature, previous != null ? match.get() : null);
+        return new ParseOutcome(resume, reusedFrom);
+    }
+
+    /**
+     * Registers a resume parsed outside {@link #parse}, so later uploads can be matched against it.
+     */
+    public void register(ParsedResume resume) {
+        Map<String, Object> metadata = resume.getMetadata();
+        if (metadata != null && metadata.get(SIGNATURE_KEY) instanceof String encoded) {
+            // Registered before, e.g. an imported resume: keep its signature and duplicate group
+            Object group = metadata.get(DUPLICATE_GROUP_KEY);
+            index(resume.getId(), MinHash.decode(encoded), group != null ? group.toString() : resume.getId());
+            return;
+        }
+        if (resume.getRawText() != null) {
+            register(resume, MinHash.signature(resume.getRawText()), null);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("policy", policy());
+        stats.put("indexedResumes", entries.size());
+        stats.put("nearDuplicates", duplicates.sum());
+        stats.put("parsesReused", reused.sum());
+        stats.put("partialReparses", partiallyReparsed.sum());
+        return stats;
+    }
+
+    private String policy() {
+        String policy = appProperties.getDedup().getPolicy();
+        return policy == null ? "off" : policy.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void register(ParsedResume resume, int[] signature, Match match) {
+        if (signature == null) {
+            return;
+        }
+        String group = match != null ? match.group() : resume.getId();
+
+        Map<String, Object> metadata = resume.getMetadata() != null ? resume.getMetadata() : new HashMap<>();
+        metadata.put(SIGNATURE_KEY, MinHash.encode(signature));
+        metadata.put(DUPLICATE_GROUP_KEY, group);
+        if (match != null) {
+            metadata.put(DUPLICATE_OF_KEY, match.resumeId());
+            metadata.put(SIMILARITY_KEY, match.similarity());
+        }
+        resume.setMetadata(metadata);
+
+        index(resume.getId(), signature, group);
+    }
+
+    private void index(String resumeId, int[] signature, String group) {
+        entries.put(resumeId, new Entry(signature, group));
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            buckets.computeIfAbsent(MinHash.bandKey(signature, band), key -> ConcurrentHashMap.newKeySet())
+                    .add(resumeId);
+        }
+    }
+
+    private Optional<Match> findNearDuplicate(int[] signature, double minSimilarity) {
+        Set<String> seen = new HashSet<>();
+        Match best = null;
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            Set<String> bucket = buckets.get(MinHash.bandKey(signature, band));
+            if (bucket == null) {
+                continue;
+            }
+            for (String candidate : bucket) {
+                Entry entry = entries.get(candidate);
+                if (entry == null || !seen.add(candidate)) {
+                    continue;
+                }
+                double similarity = MinHash.similarity(signature, entry.signature());
+                if (similarity >= minSimilarity && (best == null || similarity > best.similarity())) {
+                    best = new Match(candidate, entry.group(), similarity);
+                }
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+}
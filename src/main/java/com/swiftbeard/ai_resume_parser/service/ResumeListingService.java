@@ -0,0 +1,133 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.dto.ResumePage;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import com.swiftbeard.ai_resume_parser.repository.ResumeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Lists stored resumes page by page with a keyset cursor (the id of the last resume returned), reduced to
+ * the requested fields. Neither the paged nor the streamed listing holds more than one page in memory,
+ * whatever the number of stored resumes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResumeListingService {
+
+    static final Set<String> RESUME_FIELDS = Arrays.stream(ParsedResume.class.getDeclaredFields())
+            .filter(field -> !Modifier.isStatic(field.getModifiers()))
+            .map(Field::getName)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+
+    private final ResumeRepository resumeRepository;
+    private final ObjectMapper objectMapper;
+    private final AppProperties appProperties;
+
+    /**
+     * Fields kept in each listed resume.
+     */
+    public record Projection(Set<String> fields) {
+        boolean includesRawText() {
+            return fields.contains("rawText");
+        }
+    }
+
+    /**
+     * Parses a comma-separated field list; null or blank selects every field except {@code rawText}.
+     * @throws IllegalArgumentException for a field {@link ParsedResume} does not have
+     */
+    public Projection projection(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        if (fields == null || fields.isBlank()) {
+            selected.addAll(RESUME_FIELDS);
+            selected.remove("rawText");
+            return new Projection(selected);
+        }
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!RESUME_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "'. Available: " + RESUME_FIELDS);
+            }
+            selected.add(name);
+        }
+        return new Projection(selected);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the limit is not positive or a field is unknown
+     */
+    public ResumePage page(String cursor, Integer limit, String fields) {
+        AppProperties.Listing listing = appProperties.getListing();
+        int size = limit != null ? limit : listing.getDefaultLimit();
+        if (size < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        size = Math.min(size, listing.getMaxLimit());
+        Projection projection = projection(fields);
+
+        // One extra row tells whether another page follows without a second query
+        List<ParsedResume> resumes = resumeRepository.findPage(cursor, size + 1, projection.includesRawText());
+        boolean hasMore = resumes.size() > size;
+        List<ObjectNode> items = new ArrayList<>(Math.min(size, resumes.size()));
+        for (int i = 0; i < resumes.size() && i < size; i++) {
+            items.add(project(resumes.get(i), projection));
+        }
+
+        return ResumePage.builder()
+                .items(items)
+                .nextCursor(hasMore ? resumes.get(size - 1).getId() : null)
+                .build();
+    }
+
+    /**
+     * Writes every stored resume as one JSON object per line, fetching {@code app.listing.stream-batch-size}
+     * resumes at a time and flushing after each batch.
+     */
+    public void stream(Projection projection, OutputStream out) throws IOException {
+        int batchSize = appProperties.getListing().getStreamBatchSize();
+        int written = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null); // Lines are separated by the newline written below
+            String cursor = null;
+            List<ParsedResume> batch;
+            do {
+                batch = resumeRepository.findPage(cursor, batchSize, projection.includesRawText());
+                for (ParsedResume resume : batch) {
+                    objectMapper.writeTree(generator, project(resume, projection));
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+                written += batch.size();
+                if (!batch.isEmpty()) {
+                    cursor = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == batchSize);
+        }
+        log.debug("Streamed {} resumes", written);
+    }
+
+    private ObjectNode project(ParsedResume resume, Projection projection) {
+        ObjectNode node = objectMapper.valueToTree(resume);
+        node.retain(projection.fields());
+        return node;
+    }
+}
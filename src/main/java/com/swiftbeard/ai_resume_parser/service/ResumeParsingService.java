@@ -1,25 +1,44 @@
 package com.swiftbeard.ai_resume_parser.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
 import com.swiftbeard.ai_resume_parser.model.ParsedResume;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ResumeParsingService {
 
-    private final ChatModel chatModel;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ModelRouter modelRouter;
+    private final StructuredOutputDecoder structuredOutputDecoder;
+    private final SectionedResumeParser sectionedResumeParser;
+    private final AppProperties appProperties;
+    private final StageMetrics stageMetrics;
+
+    /**
+     * Fields of {@link ParsedResume} that are filled in by the application, not by the model.
+     */
+    static final Set<String> NON_MODEL_FIELDS = Set.of("id", "fileName", "rawText", "metadata",
+            "textStatistics", "parsedAt");
+
+    private static final String PARSE_FORMAT = JsonSchemaGenerator.formatInstructions(
+            JsonSchemaGenerator.schemaFor(ParsedResume.class, NON_MODEL_FIELDS));
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private static final Pattern YEAR_RANGE_PATTERN = Pattern.compile(
+            "((?:19|20)\\d{2})\\s*(?:-|–|—|to)\\s*((?:19|20)\\d{2}|present|current|now)", Pattern.CASE_INSENSITIVE);
 
     private static final String RESUME_PARSING_PROMPT = """
             You are an expert resume parser. Extract structured information from the following resume text.
@@ -31,62 +50,254 @@ public class ResumeParsingService {
             - candidateName: Full name of the candidate
             - email: Email address
             - phone: Phone number
+            - location: City and country the candidate is based in (if present)
             - summary: Professional summary or objective (if present)
+            - yearsOfExperience: Total years of professional work experience, as a number
             - skills: Array of technical and soft skills
             - experiences: Array of work experiences with company, position, duration, description, and achievements
             - educations: Array of education entries with institution, degree, field, and year
             - certifications: Array of certifications
 
+            {format}
+
+            Return ONLY valid JSON, no additional text.
+            """;
+
+    private static final String REPARSE_CHANGES_PROMPT = """
+            You are an expert resume parser. A candidate submitted an edited version of a resume that was already parsed.
+
+            Previously parsed resume:
+            {previous}
+
+            Lines removed from the previous version:
+            {removed}
+
+            Lines added in the new version:
+            {added}
+
+            Return a JSON object containing only the top-level fields whose values change because of these edits,
+            each with its complete new value (for arrays, the whole updated array). Omit unchanged fields, and
+            return an empty object if nothing changes.
+
+            {format}
+
             Return ONLY valid JSON, no additional text.
             """;
 
     public ParsedResume parseResume(String resumeText, String fileName) {
-        try {
+        try (StageMetrics.Stage stage = stageMetrics.start("parse", "mode", appProperties.getParsing().getMode())) {
             log.info("Parsing resume: {}", fileName);
+            structuredOutputDecoder.recordRequest(AiOperation.PARSE);
+
+            if ("sections".equalsIgnoreCase(appProperties.getParsing().getMode())) {
+                Optional<ParsedResume> sectioned = sectionedResumeParser.parse(resumeText);
+                if (sectioned.isPresent()) {
+                    return completeParsedResume(sectioned.get(), resumeText, fileName);
+                }
+            }
 
             PromptTemplate promptTemplate = new PromptTemplate(RESUME_PARSING_PROMPT);
             Map<String, Object> params = new HashMap<>();
             params.put("resumeText", resumeText);
+            params.put("format", PARSE_FORMAT);
 
             Prompt prompt = promptTemplate.create(params);
-            String response = chatModel.call(prompt).getResult().getOutput().getContent();
 
-            log.debug("AI Response: {}", response);
-
-            // Parse the JSON response
-            ParsedResume parsedResume = parseAIResponse(response);
-            parsedResume.setId(UUID.randomUUID().toString());
-            parsedResume.setFileName(fileName);
-            parsedResume.setRawText(resumeText);
-            parsedResume.setParsedAt(LocalDateTime.now());
-
-            return parsedResume;
+            // Parse the JSON response, escalating to a stronger model if it looks incomplete
+            ParsedResume parsedResume = modelRouter.call(AiOperation.PARSE, prompt, this::parseAIResponse,
+                    parsed -> assessConfidence(parsed, resumeText));
+            return completeParsedResume(parsedResume, resumeText, fileName);
 
         } catch (Exception e) {
             log.error("Error parsing resume: {}", e.getMessage(), e);
+            structuredOutputDecoder.recordFallback(AiOperation.PARSE);
             // Return a basic parsed resume with raw text
             return createFallbackResume(resumeText, fileName);
         }
     }
 
-    private ParsedResume parseAIResponse(String response) throws JsonProcessingException {
-        // Clean up the response to extract JSON
-        String jsonResponse = extractJson(response);
-        return objectMapper.readValue(jsonResponse, ParsedResume.class);
+    /**
+     * Reuses the structured fields of a near-duplicate's parse for a new upload, without calling the model.
+     */
+    public ParsedResume reuseParse(ParsedResume previous, String resumeText, String fileName) {
+        log.info("Reusing parse of near-duplicate resume {} for {}", previous.getId(), fileName);
+        return completeParsedResume(copyModelFields(previous), resumeText, fileName);
+    }
+
+    /**
+     * Updates a near-duplicate's parse from the lines that changed between the two versions, asking the
+     * model only for the fields those edits affect. Falls back to a full parse when too much changed or the
+     * update fails.
+     */
+    public ParsedResume reparseChanges(ParsedResume previous, String resumeText, String fileName,
+                                       double maxChangedFraction) {
+        List<String> previousLines = contentLines(previous.getRawText());
+        List<String> currentLines = contentLines(resumeText);
+        Set<String> previousSet = new HashSet<>(previousLines);
+        Set<String> currentSet = new HashSet<>(currentLines);
+        List<String> removed = previousLines.stream().filter(line -> !currentSet.contains(line)).toList();
+        List<String> added = currentLines.stream().filter(line -> !previousSet.contains(line)).toList();
+
+        if (removed.isEmpty() && added.isEmpty()) {
+            return reuseParse(previous, resumeText, fileName);
+        }
+        if (added.size() + removed.size() > maxChangedFraction * Math.max(1, currentLines.size())) {
+            return parseResume(resumeText, fileName);
+        }
+
+        try {
+            log.info("Re-parsing {} changed lines of near-duplicate resume {} for {}",
+                    added.size() + removed.size(), previous.getId(), fileName);
+            structuredOutputDecoder.recordRequest(AiOperation.PARSE);
+
+            PromptTemplate promptTemplate = new PromptTemplate(REPARSE_CHANGES_PROMPT);
+            Map<String, Object> params = new HashMap<>();
+            params.put("previous", structuredOutputDecoder.toJson(copyModelFields(previous)));
+            params.put("removed", removed.isEmpty() ? "(none)" : String.join("\n", removed));
+            params.put("added", added.isEmpty() ? "(none)" : String.join("\n", added));
+            params.put("format", PARSE_FORMAT);
+
+            ParsedResume merged = modelRouter.call(AiOperation.PARSE, promptTemplate.create(params),
+                    response -> mergeChanges(previous, parseAIResponse(response)),
+                    parsed -> assessConfidence(parsed, resumeText));
+            return completeParsedResume(merged, resumeText, fileName);
+
+        } catch (Exception e) {
+            log.warn("Partial re-parse failed, parsing {} in full: {}", fileName, e.getMessage());
+            return parseResume(resumeText, fileName);
+        }
     }
 
-    private String extractJson(String response) {
-        // Remove markdown code blocks if present
-        response = response.trim();
-        if (response.startsWith("```json")) {
-            response = response.substring(7);
-        } else if (response.startsWith("```")) {
-            response = response.substring(3);
+    private static List<String> contentLines(String text) {
+        if (text == null) {
+            return List.of();
         }
-        if (response.endsWith("```")) {
-            response = response.substring(0, response.length() - 3);
+        return text.lines().map(String::trim).filter(line -> !line.isEmpty()).toList();
+    }
+
+    private static ParsedResume copyModelFields(ParsedResume source) {
+        return ParsedResume.builder()
+                .candidateName(source.getCandidateName())
+                .email(source.getEmail())
+                .phone(source.getPhone())
+                .location(source.getLocation())
+                .summary(source.getSummary())
+                .yearsOfExperience(source.getYearsOfExperience())
+                .skills(source.getSkills())
+                .experiences(source.getExperiences())
+                .educations(source.getEducations())
+                .certifications(source.getCertifications())
+                .build();
+    }
+
+    /**
+     * Overlays the fields present in {@code changes} on a copy of {@code previous}.
+     */
+    private static ParsedResume mergeChanges(ParsedResume previous, ParsedResume changes) {
+        ParsedResume merged = copyModelFields(previous);
+        Optional.ofNullable(changes.getCandidateName()).ifPresent(merged::setCandidateName);
+        Optional.ofNullable(changes.getEmail()).ifPresent(merged::setEmail);
+        Optional.ofNullable(changes.getPhone()).ifPresent(merged::setPhone);
+        Optional.ofNullable(changes.getLocation()).ifPresent(merged::setLocation);
+        Optional.ofNullable(changes.getSummary()).ifPresent(merged::setSummary);
+        Optional.ofNullable(changes.getYearsOfExperience()).ifPresent(merged::setYearsOfExperience);
+        Optional.ofNullable(changes.getSkills()).ifPresent(merged::setSkills);
+        Optional.ofNullable(changes.getExperiences()).ifPresent(merged::setExperiences);
+        Optional.ofNullable(changes.getEducations()).ifPresent(merged::setEducations);
+        Optional.ofNullable(changes.getCertifications()).ifPresent(merged::setCertifications);
+        return merged;
+    }
+
+    /**
+     * Fills in the fields that are not produced by the model: id, file name, raw text, text statistics
+     * and parse time. Years of experience are estimated from the experience durations when the model
+     * left them out.
+     */
+    ParsedResume completeParsedResume(ParsedResume parsedResume, String resumeText, String fileName) {
+        parsedResume.setId(UUID.randomUUID().toString());
+        parsedResume.setFileName(fileName);
+        parsedResume.setRawText(resumeText);
+        parsedResume.setTextStatistics(TextAnalyzer.analyze(resumeText, parsedResume.getSkills()));
+        parsedResume.setParsedAt(LocalDateTime.now());
+        if (parsedResume.getYearsOfExperience() == null) {
+            parsedResume.setYearsOfExperience(estimateYearsOfExperience(parsedResume.getExperiences()));
+        }
+        return parsedResume;
+    }
+
+    /**
+     * Counts the calendar years covered by the year ranges in the experience durations ("2019 - Present"),
+     * so overlapping positions are counted once. Returns null when no duration contains a year range.
+     */
+    static Double estimateYearsOfExperience(List<ParsedResume.Experience> experiences) {
+        if (experiences == null) {
+            return null;
+        }
+        int currentYear = LocalDate.now().getYear();
+        BitSet years = new BitSet();
+        for (ParsedResume.Experience exp : experiences) {
+            if (exp.getDuration() == null) {
+                continue;
+            }
+            Matcher matcher = YEAR_RANGE_PATTERN.matcher(exp.getDuration());
+            while (matcher.find()) {
+                int start = Integer.parseInt(matcher.group(1));
+                int end = Character.isDigit(matcher.group(2).charAt(0)) ? Integer.parseInt(matcher.group(2)) : currentYear;
+                if (end >= start && end <= currentYear) {
+                    years.set(start, Math.max(end, start + 1));
+                }
+            }
+        }
+        return years.isEmpty() ? null : (double) years.cardinality();
+    }
+
+    /**
+     * Scores a parsed resume for structural completeness and plausibility: a name that actually occurs
+     * in the source text, well-formed contact details, and non-empty skills and experience entries.
+     */
+    double assessConfidence(ParsedResume parsed, String resumeText) {
+        int checks = 0;
+        int passed = 0;
+
+        String name = parsed.getCandidateName();
+        checks++;
+        if (name != null && !name.isBlank() && name.length() <= 80 && name.chars().noneMatch(Character::isDigit)
+                && (resumeText == null || resumeText.toLowerCase().contains(name.trim().toLowerCase()))) {
+            passed++;
         }
-        return response.trim();
+
+        checks++;
+        if (parsed.getEmail() != null || parsed.getPhone() != null) {
+            passed++;
+        }
+
+        checks++;
+        if (parsed.getEmail() == null || EMAIL_PATTERN.matcher(parsed.getEmail().trim()).matches()) {
+            passed++;
+        }
+
+        checks++;
+        long phoneDigits = parsed.getPhone() == null ? 0 : parsed.getPhone().chars().filter(Character::isDigit).count();
+        if (parsed.getPhone() == null || (phoneDigits >= 7 && phoneDigits <= 15)) {
+            passed++;
+        }
+
+        checks++;
+        if (parsed.getSkills() != null && !parsed.getSkills().isEmpty()) {
+            passed++;
+        }
+
+        checks++;
+        if (parsed.getExperiences() != null && !parsed.getExperiences().isEmpty()
+                && parsed.getExperiences().stream().allMatch(exp -> exp.getCompany() != null || exp.getPosition() != null)) {
+            passed++;
+        }
+
+        return (double) passed / checks;
+    }
+
+    private ParsedResume parseAIResponse(String response) throws JsonProcessingException {
+        return structuredOutputDecoder.decode(AiOperation.PARSE, response, ParsedResume.class);
     }
 
     private ParsedResume createFallbackResume(String resumeText, String fileName) {
@@ -94,6 +305,7 @@ public class ResumeParsingService {
                 .id(UUID.randomUUID().toString())
                 .fileName(fileName)
                 .rawText(resumeText)
+                .textStatistics(TextAnalyzer.analyze(resumeText, List.of()))
                 .parsedAt(LocalDateTime.now())
                 .skills(new ArrayList<>())
                 .experiences(new ArrayList<>())
@@ -113,11 +325,18 @@ public class ResumeParsingService {
                 """, text);
 
         try {
-            String response = chatModel.call(prompt);
-            return Arrays.asList(response.split(",\\s*"));
+            return modelRouter.call(AiOperation.KEYWORDS, new Prompt(prompt), ResumeParsingService::parseKeywords,
+                    keywords -> keywords.isEmpty() ? 0.0 : 1.0);
         } catch (Exception e) {
             log.error("Error extracting keywords: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
+
+    private static List<String> parseKeywords(String response) {
+        return Arrays.stream(response.split(","))
+                .map(String::trim)
+                .filter(keyword -> !keyword.isEmpty())
+                .toList();
+    }
 }
@@ -0,0 +1,210 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.dto.ATSOptimizationResult;
+import com.swiftbeard.ai_resume_parser.dto.FusedAnalysisResult;
+import com.swiftbeard.ai_resume_parser.dto.MatchResult;
+import com.swiftbeard.ai_resume_parser.dto.ResumeReport;
+import com.swiftbeard.ai_resume_parser.model.JobDescription;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Builds a full report for one resume: parses once, then runs ATS optimization, job matching and
+ * vector indexing concurrently, all under a single per-request deadline that starts before parsing.
+ * Stages still running when the deadline passes are cancelled and reported as {@code TIMED_OUT};
+ * everything that finished is returned. If parsing itself does not finish, the report has no resume and
+ * the other stages are {@code SKIPPED}. In fused mode parsing and ATS analysis come from a single
+ * completion and only the remaining stages are forked after it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResumeReportService {
+
+    public static final String STAGE_PARSE = "parse";
+    public static final String STAGE_ATS = "atsOptimization";
+    public static final String STAGE_MATCH = "match";
+    public static final String STAGE_INDEX = "indexing";
+
+    private final ATSOptimizationService atsOptimizationService;
+    private final ResumeAnalysisService resumeAnalysisService;
+    private final VectorStoreService vectorStoreService;
+    private final IndexingQueueService indexingQueueService;
+    private final ResumeDeduplicationService resumeDeduplicationService;
+    private final ExecutorService analysisExecutor;
+    private final AppProperties appProperties;
+
+    public ResumeReport generateReport(String resumeText, String fileName, JobDescription jobDescription) {
+        return generateReport(resumeText, fileName, jobDescription, appProperties.getAts().isFusedAnalysis());
+    }
+
+    public ResumeReport generateReport(String resumeText, String fileName, JobDescription jobDescription,
+                                       boolean fused) {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(appProperties.getReport().getDeadlineMs());
+        Map<String, ResumeReport.StageResult> stages = new LinkedHashMap<>();
+
+        // Parsing counts against the deadline too; it runs forked so that it can be abandoned at the deadline
+        List<Stage<?>> parsing = new ArrayList<>();
+        Stage<Parsed> parse = fork(parsing, STAGE_PARSE, () -> parse(resumeText, fileName, fused));
+        try {
+            stages.put(STAGE_PARSE, parse.await(deadlineNanos));
+        } finally {
+            parse.future.cancel(true);
+        }
+        if (parse.result == null) {
+            // Nothing to analyze or index without a parsed resume
+            List.of(STAGE_ATS, STAGE_MATCH, STAGE_INDEX).forEach(name -> stages.put(name, skipped()));
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            log.warn("No report for {} after {} ms: parse {}", fileName, elapsedMs,
+                    stages.get(STAGE_PARSE).getStatus());
+            return ResumeReport.builder()
+                    .stages(stages)
+                    .elapsedMs(elapsedMs)
+                    .build();
+        }
+
+        ParsedResume resume = parse.result.resume();
+        ATSOptimizationResult fusedAts = parse.result.fusedAts();
+        if (fused) {
+            stages.put(STAGE_ATS, stages.get(STAGE_PARSE));
+        }
+
+        List<Stage<?>> forked = new ArrayList<>();
+        Stage<ATSOptimizationResult> ats = fused
+                ? null
+                : fork(forked, STAGE_ATS, () -> atsOptimizationService.optimizeForATS(resume));
+        Stage<MatchResult> match = jobDescription != null
+                ? fork(forked, STAGE_MATCH, () -> resumeAnalysisService.analyzeMatch(resume, jobDescription))
+                : null;
+        ParsedResume previousVersion = parse.result.reusedFrom();
+        Stage<Boolean> index = fork(forked, STAGE_INDEX, () -> {
+            if (previousVersion != null) {
+                // Near-duplicate: copies the previous version's embeddings, no embedding call
+                if (appProperties.getIndexing().isWriteBehind()) {
+                    indexingQueueService.storeReusedResume(resume, previousVersion);
+                } else {
+                    vectorStoreService.storeReusedResume(resume, previousVersion);
+                }
+            } else if (appProperties.getIndexing().isWriteBehind()) {
+                // The entry is durable once queued, so a timed-out stage still gets indexed later
+                indexingQueueService.enqueue(resume).get();
+            } else {
+                vectorStoreService.storeResume(resume);
+            }
+            return true;
+        });
+
+        try {
+            for (Stage<?> stage : forked) {
+                stages.put(stage.name, stage.await(deadlineNanos));
+            }
+        } finally {
+            // Nothing forked by this request may outlive it
+            forked.forEach(stage -> stage.future.cancel(true));
+        }
+        if (match == null) {
+            stages.put(STAGE_MATCH, skipped());
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        log.info("Generated report for resume {} in {} ms: {}", resume.getId(), elapsedMs, stages);
+
+        return ResumeReport.builder()
+                .resume(resume)
+                .atsOptimization(ats != null ? ats.result : fusedAts)
+                .match(match != null ? match.result : null)
+                .indexed(index != null && Boolean.TRUE.equals(index.result))
+                .stages(stages)
+                .elapsedMs(elapsedMs)
+                .build();
+    }
+
+    private Parsed parse(String resumeText, String fileName, boolean fused) {
+        if (fused) {
+            FusedAnalysisResult fusedResult = atsOptimizationService.parseAndOptimize(resumeText, fileName);
+            resumeDeduplicationService.register(fusedResult.getResume());
+            return new Parsed(fusedResult.getResume(), fusedResult.getAtsOptimization(), null);
+        }
+        ResumeDeduplicationService.ParseOutcome outcome = resumeDeduplicationService.parse(resumeText, fileName);
+        return new Parsed(outcome.resume(), null, outcome.reusedFrom());
+    }
+
+    private <T> Stage<T> fork(List<Stage<?>> forked, String name, Callable<T> task) {
+        Stage<T> stage = new Stage<>(name);
+        stage.future = analysisExecutor.submit(() -> {
+            try {
+                return task.call();
+            } finally {
+                stage.durationNanos = System.nanoTime() - stage.startNanos;
+            }
+        });
+        forked.add(stage);
+        return stage;
+    }
+
+    private static ResumeReport.StageResult completed(long durationNanos) {
+        return ResumeReport.StageResult.builder()
+                .status("COMPLETED")
+                .durationMs(TimeUnit.NANOSECONDS.toMillis(durationNanos))
+                .build();
+    }
+
+    private static ResumeReport.StageResult skipped() {
+        return ResumeReport.StageResult.builder().status("SKIPPED").build();
+    }
+
+    /**
+     * @param fusedAts the ATS result of a fused parse, otherwise null
+     * @param reusedFrom the previous version whose parse was reused, otherwise null
+     */
+    private record Parsed(ParsedResume resume, ATSOptimizationResult fusedAts, ParsedResume reusedFrom) {
+    }
+
+    private static final class Stage<T> {
+        private final String name;
+        private final long startNanos = System.nanoTime();
+        private volatile long durationNanos;
+        private Future<T> future;
+        private T result;
+
+        private Stage(String name) {
+            this.name = name;
+        }
+
+        private ResumeReport.StageResult await(long deadlineNanos) {
+            try {
+                result = future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                return completed(durationNanos);
+            } catch (TimeoutException e) {
+                log.warn("Report stage {} did not finish before the deadline", name);
+                return ResumeReport.StageResult.builder()
+                        .status("TIMED_OUT")
+                        .durationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos))
+                        .build();
+            } catch (ExecutionException e) {
+                log.error("Report stage {} failed: {}", name, e.getCause().getMessage(), e.getCause());
+                return ResumeReport.StageResult.builder()
+                        .status("FAILED")
+                        .durationMs(TimeUnit.NANOSECONDS.toMillis(durationNanos))
+                        .error(e.getCause().getMessage())
+                        .build();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return ResumeReport.StageResult.builder()
+                        .status("FAILED")
+                        .error("Interrupted")
+                        .build();
+            }
+        }
+    }
+}
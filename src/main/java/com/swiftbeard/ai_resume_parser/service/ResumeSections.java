@@ -0,0 +1,146 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits extracted resume text into sections at recognizable headings ("Experience", "EDUCATION",
+ * "Technical Skills:" ...). Text before the first heading is the header with the contact details.
+ */
+final class ResumeSections {
+
+    enum Kind {
+        HEADER("header", Set.of("candidateName", "email", "phone", "location"), """
+                - candidateName: Full name of the candidate
+                - email: Email address
+                - phone: Phone number
+                - location: City and country the candidate is based in (if present)"""),
+        SUMMARY("summary", Set.of("summary"), """
+                - summary: Professional summary or objective"""),
+        EXPERIENCE("experience", Set.of("experiences", "yearsOfExperience"), """
+                - experiences: Array of work experiences with company, position, duration, description, and achievements
+                - yearsOfExperience: Total years of professional work experience covered by these entries, as a number"""),
+        EDUCATION("education", Set.of("educations"), """
+                - educations: Array of education entries with institution, degree, field, and year"""),
+        SKILLS("skills", Set.of("skills"), """
+                - skills: Array of technical and soft skills"""),
+        CERTIFICATIONS("certifications", Set.of("certifications"), """
+                - certifications: Array of certifications"""),
+        OTHER("other", Set.of("skills", "certifications"), """
+                - skills: Array of technical and soft skills demonstrated in this section
+                - certifications: Array of certifications mentioned in this section""");
+
+        private final String key;
+        private final Set<String> fields;
+        private final String instructions;
+
+        Kind(String key, Set<String> fields, String instructions) {
+            this.key = key;
+            this.fields = fields;
+            this.instructions = instructions;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        /**
+         * {@link com.swiftbeard.ai_resume_parser.model.ParsedResume} fields the model fills for this section.
+         */
+        Set<String> getFields() {
+            return fields;
+        }
+
+        String getInstructions() {
+            return instructions;
+        }
+    }
+
+    record Section(Kind kind, String heading, String text) {
+    }
+
+    private static final Set<String> KNOWN_HEADINGS = Set.of(
+            "summary", "professional summary", "profile", "professional profile", "objective", "career objective",
+            "about me", "experience", "work experience", "professional experience", "employment",
+            "employment history", "work history", "career history", "education", "academic background",
+            "skills", "technical skills", "core competencies", "key skills", "technologies", "certifications",
+            "licenses and certifications", "licenses & certifications", "certificates", "projects",
+            "awards", "publications", "languages", "interests", "volunteering", "volunteer experience");
+
+    private ResumeSections() {
+    }
+
+    static List<Section> split(String text) {
+        List<Section> sections = new ArrayList<>();
+        Kind kind = Kind.HEADER;
+        String heading = null;
+        StringBuilder body = new StringBuilder();
+
+        for (String line : text.split("\\R")) {
+            Kind headingKind = headingKind(line);
+            if (headingKind != null) {
+                addSection(sections, kind, heading, body);
+                kind = headingKind;
+                heading = line.trim();
+                body.setLength(0);
+            } else {
+                body.append(line).append('\n');
+            }
+        }
+        addSection(sections, kind, heading, body);
+        return sections;
+    }
+
+    private static void addSection(List<Section> sections, Kind kind, String heading, StringBuilder body) {
+        String text = body.toString().strip();
+        if (!text.isEmpty()) {
+            sections.add(new Section(kind, heading, text));
+        }
+    }
+
+    /**
+     * @return the section a heading line starts, or null if the line is not a heading
+     */
+    static Kind headingKind(String line) {
+        String trimmed = line.strip().replaceAll("^[#*=\\-_|\\s]+|[#*=\\-_|\\s]+$", "");
+        if (trimmed.isEmpty() || trimmed.length() > 40 || trimmed.endsWith(".")) {
+            return null;
+        }
+        boolean colon = trimmed.endsWith(":");
+        String bare = colon ? trimmed.substring(0, trimmed.length() - 1).strip() : trimmed;
+        if (bare.isEmpty() || bare.split("\\s+").length > 4) {
+            return null;
+        }
+
+        String normalized = bare.toLowerCase(Locale.ROOT);
+        boolean allCaps = bare.chars().anyMatch(Character::isLetter)
+                && bare.chars().filter(Character::isLetter).allMatch(Character::isUpperCase);
+        if (!KNOWN_HEADINGS.contains(normalized) && !colon && !allCaps) {
+            return null;
+        }
+
+        if (normalized.contains("experience") && !normalized.contains("volunteer") || normalized.contains("employment")
+                || normalized.contains("work history") || normalized.contains("career history")) {
+            return Kind.EXPERIENCE;
+        }
+        if (normalized.contains("education") || normalized.contains("academic")) {
+            return Kind.EDUCATION;
+        }
+        if (normalized.contains("certif") || normalized.contains("licen")) {
+            return Kind.CERTIFICATIONS;
+        }
+        if (normalized.contains("skill") || normalized.contains("competenc") || normalized.contains("technolog")) {
+            return Kind.SKILLS;
+        }
+        if (normalized.contains("summary") || normalized.contains("profile") || normalized.contains("objective")
+                || normalized.equals("about me")) {
+            return Kind.SUMMARY;
+        }
+        if (KNOWN_HEADINGS.contains(normalized)) {
+            return Kind.OTHER;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,224 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.dto.ImportResult;
+import com.swiftbeard.ai_resume_parser.dto.ResumeTransferRecord;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import com.swiftbeard.ai_resume_parser.repository.ResumeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk export and import of stored resumes together with their vector documents, as NDJSON with one
+ * {@link ResumeTransferRecord} per line. Both directions work in batches of {@code app.transfer.batch-size}
+ * resumes, so memory use does not depend on the size of the corpus.
+ * <p>
+ * An import copies the exported embeddings as they are, or in {@code re-embed} mode rebuilds each resume's
+ * documents and embeds them with the current model; neither mode calls the chat model. After each batch is
+ * written, the number of imported lines is checkpointed under the import id, so posting the same file again
+ * with the same id continues after the last complete batch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResumeTransferService {
+
+    public static final String MODE_COPY = "copy";
+    public static final String MODE_RE_EMBED = "re-embed";
+
+    private static final Pattern IMPORT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final ResumeRepository resumeRepository;
+    private final VectorStoreService vectorStoreService;
+    private final ResumeDeduplicationService resumeDeduplicationService;
+    private final ObjectMapper objectMapper;
+    private final AppProperties appProperties;
+
+    /**
+     * Writes every stored resume, raw text included, with its vector documents. Embeddings are included when
+     * requested and the vector store exposes them.
+     */
+    public void export(OutputStream out, boolean includeEmbeddings) throws IOException {
+        int batchSize = appProperties.getTransfer().getBatchSize();
+        long exported = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            String cursor = null;
+            List<ParsedResume> batch;
+            do {
+                batch = resumeRepository.findPage(cursor, batchSize, true);
+                List<List<Document>> documents = new ArrayList<>(batch.size());
+                List<String> documentIds = new ArrayList<>();
+                for (ParsedResume resume : batch) {
+                    List<Document> resumeDocuments = vectorStoreService.buildDocuments(resume);
+                    documents.add(resumeDocuments);
+                    resumeDocuments.forEach(document -> documentIds.add(document.getId()));
+                }
+                // One lookup per batch rather than per resume
+                Map<String, float[]> embeddings = includeEmbeddings
+                        ? vectorStoreService.findEmbeddings(documentIds) : Map.of();
+
+                for (int i = 0; i < batch.size(); i++) {
+                    List<ResumeTransferRecord.VectorDocument> vectors = new ArrayList<>();
+                    for (Document document : documents.get(i)) {
+                        float[] embedding = embeddings.get(document.getId());
+                        vectors.add(ResumeTransferRecord.VectorDocument.builder()
+                                .id(document.getId())
+                                .content(document.getContent())
+                                .metadata(document.getMetadata())
+                                .embedding(embedding != null ? encodeEmbedding(embedding) : null)
+                                .build());
+                    }
+                    objectMapper.writeValue(generator, ResumeTransferRecord.builder()
+                            .resume(batch.get(i))
+                            .vectors(vectors)
+                            .build());
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+                exported += batch.size();
+                if (!batch.isEmpty()) {
+                    cursor = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == batchSize);
+        }
+        log.info("Exported {} resumes", exported);
+    }
+
+    /**
+     * Imports an export stream. Lines covered by the checkpoint of an earlier run with the same import id
+     * are skipped; the checkpoint is removed once the whole stream is imported.
+     * @throws IllegalArgumentException for an unknown mode, an invalid import id or an unreadable line; the
+     *                                  batches before the bad line are imported and checkpointed
+     */
+    public ImportResult importResumes(InputStream in, String importId, String mode) throws IOException {
+        if (!MODE_COPY.equals(mode) && !MODE_RE_EMBED.equals(mode)) {
+            throw new IllegalArgumentException("Unknown import mode '" + mode + "'. Use copy or re-embed");
+        }
+        if (!IMPORT_ID.matcher(importId).matches()) {
+            throw new IllegalArgumentException("importId must be 1-64 letters, digits, '-' or '_'");
+        }
+        AppProperties.Transfer config = appProperties.getTransfer();
+        Path checkpointDir = Paths.get(config.getCheckpointPath());
+        Files.createDirectories(checkpointDir);
+        Path checkpoint = checkpointDir.resolve(importId + ".checkpoint");
+        long committed = Files.exists(checkpoint) ? Long.parseLong(Files.readString(checkpoint).trim()) : 0;
+
+        ImportResult result = ImportResult.builder().importId(importId).mode(mode).build();
+        List<ResumeTransferRecord> batch = new ArrayList<>(config.getBatchSize());
+        long line = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String json;
+        while ((json = reader.readLine()) != null) {
+            if (json.isBlank()) {
+                continue;
+            }
+            line++;
+            if (line <= committed) {
+                result.setResumesSkipped(result.getResumesSkipped() + 1);
+                continue;
+            }
+            ResumeTransferRecord record;
+            try {
+                record = objectMapper.readValue(json, ResumeTransferRecord.class);
+                if (record.getResume() == null || record.getResume().getId() == null) {
+                    throw new IllegalArgumentException("Line " + line + " has no resume id");
+                }
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                writeBatch(batch, mode, result);
+                saveCheckpoint(checkpoint, line - 1);
+                throw new IllegalArgumentException("Unreadable record on line " + line + " of import " + importId
+                        + ": " + e.getMessage(), e);
+            }
+            batch.add(record);
+            if (batch.size() == config.getBatchSize()) {
+                writeBatch(batch, mode, result);
+                saveCheckpoint(checkpoint, line);
+            }
+        }
+        writeBatch(batch, mode, result);
+        Files.deleteIfExists(checkpoint);
+
+        log.info("Import {} finished: {} resumes imported, {} skipped, {} documents copied, {} embedded",
+                importId, result.getResumesImported(), result.getResumesSkipped(),
+                result.getDocumentsCopied(), result.getDocumentsEmbedded());
+        return result;
+    }
+
+    private void writeBatch(List<ResumeTransferRecord> batch, String mode, ImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Document> documents = new ArrayList<>();
+        List<float[]> embeddings = new ArrayList<>();
+        for (ResumeTransferRecord record : batch) {
+            ParsedResume resume = record.getResume();
+            if (MODE_RE_EMBED.equals(mode) || record.getVectors() == null || record.getVectors().isEmpty()) {
+                for (Document document : vectorStoreService.buildDocuments(resume)) {
+                    documents.add(document);
+                    embeddings.add(null);
+                }
+            } else {
+                for (ResumeTransferRecord.VectorDocument vector : record.getVectors()) {
+                    documents.add(new Document(vector.getId(), vector.getContent(), vector.getMetadata()));
+                    embeddings.add(vector.getEmbedding() != null ? decodeEmbedding(vector.getEmbedding()) : null);
+                }
+            }
+        }
+
+        // Vectors first: a resume is only listed once it is searchable, and a retried batch overwrites both
+        int embedded = vectorStoreService.storeDocuments(documents, embeddings);
+        for (ResumeTransferRecord record : batch) {
+            resumeDeduplicationService.register(record.getResume());
+            resumeRepository.save(record.getResume());
+        }
+
+        result.setResumesImported(result.getResumesImported() + batch.size());
+        result.setDocumentsEmbedded(result.getDocumentsEmbedded() + embedded);
+        result.setDocumentsCopied(result.getDocumentsCopied() + documents.size() - embedded);
+        batch.clear();
+    }
+
+    private static void saveCheckpoint(Path checkpoint, long line) throws IOException {
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(temp, Long.toString(line));
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static String encodeEmbedding(float[] embedding) {
+        ByteBuffer buffer = ByteBuffer.allocate(embedding.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(embedding);
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    static float[] decodeEmbedding(String encoded) {
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(encoded)).order(ByteOrder.LITTLE_ENDIAN);
+        float[] embedding = new float[buffer.remaining() / Float.BYTES];
+        buffer.asFloatBuffer().get(embedding);
+        return embedding;
+    }
+}
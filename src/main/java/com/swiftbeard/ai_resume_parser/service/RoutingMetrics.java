@@ -0,0 +1,61 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation, per-tier call counts, latency and escalation rate for {@link ModelRouter}.
+ */
+@Component
+public class RoutingMetrics {
+
+    private final Map<String, TierStats> stats = new ConcurrentHashMap<>();
+
+    public void recordCall(AiOperation operation, String tier, long latencyNanos, boolean decoded, boolean escalated) {
+        TierStats tierStats = stats.computeIfAbsent(operation.getKey() + "." + tier, key -> new TierStats());
+        tierStats.calls.increment();
+        tierStats.totalLatencyNanos.add(latencyNanos);
+        tierStats.maxLatencyNanos.accumulate(latencyNanos);
+        if (!decoded) {
+            tierStats.decodeFailures.increment();
+        }
+        if (escalated) {
+            tierStats.escalations.increment();
+        }
+    }
+
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> snapshot = new LinkedHashMap<>();
+        stats.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> snapshot.put(entry.getKey(), entry.getValue().toMap()));
+        return snapshot;
+    }
+
+    private static final class TierStats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder escalations = new LongAdder();
+        private final LongAdder decodeFailures = new LongAdder();
+        private final LongAdder totalLatencyNanos = new LongAdder();
+        private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+        private Map<String, Object> toMap() {
+            long callCount = calls.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("calls", callCount);
+            map.put("escalations", escalations.sum());
+            map.put("escalationRate", callCount == 0 ? 0.0 : (double) escalations.sum() / callCount);
+            map.put("decodeFailures", decodeFailures.sum());
+            map.put("avgLatencyMs", callCount == 0 ? 0.0
+                    : (double) TimeUnit.NANOSECONDS.toMicros(totalLatencyNanos.sum()) / callCount / 1000.0);
+            map.put("maxLatencyMs", TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+            return map;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Section-aware parse mode ({@code app.parsing.mode: sections}). The resume is split into sections,
+ * each section is parsed in parallel with a small prompt that asks only for that section's fields,
+ * and the results are merged into one {@link ParsedResume}. Section results are cached by a hash of
+ * their content, so re-uploading an edited resume only sends the sections that changed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SectionedResumeParser {
+
+    static final String SECTIONS_METADATA_KEY = "parseSections";
+
+    private static final String SECTION_PARSING_PROMPT = """
+            You are an expert resume parser. Extract structured information from the following {section} section of a resume.
+
+            Section Text:
+            {sectionText}
+
+            Extract and return the following information in JSON format:
+            {instructions}
+
+            {format}
+
+            Return ONLY valid JSON, no additional text.
+            """;
+
+    private static final Map<ResumeSections.Kind, String> SECTION_FORMATS = new EnumMap<>(ResumeSections.Kind.class);
+
+    static {
+        for (ResumeSections.Kind kind : ResumeSections.Kind.values()) {
+            Set<String> excluded = new HashSet<>();
+            for (Field field : ParsedResume.class.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !kind.getFields().contains(field.getName())) {
+                    excluded.add(field.getName());
+                }
+            }
+            SECTION_FORMATS.put(kind, JsonSchemaGenerator.formatInstructions(
+                    JsonSchemaGenerator.schemaFor(ParsedResume.class, excluded)));
+        }
+    }
+
+    private final ModelRouter modelRouter;
+    private final StructuredOutputDecoder structuredOutputDecoder;
+    private final ExecutorService sectionExecutor;
+    private final AppProperties appProperties;
+
+    private final Map<String, SectionStats> stats = new ConcurrentHashMap<>();
+    // A lock rather than a synchronized map: a virtual thread waiting for a monitor pins its carrier
+    private final Lock cacheLock = new ReentrantLock();
+    private Map<String, ParsedResume> cache;
+
+    @PostConstruct
+    void initCache() {
+        int maxEntries = appProperties.getParsing().getSectionCacheSize();
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParsedResume> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the merged model fields, or empty when the text has no recognizable sections or a section
+     * could not be parsed, in which case the caller should parse the whole document
+     */
+    public Optional<ParsedResume> parse(String resumeText) {
+        List<ResumeSections.Section> sections = ResumeSections.split(resumeText);
+        if (sections.size() < 2) {
+            log.debug("No section headings found, falling back to a full parse");
+            return Optional.empty();
+        }
+
+        List<Future<SectionResult>> futures = new ArrayList<>(sections.size());
+        for (ResumeSections.Section section : sections) {
+            futures.add(sectionExecutor.submit(() -> parseSection(section)));
+        }
+
+        // A caller with a deadline (the report's parse stage) interrupts this wait when it passes
+        List<SectionResult> results = new ArrayList<>(sections.size());
+        try {
+            for (Future<SectionResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            log.warn("Section parse failed, falling back to a full parse: {}", e.getCause().getMessage());
+            return Optional.empty();
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        ParsedResume merged = merge(results);
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put(SECTIONS_METADATA_KEY, results.stream().map(SectionResult::toMap).toList());
+        merged.setMetadata(metadata);
+        return Optional.of(merged);
+    }
+
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> snapshot = new LinkedHashMap<>();
+        stats.forEach((section, sectionStats) -> snapshot.put(section, sectionStats.toMap()));
+        return snapshot;
+    }
+
+    // The cache holds its own copies, so callers that edit a parsed resume cannot change later parses
+    private ParsedResume cached(String cacheKey) {
+        ParsedResume cached;
+        cacheLock.lock();
+        try {
+            cached = cache.get(cacheKey);
+        } finally {
+            cacheLock.unlock();
+        }
+        return cached != null ? copy(cached) : null;
+    }
+
+    private void remember(String cacheKey, ParsedResume parsed) {
+        ParsedResume copy = copy(parsed);
+        cacheLock.lock();
+        try {
+            cache.put(cacheKey, copy);
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    private SectionResult parseSection(ResumeSections.Section section) throws Exception {
+        long start = System.nanoTime();
+        SectionStats sectionStats = stats.computeIfAbsent(section.kind().getKey(), key -> new SectionStats());
+        String cacheKey = cacheKey(section);
+
+        ParsedResume cached = cached(cacheKey);
+        if (cached != null) {
+            sectionStats.cacheHits.increment();
+            return new SectionResult(section, cached, true, System.nanoTime() - start);
+        }
+
+        PromptTemplate promptTemplate = new PromptTemplate(SECTION_PARSING_PROMPT);
+        Map<String, Object> params = new HashMap<>();
+        params.put("section", section.kind().getKey());
+        params.put("sectionText", section.text());
+        params.put("instructions", section.kind().getInstructions());
+        params.put("format", SECTION_FORMATS.get(section.kind()));
+        Prompt prompt = promptTemplate.create(params);
+
+        try {
+            ParsedResume parsed = modelRouter.call(AiOperation.PARSE, prompt,
+                    response -> structuredOutputDecoder.decode(AiOperation.PARSE, response, ParsedResume.class),
+                    result -> confidence(section.kind(), result));
+            remember(cacheKey, parsed);
+            long elapsed = System.nanoTime() - start;
+            sectionStats.record(elapsed);
+            return new SectionResult(section, parsed, false, elapsed);
+        } catch (Exception e) {
+            sectionStats.failures.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Header fields come from the first section that has them; lists are concatenated in document order,
+     * with duplicate skills and certifications removed.
+     */
+    private static ParsedResume merge(List<SectionResult> results) {
+        ParsedResume merged = ParsedResume.builder()
+                .skills(new ArrayList<>())
+                .experiences(new ArrayList<>())
+                .educations(new ArrayList<>())
+                .certifications(new ArrayList<>())
+                .build();
+        Set<String> skills = new LinkedHashSet<>();
+        Set<String> certifications = new LinkedHashSet<>();
+
+        for (SectionResult result : results) {
+            ParsedResume part = result.parsed();
+            merged.setCandidateName(firstNonNull(merged.getCandidateName(), part.getCandidateName()));
+            merged.setEmail(firstNonNull(merged.getEmail(), part.getEmail()));
+            merged.setPhone(firstNonNull(merged.getPhone(), part.getPhone()));
+            merged.setLocation(firstNonNull(merged.getLocation(), part.getLocation()));
+            merged.setSummary(firstNonNull(merged.getSummary(), part.getSummary()));
+            if (part.getYearsOfExperience() != null) {
+                merged.setYearsOfExperience(Math.max(part.getYearsOfExperience(),
+                        Objects.requireNonNullElse(merged.getYearsOfExperience(), 0.0)));
+            }
+            Optional.ofNullable(part.getSkills()).ifPresent(skills::addAll);
+            Optional.ofNullable(part.getCertifications()).ifPresent(certifications::addAll);
+            Optional.ofNullable(part.getExperiences()).ifPresent(merged.getExperiences()::addAll);
+            Optional.ofNullable(part.getEducations()).ifPresent(merged.getEducations()::addAll);
+        }
+        merged.getSkills().addAll(skills);
+        merged.getCertifications().addAll(certifications);
+        return merged;
+    }
+
+    private static <T> T firstNonNull(T current, T candidate) {
+        return current != null ? current : candidate;
+    }
+
+    /**
+     * An empty result for a section that must hold structured fields (a header without a name, an
+     * experience section without entries) is most likely a miss by a weak model tier, so it escalates.
+     * Sections of kind {@code other} (interests, languages, awards ...) often have nothing to extract, and
+     * an empty result for them is a confident answer.
+     */
+    static double confidence(ResumeSections.Kind kind, ParsedResume parsed) {
+        return kind == ResumeSections.Kind.OTHER || hasContent(parsed) ? 1.0 : 0.0;
+    }
+
+    private static boolean hasContent(ParsedResume parsed) {
+        return parsed.getCandidateName() != null || parsed.getEmail() != null || parsed.getPhone() != null
+                || parsed.getLocation() != null || parsed.getSummary() != null
+                || parsed.getYearsOfExperience() != null
+                || notEmpty(parsed.getSkills()) || notEmpty(parsed.getExperiences())
+                || notEmpty(parsed.getEducations()) || notEmpty(parsed.getCertifications());
+    }
+
+    private static boolean notEmpty(Collection<?> values) {
+        return values != null && !values.isEmpty();
+    }
+
+    private static ParsedResume copy(ParsedResume parsed) {
+        return parsed.toBuilder()
+                .skills(copyList(parsed.getSkills()))
+                .certifications(copyList(parsed.getCertifications()))
+                .experiences(parsed.getExperiences() == null ? null : parsed.getExperiences().stream()
+                        .map(experience -> experience.toBuilder()
+                                .achievements(copyList(experience.getAchievements()))
+                                .build())
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .educations(parsed.getEducations() == null ? null : parsed.getEducations().stream()
+                        .map(education -> education.toBuilder().build())
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .metadata(parsed.getMetadata() == null ? null : new HashMap<>(parsed.getMetadata()))
+                .build();
+    }
+
+    private static <T> List<T> copyList(List<T> values) {
+        return values == null ? null : new ArrayList<>(values);
+    }
+
+    private static String cacheKey(ResumeSections.Section section) {
+        // Whitespace-insensitive, so re-extraction of the same document hits the cache
+        String normalized = section.text().replaceAll("\\s+", " ").trim();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(section.kind().getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record SectionResult(ResumeSections.Section section, ParsedResume parsed, boolean cached,
+                                 long durationNanos) {
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("section", section.kind().getKey());
+            map.put("heading", section.heading());
+            map.put("chars", section.text().length());
+            map.put("cached", cached);
+            map.put("latencyMs", TimeUnit.NANOSECONDS.toMillis(durationNanos));
+            return map;
+        }
+    }
+
+    private static final class SectionStats {
+        private final LongAdder parsed = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(long nanos) {
+            parsed.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private Map<String, Object> toMap() {
+            long count = parsed.sum();
+            long lookups = count + cacheHits.sum() + failures.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("parsed", count);
+            map.put("cacheHits", cacheHits.sum());
+            map.put("failures", failures.sum());
+            map.put("cacheHitRate", lookups == 0 ? 0.0 : (double) cacheHits.sum() / lookups);
+            map.put("avgLatencyMs", count == 0 ? 0.0 : totalNanos.sum() / 1e6 / count);
+            map.put("maxLatencyMs", TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+            return map;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of the upload and analysis pipeline. Each stage (text extraction, a chat call,
+ * decoding its response, a vector store write, ...) records its wall time as {@code resume.stage} and, for
+ * the thread that ran it, CPU time as {@code resume.stage.cpu} and heap allocated as
+ * {@code resume.stage.allocated}. Chat calls also count prompt and completion tokens.
+ * <p>
+ * Stages are meant to be used with try-with-resources:
+ * <pre>
+ * try (StageMetrics.Stage stage = stageMetrics.start("extract", "format", "pdf")) {
+ *     ...
+ * }
+ * </pre>
+ */
+@Component
+public class StageMetrics {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+
+    private final MeterRegistry meterRegistry;
+
+    public StageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Starts timing a stage on the current thread.
+     * @param tags alternating tag keys and values, in addition to {@code stage}
+     */
+    public Stage start(String stage, String... tags) {
+        return new Stage(Tags.of(tags).and("stage", stage));
+    }
+
+    public void recordTokens(AiOperation operation, String tier, Usage usage) {
+        if (usage == null) {
+            return;
+        }
+        Tags tags = Tags.of("operation", operation.getKey(), "tier", tier);
+        if (usage.getPromptTokens() != null) {
+            Counter.builder("resume.ai.tokens").tags(tags).tag("type", "prompt")
+                    .register(meterRegistry).increment(usage.getPromptTokens());
+        }
+        if (usage.getGenerationTokens() != null) {
+            Counter.builder("resume.ai.tokens").tags(tags).tag("type", "completion")
+                    .register(meterRegistry).increment(usage.getGenerationTokens());
+        }
+    }
+
+    /**
+     * CPU time of the current thread in nanoseconds, or -1 if the JVM cannot measure it.
+     */
+    public static long threadCpuNanos() {
+        return THREADS != null && THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or -1 if the JVM cannot measure it.
+     */
+    public static long threadAllocatedBytes() {
+        return THREADS != null && THREADS.isThreadAllocatedMemoryEnabled() ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        // The allocation counter is a HotSpot extension of the standard bean
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            if (threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+            }
+            return threads;
+        }
+        return null;
+    }
+
+    public final class Stage implements AutoCloseable {
+        private final Tags tags;
+        private final long startNanos = System.nanoTime();
+        private final long startCpuNanos = threadCpuNanos();
+        private final long startAllocatedBytes = threadAllocatedBytes();
+
+        private Stage(Tags tags) {
+            this.tags = tags;
+        }
+
+        @Override
+        public void close() {
+            Timer.builder("resume.stage").tags(tags).publishPercentileHistogram()
+                    .register(meterRegistry).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            if (startCpuNanos >= 0) {
+                Timer.builder("resume.stage.cpu").tags(tags)
+                        .register(meterRegistry).record(threadCpuNanos() - startCpuNanos, TimeUnit.NANOSECONDS);
+            }
+            if (startAllocatedBytes >= 0) {
+                DistributionSummary.builder("resume.stage.allocated").baseUnit("bytes").tags(tags)
+                        .register(meterRegistry).record(threadAllocatedBytes() - startAllocatedBytes);
+            }
+        }
+    }
+}
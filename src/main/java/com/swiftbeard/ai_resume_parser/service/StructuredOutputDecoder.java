@@ -0,0 +1,136 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared decoder for structured LLM output. Prompts embed a JSON Schema generated from the target
+ * type by {@link JsonSchemaGenerator}; responses are deserialized straight into typed
+ * objects, first as-is and then after a local {@link JsonRepair} pass, so that almost-valid JSON no
+ * longer sends a paid completion to the fallback path.
+ * <p>
+ * The counters are also exported to Micrometer as {@code resume.ai.requests}, {@code resume.ai.decode}
+ * (tagged with the outcome) and {@code resume.ai.fallbacks}, per operation.
+ */
+@Slf4j
+@Component
+public class StructuredOutputDecoder implements MeterBinder {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true);
+
+    private final Map<String, OperationStats> stats = new ConcurrentHashMap<>();
+
+    public <T> T decode(AiOperation operation, String response, Class<T> type) throws JsonProcessingException {
+        return decode(operation, response, objectMapper.constructType(type));
+    }
+
+    public <T> T decode(AiOperation operation, String response, JavaType type) throws JsonProcessingException {
+        OperationStats operationStats = stats(operation);
+        try {
+            T value = objectMapper.readValue(JsonRepair.stripFences(response), type);
+            operationStats.direct.increment();
+            return value;
+        } catch (JsonProcessingException strictFailure) {
+            String repaired = JsonRepair.repair(response);
+            try {
+                T value = objectMapper.readValue(repaired, type);
+                operationStats.repaired.increment();
+                log.debug("Repaired malformed {} response: {}", operation.getKey(), strictFailure.getOriginalMessage());
+                return value;
+            } catch (JsonProcessingException repairFailure) {
+                operationStats.failed.increment();
+                throw repairFailure;
+            }
+        }
+    }
+
+    /**
+     * Serializes a value for embedding in a prompt, e.g. a previous result the model should update.
+     */
+    public String toJson(Object value) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    public JavaType listOf(Class<?> elementType) {
+        return objectMapper.getTypeFactory().constructCollectionType(List.class, elementType);
+    }
+
+    /**
+     * Records that a request of this operation ended on its fallback result.
+     */
+    public void recordFallback(AiOperation operation) {
+        stats(operation).fallbacks.increment();
+    }
+
+    public void recordRequest(AiOperation operation) {
+        stats(operation).requests.increment();
+    }
+
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> snapshot = new LinkedHashMap<>();
+        stats.forEach((operation, operationStats) -> snapshot.put(operation, operationStats.toMap()));
+        return snapshot;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (AiOperation operation : AiOperation.values()) {
+            OperationStats operationStats = stats(operation);
+            String key = operation.getKey();
+            FunctionCounter.builder("resume.ai.requests", operationStats.requests, LongAdder::sum)
+                    .tag("operation", key).register(registry);
+            FunctionCounter.builder("resume.ai.decode", operationStats.direct, LongAdder::sum)
+                    .tag("operation", key).tag("outcome", "direct").register(registry);
+            FunctionCounter.builder("resume.ai.decode", operationStats.repaired, LongAdder::sum)
+                    .tag("operation", key).tag("outcome", "repaired").register(registry);
+            FunctionCounter.builder("resume.ai.decode", operationStats.failed, LongAdder::sum)
+                    .tag("operation", key).tag("outcome", "failed").register(registry);
+            FunctionCounter.builder("resume.ai.fallbacks", operationStats.fallbacks, LongAdder::sum)
+                    .tag("operation", key).register(registry);
+        }
+    }
+
+    private OperationStats stats(AiOperation operation) {
+        return stats.computeIfAbsent(operation.getKey(), key -> new OperationStats());
+    }
+
+    private static final class OperationStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder direct = new LongAdder();
+        private final LongAdder repaired = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder fallbacks = new LongAdder();
+
+        private Map<String, Object> toMap() {
+            long decodes = direct.sum() + repaired.sum() + failed.sum();
+            long requestCount = requests.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("requests", requestCount);
+            map.put("decodedDirectly", direct.sum());
+            map.put("decodedAfterRepair", repaired.sum());
+            map.put("decodeFailures", failed.sum());
+            map.put("fallbacks", fallbacks.sum());
+            // Strict decoding is what the services did before the repair pass existed
+            map.put("strictFailureRate", decodes == 0 ? 0.0 : (double) (repaired.sum() + failed.sum()) / decodes);
+            map.put("decodeFailureRate", decodes == 0 ? 0.0 : (double) failed.sum() / decodes);
+            map.put("fallbackRate", requestCount == 0 ? 0.0 : (double) fallbacks.sum() / requestCount);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.model.TextStatistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Single-pass tokenizer over a {@link CharSequence} that computes {@link TextStatistics} without
+ * allocating per token: tokens are never materialized as strings, only as case-folded 64-bit hashes,
+ * which are counted in a primitive open-addressing table. Skills (possibly several words, e.g.
+ * "Spring Boot") are matched on the same hashes against a ring buffer of the most recent tokens.
+ * <p>
+ * A token is a run of letters and digits, including {@code +} and {@code #} ("C++", "C#") and
+ * {@code . - / '} between two letters or digits ("Node.js", "CI/CD"). Lines are classified on the way:
+ * bullets and whether they contain a number other than a year, table-like rows, and unreadable glyphs.
+ */
+final class TextAnalyzer {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final String BULLETS = "-*\u2022\u25aa\u25cf\u25e6\u2023\u2013\u00b7>";
+
+    private static final LongIntHashMap ACTION_VERBS = new LongIntHashMap(256);
+
+    static {
+        for (String verb : Set.of(
+                "achieved", "administered", "analyzed", "architected", "automated", "boosted", "built",
+                "championed", "coached", "collaborated", "configured", "consolidated", "coordinated", "created",
+                "cut", "debugged", "decreased", "defined", "delivered", "deployed", "designed", "developed",
+                "directed", "drove", "eliminated", "enabled", "engineered", "established", "evaluated",
+                "expanded", "facilitated", "generated", "grew", "guided", "headed", "identified", "implemented",
+                "improved", "increased", "initiated", "integrated", "introduced", "launched", "led", "maintained",
+                "managed", "mentored", "migrated", "modernized", "negotiated", "optimized", "orchestrated",
+                "organized", "oversaw", "owned", "pioneered", "planned", "produced", "reduced", "refactored",
+                "resolved", "restructured", "revamped", "saved", "scaled", "shipped", "simplified",
+                "spearheaded", "streamlined", "strengthened", "supervised", "trained", "transformed")) {
+            ACTION_VERBS.put(hash(verb, 0, verb.length()), 0);
+        }
+    }
+
+    private TextAnalyzer() {
+    }
+
+    static TextStatistics analyze(CharSequence text, List<String> skills) {
+        SkillMatcher matcher = new SkillMatcher(skills != null ? skills : List.of());
+        LongIntHashMap terms = new LongIntHashMap(Math.max(64, text.length() / 8));
+        EnumSet<ResumeSections.Kind> sections = EnumSet.noneOf(ResumeSections.Kind.class);
+        List<String> sectionOrder = new ArrayList<>();
+
+        int totalWords = 0;
+        int actionVerbs = 0;
+        int bulletLines = 0;
+        int quantifiedBullets = 0;
+        int tableLines = 0;
+        int unreadableCharacters = 0;
+        int lineStart = 0;
+        int lineTokens = 0;
+        int lineSeparators = 0;
+        char lineFirst = 0;
+        boolean lineQuantified = false;
+        int length = text.length();
+        int i = 0;
+
+        while (i <= length) {
+            char c = i < length ? text.charAt(i) : '\n';
+            if (c == '\n') {
+                // Heading candidates are short lines; only those are looked at as strings
+                if (lineTokens > 0 && lineTokens <= 4) {
+                    ResumeSections.Kind kind = ResumeSections.headingKind(text.subSequence(lineStart, i).toString());
+                    if (kind != null && kind != ResumeSections.Kind.OTHER && sections.add(kind)) {
+                        sectionOrder.add(kind.getKey());
+                    }
+                }
+                if (BULLETS.indexOf(lineFirst) >= 0) {
+                    bulletLines++;
+                    if (lineQuantified) {
+                        quantifiedBullets++;
+                    }
+                }
+                if (lineSeparators >= 3) {
+                    tableLines++;
+                }
+                lineStart = i + 1;
+                lineTokens = 0;
+                lineSeparators = 0;
+                lineFirst = 0;
+                lineQuantified = false;
+                i++;
+                continue;
+            }
+            if (lineFirst == 0 && !Character.isWhitespace(c)) {
+                lineFirst = c;
+            }
+            if (!Character.isLetterOrDigit(c)) {
+                if (c == '|' || c == '\t') {
+                    lineSeparators++;
+                } else if (c == '\uFFFD' || Character.getType(c) == Character.PRIVATE_USE) {
+                    // Replacement characters and icon-font glyphs: text the extractor (and an ATS) could not read
+                    unreadableCharacters++;
+                }
+                i++;
+                continue;
+            }
+
+            int end = tokenEnd(text, i, length);
+            long hash = hash(text, i, end);
+            totalWords++;
+            lineTokens++;
+            terms.put(hash, 0);
+            if (ACTION_VERBS.containsKey(hash)) {
+                actionVerbs++;
+            }
+            matcher.accept(hash);
+            if (Character.isDigit(c) && !isYear(text, i, end)) {
+                lineQuantified = true;
+            }
+            i = end;
+        }
+
+        return TextStatistics.builder()
+                .totalWords(totalWords)
+                .uniqueWords(terms.size())
+                .actionVerbs(actionVerbs)
+                .bulletLines(bulletLines)
+                .quantifiedBullets(quantifiedBullets)
+                .tableLines(tableLines)
+                .unreadableCharacters(unreadableCharacters)
+                .sections(sectionOrder)
+                .skillOccurrences(matcher.occurrences())
+                .build();
+    }
+
+    private static boolean isYear(CharSequence text, int start, int end) {
+        return end - start == 4 && (text.charAt(start) == '1' && text.charAt(start + 1) == '9'
+                || text.charAt(start) == '2' && text.charAt(start + 1) == '0');
+    }
+
+    private static int tokenEnd(CharSequence text, int start, int length) {
+        int i = start + 1;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c) || c == '+' || c == '#') {
+                i++;
+            } else if ((c == '.' || c == '-' || c == '/' || c == '\'')
+                    && Character.isLetterOrDigit(text.charAt(i - 1))
+                    && i + 1 < length && Character.isLetterOrDigit(text.charAt(i + 1))) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * FNV-1a over the lower-cased characters of {@code text[start, end)}.
+     */
+    private static long hash(CharSequence text, int start, int end) {
+        long hash = FNV_OFFSET;
+        for (int i = start; i < end; i++) {
+            hash ^= Character.toLowerCase(text.charAt(i));
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Counts occurrences of skill phrases. Each skill is tokenized once into hashes; a skill is looked up by
+     * the hash of its last token and confirmed against the preceding tokens kept in a ring buffer.
+     */
+    private static final class SkillMatcher {
+        private final List<String> skills = new ArrayList<>();
+        private final List<long[]> phrases = new ArrayList<>();
+        private final LongIntHashMap byLastToken = new LongIntHashMap(64);
+        private final int[] nextWithSameLastToken;
+        private final int[] occurrences;
+        private final long[] recent;
+        private long position;
+
+        SkillMatcher(List<String> skillNames) {
+            int maxTokens = 1;
+            for (String skill : skillNames) {
+                long[] phrase = skill != null ? tokenHashes(skill) : new long[0];
+                if (phrase.length > 0) {
+                    skills.add(skill);
+                    phrases.add(phrase);
+                    maxTokens = Math.max(maxTokens, phrase.length);
+                }
+            }
+            nextWithSameLastToken = new int[skills.size()];
+            occurrences = new int[skills.size()];
+            recent = new long[maxTokens];
+            for (int s = 0; s < phrases.size(); s++) {
+                long[] phrase = phrases.get(s);
+                nextWithSameLastToken[s] = byLastToken.put(phrase[phrase.length - 1], s);
+            }
+        }
+
+        void accept(long hash) {
+            recent[(int) (position % recent.length)] = hash;
+            position++;
+            for (int s = byLastToken.get(hash); s >= 0; s = nextWithSameLastToken[s]) {
+                if (endsWith(phrases.get(s))) {
+                    occurrences[s]++;
+                }
+            }
+        }
+
+        private boolean endsWith(long[] phrase) {
+            if (phrase.length > position) {
+                return false;
+            }
+            for (int j = 0; j < phrase.length - 1; j++) {
+                long index = position - phrase.length + j;
+                if (recent[(int) (index % recent.length)] != phrase[j]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Map<String, Integer> occurrences() {
+            Map<String, Integer> result = new LinkedHashMap<>();
+            for (int s = 0; s < skills.size(); s++) {
+                result.merge(skills.get(s), occurrences[s], Math::max);
+            }
+            return result;
+        }
+
+        private static long[] tokenHashes(String skill) {
+            long[] hashes = new long[4];
+            int count = 0;
+            int length = skill.length();
+            int i = 0;
+            while (i < length) {
+                if (!Character.isLetterOrDigit(skill.charAt(i))) {
+                    i++;
+                    continue;
+                }
+                int end = tokenEnd(skill, i, length);
+                if (count == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, count * 2);
+                }
+                hashes[count++] = hash(skill, i, end);
+                i = end;
+            }
+            return Arrays.copyOf(hashes, count);
+        }
+    }
+
+    /**
+     * Open-addressing map from {@code long} keys to {@code int} values with linear probing.
+     */
+    static final class LongIntHashMap {
+        private long[] keys;
+        private int[] values;
+        private boolean[] used;
+        private int size;
+
+        LongIntHashMap(int expectedSize) {
+            int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+            used = new boolean[capacity];
+        }
+
+        /**
+         * @return the previous value for the key, or -1 if there was none
+         */
+        int put(long key, int value) {
+            int slot = slot(key);
+            if (used[slot]) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            values[slot] = value;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+            return -1;
+        }
+
+        /**
+         * @return the value for the key, or -1 if there is none
+         */
+        int get(long key) {
+            int slot = slot(key);
+            return used[slot] ? values[slot] : -1;
+        }
+
+        boolean containsKey(long key) {
+            return used[slot(key)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) (key ^ (key >>> 32)) & mask;
+            while (used[slot] && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    int slot = slot(oldKeys[i]);
+                    used[slot] = true;
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+}
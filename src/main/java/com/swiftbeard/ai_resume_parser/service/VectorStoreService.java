@@ -1,66 +1,561 @@
 package com.swiftbeard.ai_resume_parser.service;
 
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
 import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import com.swiftbeard.ai_resume_parser.vectorstore.MetadataFilter;
+import com.swiftbeard.ai_resume_parser.vectorstore.PgVectorResumeStore;
+import com.swiftbeard.ai_resume_parser.vectorstore.ShardedVectorStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class VectorStoreService {
 
+    // Every section buildChunks can write; only experience has one entry per index
+    private static final List<String> CHUNK_SECTIONS = List.of("summary", "skills", "experience", "education", "resume");
+
     private final VectorStore vectorStore;
+    private final AppProperties appProperties;
+    private final StageMetrics stageMetrics;
+
+    // Chunk ids last written per resume, for stores that cannot be probed for them (see findStaleChunkIds)
+    private final Map<String, List<String>> writtenChunkIds = new ConcurrentHashMap<>();
 
     public void storeResume(ParsedResume resume) {
+        if (appProperties.getVector().getChunking().isEnabled()) {
+            storeResumeChunks(resume);
+            return;
+        }
+
         log.info("Storing resume in vector store: {}", resume.getId());
 
         // Create a comprehensive text representation of the resume
         String resumeText = buildResumeText(resume);
 
         // Create metadata
-        Map<String, Object> metadata = new HashMap<>();
-        metadata.put("resumeId", resume.getId());
-        metadata.put("fileName", resume.getFileName());
-        metadata.put("candidateName", resume.getCandidateName());
-        metadata.put("email", resume.getEmail());
-        metadata.put("type", "resume");
+        Map<String, Object> metadata = buildMetadata(resume);
 
-        // Create document and add to vector store
-        Document document = new Document(resumeText, metadata);
-        vectorStore.add(List.of(document));
+        // Create document and add to vector store; the id is derived from the resume id, so re-indexing replaces it
+        Document document = new Document(documentId(resume.getId()), resumeText, metadata);
+        try (StageMetrics.Stage stage = stageMetrics.start("vector.store")) {
+            vectorStore.add(List.of(document));
+        }
 
         log.info("Resume successfully stored in vector store");
     }
 
-    public List<Document> searchSimilarResumes(String query, int topK) {
-        log.info("Searching for similar resumes with query: {}", query);
+    /**
+     * Stores the resume as one document per section (summary, skills, each experience entry, education),
+     * all linked by {@code resumeId}. Chunk ids are derived from the resume id and section, so re-indexing
+     * the same resume overwrites its chunks instead of duplicating them; chunks of an earlier version that
+     * the new one no longer has (e.g. a removed experience entry) are deleted first.
+     */
+    private void storeResumeChunks(ParsedResume resume) {
+        List<Document> chunks = buildChunks(resume);
+        log.info("Storing resume {} in vector store as {} chunks", resume.getId(), chunks.size());
+        try (StageMetrics.Stage stage = stageMetrics.start("vector.store")) {
+            List<String> stale = findStaleChunkIds(resume.getId(), chunks);
+            if (!stale.isEmpty()) {
+                log.info("Deleting {} chunks of resume {} left from an earlier version", stale.size(), resume.getId());
+                vectorStore.delete(stale);
+            }
+            vectorStore.add(chunks);
+        }
+        if (!exposesEmbeddings()) {
+            writtenChunkIds.put(resume.getId(), chunks.stream().map(Document::getId).toList());
+        }
+    }
+
+    /**
+     * Ids of the resume's stored chunks that are not among {@code chunks}. Chunks are written with
+     * contiguous keys (entry indexes and parts from 0), so a stale chunk follows a current or another stale
+     * one: the store is probed for the next key of each run, one lookup per round, until it has none. Only
+     * stores that expose their embeddings can be probed; with any other store (the in-memory
+     * {@code SimpleVectorStore}) the ids recorded when the resume was last written are used instead.
+     */
+    private List<String> findStaleChunkIds(String resumeId, List<Document> chunks) {
+        Set<String> current = new HashSet<>();
+        chunks.forEach(chunk -> current.add(chunk.getId()));
+        if (!exposesEmbeddings()) {
+            return writtenChunkIds.getOrDefault(resumeId, List.of()).stream()
+                    .filter(id -> !current.contains(id))
+                    .toList();
+        }
+
+        List<String> stale = new ArrayList<>();
+        List<ChunkKey> candidates = CHUNK_SECTIONS.stream().map(section -> new ChunkKey(section, 0, 0)).toList();
+        while (!candidates.isEmpty()) {
+            List<String> unknown = candidates.stream()
+                    .map(key -> key.id(resumeId))
+                    .filter(id -> !current.contains(id))
+                    .toList();
+            Set<String> found = unknown.isEmpty() ? Set.of() : findEmbeddings(unknown).keySet();
 
-        SearchRequest searchRequest = SearchRequest.query(query)
-                .withTopK(topK)
-                .withSimilarityThreshold(0.7);
+            List<ChunkKey> next = new ArrayList<>();
+            for (ChunkKey key : candidates) {
+                String id = key.id(resumeId);
+                if (found.contains(id)) {
+                    stale.add(id);
+                } else if (!current.contains(id)) {
+                    continue;
+                }
+                next.add(new ChunkKey(key.section(), key.index(), key.part() + 1));
+                if (key.part() == 0 && "experience".equals(key.section())) {
+                    next.add(new ChunkKey(key.section(), key.index() + 1, 0));
+                }
+            }
+            candidates = next;
+        }
+        return stale;
+    }
+
+    /**
+     * The documents {@link #storeResume} writes for the resume under the current chunking setting, with the
+     * same ids.
+     */
+    public List<Document> buildDocuments(ParsedResume resume) {
+        if (appProperties.getVector().getChunking().isEnabled()) {
+            return buildChunks(resume);
+        }
+        return List.of(new Document(documentId(resume.getId()), buildResumeText(resume), buildMetadata(resume)));
+    }
+
+    /**
+     * Stored embeddings of the documents, by document id. Only the sharded and pgvector stores expose their
+     * embeddings; with any other store the result is empty.
+     */
+    public Map<String, float[]> findEmbeddings(List<String> documentIds) {
+        if (vectorStore instanceof ShardedVectorStore sharded) {
+            Map<String, float[]> embeddings = new HashMap<>();
+            for (String id : documentIds) {
+                sharded.getEmbedding(id).ifPresent(embedding -> embeddings.put(id, embedding));
+            }
+            return embeddings;
+        }
+        if (vectorStore instanceof PgVectorResumeStore pgvector && !documentIds.isEmpty()) {
+            return pgvector.getEmbeddings(documentIds);
+        }
+        return Map.of();
+    }
+
+    private boolean exposesEmbeddings() {
+        return vectorStore instanceof ShardedVectorStore || vectorStore instanceof PgVectorResumeStore;
+    }
 
-        return vectorStore.similaritySearch(searchRequest);
+    /**
+     * The stored embedding of the resume's whole-resume document, i.e. of {@link #buildResumeText}. Empty
+     * when chunking is enabled (there is no such document), before the resume is indexed, or when the
+     * store does not expose embeddings.
+     */
+    public Optional<float[]> findResumeEmbedding(ParsedResume resume) {
+        if (appProperties.getVector().getChunking().isEnabled() || resume.getId() == null) {
+            return Optional.empty();
+        }
+        String id = documentId(resume.getId());
+        return Optional.ofNullable(findEmbeddings(List.of(id)).get(id));
+    }
+
+    /**
+     * Writes documents whose embeddings were computed elsewhere, e.g. exported from another environment.
+     * Documents with a null embedding are embedded here, as are all documents when the store cannot take
+     * precomputed embeddings.
+     * @return the number of documents embedded here
+     */
+    public int storeDocuments(List<Document> documents, List<float[]> embeddings) {
+        List<Document> precomputed = new ArrayList<>();
+        List<float[]> precomputedEmbeddings = new ArrayList<>();
+        List<Document> toEmbed = new ArrayList<>();
+        boolean acceptsEmbeddings = exposesEmbeddings();
+        for (int i = 0; i < documents.size(); i++) {
+            if (acceptsEmbeddings && embeddings.get(i) != null) {
+                precomputed.add(documents.get(i));
+                precomputedEmbeddings.add(embeddings.get(i));
+            } else {
+                toEmbed.add(documents.get(i));
+            }
+        }
+
+        try (StageMetrics.Stage stage = stageMetrics.start("vector.store")) {
+            if (!precomputed.isEmpty()) {
+                if (vectorStore instanceof ShardedVectorStore sharded) {
+                    sharded.add(precomputed, precomputedEmbeddings);
+                } else {
+                    ((PgVectorResumeStore) vectorStore).add(precomputed, precomputedEmbeddings);
+                }
+            }
+            if (!toEmbed.isEmpty()) {
+                vectorStore.add(toEmbed);
+            }
+        }
+        log.debug("Stored {} documents with precomputed embeddings, embedded {}", precomputed.size(), toEmbed.size());
+        return toEmbed.size();
+    }
+
+    /**
+     * Indexes a new version of a resume that reuses the previous version's parse. Its documents get the
+     * previous version's stored embeddings instead of being embedded again, and the previous version's
+     * documents are removed, so search returns the new version. Documents whose embedding is not available
+     * (the store does not expose embeddings, or the previous version is still waiting to be indexed) are
+     * embedded as usual.
+     * @return the number of documents embedded here
+     */
+    public int storeReusedResume(ParsedResume resume, ParsedResume previous) {
+        List<Document> documents = buildDocuments(resume);
+        List<Document> previousDocuments = buildDocuments(previous);
+        Map<String, float[]> stored = findEmbeddings(previousDocuments.stream().map(Document::getId).toList());
+
+        List<float[]> embeddings = new ArrayList<>(documents.size());
+        for (int i = 0; i < documents.size(); i++) {
+            // The parsed fields are the same, so both versions build the same texts in the same order
+            Document previousDocument = i < previousDocuments.size() ? previousDocuments.get(i) : null;
+            boolean sameText = previousDocument != null
+                    && previousDocument.getContent().equals(documents.get(i).getContent());
+            embeddings.add(sameText ? stored.get(previousDocument.getId()) : null);
+        }
+        int embedded = storeDocuments(documents, embeddings);
+        deleteDocuments(previousDocuments);
+        if (!exposesEmbeddings() && appProperties.getVector().getChunking().isEnabled()) {
+            writtenChunkIds.remove(previous.getId());
+            writtenChunkIds.put(resume.getId(), documents.stream().map(Document::getId).toList());
+        }
+        log.info("Indexed resume {} from previous version {} ({} of {} documents embedded)",
+                resume.getId(), previous.getId(), embedded, documents.size());
+        return embedded;
+    }
+
+    /**
+     * Removes the documents {@link #storeResume} wrote for the resume under the current chunking setting,
+     * and any chunks recorded for it from an earlier version.
+     */
+    public void deleteResume(ParsedResume resume) {
+        Set<String> ids = new LinkedHashSet<>();
+        buildDocuments(resume).forEach(document -> ids.add(document.getId()));
+        ids.addAll(writtenChunkIds.getOrDefault(resume.getId(), List.of()));
+        vectorStore.delete(new ArrayList<>(ids));
+        writtenChunkIds.remove(resume.getId());
+    }
+
+    private void deleteDocuments(List<Document> documents) {
+        vectorStore.delete(documents.stream().map(Document::getId).toList());
+    }
+
+    public List<Document> searchSimilarResumes(String query, int topK) {
+        return searchSimilarResumes(query, topK, null);
+    }
+
+    /**
+     * @param filter optional metadata filter expression, e.g. {@code skills == 'Java' && location == 'Berlin'}
+     * @throws IllegalArgumentException if the filter expression is malformed
+     */
+    public List<Document> searchSimilarResumes(String query, int topK, String filter) {
+        log.info("Searching for similar resumes with query: {}", query);
+        return search(new SearchQuery(query, null), topK, 0.7, MetadataFilter.parse(filter));
     }
 
     public List<Document> findMatchingResumes(String jobDescription, int topK) {
+        return findMatchingResumes(jobDescription, topK, null);
+    }
+
+    public List<Document> findMatchingResumes(String jobDescription, int topK, String filter) {
         log.info("Finding resumes matching job description");
+        return search(new SearchQuery(jobDescription, null), topK, 0.6, MetadataFilter.parse(filter));
+    }
+
+    /**
+     * Finds candidates for a registered job with its precomputed query embedding, so stores that can
+     * search by vector skip the embedding call; others embed {@code jobQuery} as usual.
+     */
+    public List<Document> findMatchingResumes(float[] jobEmbedding, String jobQuery, int topK, String filter) {
+        log.info("Finding resumes matching registered job");
+        return search(new SearchQuery(jobQuery, jobEmbedding), topK, 0.6, MetadataFilter.parse(filter));
+    }
+
+    private List<Document> search(SearchQuery query, int topK, double similarityThreshold, Filter.Expression filter) {
+        if ("off".equalsIgnoreCase(appProperties.getDedup().getPolicy())) {
+            return searchResumes(query, topK, similarityThreshold, filter);
+        }
+        // Fetch extra so that collapsing near-duplicate versions still leaves topK distinct candidates
+        List<Document> hits = searchResumes(query, topK * 2, similarityThreshold, filter);
+        return collapseDuplicates(hits, topK);
+    }
+
+    private List<Document> searchResumes(SearchQuery query, int topK, double similarityThreshold, Filter.Expression filter) {
+        AppProperties.Chunking chunking = appProperties.getVector().getChunking();
+        if (!chunking.isEnabled()) {
+            return fetch(query, topK, similarityThreshold, filter);
+        }
+
+        // Fetch chunks until there are enough distinct resumes or the store has nothing more to give
+        int factor = Math.max(1, chunking.getOverfetchFactor());
+        while (true) {
+            int chunkTopK = topK * factor;
+            List<Document> hits = fetch(query, chunkTopK, similarityThreshold, filter);
+
+            List<Document> resumes = aggregateByResume(hits, topK, chunking.getAggregation());
+            if (resumes.size() >= topK || hits.size() < chunkTopK || factor >= chunking.getMaxOverfetchFactor()) {
+                return resumes;
+            }
+            factor = Math.min(factor * 2, chunking.getMaxOverfetchFactor());
+        }
+    }
+
+    /**
+     * Keeps the best-ranked hit of each duplicate group (versions of the same resume), annotated with the
+     * number of other versions it stands for.
+     */
+    private static List<Document> collapseDuplicates(List<Document> hits, int topK) {
+        Map<Object, Document> bestByGroup = new LinkedHashMap<>();
+        Map<Object, Integer> collapsed = new HashMap<>();
+        for (Document hit : hits) {
+            Object group = hit.getMetadata().getOrDefault("duplicateGroup",
+                    hit.getMetadata().getOrDefault("resumeId", hit.getId()));
+            if (bestByGroup.putIfAbsent(group, hit) != null) {
+                collapsed.merge(group, 1, Integer::sum);
+            }
+        }
+        return bestByGroup.entrySet().stream()
+                .limit(topK)
+                .map(entry -> {
+                    Document best = entry.getValue();
+                    if (!collapsed.containsKey(entry.getKey())) {
+                        return best;
+                    }
+                    Map<String, Object> metadata = new HashMap<>(best.getMetadata());
+                    metadata.put("collapsedDuplicates", collapsed.get(entry.getKey()));
+                    return new Document(best.getId(), best.getContent(), metadata);
+                })
+                .toList();
+    }
 
-        SearchRequest searchRequest = SearchRequest.query(jobDescription)
-                .withTopK(topK)
-                .withSimilarityThreshold(0.6);
+    /**
+     * Runs one similarity search. The sharded store applies the filter inside its scan and pgvector in
+     * SQL; other stores are over-fetched and filtered here until {@code topK} matches are found or the
+     * store runs out.
+     */
+    private List<Document> fetch(SearchQuery query, int topK, double similarityThreshold, Filter.Expression filter) {
+        if (filter == null || vectorStore instanceof ShardedVectorStore || vectorStore instanceof PgVectorResumeStore) {
+            return similaritySearch(query, topK, similarityThreshold, filter);
+        }
+
+        AppProperties.Filtering filtering = appProperties.getVector().getFiltering();
+        int factor = Math.max(1, filtering.getOverfetchFactor());
+        while (true) {
+            int fetchTopK = topK * factor;
+            List<Document> hits = similaritySearch(query, fetchTopK, similarityThreshold, null);
+
+            List<Document> matching = hits.stream()
+                    .filter(hit -> MetadataFilter.matches(filter, hit.getMetadata()))
+                    .limit(topK)
+                    .toList();
+            if (matching.size() >= topK || hits.size() < fetchTopK || factor >= filtering.getMaxOverfetchFactor()) {
+                return matching;
+            }
+            factor = Math.min(factor * 2, filtering.getMaxOverfetchFactor());
+        }
+    }
+
+    /**
+     * Searches by the precomputed embedding when there is one and the store supports it.
+     * @param filter only passed on to stores that evaluate filters natively
+     */
+    private List<Document> similaritySearch(SearchQuery query, int topK, double similarityThreshold,
+                                            Filter.Expression filter) {
+        try (StageMetrics.Stage stage = stageMetrics.start("vector.search")) {
+            if (query.embedding() != null && vectorStore instanceof ShardedVectorStore sharded) {
+                return sharded.search(query.embedding(), topK, similarityThreshold, filter);
+            }
+            if (query.embedding() != null && vectorStore instanceof PgVectorResumeStore pgvector) {
+                return pgvector.search(query.embedding(), topK, similarityThreshold, filter);
+            }
+            SearchRequest searchRequest = SearchRequest.query(query.text())
+                    .withTopK(topK)
+                    .withSimilarityThreshold(similarityThreshold);
+            return vectorStore.similaritySearch(filter != null ? searchRequest.withFilterExpression(filter) : searchRequest);
+        }
+    }
+
+    /**
+     * Collapses chunk hits into one document per resume: the best-scoring chunk, annotated with the
+     * aggregated {@code score} (max or sum of chunk similarities) and the number of matching chunks.
+     */
+    private List<Document> aggregateByResume(List<Document> hits, int topK, String aggregation) {
+        boolean sum = "sum".equalsIgnoreCase(aggregation);
+        Map<String, ResumeHit> byResume = new HashMap<>();
+
+        for (Document hit : hits) {
+            Object resumeId = hit.getMetadata().get("resumeId");
+            if (resumeId == null) {
+                continue;
+            }
+            double similarity = similarity(hit);
+            ResumeHit resumeHit = byResume.computeIfAbsent(resumeId.toString(), id -> new ResumeHit());
+            resumeHit.score = sum ? resumeHit.score + similarity : Math.max(resumeHit.score, similarity);
+            resumeHit.chunks++;
+            if (resumeHit.best == null || similarity > resumeHit.bestSimilarity) {
+                resumeHit.best = hit;
+                resumeHit.bestSimilarity = similarity;
+            }
+        }
+
+        return byResume.values().stream()
+                .sorted(Comparator.comparingDouble((ResumeHit hit) -> hit.score).reversed())
+                .limit(topK)
+                .map(hit -> {
+                    Map<String, Object> metadata = new HashMap<>(hit.best.getMetadata());
+                    metadata.put("score", hit.score);
+                    metadata.put("matchedChunks", hit.chunks);
+                    return new Document(hit.best.getId(), hit.best.getContent(), metadata);
+                })
+                .toList();
+    }
+
+    private static double similarity(Document hit) {
+        Object distance = hit.getMetadata().get("distance");
+        return distance instanceof Number number ? 1.0 - number.doubleValue() : 0.0;
+    }
+
+    private List<Document> buildChunks(ParsedResume resume) {
+        List<Document> chunks = new ArrayList<>();
+
+        if (resume.getSummary() != null && !resume.getSummary().isBlank()) {
+            addChunk(chunks, resume, "summary", 0, "Summary: " + resume.getSummary());
+        }
+
+        StringBuilder skills = new StringBuilder();
+        if (resume.getSkills() != null && !resume.getSkills().isEmpty()) {
+            skills.append("Skills: ").append(String.join(", ", resume.getSkills())).append("\n");
+        }
+        if (resume.getCertifications() != null && !resume.getCertifications().isEmpty()) {
+            skills.append("Certifications: ").append(String.join(", ", resume.getCertifications()));
+        }
+        if (!skills.isEmpty()) {
+            addChunk(chunks, resume, "skills", 0, skills.toString());
+        }
+
+        if (resume.getExperiences() != null) {
+            for (int i = 0; i < resume.getExperiences().size(); i++) {
+                ParsedResume.Experience exp = resume.getExperiences().get(i);
+                StringBuilder text = new StringBuilder("Experience: ").append(exp.getPosition())
+                        .append(" at ").append(exp.getCompany())
+                        .append(" (").append(exp.getDuration()).append(")\n");
+                if (exp.getDescription() != null) {
+                    text.append(exp.getDescription()).append("\n");
+                }
+                if (exp.getAchievements() != null) {
+                    exp.getAchievements().forEach(achievement -> text.append("- ").append(achievement).append("\n"));
+                }
+                addChunk(chunks, resume, "experience", i, text.toString());
+            }
+        }
+
+        if (resume.getEducations() != null && !resume.getEducations().isEmpty()) {
+            StringBuilder text = new StringBuilder("Education:\n");
+            for (ParsedResume.Education edu : resume.getEducations()) {
+                text.append("- ").append(edu.getDegree())
+                        .append(" in ").append(edu.getField())
+                        .append(" from ").append(edu.getInstitution())
+                        .append(" (").append(edu.getYear()).append(")\n");
+            }
+            addChunk(chunks, resume, "education", 0, text.toString());
+        }
+
+        if (chunks.isEmpty()) {
+            // Nothing structured was parsed; fall back to the whole-resume text so it stays searchable
+            addChunk(chunks, resume, "resume", 0, buildResumeText(resume));
+        }
+        return chunks;
+    }
+
+    private void addChunk(List<Document> chunks, ParsedResume resume, String section, int index, String text) {
+        int maxChars = Math.max(200, appProperties.getVector().getChunking().getMaxChunkChars());
+        for (int part = 0, start = 0; start < text.length(); part++, start += maxChars) {
+            String partText = text.substring(start, Math.min(text.length(), start + maxChars));
+
+            Map<String, Object> metadata = buildMetadata(resume);
+            metadata.put("section", section);
+            metadata.put("sectionIndex", index);
+
+            chunks.add(new Document(new ChunkKey(section, index, part).id(resume.getId()), partText, metadata));
+        }
+    }
+
+    private static String documentId(String key) {
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Metadata shared by whole-resume documents and chunks, including the parsed fields that search
+     * filters can reference: skills, certifications, location and yearsOfExperience.
+     */
+    private Map<String, Object> buildMetadata(ParsedResume resume) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("resumeId", resume.getId());
+        metadata.put("fileName", resume.getFileName());
+        metadata.put("candidateName", resume.getCandidateName());
+        metadata.put("email", resume.getEmail());
+        metadata.put("type", "resume");
+        if (resume.getMetadata() != null && resume.getMetadata().get("duplicateGroup") != null) {
+            metadata.put("duplicateGroup", resume.getMetadata().get("duplicateGroup"));
+        }
+        if (resume.getSkills() != null && !resume.getSkills().isEmpty()) {
+            metadata.put("skills", new ArrayList<>(resume.getSkills()));
+        }
+        if (resume.getCertifications() != null && !resume.getCertifications().isEmpty()) {
+            metadata.put("certifications", new ArrayList<>(resume.getCertifications()));
+        }
+        if (resume.getLocation() != null && !resume.getLocation().isBlank()) {
+            // "Berlin, Germany" is stored with its parts so that location == 'Berlin' matches too
+            List<String> location = new ArrayList<>();
+            location.add(resume.getLocation().trim());
+            for (String part : resume.getLocation().split(",")) {
+                if (!part.isBlank() && !location.contains(part.trim())) {
+                    location.add(part.trim());
+                }
+            }
+            metadata.put("location", location);
+        }
+        if (resume.getYearsOfExperience() != null) {
+            metadata.put("yearsOfExperience", resume.getYearsOfExperience());
+        }
+        return metadata;
+    }
+
+    /**
+     * Position of a chunk within its resume; {@code index} is the entry within the section (only experience
+     * has more than one) and {@code part} the piece of an entry longer than the maximum chunk size.
+     */
+    private record ChunkKey(String section, int index, int part) {
+
+        String id(String resumeId) {
+            return documentId(resumeId + ":" + section + ":" + index + ":" + part);
+        }
+    }
+
+    /**
+     * Query text, plus its embedding when the caller already has one.
+     */
+    private record SearchQuery(String text, float[] embedding) {
+    }
 
-        return vectorStore.similaritySearch(searchRequest);
+    private static final class ResumeHit {
+        private Document best;
+        private double bestSimilarity = Double.NEGATIVE_INFINITY;
+        private double score;
+        private int chunks;
     }
 
-    private String buildResumeText(ParsedResume resume) {
+    String buildResumeText(ParsedResume resume) {
         StringBuilder text = new StringBuilder();
 
         text.append("Candidate: ").append(resume.getCandidateName()).append("\n\n");
@@ -0,0 +1,69 @@
+package com.swiftbeard.ai_resume_parser.vectorstore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable set of normalized embeddings packed row by row into one array, scored against a query in a
+ * single sequential pass. Meant for small, rarely changing collections (registered jobs) that are
+ * rebuilt on write rather than updated in place.
+ */
+public final class EmbeddingMatrix {
+
+    public static final EmbeddingMatrix EMPTY = new EmbeddingMatrix(List.of());
+
+    private final float[] vectors;
+    private final int rows;
+    private final int dimensions;
+
+    public record Hit(int row, double score) {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the embeddings do not all have the same dimension
+     */
+    public EmbeddingMatrix(List<float[]> embeddings) {
+        this.rows = embeddings.size();
+        this.dimensions = rows == 0 ? 0 : embeddings.get(0).length;
+        this.vectors = new float[rows * dimensions];
+        for (int row = 0; row < rows; row++) {
+            float[] embedding = embeddings.get(row);
+            if (embedding.length != dimensions) {
+                throw new IllegalArgumentException("Expected embeddings of dimension " + dimensions
+                        + " but row " + row + " has " + embedding.length);
+            }
+            System.arraycopy(VectorShard.normalize(embedding), 0, vectors, row * dimensions, dimensions);
+        }
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return up to {@code k} rows with cosine similarity of at least {@code minScore}, best first
+     */
+    public List<Hit> top(float[] queryEmbedding, int k, double minScore) {
+        if (rows == 0 || k <= 0) {
+            return List.of();
+        }
+        if (queryEmbedding.length != dimensions) {
+            throw new IllegalArgumentException("Expected a query of dimension " + dimensions
+                    + " but got " + queryEmbedding.length);
+        }
+        float[] query = VectorShard.normalize(queryEmbedding);
+        TopK top = new TopK(Math.min(k, rows));
+        for (int row = 0, offset = 0; row < rows; row++, offset += dimensions) {
+            float score = VectorShard.dot(vectors, offset, query, dimensions);
+            if (score >= minScore && score > top.threshold()) {
+                top.offer(score, row);
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(top.size());
+        for (int index : top.descendingOrder()) {
+            hits.add(new Hit(top.slot(index), top.score(index)));
+        }
+        return hits;
+    }
+}
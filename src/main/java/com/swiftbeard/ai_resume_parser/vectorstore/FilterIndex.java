@@ -0,0 +1,143 @@
+package com.swiftbeard.ai_resume_parser.vectorstore;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Per-shard inverted index from metadata values to bitmaps of slots, maintained as documents are
+ * added and removed. A filter expression is evaluated into a single candidate bitmap with bitwise
+ * operations, so the vector scan only computes dot products for documents that pass the filter.
+ * Numeric values are kept in sorted order so range comparisons union a contiguous run of bitmaps.
+ * Not thread-safe; guarded by the owning {@link VectorShard}'s lock.
+ */
+final class FilterIndex {
+
+    private final Set<String> fields;
+    private final Map<String, Map<Object, BitSet>> terms = new HashMap<>();
+    private final Map<String, NavigableMap<Double, BitSet>> numbers = new HashMap<>();
+
+    FilterIndex(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    void add(int slot, Map<String, Object> metadata) {
+        for (String field : fields) {
+            for (Object value : MetadataFilter.normalizedValues(metadata.get(field))) {
+                bitmapFor(field, value, true).set(slot);
+            }
+        }
+    }
+
+    void remove(int slot, Map<String, Object> metadata) {
+        for (String field : fields) {
+            for (Object value : MetadataFilter.normalizedValues(metadata.get(field))) {
+                BitSet bitmap = bitmapFor(field, value, false);
+                if (bitmap != null) {
+                    bitmap.clear(slot);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param live slots currently holding a document; negations are taken relative to it
+     * @return a new bitmap of the live slots matching the expression
+     */
+    BitSet evaluate(Filter.Operand operand, BitSet live) {
+        if (operand instanceof Filter.Group group) {
+            return evaluate(group.content(), live);
+        }
+        Filter.Expression expression = (Filter.Expression) operand;
+        switch (expression.type()) {
+            case AND -> {
+                BitSet result = evaluate(expression.left(), live);
+                if (!result.isEmpty()) {
+                    result.and(evaluate(expression.right(), live));
+                }
+                return result;
+            }
+            case OR -> {
+                BitSet result = evaluate(expression.left(), live);
+                result.or(evaluate(expression.right(), live));
+                return result;
+            }
+            case NOT -> {
+                return complement(evaluate(expression.left(), live), live);
+            }
+            case EQ, IN -> {
+                return union(expression);
+            }
+            case NE, NIN -> {
+                return complement(union(expression), live);
+            }
+            default -> {
+                return range(expression);
+            }
+        }
+    }
+
+    private BitSet union(Filter.Expression expression) {
+        String field = indexedKey(expression);
+        BitSet result = new BitSet();
+        for (Object value : MetadataFilter.normalizedList(MetadataFilter.value(expression))) {
+            BitSet bitmap = bitmapFor(field, value, false);
+            if (bitmap != null) {
+                result.or(bitmap);
+            }
+        }
+        return result;
+    }
+
+    private BitSet range(Filter.Expression expression) {
+        String field = indexedKey(expression);
+        double bound = MetadataFilter.bound(expression);
+        NavigableMap<Double, BitSet> values = numbers.getOrDefault(field, new TreeMap<>());
+        NavigableMap<Double, BitSet> matching = switch (expression.type()) {
+            case GT -> values.tailMap(bound, false);
+            case GTE -> values.tailMap(bound, true);
+            case LT -> values.headMap(bound, false);
+            case LTE -> values.headMap(bound, true);
+            default -> throw new IllegalArgumentException("Unsupported filter operator " + expression.type());
+        };
+        BitSet result = new BitSet();
+        matching.values().forEach(result::or);
+        return result;
+    }
+
+    private static BitSet complement(BitSet bitmap, BitSet live) {
+        BitSet result = (BitSet) live.clone();
+        result.andNot(bitmap);
+        return result;
+    }
+
+    private String indexedKey(Filter.Expression expression) {
+        String field = MetadataFilter.key(expression);
+        if (!fields.contains(field)) {
+            throw new IllegalArgumentException("Field '" + field + "' is not filterable; filterable fields are " + fields);
+        }
+        return field;
+    }
+
+    private BitSet bitmapFor(String field, Object value, boolean create) {
+        if (value instanceof Double number) {
+            NavigableMap<Double, BitSet> values = create
+                    ? numbers.computeIfAbsent(field, key -> new TreeMap<>())
+                    : numbers.get(field);
+            if (values == null) {
+                return null;
+            }
+            return create ? values.computeIfAbsent(number, key -> new BitSet()) : values.get(number);
+        }
+        Map<Object, BitSet> values = create ? terms.computeIfAbsent(field, key -> new HashMap<>()) : terms.get(field);
+        if (values == null) {
+            return null;
+        }
+        return create ? values.computeIfAbsent(value, key -> new BitSet()) : values.get(value);
+    }
+}
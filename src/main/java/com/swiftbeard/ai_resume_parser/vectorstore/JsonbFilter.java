@@ -0,0 +1,122 @@
+package com.swiftbeard.ai_resume_parser.vectorstore;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates metadata filter expressions into SQL over a jsonb column holding each metadata entry as an
+ * array of {@link MetadataFilter#normalize normalized} values, so that the column's GIN
+ * {@code jsonb_path_ops} index serves the query and the results match {@link MetadataFilter#matches}:
+ * equality and {@code in} become containment ({@code @>}), range comparisons a JSON path test ({@code @?}).
+ */
+final class JsonbFilter {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private JsonbFilter() {
+    }
+
+    /**
+     * A boolean SQL condition with one {@code ?} per parameter, in order.
+     */
+    record Sql(String condition, List<String> parameters) {
+    }
+
+    /**
+     * The column value for a document: every metadata entry as an array of normalized values.
+     */
+    static String filterValues(Map<String, Object> metadata) {
+        Map<String, List<Object>> values = new LinkedHashMap<>();
+        metadata.forEach((key, value) -> {
+            List<Object> normalized = MetadataFilter.normalizedValues(value);
+            if (!normalized.isEmpty()) {
+                values.put(key, normalized);
+            }
+        });
+        return toJson(values);
+    }
+
+    static Sql toSql(Filter.Operand operand, String column) {
+        List<String> parameters = new ArrayList<>();
+        String condition = condition(operand, column, parameters);
+        return new Sql(condition, parameters);
+    }
+
+    private static String condition(Filter.Operand operand, String column, List<String> parameters) {
+        if (operand instanceof Filter.Group group) {
+            return condition(group.content(), column, parameters);
+        }
+        Filter.Expression expression = (Filter.Expression) operand;
+        return switch (expression.type()) {
+            case AND -> "(" + condition(expression.left(), column, parameters) + " AND "
+                    + condition(expression.right(), column, parameters) + ")";
+            case OR -> "(" + condition(expression.left(), column, parameters) + " OR "
+                    + condition(expression.right(), column, parameters) + ")";
+            case NOT -> "NOT " + condition(expression.left(), column, parameters);
+            case EQ -> contains(column, expression, List.of(normalizedValue(expression)), parameters);
+            case NE -> "NOT " + contains(column, expression, List.of(normalizedValue(expression)), parameters);
+            case IN -> contains(column, expression, MetadataFilter.normalizedList(MetadataFilter.value(expression)), parameters);
+            case NIN -> "NOT " + contains(column, expression,
+                    MetadataFilter.normalizedList(MetadataFilter.value(expression)), parameters);
+            case GT, GTE, LT, LTE -> {
+                String bound = BigDecimal.valueOf(MetadataFilter.bound(expression)).stripTrailingZeros().toPlainString();
+                parameters.add("$." + quote(MetadataFilter.key(expression)) + "[*] ? (@ " + comparison(expression)
+                        + " " + bound + ")");
+                yield column + " @? ?::jsonpath";
+            }
+            default -> throw new IllegalArgumentException("Unsupported filter operator " + expression.type());
+        };
+    }
+
+    /**
+     * True when the entry holds any of the candidates; one containment test per candidate.
+     */
+    private static String contains(String column, Filter.Expression expression, List<Object> candidates,
+                                   List<String> parameters) {
+        if (candidates.isEmpty()) {
+            return "(false)";
+        }
+        String key = MetadataFilter.key(expression);
+        List<String> tests = new ArrayList<>(candidates.size());
+        for (Object candidate : candidates) {
+            parameters.add(toJson(Map.of(key, List.of(candidate))));
+            tests.add(column + " @> ?::jsonb");
+        }
+        return "(" + String.join(" OR ", tests) + ")";
+    }
+
+    private static Object normalizedValue(Filter.Expression expression) {
+        return MetadataFilter.normalize(MetadataFilter.value(expression));
+    }
+
+    private static String comparison(Filter.Expression expression) {
+        return switch (expression.type()) {
+            case GT -> ">";
+            case GTE -> ">=";
+            case LT -> "<";
+            default -> "<=";
+        };
+    }
+
+    /**
+     * A JSON path member accessor; the key is quoted so any field name is safe.
+     */
+    private static String quote(String key) {
+        return "\"" + key.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String toJson(Object value) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Filter values are not serializable", e);
+        }
+    }
+}
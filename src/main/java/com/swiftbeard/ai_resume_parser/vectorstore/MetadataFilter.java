@@ -0,0 +1,137 @@
+package com.swiftbeard.ai_resume_parser.vectorstore;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses and evaluates metadata filter expressions written in the portable Spring AI syntax, e.g.
+ * {@code skills == 'Java' && certifications in ['AWS Certified Developer'] && yearsOfExperience >= 5}.
+ * String comparisons are case-insensitive, and a list-valued field such as {@code skills} matches
+ * {@code ==} when any of its elements does.
+ */
+public final class MetadataFilter {
+
+    private MetadataFilter() {
+    }
+
+    /**
+     * @return the parsed expression, or null when {@code text} is blank
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public static Filter.Expression parse(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            return new FilterExpressionTextParser().parse(text);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid filter expression '" + text + "': " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Evaluates the expression against one document's metadata, for stores that cannot filter natively.
+     */
+    public static boolean matches(Filter.Operand operand, Map<String, Object> metadata) {
+        if (operand instanceof Filter.Group group) {
+            return matches(group.content(), metadata);
+        }
+        Filter.Expression expression = (Filter.Expression) operand;
+        return switch (expression.type()) {
+            case AND -> matches(expression.left(), metadata) && matches(expression.right(), metadata);
+            case OR -> matches(expression.left(), metadata) || matches(expression.right(), metadata);
+            case NOT -> !matches(expression.left(), metadata);
+            case EQ -> anyEquals(values(metadata, expression), List.of(normalize(value(expression))));
+            case NE -> !anyEquals(values(metadata, expression), List.of(normalize(value(expression))));
+            case IN -> anyEquals(values(metadata, expression), normalizedList(value(expression)));
+            case NIN -> !anyEquals(values(metadata, expression), normalizedList(value(expression)));
+            case GT, GTE, LT, LTE -> values(metadata, expression).stream()
+                    .anyMatch(value -> value instanceof Double number && inRange(expression, number));
+            default -> throw new IllegalArgumentException("Unsupported filter operator " + expression.type());
+        };
+    }
+
+    static String key(Filter.Expression expression) {
+        if (expression.left() instanceof Filter.Key key) {
+            // Keys may be quoted in the text syntax
+            return key.key().replaceAll("^[\"']|[\"']$", "");
+        }
+        throw new IllegalArgumentException("Expected a field name on the left of " + expression.type());
+    }
+
+    static Object value(Filter.Expression expression) {
+        if (expression.right() instanceof Filter.Value value) {
+            return value.value();
+        }
+        throw new IllegalArgumentException("Expected a literal on the right of " + expression.type());
+    }
+
+    /**
+     * Numeric bound of a range comparison.
+     */
+    static double bound(Filter.Expression expression) {
+        if (normalize(value(expression)) instanceof Double number) {
+            return number;
+        }
+        throw new IllegalArgumentException("Range comparison on '" + key(expression) + "' needs a numeric value");
+    }
+
+    /**
+     * Canonical form used both at ingest and at query time: numbers as doubles, strings trimmed and lower-cased.
+     */
+    static Object normalize(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String string) {
+            return string.trim().toLowerCase(Locale.ROOT);
+        }
+        return value;
+    }
+
+    /**
+     * Normalized values of a metadata entry, flattening collections.
+     */
+    static List<Object> normalizedValues(Object metadataValue) {
+        List<Object> values = new ArrayList<>();
+        if (metadataValue instanceof Collection<?> collection) {
+            for (Object element : collection) {
+                if (element != null) {
+                    values.add(normalize(element));
+                }
+            }
+        } else if (metadataValue != null) {
+            values.add(normalize(metadataValue));
+        }
+        return values;
+    }
+
+    static List<Object> normalizedList(Object value) {
+        return normalizedValues(value instanceof Collection<?> ? value : List.of(value));
+    }
+
+    private static List<Object> values(Map<String, Object> metadata, Filter.Expression expression) {
+        return normalizedValues(metadata.get(key(expression)));
+    }
+
+    private static boolean anyEquals(List<Object> values, List<Object> candidates) {
+        return values.stream().anyMatch(candidates::contains);
+    }
+
+    private static boolean inRange(Filter.Expression expression, double number) {
+        double bound = bound(expression);
+        return switch (expression.type()) {
+            case GT -> number > bound;
+            case GTE -> number >= bound;
+            case LT -> number < bound;
+            case LTE -> number <= bound;
+            default -> false;
+        };
+    }
+}
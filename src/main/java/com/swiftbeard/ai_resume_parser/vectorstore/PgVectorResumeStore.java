@@ -0,0 +1,365 @@
+package com.swiftbeard.ai_resume_parser.vectorstore;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * PostgreSQL/pgvector store shared by all API nodes. Large writes are bulk-loaded with
+ * {@code COPY} into a session-local staging table and upserted in one statement; small writes use
+ * a JDBC batch. The HNSW or IVFFlat index is created with the configured build parameters, and
+ * {@code hnsw.ef_search} / {@code ivfflat.probes} are set per query to trade recall for latency.
+ * Metadata filters run in SQL against {@code filter_values}, a normalized copy of the metadata with its
+ * own GIN index (see {@link JsonbFilter}).
+ */
+@Slf4j
+public class PgVectorResumeStore implements VectorStore {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmbeddingModel embeddingModel;
+    private final AppProperties.Pgvector config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String table;
+    private final String operator;
+
+    public PgVectorResumeStore(JdbcTemplate jdbcTemplate, EmbeddingModel embeddingModel, AppProperties.Pgvector config) {
+        if (!IDENTIFIER.matcher(config.getTable()).matches()) {
+            throw new IllegalArgumentException("Invalid pgvector table name: " + config.getTable());
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.embeddingModel = embeddingModel;
+        this.config = config;
+        this.table = config.getTable();
+        this.operator = switch (config.getDistance()) {
+            case "cosine" -> "<=>";
+            case "l2" -> "<->";
+            case "inner-product" -> "<#>";
+            default -> throw new IllegalArgumentException("Unsupported pgvector distance: " + config.getDistance());
+        };
+        if (config.isInitializeSchema()) {
+            initializeSchema();
+        }
+    }
+
+    private void initializeSchema() {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS vector");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + " ("
+                + "id text PRIMARY KEY, "
+                + "content text, "
+                + "metadata jsonb, "
+                + "embedding vector(" + config.getDimensions() + ") NOT NULL)");
+        // Rows written before this column existed have no filter values and only match unfiltered searches
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS filter_values jsonb");
+
+        String opclass = switch (config.getDistance()) {
+            case "l2" -> "vector_l2_ops";
+            case "inner-product" -> "vector_ip_ops";
+            default -> "vector_cosine_ops";
+        };
+        switch (config.getIndexType()) {
+            case "hnsw" -> jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + table + "_embedding_idx ON " + table
+                    + " USING hnsw (embedding " + opclass + ") WITH (m = " + config.getHnsw().getM()
+                    + ", ef_construction = " + config.getHnsw().getEfConstruction() + ")");
+            case "ivfflat" -> jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + table + "_embedding_idx ON " + table
+                    + " USING ivfflat (embedding " + opclass + ") WITH (lists = " + config.getIvfflat().getLists() + ")");
+            case "none" -> log.info("No ANN index on {}; searches scan the whole table", table);
+            default -> throw new IllegalArgumentException("Unsupported pgvector index type: " + config.getIndexType());
+        }
+        // Replaced by the filter_values index; raw metadata is never queried
+        jdbcTemplate.execute("DROP INDEX IF EXISTS " + table + "_metadata_idx");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + table + "_filter_idx ON " + table
+                + " USING gin (filter_values jsonb_path_ops)");
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        List<float[]> embeddings = embeddingModel.embed(documents.stream().map(Document::getContent).toList());
+        add(documents, embeddings);
+    }
+
+    /**
+     * Writes documents whose embeddings were computed elsewhere. Rows are upserted by id.
+     */
+    public void add(List<Document> documents, List<float[]> embeddings) {
+        // ON CONFLICT cannot touch the same row twice in one statement, so keep only the last copy of each id
+        Map<String, Integer> lastIndexById = new LinkedHashMap<>();
+        for (int i = 0; i < documents.size(); i++) {
+            lastIndexById.put(documents.get(i).getId(), i);
+        }
+        List<Integer> rows = new ArrayList<>(lastIndexById.values());
+
+        int batchSize = Math.max(1, config.getBatchSize());
+        for (int start = 0; start < rows.size(); start += batchSize) {
+            List<Integer> batch = rows.subList(start, Math.min(rows.size(), start + batchSize));
+            boolean copy = "copy".equalsIgnoreCase(config.getIngestion()) && batch.size() >= config.getCopyThreshold();
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                inTransaction(connection, () -> {
+                    if (copy) {
+                        copyBatch(connection, documents, embeddings, batch);
+                    } else {
+                        insertBatch(connection, documents, embeddings, batch);
+                    }
+                });
+                return null;
+            });
+        }
+        log.debug("Wrote {} documents to {}", rows.size(), table);
+    }
+
+    private void copyBatch(Connection connection, List<Document> documents, List<float[]> embeddings,
+                           List<Integer> rows) throws SQLException {
+        String staging = table + "_staging";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMP TABLE IF NOT EXISTS " + staging
+                    + " (LIKE " + table + " INCLUDING DEFAULTS) ON COMMIT DELETE ROWS");
+        }
+
+        StringBuilder csv = new StringBuilder(rows.size() * (config.getDimensions() * 12 + 512));
+        for (int row : rows) {
+            Document document = documents.get(row);
+            appendCsv(csv, document.getId()).append(',');
+            appendCsv(csv, document.getContent()).append(',');
+            appendCsv(csv, toJson(document.getMetadata())).append(',');
+            appendCsv(csv, JsonbFilter.filterValues(document.getMetadata())).append(',');
+            appendCsv(csv, toVectorLiteral(embeddings.get(row))).append('\n');
+        }
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                    "COPY " + staging + " (id, content, metadata, filter_values, embedding) FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY into " + staging + " failed", e);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO " + table + " (id, content, metadata, filter_values, embedding) "
+                    + "SELECT id, content, metadata, filter_values, embedding FROM " + staging + " "
+                    + "ON CONFLICT (id) DO UPDATE SET content = EXCLUDED.content, metadata = EXCLUDED.metadata, "
+                    + "filter_values = EXCLUDED.filter_values, embedding = EXCLUDED.embedding");
+        }
+    }
+
+    private void insertBatch(Connection connection, List<Document> documents, List<float[]> embeddings,
+                             List<Integer> rows) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + table
+                + " (id, content, metadata, filter_values, embedding) VALUES (?, ?, ?::jsonb, ?::jsonb, ?::vector) "
+                + "ON CONFLICT (id) DO UPDATE SET content = EXCLUDED.content, metadata = EXCLUDED.metadata, "
+                + "filter_values = EXCLUDED.filter_values, embedding = EXCLUDED.embedding")) {
+            for (int row : rows) {
+                Document document = documents.get(row);
+                statement.setString(1, document.getId());
+                statement.setString(2, document.getContent());
+                statement.setString(3, toJson(document.getMetadata()));
+                statement.setString(4, JsonbFilter.filterValues(document.getMetadata()));
+                statement.setString(5, toVectorLiteral(embeddings.get(row)));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    @Override
+    public Optional<Boolean> delete(List<String> idList) {
+        int deleted = jdbcTemplate.update("DELETE FROM " + table + " WHERE id = ANY (?)",
+                statement -> statement.setArray(1, statement.getConnection().createArrayOf("text", idList.toArray())));
+        return Optional.of(deleted > 0);
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        return search(embeddingModel.embed(request.getQuery()), request.getTopK(), request.getSimilarityThreshold(),
+                request.getFilterExpression());
+    }
+
+    public List<Document> search(float[] queryEmbedding, int topK, double similarityThreshold) {
+        return search(queryEmbedding, topK, similarityThreshold, null);
+    }
+
+    /**
+     * Nearest-neighbour search with a precomputed query embedding. Results carry a {@code distance}
+     * metadata entry of {@code 1 - similarity}, like the in-memory stores.
+     * @param filter evaluated in the WHERE clause; null for none. With an HNSW index the planner may still
+     *               filter the index's candidates, so a very narrow filter can return fewer than topK rows
+     */
+    public List<Document> search(float[] queryEmbedding, int topK, double similarityThreshold, Filter.Expression filter) {
+        String vector = toVectorLiteral(queryEmbedding);
+        JsonbFilter.Sql where = filter != null ? JsonbFilter.toSql(filter, "filter_values") : null;
+        return jdbcTemplate.execute((ConnectionCallback<List<Document>>) connection -> {
+            List<Document> results = new ArrayList<>();
+            inTransaction(connection, () -> {
+                try (Statement statement = connection.createStatement()) {
+                    // SET LOCAL keeps the setting from leaking to other users of the pooled connection
+                    if ("hnsw".equals(config.getIndexType())) {
+                        statement.execute("SET LOCAL hnsw.ef_search = " + Math.max(config.getHnsw().getEfSearch(), topK));
+                    } else if ("ivfflat".equals(config.getIndexType())) {
+                        statement.execute("SET LOCAL ivfflat.probes = " + config.getIvfflat().getProbes());
+                    }
+                }
+                try (PreparedStatement statement = connection.prepareStatement("SELECT id, content, metadata, "
+                        + "embedding " + operator + " ?::vector AS distance FROM " + table
+                        + (where != null ? " WHERE " + where.condition() : "")
+                        + " ORDER BY embedding " + operator + " ?::vector LIMIT ?")) {
+                    int parameter = 1;
+                    statement.setString(parameter++, vector);
+                    if (where != null) {
+                        for (String value : where.parameters()) {
+                            statement.setString(parameter++, value);
+                        }
+                    }
+                    statement.setString(parameter++, vector);
+                    statement.setInt(parameter, topK);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            double similarity = similarity(rs.getDouble("distance"));
+                            if (similarity < similarityThreshold) {
+                                break; // rows arrive in order of increasing distance
+                            }
+                            Map<String, Object> metadata = new HashMap<>(fromJson(rs.getString("metadata")));
+                            metadata.put("distance", 1.0 - similarity);
+                            results.add(new Document(rs.getString("id"), rs.getString("content"), metadata));
+                        }
+                    }
+                }
+            });
+            return results;
+        });
+    }
+
+    /**
+     * Stored embeddings of the given documents, by id; ids without a row are left out.
+     */
+    public Map<String, float[]> getEmbeddings(List<String> ids) {
+        Map<String, float[]> embeddings = new HashMap<>();
+        jdbcTemplate.query("SELECT id, embedding::text AS embedding FROM " + table + " WHERE id = ANY (?)",
+                statement -> statement.setArray(1, statement.getConnection().createArrayOf("text", ids.toArray())),
+                (RowCallbackHandler) rs -> embeddings.put(rs.getString("id"), fromVectorLiteral(rs.getString("embedding"))));
+        return embeddings;
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Converts the operator's raw distance into a similarity comparable with the other stores.
+     * L2 and inner product assume normalized embeddings, as OpenAI's are.
+     */
+    private double similarity(double distance) {
+        return switch (operator) {
+            case "<->" -> 1.0 - distance * distance / 2.0;
+            case "<#>" -> -distance;
+            default -> 1.0 - distance;
+        };
+    }
+
+    private static void inTransaction(Connection connection, SqlWork work) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            work.run();
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    static String toVectorLiteral(float[] embedding) {
+        StringBuilder literal = new StringBuilder(embedding.length * 12).append('[');
+        for (int i = 0; i < embedding.length; i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            literal.append(embedding[i]);
+        }
+        return literal.append(']').toString();
+    }
+
+    static float[] fromVectorLiteral(String literal) {
+        String values = literal.substring(1, literal.length() - 1);
+        if (values.isEmpty()) {
+            return new float[0];
+        }
+        String[] parts = values.split(",");
+        float[] embedding = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            embedding[i] = Float.parseFloat(parts[i]);
+        }
+        return embedding;
+    }
+
+    private static StringBuilder appendCsv(StringBuilder csv, String value) {
+        if (value == null) {
+            return csv; // unquoted empty field is NULL in CSV COPY
+        }
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        return csv.append('"');
+    }
+
+    private String toJson(Map<String, Object> metadata) {
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Document metadata is not serializable", e);
+        }
+    }
+
+    private Map<String, Object> fromJson(String json) {
+        if (json == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, METADATA_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored metadata is not valid JSON", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+}
@@ -0,0 +1,193 @@
+package com.swiftbeard.ai_resume_parser.vectorstore;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory vector store partitioned into shards that are scanned in parallel on a dedicated
+ * fork-join pool. Documents are assigned to a shard by hashing the configured metadata key
+ * (for example {@code type} or a tenant id) or, when no key is configured, the document id.
+ * Each shard returns its own top-K and the partial results are merged into the global top-K,
+ * so search latency falls roughly with the number of shards on a multi-core machine.
+ * <p>
+ * Metadata filters on the configured filter fields are answered from per-shard bitmaps built at
+ * ingest (see {@link FilterIndex}); a filtered search only scores documents that pass the filter.
+ */
+@Slf4j
+public class ShardedVectorStore implements VectorStore, DisposableBean {
+
+    private final EmbeddingModel embeddingModel;
+    private final int shardCount;
+    private final String partitionKey;
+    private final Set<String> filterFields;
+    private final ForkJoinPool pool;
+    private final Map<String, Integer> shardById = new ConcurrentHashMap<>();
+
+    private volatile VectorShard[] shards;
+    private volatile int dimensions;
+    private final Lock initLock = new ReentrantLock();
+
+    public ShardedVectorStore(EmbeddingModel embeddingModel, int shardCount, String partitionKey,
+                              Set<String> filterFields) {
+        this.embeddingModel = embeddingModel;
+        this.shardCount = Math.max(1, shardCount);
+        this.partitionKey = partitionKey == null || partitionKey.isBlank() ? null : partitionKey;
+        this.filterFields = Set.copyOf(filterFields);
+        this.pool = new ForkJoinPool(this.shardCount);
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        List<float[]> embeddings = embeddingModel.embed(documents.stream().map(Document::getContent).toList());
+        add(documents, embeddings);
+    }
+
+    /**
+     * Adds documents whose embeddings were computed elsewhere, skipping the embedding call.
+     */
+    public void add(List<Document> documents, List<float[]> embeddings) {
+        for (int i = 0; i < documents.size(); i++) {
+            Document document = documents.get(i);
+            VectorShard[] current = shards(embeddings.get(i).length);
+            int shard = shardFor(document);
+
+            Integer previous = shardById.put(document.getId(), shard);
+            if (previous != null && previous != shard) {
+                // Partition key changed since the last write: drop the stale copy
+                current[previous].remove(document.getId());
+            }
+            current[shard].put(document, VectorShard.normalize(embeddings.get(i)));
+        }
+    }
+
+    @Override
+    public Optional<Boolean> delete(List<String> idList) {
+        boolean removed = false;
+        for (String id : idList) {
+            Integer shard = shardById.remove(id);
+            if (shard != null) {
+                removed |= shards[shard].remove(id) >= 0;
+            }
+        }
+        return Optional.of(removed);
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        if (shards == null) {
+            return List.of();
+        }
+        return search(embeddingModel.embed(request.getQuery()), request.getTopK(), request.getSimilarityThreshold(),
+                request.getFilterExpression());
+    }
+
+    /**
+     * Searches with a precomputed query embedding.
+     * @param filter optional metadata filter; may only reference the configured filter fields
+     */
+    public List<Document> search(float[] queryEmbedding, int topK, double similarityThreshold,
+                                 Filter.Expression filter) {
+        VectorShard[] current = shards;
+        if (current == null || topK <= 0) {
+            return List.of();
+        }
+        float[] query = VectorShard.normalize(queryEmbedding);
+        float minScore = (float) similarityThreshold;
+
+        List<ForkJoinTask<VectorShard.Hits>> tasks = new ArrayList<>(current.length);
+        for (VectorShard shard : current) {
+            tasks.add(pool.submit(() -> shard.search(query, topK, minScore, filter)));
+        }
+
+        // Merge the per-shard heaps; encode (shard, heap index) so metadata is copied only for the winners
+        TopK merged = new TopK(topK);
+        List<VectorShard.Hits> partials = new ArrayList<>(current.length);
+        for (int s = 0; s < tasks.size(); s++) {
+            VectorShard.Hits partial = tasks.get(s).join();
+            partials.add(partial);
+            for (int i = 0; i < partial.top().size(); i++) {
+                merged.offer(partial.top().score(i), s * topK + i);
+            }
+        }
+
+        List<Document> results = new ArrayList<>(merged.size());
+        for (int index : merged.descendingOrder()) {
+            int encoded = merged.slot(index);
+            Document document = partials.get(encoded / topK).documents()[encoded % topK];
+            Map<String, Object> metadata = new HashMap<>(document.getMetadata());
+            metadata.put("distance", 1.0 - merged.score(index));
+            results.add(new Document(document.getId(), document.getContent(), metadata));
+        }
+        return results;
+    }
+
+    public Optional<float[]> getEmbedding(String id) {
+        Integer shard = shardById.get(id);
+        return shard == null ? Optional.empty() : Optional.ofNullable(shards[shard].embedding(id));
+    }
+
+    public int size() {
+        return shardById.size();
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    private int shardFor(Document document) {
+        Object key = partitionKey != null ? document.getMetadata().get(partitionKey) : null;
+        String value = key != null ? key.toString() : document.getId();
+        return Math.floorMod(value.hashCode() * 0x9E3779B9, shardCount);
+    }
+
+    private VectorShard[] shards(int embeddingDimensions) {
+        VectorShard[] current = shards;
+        if (current != null) {
+            if (embeddingDimensions != dimensions) {
+                throw new IllegalArgumentException("Embedding dimension " + embeddingDimensions
+                        + " does not match store dimension " + dimensions);
+            }
+            return current;
+        }
+        initLock.lock();
+        try {
+            if (shards == null) {
+                VectorShard[] created = new VectorShard[shardCount];
+                for (int i = 0; i < shardCount; i++) {
+                    created[i] = new VectorShard(embeddingDimensions, filterFields);
+                }
+                dimensions = embeddingDimensions;
+                shards = created;
+                log.info("Initialized {} vector shards with dimension {}", shardCount, embeddingDimensions);
+            }
+            return shards;
+        } finally {
+            initLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.swiftbeard.ai_resume_parser.vectorstore;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity min-heap of (score, slot) pairs over primitive arrays, keeping the {@code k}
+ * highest scores seen. Used per shard during a scan and again to merge the shard results.
+ */
+final class TopK {
+
+    private final float[] scores;
+    private final int[] slots;
+    private int size;
+
+    TopK(int k) {
+        this.scores = new float[Math.max(1, k)];
+        this.slots = new int[Math.max(1, k)];
+    }
+
+    /**
+     * Lowest score that can still enter the heap once it is full.
+     */
+    float threshold() {
+        return size < scores.length ? Float.NEGATIVE_INFINITY : scores[0];
+    }
+
+    void offer(float score, int slot) {
+        if (size < scores.length) {
+            scores[size] = score;
+            slots[size] = slot;
+            siftUp(size++);
+        } else if (score > scores[0]) {
+            scores[0] = score;
+            slots[0] = slot;
+            siftDown(0);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    float score(int index) {
+        return scores[index];
+    }
+
+    int slot(int index) {
+        return slots[index];
+    }
+
+    /**
+     * Returns heap indexes ordered from highest to lowest score.
+     */
+    int[] descendingOrder() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Float.compare(scores[b], scores[a]));
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[parent] <= scores[index]) {
+                return;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+            if (scores[index] <= scores[smallest]) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+        int slot = slots[a];
+        slots[a] = slots[b];
+        slots[b] = slot;
+    }
+}
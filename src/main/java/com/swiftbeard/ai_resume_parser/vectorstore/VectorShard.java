@@ -0,0 +1,205 @@
+package com.swiftbeard.ai_resume_parser.vectorstore;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One partition of a {@link ShardedVectorStore}. Embeddings are L2-normalized and packed row-major
+ * into a single {@code float[]} so a scan is a linear pass over contiguous memory, and cosine
+ * similarity reduces to a dot product. Slots freed by removals are reused by later additions, so a
+ * store with steady churn does not grow its arrays or scan an ever longer range of dead slots.
+ */
+final class VectorShard {
+
+    private final int dimensions;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<String, Integer> slotsById = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final FilterIndex filterIndex;
+    private float[] vectors;
+    private int size;
+    // Stack of freed slots below size, taken before the arrays are grown
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    VectorShard(int dimensions, Set<String> filterFields) {
+        this.dimensions = dimensions;
+        this.vectors = new float[dimensions * 64];
+        this.filterIndex = new FilterIndex(filterFields);
+    }
+
+    /**
+     * Adds or replaces a document. {@code embedding} must already be normalized.
+     * @return the slot the document was written to
+     */
+    int put(Document document, float[] embedding) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = slotsById.get(document.getId());
+            int slot;
+            if (existing == null) {
+                if (freeCount > 0) {
+                    slot = freeSlots[--freeCount];
+                    documents.set(slot, document);
+                } else {
+                    slot = size++;
+                    ensureCapacity(size);
+                    documents.add(document);
+                }
+                slotsById.put(document.getId(), slot);
+                live.set(slot);
+            } else {
+                slot = existing;
+                filterIndex.remove(slot, documents.get(slot).getMetadata());
+                documents.set(slot, document);
+            }
+            filterIndex.add(slot, document.getMetadata());
+            System.arraycopy(embedding, 0, vectors, slot * dimensions, dimensions);
+            return slot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the freed slot, or -1 if the id is not in this shard
+     */
+    int remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.remove(id);
+            if (slot == null) {
+                return -1;
+            }
+            live.clear(slot);
+            filterIndex.remove(slot, documents.get(slot).getMetadata());
+            documents.set(slot, null);
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+            return slot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Scans the live slots that pass {@code filter} (all of them when it is null) and returns the
+     * {@code k} best matches at or above {@code minScore}.
+     */
+    Hits search(float[] query, int k, float minScore, Filter.Expression filter) {
+        lock.readLock().lock();
+        try {
+            TopK top = new TopK(k);
+            float[] data = vectors;
+            BitSet candidates = filter == null ? live : filterIndex.evaluate(filter, live);
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                float score = dot(data, slot * dimensions, query, dimensions);
+                if (score >= minScore && score > top.threshold()) {
+                    top.offer(score, slot);
+                }
+            }
+            // Resolved under the same lock: once released, a slot may be freed and reused by another document
+            Document[] matched = new Document[top.size()];
+            for (int i = 0; i < matched.length; i++) {
+                matched[i] = documents.get(top.slot(i));
+            }
+            return new Hits(top, matched);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    float[] embedding(String id) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotsById.get(id);
+            return slot == null ? null : Arrays.copyOfRange(vectors, slot * dimensions, (slot + 1) * dimensions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Slots allocated so far, live or free.
+     */
+    int slotCount() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int liveCount() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Dot product written as four independent accumulators over a contiguous range so that
+     * the JIT can unroll and auto-vectorize it.
+     */
+    static float dot(float[] data, int offset, float[] query, int dimensions) {
+        float s0 = 0f;
+        float s1 = 0f;
+        float s2 = 0f;
+        float s3 = 0f;
+        int i = 0;
+        for (; i + 3 < dimensions; i += 4) {
+            s0 += data[offset + i] * query[i];
+            s1 += data[offset + i + 1] * query[i + 1];
+            s2 += data[offset + i + 2] * query[i + 2];
+            s3 += data[offset + i + 3] * query[i + 3];
+        }
+        for (; i < dimensions; i++) {
+            s0 += data[offset + i] * query[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static float[] normalize(float[] embedding) {
+        double norm = 0.0;
+        for (float value : embedding) {
+            norm += (double) value * value;
+        }
+        float[] normalized = new float[embedding.length];
+        if (norm == 0.0) {
+            return normalized;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < embedding.length; i++) {
+            normalized[i] = embedding[i] * scale;
+        }
+        return normalized;
+    }
+
+    /**
+     * Best matches of one shard scan; {@code documents[i]} is the document in {@code top}'s entry {@code i}.
+     */
+    record Hits(TopK top, Document[] documents) {
+    }
+
+    private void ensureCapacity(int slots) {
+        int required = slots * dimensions;
+        if (required > vectors.length) {
+            vectors = Arrays.copyOf(vectors, Math.max(required, vectors.length + (vectors.length >> 1)));
+        }
+    }
+}
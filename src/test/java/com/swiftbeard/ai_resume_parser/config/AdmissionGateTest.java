@@ -0,0 +1,149 @@
+package com.swiftbeard.ai_resume_parser.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionGateTest {
+
+    private static final long LATER = TimeUnit.SECONDS.toNanos(60);
+
+    @Test
+    void testRejectsWithTooManyRequestsWhenQueueIsFull() throws Exception {
+        AdmissionGate gate = new AdmissionGate(1, 1, 0.5, 10);
+        AdmissionGate.Permit running = gate.acquire(AdmissionGate.Priority.INTERACTIVE, System.nanoTime() + LATER);
+        Thread waiter = waitInBackground(gate, AdmissionGate.Priority.INTERACTIVE, new CopyOnWriteArrayList<>(), "a");
+        awaitQueued(gate, 1);
+
+        AdmissionGate.RejectedException rejected = assertThrows(AdmissionGate.RejectedException.class,
+                () -> gate.acquire(AdmissionGate.Priority.INTERACTIVE, System.nanoTime() + LATER));
+        assertEquals(429, rejected.getStatus());
+        assertTrue(rejected.getRetryAfterSeconds() >= 1);
+
+        running.close();
+        waiter.join(5000);
+        assertEquals(0, gate.getInFlight());
+    }
+
+    @Test
+    void testBulkMayOnlyTakeItsShareOfTheQueue() throws Exception {
+        AdmissionGate gate = new AdmissionGate(1, 4, 0.5, 10);
+        AdmissionGate.Permit running = gate.acquire(AdmissionGate.Priority.BULK, System.nanoTime() + LATER);
+        List<String> order = new CopyOnWriteArrayList<>();
+        Thread first = waitInBackground(gate, AdmissionGate.Priority.BULK, order, "bulk-1");
+        Thread second = waitInBackground(gate, AdmissionGate.Priority.BULK, order, "bulk-2");
+        awaitQueued(gate, 2);
+
+        assertEquals(429, assertThrows(AdmissionGate.RejectedException.class,
+                () -> gate.acquire(AdmissionGate.Priority.BULK, System.nanoTime() + LATER)).getStatus());
+
+        // Interactive requests still fit, and go first
+        Thread interactive = waitInBackground(gate, AdmissionGate.Priority.INTERACTIVE, order, "interactive");
+        awaitQueued(gate, 3);
+        running.close();
+        for (Thread thread : List.of(first, second, interactive)) {
+            thread.join(5000);
+        }
+        assertEquals("interactive", order.get(0));
+        assertEquals(3, order.size());
+    }
+
+    @Test
+    void testShedsQueuedRequestsThatCannotFinishBeforeTheirDeadline() throws Exception {
+        AdmissionGate gate = new AdmissionGate(1, 10, 0.5, 1000);
+
+        // A free slot is taken even though the estimate says the request will not make it
+        gate.acquire(AdmissionGate.Priority.INTERACTIVE, System.nanoTime() + millis(500)).close();
+
+        try (AdmissionGate.Permit running = gate.acquire(AdmissionGate.Priority.INTERACTIVE,
+                System.nanoTime() + LATER)) {
+            // One request ahead at ~1 s each: a 1.5 s budget is not enough to wait and then run
+            AdmissionGate.RejectedException queued = assertThrows(AdmissionGate.RejectedException.class,
+                    () -> gate.acquire(AdmissionGate.Priority.INTERACTIVE, System.nanoTime() + millis(1500)));
+            assertEquals(503, queued.getStatus());
+            assertEquals("deadline", queued.getReason());
+        }
+    }
+
+    @Test
+    void testRecoversAfterSlowPeriod() throws Exception {
+        AdmissionGate gate = new AdmissionGate(1, 10, 0.5, 10);
+        for (int i = 0; i < 5; i++) {
+            try (AdmissionGate.Permit slow = gate.acquire(AdmissionGate.Priority.INTERACTIVE,
+                    System.nanoTime() + LATER)) {
+                Thread.sleep(160);
+            }
+        }
+        try (AdmissionGate.Permit running = gate.acquire(AdmissionGate.Priority.INTERACTIVE,
+                System.nanoTime() + LATER)) {
+            assertThrows(AdmissionGate.RejectedException.class,
+                    () -> gate.acquire(AdmissionGate.Priority.INTERACTIVE, System.nanoTime() + millis(150)));
+        }
+
+        // Short deadlines are still admitted while the gate is idle, and their fast completions lower the estimate
+        for (int i = 0; i < 30; i++) {
+            gate.acquire(AdmissionGate.Priority.INTERACTIVE, System.nanoTime() + millis(1)).close();
+        }
+        AdmissionGate.Permit running = gate.acquire(AdmissionGate.Priority.INTERACTIVE, System.nanoTime() + LATER);
+        List<String> order = new CopyOnWriteArrayList<>();
+        Thread waiter = waitInBackground(gate, AdmissionGate.Priority.INTERACTIVE, order, "queued", millis(500));
+        awaitQueued(gate, 1);
+        running.close();
+        waiter.join(5000);
+        assertEquals(List.of("queued"), order);
+    }
+
+    @Test
+    void testDiscardedTimingsDoNotMoveTheEstimate() throws Exception {
+        AdmissionGate gate = new AdmissionGate(1, 10, 0.5, 10);
+        try (AdmissionGate.Permit rejectedByController = gate.acquire(AdmissionGate.Priority.INTERACTIVE,
+                System.nanoTime() + LATER)) {
+            Thread.sleep(300);
+            rejectedByController.discardTiming();
+        }
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        Thread waiter;
+        try (AdmissionGate.Permit running = gate.acquire(AdmissionGate.Priority.INTERACTIVE,
+                System.nanoTime() + LATER)) {
+            waiter = waitInBackground(gate, AdmissionGate.Priority.INTERACTIVE, order, "queued", millis(200));
+            awaitQueued(gate, 1);
+        }
+        waiter.join(5000);
+        assertEquals(List.of("queued"), order);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static Thread waitInBackground(AdmissionGate gate, AdmissionGate.Priority priority, List<String> order,
+                                           String name) {
+        return waitInBackground(gate, priority, order, name, LATER);
+    }
+
+    private static Thread waitInBackground(AdmissionGate gate, AdmissionGate.Priority priority, List<String> order,
+                                           String name, long timeoutNanos) {
+        Thread thread = new Thread(() -> {
+            try (AdmissionGate.Permit permit = gate.acquire(priority, System.nanoTime() + timeoutNanos)) {
+                order.add(name);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitQueued(AdmissionGate gate, int queued) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gate.getQueuedInteractive() + gate.getQueuedBulk() < queued && System.nanoTime() < until) {
+            Thread.sleep(5);
+        }
+        assertEquals(queued, gate.getQueuedInteractive() + gate.getQueuedBulk());
+    }
+}
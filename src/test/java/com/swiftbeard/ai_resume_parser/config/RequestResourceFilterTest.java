@@ -0,0 +1,50 @@
+package com.swiftbeard.ai_resume_parser.config;
+
+import com.swiftbeard.ai_resume_parser.service.StageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestResourceFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestResourceFilter filter = new RequestResourceFilter(registry);
+
+    @Test
+    void testApiRequestRecordedUnderMatchedPattern() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resumes/resume-1");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            // Set by the dispatcher once a handler matched
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/resumes/{resumeId}");
+            assertEquals(1 << 16, new byte[1 << 16].length);
+        });
+
+        if (StageMetrics.threadCpuNanos() >= 0) {
+            assertEquals(1, registry.get("http.server.requests.cpu")
+                    .tags("method", "GET", "uri", "/api/resumes/{resumeId}").timer().count());
+        }
+        if (StageMetrics.threadAllocatedBytes() >= 0) {
+            assertTrue(registry.get("http.server.requests.allocated")
+                    .tags("method", "GET", "uri", "/api/resumes/{resumeId}").summary().max() >= 1 << 16);
+        }
+    }
+
+    @Test
+    void testUnmatchedAndNonApiRequests() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/unknown"), new MockHttpServletResponse(),
+                (req, res) -> { });
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(),
+                (req, res) -> { });
+
+        if (StageMetrics.threadCpuNanos() >= 0) {
+            assertEquals(1, registry.get("http.server.requests.cpu").tags("uri", "UNKNOWN").timer().count());
+        }
+        assertTrue(registry.find("http.server.requests.cpu").tags("method", "GET").timers().isEmpty());
+        assertTrue(registry.find("http.server.requests.allocated").tags("method", "GET").summaries().isEmpty());
+    }
+}
@@ -0,0 +1,31 @@
+package com.swiftbeard.ai_resume_parser.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadsTest {
+
+    @Test
+    void testExecutorMatchesRuntime() throws Exception {
+        Optional<ExecutorService> executor = VirtualThreads.newThreadPerTaskExecutor("test-");
+        assertEquals(Runtime.version().feature() >= 21, VirtualThreads.available());
+        assertEquals(VirtualThreads.available(), executor.isPresent());
+        assertFalse(VirtualThreads.isVirtual(Thread.currentThread()));
+        if (executor.isEmpty()) {
+            return;
+        }
+
+        try {
+            Thread thread = executor.get().submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+            assertTrue(VirtualThreads.isVirtual(thread));
+            assertTrue(thread.getName().startsWith("test-"));
+        } finally {
+            executor.get().shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.swiftbeard.ai_resume_parser.health;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelHealthIndicatorTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final ModelHealthIndicator indicator = new ModelHealthIndicator(clock);
+
+    @Test
+    void testUnknownBeforeFirstCall() {
+        assertEquals(Status.UNKNOWN, indicator.health().getStatus());
+    }
+
+    @Test
+    void testDownAfterConsecutiveFailuresAndUpAfterSuccess() {
+        indicator.recordSuccess();
+        failCalls(ModelHealthIndicator.MAX_CONSECUTIVE_FAILURES - 1);
+        assertEquals(Status.UP, indicator.health().getStatus());
+
+        failCalls(1);
+        Health down = indicator.health();
+        assertEquals(Status.DOWN, down.getStatus());
+        assertEquals(ModelHealthIndicator.MAX_CONSECUTIVE_FAILURES, down.getDetails().get("consecutiveFailures"));
+        assertEquals("IOException: connection reset", down.getDetails().get("lastError"));
+
+        indicator.recordSuccess();
+        assertEquals(Status.UP, indicator.health().getStatus());
+        assertEquals(0, indicator.health().getDetails().get("consecutiveFailures"));
+    }
+
+    @Test
+    void testDownTurnsUnknownAfterRecoveryWindowWithoutCalls() {
+        failCalls(ModelHealthIndicator.MAX_CONSECUTIVE_FAILURES);
+        clock.advance(ModelHealthIndicator.RECOVERY_WINDOW.minusSeconds(1));
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(Status.UNKNOWN, indicator.health().getStatus());
+
+        // Another failure restarts the window; a success ends it
+        failCalls(1);
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+        indicator.recordSuccess();
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    private void failCalls(int times) {
+        for (int i = 0; i < times; i++) {
+            indicator.recordFailure(new IOException("connection reset"));
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
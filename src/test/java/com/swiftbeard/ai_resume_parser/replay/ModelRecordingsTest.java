@@ -0,0 +1,45 @@
+package com.swiftbeard.ai_resume_parser.replay;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelRecordingsTest {
+
+    @Test
+    void testRecordingsSurviveRestartAndFirstRecordingWins() throws Exception {
+        Path directory = Files.createTempDirectory("recordings");
+        ModelRecordings recordings = new ModelRecordings(directory);
+        String key = ModelRecordings.key("chat", "gpt-4o-mini", "[user]\nParse this resume\n");
+        recordings.record(new ModelRecordings.ChatRecording(key, "gpt-4o-mini", "prompt", "{\"skills\":[]}",
+                120L, 30L, 850));
+        recordings.record(new ModelRecordings.ChatRecording(key, "gpt-4o-mini", "prompt", "{\"other\":true}",
+                1L, 1L, 1));
+        recordings.record(new ModelRecordings.EmbeddingRecording(ModelRecordings.key("embedding", "Java"), "Java",
+                new float[]{0.25f, -0.5f, 1f}, 40));
+        // A session killed mid-write leaves a truncated last line
+        Files.writeString(directory.resolve(ModelRecordings.CHAT_FILE), "{\"key\":\"abc\",\"resp",
+                StandardOpenOption.APPEND);
+
+        ModelRecordings reloaded = new ModelRecordings(directory);
+
+        ModelRecordings.ChatRecording chat = reloaded.chat(key).orElseThrow();
+        assertEquals("{\"skills\":[]}", chat.response());
+        assertEquals(120L, chat.promptTokens());
+        assertEquals(850L, chat.latencyMs());
+        assertArrayEquals(new float[]{0.25f, -0.5f, 1f},
+                reloaded.embedding(ModelRecordings.key("embedding", "Java")).orElseThrow().embedding());
+        assertEquals(3, reloaded.embeddingDimensions());
+        assertTrue(reloaded.chat("abc").isEmpty());
+    }
+
+    @Test
+    void testKeySeparatesParts() {
+        assertNotEquals(ModelRecordings.key("ab", "c"), ModelRecordings.key("a", "bc"));
+        assertEquals(ModelRecordings.key("chat", null, "x"), ModelRecordings.key("chat", "", "x"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.swiftbeard.ai_resume_parser.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedTextStoreTest {
+
+    private static final String RESUME = """
+            Jane Doe
+            jane.doe@gmail.com | linkedin.com/in/janedoe
+
+            PROFESSIONAL SUMMARY
+            Senior Software Engineer with 8 years of experience in development of Java and Spring Boot services.
+
+            WORK EXPERIENCE
+            Senior Software Engineer, Acme Corp, January 2020 - Present
+            - Led a team of 5 engineers and reduced deployment time by 60% with Kubernetes and Terraform
+            - Designed and implemented payment services in Java, Kafka and PostgreSQL
+
+            EDUCATION
+            Master of Science in Computer Science, Technical University of Munich
+            """;
+
+    private Path directory;
+    private CompressedTextStore store;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.close();
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    void testRoundTripAcrossSegments() throws Exception {
+        directory = Files.createTempDirectory("raw-text");
+        store = new CompressedTextStore(directory, 1024, 2);
+        for (int i = 0; i < 20; i++) {
+            store.put("resume-" + i, RESUME.replace("Jane", "Jane" + i) + "\u00fc \u2713");
+        }
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(RESUME.replace("Jane", "Jane" + i) + "\u00fc \u2713", store.get("resume-" + i));
+        }
+        assertNull(store.get("missing"));
+        Map<String, Object> stats = store.stats();
+        assertEquals(20L, stats.get("texts"));
+        assertTrue((Long) stats.get("segments") > 1);
+        assertTrue((Double) stats.get("compressionRatio") > 1.5);
+    }
+
+    @Test
+    void testReplaceAndRemoveInvalidateCache() throws Exception {
+        directory = Files.createTempDirectory("raw-text");
+        store = new CompressedTextStore(directory, 1 << 20, 4);
+        store.put("resume-1", "first version");
+        assertEquals("first version", store.get("resume-1"));
+
+        store.put("resume-1", "second version");
+        assertEquals("second version", store.get("resume-1"));
+        assertEquals("second version", store.get("resume-1"));
+        assertEquals(1L, store.stats().get("cacheHits"));
+
+        store.put("resume-1", null);
+        assertNull(store.get("resume-1"));
+        assertEquals(0L, store.stats().get("texts"));
+    }
+}
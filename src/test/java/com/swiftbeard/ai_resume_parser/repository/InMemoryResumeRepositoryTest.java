@@ -0,0 +1,48 @@
+package com.swiftbeard.ai_resume_parser.repository;
+
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryResumeRepositoryTest {
+
+    private Path directory;
+    private CompressedTextStore store;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.close();
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    void testRawTextInflatedOnlyWhenRequested() throws Exception {
+        directory = Files.createTempDirectory("raw-text");
+        store = new CompressedTextStore(directory, 1 << 20, 0);
+        InMemoryResumeRepository repository = new InMemoryResumeRepository(store);
+        for (int i = 0; i < 3; i++) {
+            repository.save(ParsedResume.builder().id("resume-" + i).candidateName("Jane " + i)
+                    .rawText("raw text " + i).build());
+        }
+
+        ParsedResume withoutText = repository.findById("resume-1", false).orElseThrow();
+        List<ParsedResume> all = repository.findAll(false);
+
+        assertEquals("Jane 1", withoutText.getCandidateName());
+        assertNull(withoutText.getRawText());
+        assertEquals(3, all.size());
+        assertTrue(all.stream().allMatch(resume -> resume.getRawText() == null));
+        assertEquals(0L, store.stats().get("cacheMisses"));
+
+        assertEquals("raw text 1", repository.findById("resume-1").orElseThrow().getRawText());
+        assertEquals(List.of("raw text 0", "raw text 1", "raw text 2"),
+                repository.findAll().stream().map(ParsedResume::getRawText).toList());
+        assertTrue(repository.findById("missing", false).isEmpty());
+    }
+}
@@ -0,0 +1,197 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.dto.ATSOptimizationResult;
+import com.swiftbeard.ai_resume_parser.dto.FusedAnalysisResult;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ATSOptimizationServiceTest {
+
+    private static final String RESUME = """
+            Jane Doe
+            Berlin, Germany | jane.doe@example.com
+
+            Experience
+            Senior Software Engineer, Acme Payments (2019 - Present)
+            - Reduced p99 checkout latency by 40% with Redis caching
+
+            Skills
+            Java, Kafka, Redis
+            """;
+
+    private static final String PARSED = """
+            {"candidateName": "Jane Doe", "email": "jane.doe@example.com", "skills": ["Java", "Kafka", "Redis"],
+             "experiences": [{"company": "Acme Payments", "position": "Senior Software Engineer",
+                              "duration": "2019 - Present"}]}""";
+
+    private static final String ATS = """
+            {"atsScore": 81, "overallAssessment": "Clear and quantified",
+             "suggestions": [{"category": "Keywords", "issue": "No cloud keywords",
+                              "recommendation": "Name the cloud platform", "priority": "medium"}]}""";
+
+    @Test
+    void testFusedResponseIsSplitIntoResumeAndAtsResult() {
+        StubChatModel chatModel = new StubChatModel(call -> "{\"resume\": " + PARSED + ", \"ats\": " + ATS + "}");
+        ATSOptimizationService service = service(chatModel, new AppProperties());
+
+        FusedAnalysisResult result = service.parseAndOptimize(RESUME, "jane.pdf");
+
+        assertTrue(result.isFused());
+        ParsedResume resume = result.getResume();
+        assertNotNull(resume.getId());
+        assertEquals("Jane Doe", resume.getCandidateName());
+        assertEquals("jane.pdf", resume.getFileName());
+        assertEquals(RESUME, resume.getRawText());
+        ATSOptimizationResult ats = result.getAtsOptimization();
+        assertEquals(resume.getId(), ats.getResumeId());
+        assertEquals(81.0, ats.getAtsScore(), 0.0);
+        assertEquals("MEDIUM", ats.getSuggestions().get(0).getPriority());
+        assertEquals(ATSOptimizationService.SOURCE_LLM, ats.getSource());
+        assertNotNull(ats.getMetrics());
+        assertEquals(1, chatModel.calls.size());
+
+        // The ATS analysis of the fused call is served without another model call
+        assertSame(ats, service.optimizeForATS(resume));
+        assertEquals(1, chatModel.calls.size());
+    }
+
+    @Test
+    void testUnusableFusedResponseFallsBackToSeparateCalls() {
+        StubChatModel chatModel = new StubChatModel(call -> {
+            if (call.text().contains("In a single pass")) {
+                return "{\"resume\": " + PARSED + "}";
+            }
+            return call.text().contains("Analyze this resume for ATS-friendliness") ? ATS : PARSED;
+        });
+        ATSOptimizationService service = service(chatModel, new AppProperties());
+
+        FusedAnalysisResult result = service.parseAndOptimize(RESUME, "jane.pdf");
+
+        assertFalse(result.isFused());
+        assertEquals(3, chatModel.calls.size());
+        assertEquals("Jane Doe", result.getResume().getCandidateName());
+        assertEquals(result.getResume().getId(), result.getAtsOptimization().getResumeId());
+        assertEquals(81.0, result.getAtsOptimization().getAtsScore(), 0.0);
+        assertSame(result.getAtsOptimization(), service.latestResult(result.getResume().getId()).orElseThrow());
+    }
+
+    @Test
+    void testLatestResultsEvictLeastRecentlyUsed() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getAts().setResultCacheSize(2);
+        ATSOptimizationService service = service(new StubChatModel(call -> ATS), appProperties);
+        List<ParsedResume> resumes = List.of(resume("resume-1"), resume("resume-2"), resume("resume-3"));
+
+        service.optimizeForATS(resumes.get(0), "fast");
+        service.optimizeForATS(resumes.get(1), "fast");
+        assertTrue(service.latestResult("resume-1").isPresent());
+        service.optimizeForATS(resumes.get(2), "fast");
+
+        assertTrue(service.latestResult("resume-1").isPresent());
+        assertTrue(service.latestResult("resume-2").isEmpty());
+        assertTrue(service.latestResult("resume-3").isPresent());
+    }
+
+    @Test
+    void testRepeatedPreviewsShareOnePendingAnalysis() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        StubChatModel chatModel = new StubChatModel(call -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ATS;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ATSOptimizationService service = service(chatModel, new AppProperties(), executor);
+            ParsedResume resume = resume("resume-1");
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals(ATSOptimizationService.SOURCE_PREVIEW, service.optimizeForATS(resume, "preview").getSource());
+            }
+            release.countDown();
+            awaitModelResult(service, "resume-1");
+            assertEquals(1, chatModel.calls.size());
+
+            // Once the analysis has finished, the next preview asks the model again
+            service.optimizeForATS(resume, "preview");
+            awaitModelResult(service, "resume-1");
+            assertEquals(2, chatModel.calls.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSuggestionWithoutPriorityLowersConfidence() {
+        ATSOptimizationService service = service(new StubChatModel(call -> "{}"), new AppProperties());
+        ATSOptimizationResult valid = result(suggestion("HIGH"), suggestion("MEDIUM"), suggestion("LOW"));
+        ATSOptimizationResult missingPriority = result(suggestion("HIGH"), suggestion(null), suggestion("LOW"));
+
+        assertEquals(1.0, service.assessConfidence(valid), 0.0);
+        assertTrue(service.assessConfidence(missingPriority) < 1.0);
+    }
+
+    private static void awaitModelResult(ATSOptimizationService service, String resumeId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!service.latestResult(resumeId).map(result -> ATSOptimizationService.SOURCE_LLM.equals(result.getSource()))
+                .orElse(false)) {
+            assertTrue(System.nanoTime() < deadline, "model analysis did not finish");
+            Thread.sleep(10);
+        }
+    }
+
+    private static ParsedResume resume(String id) {
+        return ParsedResume.builder()
+                .id(id)
+                .rawText(RESUME)
+                .skills(List.of("Java", "Kafka", "Redis"))
+                .build();
+    }
+
+    private static ATSOptimizationResult result(ATSOptimizationResult.Suggestion... suggestions) {
+        return ATSOptimizationResult.builder()
+                .atsScore(72.0)
+                .suggestions(List.of(suggestions))
+                .overallAssessment("Solid structure")
+                .build();
+    }
+
+    private static ATSOptimizationResult.Suggestion suggestion(String priority) {
+        return ATSOptimizationResult.Suggestion.builder()
+                .category("keywords")
+                .issue("Few job-specific keywords")
+                .recommendation("Name the frameworks used in each role")
+                .priority(priority)
+                .build();
+    }
+
+    static ATSOptimizationService service(StubChatModel chatModel, AppProperties appProperties) {
+        return service(chatModel, appProperties, null);
+    }
+
+    static ATSOptimizationService service(StubChatModel chatModel, AppProperties appProperties,
+                                          ExecutorService executor) {
+        StageMetrics stageMetrics = new StageMetrics(new SimpleMeterRegistry());
+        ModelRouter router = chatModel.router(appProperties);
+        StructuredOutputDecoder decoder = new StructuredOutputDecoder();
+        ResumeParsingService parsingService = new ResumeParsingService(router, decoder, null, appProperties,
+                stageMetrics);
+        ATSOptimizationService service = new ATSOptimizationService(router, appProperties, parsingService, decoder,
+                new LocalATSScorer(appProperties), executor, stageMetrics);
+        service.initCache();
+        return service;
+    }
+}
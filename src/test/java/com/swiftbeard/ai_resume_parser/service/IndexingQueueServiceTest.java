@@ -0,0 +1,246 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexingQueueServiceTest {
+
+    private final List<IndexingQueueService> queues = new ArrayList<>();
+    private final List<String> deleted = new CopyOnWriteArrayList<>();
+    private final List<String> reused = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        queues.forEach(IndexingQueueService::stop);
+    }
+
+    @Test
+    void testReplaysEntriesLeftOnDiskAfterRestart() throws Exception {
+        Path queueDir = Files.createTempDirectory("index-queue");
+        // The store is down and the retry is far off, so both entries are still queued at shutdown
+        IndexingQueueService before = queue(queueDir, config -> config.setRetryBackoffMs(60_000),
+                resume -> {
+                    throw new IllegalStateException("vector store unavailable");
+                });
+        before.enqueue(resume(1));
+        before.enqueue(resume(2));
+        before.stop();
+        assertEquals(2, entries(queueDir).size());
+
+        List<String> stored = new CopyOnWriteArrayList<>();
+        IndexingQueueService after = queue(queueDir, config -> config.setWorkers(1),
+                resume -> stored.add(resume.getId()));
+
+        awaitEmpty(after);
+        assertEquals(List.of("resume-1", "resume-2"), stored);
+        assertTrue(entries(queueDir).isEmpty());
+        assertEquals(2L, after.stats().get("indexed"));
+    }
+
+    @Test
+    void testMovesEntryToFailedAfterMaxAttempts() throws Exception {
+        Path queueDir = Files.createTempDirectory("index-queue");
+        AtomicInteger attempts = new AtomicInteger();
+        IndexingQueueService queue = queue(queueDir, config -> {
+            config.setMaxAttempts(3);
+            config.setRetryBackoffMs(1);
+        }, resume -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("vector store unavailable");
+        });
+
+        CompletableFuture<Void> completion = queue.enqueue(resume(1));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> completion.get(5, TimeUnit.SECONDS));
+        assertEquals("vector store unavailable", e.getCause().getMessage());
+        assertEquals(3, attempts.get());
+        assertEquals(2L, queue.stats().get("retries"));
+        assertEquals(1L, queue.stats().get("failed"));
+        assertEquals(0, queue.pendingCount());
+        assertTrue(entries(queueDir).isEmpty());
+        assertEquals(1, entries(queueDir.resolve("failed")).size());
+    }
+
+    @Test
+    void testEnqueueAndWaitReturnsOnceIndexed() throws Exception {
+        List<String> stored = new CopyOnWriteArrayList<>();
+        IndexingQueueService queue = queue(Files.createTempDirectory("index-queue"), config -> {
+        }, resume -> stored.add(resume.getId()));
+
+        queue.enqueueAndWait(resume(1));
+
+        assertEquals(List.of("resume-1"), stored);
+        assertEquals(0, queue.pendingCount());
+    }
+
+    @Test
+    void testEnqueueAndWaitTimesOutButKeepsEntry() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IndexingQueueService queue = queue(Files.createTempDirectory("index-queue"),
+                config -> config.setWaitTimeoutMs(50), resume -> await(release));
+
+        assertThrows(TimeoutException.class, () -> queue.enqueueAndWait(resume(1)));
+        assertEquals(1, queue.pendingCount());
+
+        release.countDown();
+        awaitEmpty(queue);
+        assertEquals(1L, queue.stats().get("indexed"));
+    }
+
+    @Test
+    void testStopLetsInFlightEntryFinish() throws Exception {
+        Path queueDir = Files.createTempDirectory("index-queue");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IndexingQueueService queue = queue(queueDir, config -> config.setShutdownTimeoutMs(5_000), resume -> {
+            started.countDown();
+            await(release);
+        });
+
+        CompletableFuture<Void> completion = queue.enqueue(resume(1));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        new Thread(() -> {
+            sleep(100);
+            release.countDown();
+        }).start();
+        queue.stop();
+
+        assertTrue(completion.isDone());
+        assertFalse(completion.isCompletedExceptionally());
+        assertTrue(entries(queueDir).isEmpty());
+    }
+
+    @Test
+    void testQueuedPreviousVersionIsDroppedWhenSuperseded() throws Exception {
+        Path queueDir = Files.createTempDirectory("index-queue");
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> stored = new CopyOnWriteArrayList<>();
+        // The only worker is busy with resume-0, so resume-1 is still queued when it is superseded
+        IndexingQueueService queue = queue(queueDir, config -> config.setWorkers(1), resume -> {
+            if (resume.getId().equals("resume-0")) {
+                await(release);
+            }
+            stored.add(resume.getId());
+        });
+        queue.enqueue(resume(0));
+        CompletableFuture<Void> previous = queue.enqueue(resume(1));
+
+        queue.storeReusedResume(resume(2), resume(1));
+        release.countDown();
+        awaitEmpty(queue);
+
+        assertEquals(List.of("resume-0"), stored);
+        assertEquals(List.of("resume-2"), reused);
+        assertTrue(previous.isDone());
+        assertFalse(previous.isCompletedExceptionally());
+        assertTrue(entries(queueDir).isEmpty());
+    }
+
+    @Test
+    void testPreviousVersionBeingWrittenIsDeletedWhenSuperseded() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IndexingQueueService queue = queue(Files.createTempDirectory("index-queue"), config -> {
+        }, resume -> {
+            started.countDown();
+            await(release);
+        });
+        queue.enqueue(resume(1));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        queue.storeReusedResume(resume(2), resume(1));
+        release.countDown();
+        awaitEmpty(queue);
+
+        // The worker finished writing resume-1 after the new version replaced it, so it removes it again
+        assertEquals(List.of("resume-2"), reused);
+        assertEquals(List.of("resume-1"), deleted);
+    }
+
+    private IndexingQueueService queue(Path queueDir, Consumer<AppProperties.Indexing> configure,
+                                       Consumer<ParsedResume> store) throws Exception {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getIndexing().setQueuePath(queueDir.toString());
+        configure.accept(appProperties.getIndexing());
+        VectorStoreService vectorStoreService = new VectorStoreService(null, appProperties,
+                new StageMetrics(new SimpleMeterRegistry())) {
+            @Override
+            public void storeResume(ParsedResume resume) {
+                store.accept(resume);
+            }
+
+            @Override
+            public int storeReusedResume(ParsedResume resume, ParsedResume previous) {
+                reused.add(resume.getId());
+                return 0;
+            }
+
+            @Override
+            public void deleteResume(ParsedResume resume) {
+                deleted.add(resume.getId());
+            }
+        };
+        IndexingQueueService queue = new IndexingQueueService(vectorStoreService, appProperties);
+        queue.start();
+        queues.add(queue);
+        return queue;
+    }
+
+    private static List<Path> entries(Path dir) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".json")).toList();
+        }
+    }
+
+    private static void awaitEmpty(IndexingQueueService queue) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queue.pendingCount() > 0) {
+            assertTrue(System.nanoTime() < deadline, "queue not drained in time");
+            sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while indexing", e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ParsedResume resume(int i) {
+        return ParsedResume.builder()
+                .id("resume-" + i)
+                .candidateName("Candidate " + i)
+                .rawText("raw text " + i)
+                .build();
+    }
+}
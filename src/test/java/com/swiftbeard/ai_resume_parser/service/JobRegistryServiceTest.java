@@ -0,0 +1,143 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.dto.JobRecommendation;
+import com.swiftbeard.ai_resume_parser.model.JobDescription;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import com.swiftbeard.ai_resume_parser.vectorstore.ShardedVectorStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobRegistryServiceTest {
+
+    private static final List<String> TERMS = List.of("Java", "Python", "Figma");
+
+    private final StubEmbeddingModel embeddingModel = new StubEmbeddingModel(JobRegistryServiceTest::embed);
+    private final List<String> embedded = embeddingModel.texts;
+    private final ShardedVectorStore store = embeddingModel.store();
+
+    @AfterEach
+    void tearDown() {
+        store.destroy();
+    }
+
+    @Test
+    void testRegisterReplaceAndRemove() {
+        JobRegistryService registry = registry(new AppProperties());
+
+        JobRegistryService.RegisteredJob registered = registry.register(job(null, "Backend Engineer", "Java"));
+        String jobId = registered.description().getId();
+        assertNotNull(jobId);
+        assertEquals(registry.buildJobQuery(registered.description()), registered.query());
+        assertEquals(Set.of("java"), registered.requiredSkills());
+
+        registry.register(job(jobId, "Senior Backend Engineer", "Java"));
+        assertEquals(List.of("Senior Backend Engineer"), registry.findAll().stream().map(JobDescription::getTitle).toList());
+        assertEquals("Senior Backend Engineer", registry.findById(jobId).orElseThrow().description().getTitle());
+
+        assertTrue(registry.remove(jobId));
+        assertFalse(registry.remove(jobId));
+        assertTrue(registry.findById(jobId).isEmpty());
+        assertTrue(registry.findAll().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> registry.register(job("job-x", " ", "Java")));
+    }
+
+    @Test
+    void testRecommendsTopKJobsBySimilarity() {
+        JobRegistryService registry = registry(new AppProperties());
+        registry.register(job("design", "Product Designer", "Figma"));
+        registry.register(job("backend", "Backend Engineer", "Java", "Kafka"));
+        registry.register(job("data", "Data Engineer", "Python"));
+
+        List<JobRecommendation> recommendations = registry.recommendJobs(resume(), 2);
+
+        assertEquals(List.of("backend", "data"), recommendations.stream().map(JobRecommendation::getJobId).toList());
+        assertTrue(recommendations.get(0).getSimilarity() > recommendations.get(1).getSimilarity());
+        JobRecommendation best = recommendations.get(0);
+        assertEquals(List.of("Java"), best.getMatchedSkills());
+        assertEquals(List.of("Kafka"), best.getMissingSkills());
+        assertEquals(0.5, best.getRequiredSkillCoverage(), 0.0);
+        assertTrue(registry(new AppProperties()).recommendJobs(resume(), 2).isEmpty());
+    }
+
+    @Test
+    void testReusesStoredResumeEmbedding() {
+        AppProperties appProperties = new AppProperties();
+        JobRegistryService registry = registry(appProperties);
+        registry.register(job("backend", "Backend Engineer", "Java", "Kafka"));
+        registry.register(job("data", "Data Engineer", "Python"));
+        ParsedResume resume = resume();
+
+        List<JobRecommendation> beforeIndexing = registry.recommendJobs(resume, 2);
+        assertEquals(3, embedded.size());
+
+        new VectorStoreService(store, appProperties, new StageMetrics(new SimpleMeterRegistry())).storeResume(resume);
+        embedded.clear();
+        List<JobRecommendation> afterIndexing = registry.recommendJobs(resume, 2);
+
+        assertTrue(embedded.isEmpty());
+        assertEquals(beforeIndexing.stream().map(JobRecommendation::getJobId).toList(),
+                afterIndexing.stream().map(JobRecommendation::getJobId).toList());
+        assertEquals(beforeIndexing.get(0).getSimilarity(), afterIndexing.get(0).getSimilarity(), 1e-5);
+    }
+
+    @Test
+    void testEmbedsResumeWhenStoredVectorsAreChunks() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getVector().getChunking().setEnabled(true);
+        JobRegistryService registry = registry(appProperties);
+        registry.register(job("backend", "Backend Engineer", "Java", "Kafka"));
+        ParsedResume resume = resume();
+        new VectorStoreService(store, appProperties, new StageMetrics(new SimpleMeterRegistry())).storeResume(resume);
+        embedded.clear();
+
+        registry.recommendJobs(resume, 1);
+
+        assertEquals(1, embedded.size());
+        assertTrue(embedded.get(0).startsWith("Candidate: Jane Doe"));
+    }
+
+    private JobRegistryService registry(AppProperties appProperties) {
+        return new JobRegistryService(embeddingModel,
+                new VectorStoreService(store, appProperties, new StageMetrics(new SimpleMeterRegistry())));
+    }
+
+    /**
+     * Embeds a text as the number of times it mentions each term, plus a constant so no vector is zero.
+     */
+    private static float[] embed(String text) {
+        float[] vector = new float[TERMS.size() + 1];
+        for (int i = 0; i < TERMS.size(); i++) {
+            vector[i] = text.split(TERMS.get(i), -1).length - 1;
+        }
+        vector[TERMS.size()] = 0.1f;
+        return vector;
+    }
+
+    private static JobDescription job(String id, String title, String... requiredSkills) {
+        return JobDescription.builder()
+                .id(id)
+                .title(title)
+                .requiredSkills(List.of(requiredSkills))
+                .build();
+    }
+
+    private static ParsedResume resume() {
+        return ParsedResume.builder()
+                .id("resume-1")
+                .candidateName("Jane Doe")
+                .skills(List.of("Java", "Python"))
+                .experiences(List.of(ParsedResume.Experience.builder()
+                        .company("Acme Payments")
+                        .position("Java Engineer")
+                        .duration("2019 - Present")
+                        .build()))
+                .build();
+    }
+}
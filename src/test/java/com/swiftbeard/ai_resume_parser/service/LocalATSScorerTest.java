@@ -0,0 +1,66 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.dto.ATSOptimizationResult;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalATSScorerTest {
+
+    private final LocalATSScorer scorer = new LocalATSScorer(new AppProperties());
+
+    @Test
+    void testWellFormedResumeScoresHigherThanSparseOne() {
+        String text = """
+                Jane Doe
+                jane.doe@example.com | +49 30 1234567 | Berlin, Germany
+
+                Summary
+                Backend engineer building payment platforms with Java, Kotlin and Kafka.
+
+                Experience
+                - Led the migration of settlement to Kafka and cut batch runtime by 70%
+                - Reduced checkout latency by 40% with Redis caching on AWS
+                - Mentored 4 engineers and introduced contract testing for Java services
+
+                Education
+                M.Sc. Computer Science, TU Berlin
+
+                Skills
+                Java, Kotlin, Kafka, Redis, AWS
+                """;
+        ParsedResume complete = ParsedResume.builder()
+                .email("jane.doe@example.com")
+                .phone("+49 30 1234567")
+                .location("Berlin, Germany")
+                .summary("Backend engineer")
+                .skills(List.of("Java", "Kotlin", "Kafka", "Redis", "AWS"))
+                .experiences(List.of(ParsedResume.Experience.builder().company("Acme").build()))
+                .educations(List.of(ParsedResume.Education.builder().institution("TU Berlin").build()))
+                .build();
+        ParsedResume sparse = ParsedResume.builder().skills(List.of()).build();
+
+        ATSOptimizationResult good = scorer.score(complete, TextAnalyzer.analyze(text, complete.getSkills()));
+        ATSOptimizationResult poor = scorer.score(sparse, TextAnalyzer.analyze("Jane Doe\nLooking for a job", List.of()));
+
+        assertTrue(good.getAtsScore() > poor.getAtsScore());
+        assertTrue(good.getAtsScore() >= 60 && good.getAtsScore() <= 100);
+        assertTrue(good.getSuggestions().stream().noneMatch(s -> "Contact Information".equals(s.getCategory())));
+        assertTrue(poor.getSuggestions().stream().anyMatch(s -> s.getIssue().equals("No email address found")));
+        assertTrue(poor.getSuggestions().stream().anyMatch(s -> s.getIssue().equals("Missing experience section")));
+    }
+
+    @Test
+    void testFlagsTablesAndUnreadableGlyphs() {
+        String text = "Name | Role | Company | Years\n".repeat(5) + "\uf0e0 jane@example.com\n";
+
+        ATSOptimizationResult result = scorer.score(ParsedResume.builder().build(), TextAnalyzer.analyze(text, null));
+
+        assertTrue(result.getSuggestions().stream().anyMatch(s -> s.getIssue().contains("table rows")));
+        assertTrue(result.getSuggestions().stream().anyMatch(s -> s.getIssue().contains("could not be read")));
+    }
+}
@@ -0,0 +1,77 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashTest {
+
+    private static final String RESUME = """
+            Jane Doe
+            Berlin, Germany | +49 30 1234567 | jane.doe@example.com
+
+            Summary
+            Backend engineer with eight years of experience building payment and logistics platforms on the JVM.
+
+            Experience
+            Senior Software Engineer, Acme Payments (2019 - Present)
+            - Led the migration of the settlement service from a monolith to event-driven microservices on Kafka
+            - Reduced p99 checkout latency by 40% by introducing read-through caching with Redis
+            - Mentored four engineers and ran the team's architecture review
+
+            Software Engineer, Parcel Logistics GmbH (2016 - 2019)
+            - Built route optimisation APIs in Java and Spring Boot serving two million requests per day
+            - Introduced contract testing between twelve services and cut integration failures in half
+
+            Education
+            M.Sc. Computer Science, Technical University of Berlin (2016)
+
+            Skills
+            Java, Kotlin, Spring Boot, Kafka, PostgreSQL, Redis, Kubernetes, AWS, Terraform
+            """;
+
+    @Test
+    void testEditedVersionIsNearDuplicate() {
+        String edited = RESUME.replace("+49 30 1234567", "+49 151 7654321")
+                .replace("- Mentored four engineers", "- Designed the fraud scoring pipeline with Flink\n- Mentored four engineers");
+
+        int[] original = MinHash.signature(RESUME);
+        int[] changed = MinHash.signature(edited);
+
+        double similarity = MinHash.similarity(original, changed);
+        assertTrue(similarity >= 0.8, "similarity was " + similarity);
+        assertTrue(IntStream.range(0, MinHash.BANDS)
+                .anyMatch(band -> MinHash.bandKey(original, band) == MinHash.bandKey(changed, band)));
+    }
+
+    @Test
+    void testUnrelatedResumeIsNotNearDuplicate() {
+        String other = """
+                John Smith
+                Registered nurse with ten years in intensive care and emergency departments.
+                Charge nurse at St. Mary's Hospital, responsible for staffing and triage protocols.
+                BSc Nursing, University of Leeds. Certified in advanced cardiac life support.
+                """;
+
+        double similarity = MinHash.similarity(MinHash.signature(RESUME), MinHash.signature(other));
+
+        assertTrue(similarity < 0.2, "similarity was " + similarity);
+    }
+
+    @Test
+    void testTextWithoutWordsHasNoSignature() {
+        assertNull(MinHash.signature(""));
+        assertNull(MinHash.signature(" \n\t-- | ..."));
+        assertNotNull(MinHash.signature("Jane"));
+    }
+
+    @Test
+    void testSignatureRoundTripsThroughEncoding() {
+        int[] signature = MinHash.signature(RESUME);
+
+        assertArrayEquals(signature, MinHash.decode(MinHash.encode(signature)));
+        assertEquals(1.0, MinHash.similarity(signature, MinHash.signature(RESUME.toUpperCase())));
+    }
+}
@@ -0,0 +1,132 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.health.ModelHealthIndicator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelRouterTest {
+
+    private static final ModelRouter.ResponseDecoder<String> DECODER = response -> {
+        if (response.equals("garbage")) {
+            throw new IllegalArgumentException("not decodable");
+        }
+        return response;
+    };
+
+    // "good" answers are confident, "weak" ones are not
+    private static final ModelRouter.ConfidenceCheck<String> CONFIDENCE =
+            result -> result.startsWith("good") ? 1.0 : 0.5;
+
+    private final RoutingMetrics routingMetrics = new RoutingMetrics();
+
+    @Test
+    void testStopsAtFirstConfidentTier() throws Exception {
+        StubChatModel chatModel = new StubChatModel(call -> "good from " + call.model());
+
+        String result = router(chatModel, routing(true, "small", "large"))
+                .call(AiOperation.PARSE, new Prompt("parse this"), DECODER, CONFIDENCE);
+
+        assertEquals("good from small", result);
+        assertEquals(List.of("small"), chatModel.calls.stream().map(StubChatModel.Call::model).toList());
+        assertEquals(0L, tierStats("parse.small").get("escalations"));
+    }
+
+    @Test
+    void testEscalatesPastUndecodableAndLowConfidenceOutput() throws Exception {
+        StubChatModel chatModel = new StubChatModel(call -> switch (call.model()) {
+            case "small" -> "garbage";
+            case "medium" -> "weak";
+            default -> "good from " + call.model();
+        });
+
+        String result = router(chatModel, routing(true, "small", "medium", "large"))
+                .call(AiOperation.PARSE, new Prompt("parse this"), DECODER, CONFIDENCE);
+
+        assertEquals("good from large", result);
+        assertEquals(List.of("small", "medium", "large"),
+                chatModel.calls.stream().map(StubChatModel.Call::model).toList());
+        assertEquals(1L, tierStats("parse.small").get("decodeFailures"));
+        assertEquals(1L, tierStats("parse.small").get("escalations"));
+        assertEquals(1L, tierStats("parse.medium").get("escalations"));
+        assertEquals(0L, tierStats("parse.large").get("escalations"));
+    }
+
+    @Test
+    void testReturnsMostConfidentResultWhenNoTierIsConfident() throws Exception {
+        StubChatModel chatModel = new StubChatModel(call -> "small".equals(call.model()) ? "weak" : "garbage");
+
+        String result = router(chatModel, routing(true, "small", "large"))
+                .call(AiOperation.PARSE, new Prompt("parse this"), DECODER, CONFIDENCE);
+
+        assertEquals("weak", result);
+        assertEquals(2, chatModel.calls.size());
+    }
+
+    @Test
+    void testThrowsLastFailureWhenNoTierDecodes() {
+        StubChatModel chatModel = new StubChatModel(call -> "garbage");
+        ModelRouter router = router(chatModel, routing(true, "small", "large"));
+
+        Exception e = assertThrows(IllegalArgumentException.class,
+                () -> router.call(AiOperation.PARSE, new Prompt("parse this"), DECODER, CONFIDENCE));
+        assertEquals("not decodable", e.getMessage());
+        assertEquals(2, chatModel.calls.size());
+    }
+
+    @Test
+    void testDisabledRoutingMakesOneCallWithDefaultModel() throws Exception {
+        StubChatModel chatModel = new StubChatModel(call -> "weak");
+
+        String result = router(chatModel, routing(false, "small", "large"))
+                .call(AiOperation.PARSE, new Prompt("parse this"), DECODER, CONFIDENCE);
+
+        assertEquals("weak", result);
+        assertEquals(1, chatModel.calls.size());
+        assertNull(chatModel.calls.get(0).model());
+        assertEquals(List.of("parse.default"), List.copyOf(routingMetrics.snapshot().keySet()));
+    }
+
+    @Test
+    void testKeywordExtractionGoesThroughRouter() {
+        StubChatModel chatModel = new StubChatModel(call -> "Java, Kafka , ,Spring Boot");
+        AppProperties appProperties = routing(true, "small");
+        ResumeParsingService parsingService = new ResumeParsingService(router(chatModel, appProperties),
+                new StructuredOutputDecoder(), null, appProperties, new StageMetrics(new SimpleMeterRegistry()));
+
+        assertEquals(List.of("Java", "Kafka", "Spring Boot"), parsingService.extractKeywords("Java and Kafka"));
+        assertEquals("small", chatModel.calls.get(0).model());
+        assertEquals(1L, tierStats("keywords.small").get("calls"));
+    }
+
+    private ModelRouter router(StubChatModel chatModel, AppProperties appProperties) {
+        return new ModelRouter(chatModel, appProperties, routingMetrics,
+                new StageMetrics(new SimpleMeterRegistry()), new ModelHealthIndicator());
+    }
+
+    private static AppProperties routing(boolean enabled, String... models) {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getRouting().setEnabled(enabled);
+        for (AiOperation operation : List.of(AiOperation.PARSE, AiOperation.KEYWORDS)) {
+            AppProperties.OperationRouting routing = new AppProperties.OperationRouting();
+            for (String model : models) {
+                AppProperties.Tier tier = new AppProperties.Tier();
+                tier.setName(model);
+                tier.setModel(model);
+                routing.getTiers().add(tier);
+            }
+            appProperties.getRouting().getOperations().put(operation.getKey(), routing);
+        }
+        return appProperties;
+    }
+
+    private Map<String, Object> tierStats(String key) {
+        return routingMetrics.snapshot().get(key);
+    }
+}
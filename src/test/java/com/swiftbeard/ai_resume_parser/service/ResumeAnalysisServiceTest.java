@@ -0,0 +1,153 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.dto.MatchResult;
+import com.swiftbeard.ai_resume_parser.model.JobDescription;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumeAnalysisServiceTest {
+
+    private static final Pattern CANDIDATE_LINE = Pattern.compile("(?m)^(c\\d+): Candidate: (.+?) \\|");
+    private static final Pattern SINGLE_CANDIDATE = Pattern.compile("(?m)^- Candidate: (.+)$");
+
+    private static final JobDescription JOB = JobDescription.builder()
+            .id("job-1")
+            .title("Backend Engineer")
+            .requiredSkills(List.of("Java", "Kafka"))
+            .build();
+
+    @Test
+    void testPacksBatchesWithinTokenBudget() {
+        StubChatModel chatModel = new StubChatModel(call -> answer(call, candidates -> false));
+        List<ParsedResume> resumes = resumes(5);
+        // Too large to share a prompt with anyone under the default budget of 6000 tokens (4 chars each)
+        resumes.set(2, resume(3, "x".repeat(30_000)));
+
+        List<MatchResult> results = service(chatModel, new AppProperties()).analyzeMatches(resumes, JOB);
+
+        assertEquals(List.of(List.of("Candidate 1", "Candidate 2"), List.of("Candidate 3"),
+                List.of("Candidate 4", "Candidate 5")), promptedCandidates(chatModel));
+        assertResultsInOrder(resumes, results);
+        assertEquals("single Candidate 3", results.get(2).getAnalysis());
+        assertEquals("batch Candidate 4", results.get(3).getAnalysis());
+    }
+
+    @Test
+    void testCapsBatchesAtMaxCandidates() {
+        StubChatModel chatModel = new StubChatModel(call -> answer(call, candidates -> false));
+        AppProperties appProperties = new AppProperties();
+        appProperties.getMatch().getBatch().setMaxCandidates(2);
+        List<ParsedResume> resumes = resumes(5);
+
+        List<MatchResult> results = service(chatModel, appProperties).analyzeMatches(resumes, JOB);
+
+        assertEquals(List.of(List.of("Candidate 1", "Candidate 2"), List.of("Candidate 3", "Candidate 4"),
+                List.of("Candidate 5")), promptedCandidates(chatModel));
+        assertResultsInOrder(resumes, results);
+    }
+
+    @Test
+    void testSplitsBatchWhenResponseIsMalformed() {
+        // Any batch of more than two candidates gets an answer that is not JSON
+        StubChatModel chatModel = new StubChatModel(call -> CANDIDATE_LINE.matcher(call.text()).results().count() > 2
+                ? "Sorry, I cannot rank these candidates."
+                : answer(call, candidates -> false));
+        List<ParsedResume> resumes = resumes(4);
+
+        List<MatchResult> results = service(chatModel, new AppProperties()).analyzeMatches(resumes, JOB);
+
+        assertEquals(List.of(List.of("Candidate 1", "Candidate 2", "Candidate 3", "Candidate 4"),
+                List.of("Candidate 1", "Candidate 2"), List.of("Candidate 3", "Candidate 4")),
+                promptedCandidates(chatModel));
+        assertResultsInOrder(resumes, results);
+        assertTrue(results.stream().allMatch(result -> result.getAnalysis().startsWith("batch")));
+    }
+
+    @Test
+    void testRetriesCandidatesMissingFromResponse() {
+        // The first answer leaves out the second candidate
+        StubChatModel chatModel = new StubChatModel(call -> answer(call,
+                candidates -> candidates.size() == 3 && candidates.contains("c2")));
+        List<ParsedResume> resumes = resumes(3);
+
+        List<MatchResult> results = service(chatModel, new AppProperties()).analyzeMatches(resumes, JOB);
+
+        assertEquals(List.of(List.of("Candidate 1", "Candidate 2", "Candidate 3"), List.of("Candidate 2")),
+                promptedCandidates(chatModel));
+        assertResultsInOrder(resumes, results);
+        assertEquals("batch Candidate 1", results.get(0).getAnalysis());
+        assertEquals("single Candidate 2", results.get(1).getAnalysis());
+        assertEquals("batch Candidate 3", results.get(2).getAnalysis());
+    }
+
+    private static ResumeAnalysisService service(StubChatModel chatModel, AppProperties appProperties) {
+        return new ResumeAnalysisService(chatModel.router(appProperties), appProperties,
+                new StructuredOutputDecoder(), new StageMetrics(new SimpleMeterRegistry()));
+    }
+
+    /**
+     * A batch answer with an entry per candidate line (leaving out c2 when {@code dropSecond} matches the
+     * candidate ids), or a single-match answer.
+     */
+    private static String answer(StubChatModel.Call call, Predicate<List<String>> dropSecond) {
+        Matcher single = SINGLE_CANDIDATE.matcher(call.text());
+        if (single.find()) {
+            return entry(null, "single " + single.group(1));
+        }
+        List<String> ids = CANDIDATE_LINE.matcher(call.text()).results().map(match -> match.group(1)).toList();
+        boolean drop = dropSecond.test(ids);
+        List<String> entries = new ArrayList<>();
+        CANDIDATE_LINE.matcher(call.text()).results()
+                .filter(match -> !(drop && match.group(1).equals("c2")))
+                .forEach(match -> entries.add(entry(match.group(1), "batch " + match.group(2))));
+        return "[" + String.join(",", entries) + "]";
+    }
+
+    private static String entry(String candidateId, String analysis) {
+        return (candidateId != null ? "{\"candidateId\": \"" + candidateId + "\", " : "{")
+                + "\"matchScore\": 0.8, \"matchedSkills\": [\"Java\"], \"missingSkills\": [\"Kafka\"], "
+                + "\"analysis\": \"" + analysis + "\", \"recommendations\": [\"Add Kafka projects\"]}";
+    }
+
+    /**
+     * The candidates named in each prompt, in call order.
+     */
+    private static List<List<String>> promptedCandidates(StubChatModel chatModel) {
+        return chatModel.calls.stream()
+                .map(call -> {
+                    Matcher single = SINGLE_CANDIDATE.matcher(call.text());
+                    return single.find() ? List.of(single.group(1))
+                            : CANDIDATE_LINE.matcher(call.text()).results().map(match -> match.group(2)).toList();
+                })
+                .toList();
+    }
+
+    private static void assertResultsInOrder(List<ParsedResume> resumes, List<MatchResult> results) {
+        assertEquals(resumes.stream().map(ParsedResume::getId).toList(),
+                results.stream().map(MatchResult::getResumeId).toList());
+        assertTrue(results.stream().allMatch(result -> "job-1".equals(result.getJobDescriptionId())));
+    }
+
+    private static List<ParsedResume> resumes(int count) {
+        return new ArrayList<>(IntStream.rangeClosed(1, count).mapToObj(i -> resume(i, "Java")).toList());
+    }
+
+    private static ParsedResume resume(int i, String skills) {
+        return ParsedResume.builder()
+                .id("resume-" + i)
+                .candidateName("Candidate " + i)
+                .skills(List.of(skills))
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import com.swiftbeard.ai_resume_parser.repository.InMemoryResumeRepository;
+import com.swiftbeard.ai_resume_parser.vectorstore.ShardedVectorStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumeDeduplicationServiceTest {
+
+    private static final String RESUME = """
+            Jane Doe
+            Berlin, Germany | +49 30 1234567 | jane.doe@example.com
+
+            Summary
+            Backend engineer with eight years of experience building payment and logistics platforms on the JVM.
+
+            Experience
+            Senior Software Engineer, Acme Payments (2019 - Present)
+            - Led the migration of the settlement service from a monolith to event-driven microservices on Kafka
+            - Reduced p99 checkout latency by 40% by introducing read-through caching with Redis
+            - Mentored four engineers and ran the team's architecture review
+
+            Software Engineer, Parcel Logistics GmbH (2016 - 2019)
+            - Built route optimisation APIs in Java and Spring Boot serving two million requests per day
+            - Introduced contract testing between twelve services and cut integration failures in half
+
+            Education
+            M.Sc. Computer Science, Technical University of Berlin (2016)
+
+            Skills
+            Java, Kotlin, Spring Boot, Kafka, PostgreSQL, Redis, Kubernetes, AWS, Terraform
+            """;
+
+    private static final String EDITED = RESUME.replace("+49 30 1234567", "+49 151 7654321");
+
+    private static final String PARSED = """
+            {"candidateName": "Jane Doe", "email": "jane.doe@example.com", "phone": "+49 30 1234567",
+             "location": "Berlin, Germany",
+             "summary": "Backend engineer with eight years of experience building payment and logistics platforms.",
+             "skills": ["Java", "Kotlin", "Kafka"],
+             "experiences": [{"company": "Acme Payments", "position": "Senior Software Engineer",
+                              "duration": "2019 - Present"}],
+             "educations": [], "certifications": []}
+            """;
+
+    private final List<ShardedVectorStore> stores = new ArrayList<>();
+
+    private record Environment(InMemoryResumeRepository repository, ShardedVectorStore store,
+                               StubEmbeddingModel embeddingModel, VectorStoreService vectorStoreService,
+                               ResumeDeduplicationService deduplicationService) {
+    }
+
+    @AfterEach
+    void tearDown() {
+        stores.forEach(ShardedVectorStore::destroy);
+    }
+
+    @Test
+    void testReuseIndexesNewVersionWithPreviousEmbeddings() {
+        StubChatModel chatModel = new StubChatModel(call -> PARSED);
+        // Mixed case: the policy is matched case-insensitively everywhere
+        Environment env = environment(chatModel, "Reuse");
+
+        ResumeDeduplicationService.ParseOutcome first = env.deduplicationService().parse(RESUME, "v1.pdf");
+        assertNull(first.reusedFrom());
+        env.repository().save(first.resume());
+        env.vectorStoreService().storeResume(first.resume());
+        int embeddedForFirst = env.embeddingModel().texts.size();
+
+        ResumeDeduplicationService.ParseOutcome second = env.deduplicationService().parse(EDITED, "v2.pdf");
+        assertNotNull(second.reusedFrom());
+        assertEquals(first.resume().getId(), second.reusedFrom().getId());
+        assertNotEquals(first.resume().getId(), second.resume().getId());
+        assertEquals(first.resume().getId(), second.resume().getMetadata().get("duplicateOf"));
+        assertEquals(1, chatModel.calls.size());
+
+        assertEquals(0, env.vectorStoreService().storeReusedResume(second.resume(), second.reusedFrom()));
+        assertEquals(embeddedForFirst, env.embeddingModel().texts.size());
+
+        Document newDocument = env.vectorStoreService().buildDocuments(second.resume()).get(0);
+        Document oldDocument = env.vectorStoreService().buildDocuments(first.resume()).get(0);
+        assertTrue(env.store().getEmbedding(newDocument.getId()).isPresent());
+        assertTrue(env.store().getEmbedding(oldDocument.getId()).isEmpty());
+        List<Document> hits = env.store().search(new float[]{1f, 1f, 1f}, 5, 0.0, null);
+        assertEquals(List.of(second.resume().getId()),
+                hits.stream().map(hit -> hit.getMetadata().get("resumeId")).toList());
+    }
+
+    @Test
+    void testReparseChangedSendsOnlyChangedLines() {
+        StubChatModel chatModel = new StubChatModel(call -> call.text().contains("Lines added")
+                ? "{\"phone\": \"+49 151 7654321\"}"
+                : PARSED);
+        Environment env = environment(chatModel, "reparse-changed");
+
+        ParsedResume first = env.deduplicationService().parse(RESUME, "v1.pdf").resume();
+        env.repository().save(first);
+        ResumeDeduplicationService.ParseOutcome second = env.deduplicationService().parse(EDITED, "v2.pdf");
+
+        assertNull(second.reusedFrom());
+        assertEquals(2, chatModel.calls.size());
+        String reparsePrompt = chatModel.calls.get(1).text();
+        assertTrue(reparsePrompt.contains("+49 151 7654321"));
+        assertFalse(reparsePrompt.contains("Led the migration"));
+
+        ParsedResume updated = second.resume();
+        assertEquals("+49 151 7654321", updated.getPhone());
+        assertEquals("Jane Doe", updated.getCandidateName());
+        assertEquals(List.of("Java", "Kotlin", "Kafka"), updated.getSkills());
+        assertEquals(first.getId(), updated.getMetadata().get("duplicateOf"));
+        assertEquals("+49 30 1234567", first.getPhone());
+    }
+
+    @Test
+    void testOffPolicyParsesEveryUpload() {
+        StubChatModel chatModel = new StubChatModel(call -> PARSED);
+        Environment env = environment(chatModel, "OFF");
+
+        env.repository().save(env.deduplicationService().parse(RESUME, "v1.pdf").resume());
+        ResumeDeduplicationService.ParseOutcome second = env.deduplicationService().parse(EDITED, "v2.pdf");
+
+        assertNull(second.reusedFrom());
+        assertNull(second.resume().getMetadata().get("duplicateOf"));
+        assertEquals(2, chatModel.calls.size());
+    }
+
+    @Test
+    void testBlankUploadsAreNeverDuplicates() {
+        StubChatModel chatModel = new StubChatModel(call -> PARSED);
+        Environment env = environment(chatModel, "reuse");
+
+        // E.g. two scanned PDFs without a text layer
+        ParsedResume first = env.deduplicationService().parse("", "scan1.pdf").resume();
+        env.repository().save(first);
+        ResumeDeduplicationService.ParseOutcome second = env.deduplicationService().parse(" \n \n", "scan2.pdf");
+
+        assertNull(second.reusedFrom());
+        assertNotEquals(first.getId(), second.resume().getId());
+        // Neither is indexed for lookups, so neither gets a signature or a duplicate link
+        assertTrue(second.resume().getMetadata() == null || !second.resume().getMetadata().containsKey("duplicateOf"));
+        assertTrue(first.getMetadata() == null || !first.getMetadata().containsKey("minHash"));
+        assertEquals(2, chatModel.calls.size());
+        assertEquals(0, env.deduplicationService().stats().get("indexedResumes"));
+        assertEquals(0L, env.deduplicationService().stats().get("nearDuplicates"));
+    }
+
+    private Environment environment(StubChatModel chatModel, String policy) {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getDedup().setPolicy(policy);
+        StageMetrics stageMetrics = new StageMetrics(new SimpleMeterRegistry());
+        ResumeParsingService parsingService = new ResumeParsingService(chatModel.router(appProperties),
+                new StructuredOutputDecoder(), null, appProperties, stageMetrics);
+
+        StubEmbeddingModel embeddingModel = new StubEmbeddingModel();
+        ShardedVectorStore store = embeddingModel.store();
+        stores.add(store);
+        InMemoryResumeRepository repository = new InMemoryResumeRepository();
+        return new Environment(repository, store, embeddingModel,
+                new VectorStoreService(store, appProperties, stageMetrics),
+                new ResumeDeduplicationService(parsingService, repository, appProperties));
+    }
+}
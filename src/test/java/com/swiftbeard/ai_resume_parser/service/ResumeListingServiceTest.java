@@ -0,0 +1,79 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.dto.ResumePage;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import com.swiftbeard.ai_resume_parser.repository.InMemoryResumeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumeListingServiceTest {
+
+    private final InMemoryResumeRepository repository = new InMemoryResumeRepository();
+    private final AppProperties appProperties = new AppProperties();
+    private final ResumeListingService listingService =
+            new ResumeListingService(repository, new ObjectMapper().findAndRegisterModules(), appProperties);
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 7; i++) {
+            repository.save(ParsedResume.builder()
+                    .id("resume-" + i)
+                    .candidateName("Candidate " + i)
+                    .rawText("raw text " + i)
+                    .skills(List.of("Java"))
+                    .build());
+        }
+    }
+
+    @Test
+    void testCursorWalksEveryResumeOnce() {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ResumePage page = listingService.page(cursor, 3, "id");
+            page.getItems().forEach(item -> ids.add(item.get("id").asText()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of("resume-0", "resume-1", "resume-2", "resume-3", "resume-4", "resume-5", "resume-6"), ids);
+    }
+
+    @Test
+    void testProjectionExcludesRawTextByDefault() {
+        ObjectNode item = listingService.page(null, 1, null).getItems().get(0);
+        assertFalse(item.has("rawText"));
+        assertEquals("Candidate 0", item.get("candidateName").asText());
+
+        ObjectNode projected = listingService.page(null, 1, "id,skills").getItems().get(0);
+        assertEquals(2, projected.size());
+        assertTrue(projected.has("skills"));
+
+        assertThrows(IllegalArgumentException.class, () -> listingService.page(null, 1, "id,password"));
+        assertThrows(IllegalArgumentException.class, () -> listingService.page(null, 0, null));
+    }
+
+    @Test
+    void testStreamWritesOneLinePerResumeAcrossBatches() throws Exception {
+        appProperties.getListing().setStreamBatchSize(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        listingService.stream(listingService.projection("id,candidateName"), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(7, lines.length);
+        assertEquals("{\"id\":\"resume-6\",\"candidateName\":\"Candidate 6\"}", lines[6]);
+    }
+}
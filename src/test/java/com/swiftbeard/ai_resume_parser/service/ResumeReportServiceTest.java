@@ -0,0 +1,166 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.dto.ResumeReport;
+import com.swiftbeard.ai_resume_parser.model.JobDescription;
+import com.swiftbeard.ai_resume_parser.repository.InMemoryResumeRepository;
+import com.swiftbeard.ai_resume_parser.vectorstore.ShardedVectorStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumeReportServiceTest {
+
+    private static final String RESUME = """
+            Jane Doe
+            Berlin, Germany | jane.doe@example.com
+
+            Experience
+            Senior Software Engineer, Acme Payments (2019 - Present)
+            - Reduced p99 checkout latency by 40% with Redis caching
+
+            Skills
+            Java, Kafka, Redis
+            """;
+
+    private static final String PARSED = """
+            {"candidateName": "Jane Doe", "email": "jane.doe@example.com", "skills": ["Java", "Kafka", "Redis"],
+             "experiences": [{"company": "Acme Payments", "position": "Senior Software Engineer",
+                              "duration": "2019 - Present"}]}""";
+
+    private static final String ATS = """
+            {"atsScore": 81, "overallAssessment": "Clear and quantified",
+             "suggestions": [{"category": "Keywords", "issue": "No cloud keywords",
+                              "recommendation": "Name the cloud platform", "priority": "MEDIUM"}]}""";
+
+    private static final String MATCH = """
+            {"matchScore": 0.8, "matchedSkills": ["Java"], "missingSkills": ["Go"],
+             "analysis": "Strong backend profile", "recommendations": ["Mention Go"]}""";
+
+    private static final String PARSE_PROMPT = "Extract structured information from the following resume text";
+    private static final String ATS_PROMPT = "Analyze this resume for ATS-friendliness";
+    private static final String MATCH_PROMPT = "analyzing how well a resume matches";
+
+    private static final JobDescription JOB = JobDescription.builder()
+            .id("job-1")
+            .title("Backend Engineer")
+            .requiredSkills(List.of("Java", "Go"))
+            .build();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private ShardedVectorStore store;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        if (store != null) {
+            store.destroy();
+        }
+    }
+
+    @Test
+    void testReturnsFinishedStagesWhenOneMissesDeadline() throws Exception {
+        StubChatModel chatModel = new StubChatModel(call -> call.text().contains(MATCH_PROMPT)
+                ? blockUntilCancelled()
+                : answer(call));
+
+        ResumeReport report = service(chatModel, 500).generateReport(RESUME, "jane.pdf", JOB, false);
+
+        Map<String, ResumeReport.StageResult> stages = report.getStages();
+        assertEquals("COMPLETED", stages.get(ResumeReportService.STAGE_PARSE).getStatus());
+        assertEquals("COMPLETED", stages.get(ResumeReportService.STAGE_ATS).getStatus());
+        assertEquals("COMPLETED", stages.get(ResumeReportService.STAGE_INDEX).getStatus());
+        assertEquals("TIMED_OUT", stages.get(ResumeReportService.STAGE_MATCH).getStatus());
+        assertEquals("Jane Doe", report.getResume().getCandidateName());
+        assertEquals(81.0, report.getAtsOptimization().getAtsScore(), 0.0);
+        assertTrue(report.isIndexed());
+        assertNull(report.getMatch());
+        // The timed-out stage is cancelled, not left running
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testParseCountsAgainstDeadline() throws Exception {
+        StubChatModel chatModel = new StubChatModel(call -> call.text().contains(PARSE_PROMPT)
+                ? blockUntilCancelled()
+                : answer(call));
+
+        ResumeReport report = service(chatModel, 300).generateReport(RESUME, "jane.pdf", JOB, false);
+
+        assertNull(report.getResume());
+        assertTrue(report.getElapsedMs() < 5_000);
+        Map<String, ResumeReport.StageResult> stages = report.getStages();
+        assertEquals("TIMED_OUT", stages.get(ResumeReportService.STAGE_PARSE).getStatus());
+        assertEquals("SKIPPED", stages.get(ResumeReportService.STAGE_ATS).getStatus());
+        assertEquals("SKIPPED", stages.get(ResumeReportService.STAGE_MATCH).getStatus());
+        assertEquals("SKIPPED", stages.get(ResumeReportService.STAGE_INDEX).getStatus());
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        assertEquals(1, chatModel.calls.size());
+    }
+
+    @Test
+    void testAllStagesCompleteWithinDeadline() {
+        StubChatModel chatModel = new StubChatModel(ResumeReportServiceTest::answer);
+
+        ResumeReport report = service(chatModel, 5_000).generateReport(RESUME, "jane.pdf", JOB, false);
+
+        assertTrue(report.getStages().values().stream().allMatch(stage -> "COMPLETED".equals(stage.getStatus())));
+        assertEquals(0.8, report.getMatch().getMatchScore(), 0.0);
+        assertEquals(report.getResume().getId(), report.getMatch().getResumeId());
+        assertEquals(3, chatModel.calls.size());
+    }
+
+    private ResumeReportService service(StubChatModel chatModel, long deadlineMs) {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getReport().setDeadlineMs(deadlineMs);
+        appProperties.getIndexing().setWriteBehind(false);
+        StageMetrics stageMetrics = new StageMetrics(new SimpleMeterRegistry());
+        ModelRouter router = chatModel.router(appProperties);
+        StructuredOutputDecoder decoder = new StructuredOutputDecoder();
+
+        ResumeParsingService parsingService = new ResumeParsingService(router, decoder, null, appProperties,
+                stageMetrics);
+        ATSOptimizationService atsService = new ATSOptimizationService(router, appProperties, parsingService,
+                decoder, new LocalATSScorer(appProperties), executor, stageMetrics);
+        atsService.initCache();
+        store = new StubEmbeddingModel().store();
+        return new ResumeReportService(atsService,
+                new ResumeAnalysisService(router, appProperties, decoder, stageMetrics),
+                new VectorStoreService(store, appProperties, stageMetrics),
+                null,
+                new ResumeDeduplicationService(parsingService, new InMemoryResumeRepository(), appProperties),
+                executor, appProperties);
+    }
+
+    private static String answer(StubChatModel.Call call) {
+        Map<String, String> answers = Map.of(PARSE_PROMPT, PARSED, ATS_PROMPT, ATS, MATCH_PROMPT, MATCH);
+        return answers.entrySet().stream()
+                .filter(answer -> call.text().contains(answer.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("unexpected prompt: " + call.text()));
+    }
+
+    /**
+     * A model call that only ends when the report cancels its stage.
+     */
+    private String blockUntilCancelled() {
+        try {
+            new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+            cancelled.countDown();
+            Thread.currentThread().interrupt();
+        }
+        throw new IllegalStateException("model call cancelled");
+    }
+}
@@ -0,0 +1,51 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumeSectionsTest {
+
+    private static final String RESUME = """
+            Jane Doe
+            Berlin, Germany | jane.doe@example.com
+
+            PROFESSIONAL SUMMARY
+            Backend engineer with eight years of experience on the JVM.
+
+            Work Experience
+            Senior Software Engineer, Acme Payments (2019 - Present)
+            - Led the migration to event-driven microservices on Kafka
+
+            Education:
+            M.Sc. Computer Science, Technical University of Berlin (2016)
+
+            ## Technical Skills
+            Java, Kotlin, Spring Boot, Kafka
+
+            Projects
+            Open-source contributor to a Kafka connector
+            """;
+
+    @Test
+    void testSplitsAtHeadings() {
+        List<ResumeSections.Section> sections = ResumeSections.split(RESUME);
+
+        assertEquals(List.of(ResumeSections.Kind.HEADER, ResumeSections.Kind.SUMMARY, ResumeSections.Kind.EXPERIENCE,
+                        ResumeSections.Kind.EDUCATION, ResumeSections.Kind.SKILLS, ResumeSections.Kind.OTHER),
+                sections.stream().map(ResumeSections.Section::kind).toList());
+        assertNull(sections.get(0).heading());
+        assertTrue(sections.get(0).text().startsWith("Jane Doe"));
+        assertEquals("Java, Kotlin, Spring Boot, Kafka", sections.get(4).text());
+    }
+
+    @Test
+    void testSentencesAreNotHeadings() {
+        assertNull(ResumeSections.headingKind("Led the migration to event-driven microservices on Kafka"));
+        assertNull(ResumeSections.headingKind("Skills improved."));
+        assertNull(ResumeSections.headingKind("Jane Doe"));
+        assertEquals(ResumeSections.Kind.CERTIFICATIONS, ResumeSections.headingKind("LICENSES & CERTIFICATIONS"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.dto.ImportResult;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import com.swiftbeard.ai_resume_parser.repository.InMemoryResumeRepository;
+import com.swiftbeard.ai_resume_parser.vectorstore.ShardedVectorStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumeTransferServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<ShardedVectorStore> stores = new ArrayList<>();
+
+    private record Environment(InMemoryResumeRepository repository, ShardedVectorStore store,
+                               VectorStoreService vectorStoreService, ResumeTransferService transferService) {
+    }
+
+    @AfterEach
+    void tearDown() {
+        stores.forEach(ShardedVectorStore::destroy);
+    }
+
+    @Test
+    void testExportImportCopiesResumesAndEmbeddings() throws Exception {
+        Environment source = environment(Files.createTempDirectory("imports"));
+        for (int i = 0; i < 5; i++) {
+            ParsedResume resume = resume(i);
+            source.repository().save(resume);
+            List<Document> documents = source.vectorStoreService().buildDocuments(resume);
+            source.store().add(documents, List.of(new float[]{i, 1f, 0.5f}));
+        }
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        source.transferService().export(export, true);
+
+        Environment target = environment(Files.createTempDirectory("imports"));
+        ImportResult result = target.transferService().importResumes(
+                new ByteArrayInputStream(export.toByteArray()), "copy-1", ResumeTransferService.MODE_COPY);
+
+        assertEquals(5, result.getResumesImported());
+        assertEquals(5, result.getDocumentsCopied());
+        assertEquals(0, result.getDocumentsEmbedded());
+        assertEquals("raw text 3", target.repository().findById("resume-3").orElseThrow().getRawText());
+        String documentId = target.vectorStoreService().buildDocuments(resume(3)).get(0).getId();
+        assertArrayEquals(new float[]{3f, 1f, 0.5f}, target.store().getEmbedding(documentId).orElseThrow());
+    }
+
+    @Test
+    void testImportResumesFromCheckpointAfterBadLine() throws Exception {
+        Path checkpoints = Files.createTempDirectory("imports");
+        Environment target = environment(checkpoints);
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            lines.append(objectMapper.writeValueAsString(new ExportLine(resume(i)))).append('\n');
+        }
+        String valid = lines.toString();
+        String interrupted = valid.substring(0, valid.lastIndexOf('{')) + "{\"resume\": \n";
+
+        assertThrows(IllegalArgumentException.class, () -> target.transferService().importResumes(
+                new ByteArrayInputStream(interrupted.getBytes(StandardCharsets.UTF_8)), "run-1",
+                ResumeTransferService.MODE_RE_EMBED));
+        assertTrue(target.repository().findById("resume-2").isPresent());
+        assertTrue(target.repository().findById("resume-3").isEmpty());
+
+        ImportResult resumed = target.transferService().importResumes(
+                new ByteArrayInputStream(valid.getBytes(StandardCharsets.UTF_8)), "run-1",
+                ResumeTransferService.MODE_RE_EMBED);
+        assertEquals(3, resumed.getResumesSkipped());
+        assertEquals(1, resumed.getResumesImported());
+        assertTrue(target.repository().findById("resume-3").isPresent());
+        assertFalse(Files.exists(checkpoints.resolve("run-1.checkpoint")));
+    }
+
+    @Test
+    void testEmbeddingEncodingRoundTrip() {
+        float[] embedding = {0.25f, -1.5f, 3.0e-8f, Float.MAX_VALUE};
+        assertArrayEquals(embedding,
+                ResumeTransferService.decodeEmbedding(ResumeTransferService.encodeEmbedding(embedding)));
+    }
+
+    private record ExportLine(ParsedResume resume) {
+    }
+
+    private Environment environment(Path checkpoints) {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getTransfer().setBatchSize(2);
+        appProperties.getTransfer().setCheckpointPath(checkpoints.toString());
+        ShardedVectorStore store = new StubEmbeddingModel().store();
+        stores.add(store);
+        InMemoryResumeRepository repository = new InMemoryResumeRepository();
+        VectorStoreService vectorStoreService = new VectorStoreService(store, appProperties,
+                new StageMetrics(new SimpleMeterRegistry()));
+        ResumeDeduplicationService deduplicationService =
+                new ResumeDeduplicationService(null, repository, appProperties);
+        return new Environment(repository, store, vectorStoreService, new ResumeTransferService(
+                repository, vectorStoreService, deduplicationService, objectMapper, appProperties));
+    }
+
+    private static ParsedResume resume(int i) {
+        return ParsedResume.builder()
+                .id("resume-" + i)
+                .candidateName("Candidate " + i)
+                .rawText("raw text " + i)
+                .skills(List.of("Java"))
+                .build();
+    }
+}
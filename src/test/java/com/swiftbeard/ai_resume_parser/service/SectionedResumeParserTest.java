@@ -0,0 +1,159 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SectionedResumeParserTest {
+
+    private static final String RESUME = """
+            Jane Doe
+            Berlin, Germany | jane.doe@example.com
+
+            Work Experience
+            Senior Software Engineer, Acme Payments (2019 - Present)
+            - Led the migration to event-driven microservices on Kafka
+
+            Technical Skills
+            Java, Kotlin, Kafka
+
+            Projects
+            Open-source contributor to a Kafka connector
+
+            Interests
+            Climbing, chess
+            """;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testMergesSectionResultsInDocumentOrder() {
+        StubChatModel chatModel = new StubChatModel(SectionedResumeParserTest::answer);
+        SectionedResumeParser parser = parser(chatModel, new AppProperties());
+
+        ParsedResume parsed = parser.parse(RESUME).orElseThrow();
+
+        assertEquals(5, chatModel.calls.size());
+        assertEquals("Jane Doe", parsed.getCandidateName());
+        assertEquals("jane.doe@example.com", parsed.getEmail());
+        assertEquals(6.5, parsed.getYearsOfExperience(), 0.0);
+        assertEquals(List.of("Acme Payments"),
+                parsed.getExperiences().stream().map(ParsedResume.Experience::getCompany).toList());
+        // Skills from the skills and projects sections, in document order without the repeated Kafka
+        assertEquals(List.of("Java", "Kotlin", "Kafka", "Kafka Connect"), parsed.getSkills());
+        List<?> sections = (List<?>) parsed.getMetadata().get(SectionedResumeParser.SECTIONS_METADATA_KEY);
+        assertEquals(List.of("header", "experience", "skills", "other", "other"),
+                sections.stream().map(section -> ((Map<?, ?>) section).get("section")).toList());
+    }
+
+    @Test
+    void testEmptyResultForOtherSectionDoesNotEscalate() {
+        StubChatModel chatModel = new StubChatModel(SectionedResumeParserTest::answer);
+        AppProperties appProperties = new AppProperties();
+        appProperties.getRouting().setEnabled(true);
+        AppProperties.OperationRouting routing = new AppProperties.OperationRouting();
+        routing.setTiers(List.of(tier("small"), tier("large")));
+        appProperties.getRouting().getOperations().put(AiOperation.PARSE.getKey(), routing);
+        SectionedResumeParser parser = parser(chatModel, appProperties);
+
+        parser.parse(RESUME).orElseThrow();
+
+        // The interests section has nothing to extract; every section is answered by the small tier
+        assertEquals(5, chatModel.calls.size());
+        assertTrue(chatModel.calls.stream().allMatch(call -> "small".equals(call.model())));
+    }
+
+    @Test
+    void testEmptyResultForStructuredSectionEscalates() {
+        StubChatModel chatModel = new StubChatModel(call -> "large".equals(call.model())
+                || !call.text().contains("experience section") ? answer(call) : "{}");
+        AppProperties appProperties = new AppProperties();
+        appProperties.getRouting().setEnabled(true);
+        AppProperties.OperationRouting routing = new AppProperties.OperationRouting();
+        routing.setTiers(List.of(tier("small"), tier("large")));
+        appProperties.getRouting().getOperations().put(AiOperation.PARSE.getKey(), routing);
+        SectionedResumeParser parser = parser(chatModel, appProperties);
+
+        ParsedResume parsed = parser.parse(RESUME).orElseThrow();
+
+        assertEquals(6, chatModel.calls.size());
+        assertEquals(1, chatModel.calls.stream().filter(call -> "large".equals(call.model())).count());
+        assertEquals(1, parsed.getExperiences().size());
+    }
+
+    @Test
+    void testUnchangedSectionsComeFromCache() {
+        StubChatModel chatModel = new StubChatModel(SectionedResumeParserTest::answer);
+        SectionedResumeParser parser = parser(chatModel, new AppProperties());
+
+        ParsedResume first = parser.parse(RESUME).orElseThrow();
+        // Edits by the caller must not leak into the cached sections
+        first.getExperiences().get(0).setCompany("Edited Inc.");
+        first.getSkills().clear();
+        ParsedResume second = parser.parse(RESUME.replace("Climbing, chess", "Climbing, chess, cycling")).orElseThrow();
+
+        assertEquals(6, chatModel.calls.size());
+        assertTrue(chatModel.calls.get(5).text().contains("cycling"));
+        assertEquals("Acme Payments", second.getExperiences().get(0).getCompany());
+        assertEquals(List.of("Java", "Kotlin", "Kafka", "Kafka Connect"), second.getSkills());
+        List<?> sections = (List<?>) second.getMetadata().get(SectionedResumeParser.SECTIONS_METADATA_KEY);
+        assertEquals(List.of(true, true, true, true, false),
+                sections.stream().map(section -> ((Map<?, ?>) section).get("cached")).toList());
+    }
+
+    @Test
+    void testConfidence() {
+        ParsedResume empty = new ParsedResume();
+        assertEquals(0.0, SectionedResumeParser.confidence(ResumeSections.Kind.EXPERIENCE, empty), 0.0);
+        assertEquals(1.0, SectionedResumeParser.confidence(ResumeSections.Kind.OTHER, empty), 0.0);
+        ParsedResume phoneOnly = ParsedResume.builder().phone("+49 30 1234567").build();
+        assertEquals(1.0, SectionedResumeParser.confidence(ResumeSections.Kind.HEADER, phoneOnly), 0.0);
+    }
+
+    private SectionedResumeParser parser(StubChatModel chatModel, AppProperties appProperties) {
+        SectionedResumeParser parser = new SectionedResumeParser(chatModel.router(appProperties),
+                new StructuredOutputDecoder(), executor, appProperties);
+        parser.initCache();
+        return parser;
+    }
+
+    private static AppProperties.Tier tier(String model) {
+        AppProperties.Tier tier = new AppProperties.Tier();
+        tier.setName(model);
+        tier.setModel(model);
+        return tier;
+    }
+
+    private static String answer(StubChatModel.Call call) {
+        Map<String, Function<String, String>> answers = Map.of(
+                "header section", text -> """
+                        {"candidateName": "Jane Doe", "email": "jane.doe@example.com", "location": "Berlin, Germany"}""",
+                "experience section", text -> """
+                        {"yearsOfExperience": 6.5, "experiences": [{"company": "Acme Payments",
+                         "position": "Senior Software Engineer", "duration": "2019 - Present"}]}""",
+                "skills section", text -> """
+                        {"skills": ["Java", "Kotlin", "Kafka"]}""",
+                "other section", text -> text.contains("Kafka connector")
+                        ? "{\"skills\": [\"Kafka\", \"Kafka Connect\"]}"
+                        : "{\"skills\": [], \"certifications\": []}");
+        return answers.entrySet().stream()
+                .filter(answer -> call.text().contains("following " + answer.getKey()))
+                .map(answer -> answer.getValue().apply(call.text()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("unexpected prompt: " + call.text()));
+    }
+}
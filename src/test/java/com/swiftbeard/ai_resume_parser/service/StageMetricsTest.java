@@ -0,0 +1,87 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import com.swiftbeard.ai_resume_parser.vectorstore.ShardedVectorStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.metadata.Usage;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StageMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StageMetrics stageMetrics = new StageMetrics(registry);
+
+    @Test
+    void testStageRegistersTimersTaggedWithStage() throws Exception {
+        try (StageMetrics.Stage stage = stageMetrics.start("extract", "format", "pdf")) {
+            Thread.sleep(5);
+        }
+        try (StageMetrics.Stage stage = stageMetrics.start("extract", "format", "pdf")) {
+            byte[] allocated = new byte[1 << 20];
+            assertEquals(1 << 20, allocated.length);
+        }
+
+        Timer wall = registry.get("resume.stage").tags("stage", "extract", "format", "pdf").timer();
+        assertEquals(2, wall.count());
+        assertTrue(wall.totalTime(TimeUnit.MILLISECONDS) >= 5);
+        if (StageMetrics.threadCpuNanos() >= 0) {
+            assertEquals(2, registry.get("resume.stage.cpu").tags("stage", "extract").timer().count());
+        }
+        if (StageMetrics.threadAllocatedBytes() >= 0) {
+            DistributionSummary allocated = registry.get("resume.stage.allocated").tags("stage", "extract").summary();
+            assertEquals(2, allocated.count());
+            assertTrue(allocated.max() >= 1 << 20);
+        }
+        assertNull(registry.find("resume.stage").tags("stage", "parse").timer());
+    }
+
+    @Test
+    void testVectorStoreStagesRegistered() {
+        ShardedVectorStore store = new StubEmbeddingModel().store();
+        try {
+            VectorStoreService service = new VectorStoreService(store, new AppProperties(), stageMetrics);
+            service.storeResume(ParsedResume.builder().id("resume-1").candidateName("Jane Doe")
+                    .skills(List.of("Java")).build());
+            service.searchSimilarResumes("Java developer", 3);
+        } finally {
+            store.destroy();
+        }
+
+        assertEquals(1, registry.get("resume.stage").tags("stage", "vector.store").timer().count());
+        assertEquals(1, registry.get("resume.stage").tags("stage", "vector.search").timer().count());
+    }
+
+    @Test
+    void testTokensCountedPerOperationAndTier() {
+        stageMetrics.recordTokens(AiOperation.PARSE, "default", usage(120L, 30L));
+        stageMetrics.recordTokens(AiOperation.PARSE, "default", usage(80L, null));
+        stageMetrics.recordTokens(AiOperation.PARSE, "default", null);
+
+        assertEquals(200.0, registry.get("resume.ai.tokens")
+                .tags("operation", AiOperation.PARSE.getKey(), "tier", "default", "type", "prompt").counter().count(), 0.0);
+        assertEquals(30.0, registry.get("resume.ai.tokens")
+                .tags("operation", AiOperation.PARSE.getKey(), "tier", "default", "type", "completion").counter().count(), 0.0);
+    }
+
+    private static Usage usage(Long promptTokens, Long generationTokens) {
+        return new Usage() {
+            @Override
+            public Long getPromptTokens() {
+                return promptTokens;
+            }
+
+            @Override
+            public Long getGenerationTokens() {
+                return generationTokens;
+            }
+        };
+    }
+}
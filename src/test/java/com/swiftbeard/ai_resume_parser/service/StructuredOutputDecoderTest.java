@@ -0,0 +1,72 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StructuredOutputDecoderTest {
+
+    private final StructuredOutputDecoder decoder = new StructuredOutputDecoder();
+
+    @Test
+    void testDecodesFencedJsonDirectly() throws Exception {
+        String response = "```json\n{\"candidateName\": \"John Doe\", \"skills\": [\"Java\"]}\n```";
+
+        ParsedResume resume = decoder.decode(AiOperation.PARSE, response, ParsedResume.class);
+
+        assertEquals("John Doe", resume.getCandidateName());
+        assertEquals(List.of("Java"), resume.getSkills());
+        assertEquals(1L, decoder.snapshot().get("parse").get("decodedDirectly"));
+    }
+
+    @Test
+    void testRepairsProseSingleQuotesAndTrailingCommas() throws Exception {
+        String response = "Here is the parsed resume: {'candidateName': 'John O\\'Neil', 'skills': ['Java', 'AWS',],} Let me know!";
+
+        ParsedResume resume = decoder.decode(AiOperation.PARSE, response, ParsedResume.class);
+
+        assertEquals("John O'Neil", resume.getCandidateName());
+        assertEquals(List.of("Java", "AWS"), resume.getSkills());
+        assertEquals(1L, decoder.snapshot().get("parse").get("decodedAfterRepair"));
+    }
+
+    @Test
+    void testRepairsTruncatedResponse() throws Exception {
+        String response = "{\"matchScore\": 0.82, \"matchedSkills\": [\"Java\", \"Spring";
+
+        ResumeAnalysisService.MatchResponse match =
+                decoder.decode(AiOperation.MATCH, response, ResumeAnalysisService.MatchResponse.class);
+
+        assertEquals(0.82, match.matchScore());
+        assertEquals(List.of("Java", "Spring"), match.matchedSkills());
+    }
+
+    @Test
+    void testRepairsUnquotedKeysAndPythonLiterals() {
+        assertEquals("{\"ok\": true, \"value\": null}", JsonRepair.repair("{ok: True, value: None}"));
+    }
+
+    @Test
+    void testDecodesBatchArray() throws Exception {
+        String response = "[{\"candidateId\": \"c1\", \"matchScore\": 0.5}, {\"candidateId\": \"c2\", \"matchScore\": 0.9},]";
+
+        List<ResumeAnalysisService.BatchMatchEntry> entries = decoder.decode(AiOperation.MATCH, response,
+                decoder.listOf(ResumeAnalysisService.BatchMatchEntry.class));
+
+        assertEquals(2, entries.size());
+        assertEquals("c2", entries.get(1).candidateId());
+    }
+
+    @Test
+    void testUnrecoverableResponseCountsAsFailure() {
+        assertThrows(Exception.class,
+                () -> decoder.decode(AiOperation.ATS, "I cannot analyze this resume.", ResumeAnalysisService.MatchResponse.class));
+
+        Map<String, Object> stats = decoder.snapshot().get("ats");
+        assertEquals(1L, stats.get("decodeFailures"));
+    }
+}
@@ -0,0 +1,52 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.health.ModelHealthIndicator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Chat model for unit tests: answers every prompt with {@code responder} and records the calls. A
+ * responder that throws simulates a failed model call.
+ */
+class StubChatModel implements ChatModel {
+
+    /**
+     * @param model the model requested in the prompt options, or null for the default model
+     */
+    record Call(String model, String text) {
+    }
+
+    final List<Call> calls = new CopyOnWriteArrayList<>();
+    private final Function<Call, String> responder;
+
+    StubChatModel(Function<Call, String> responder) {
+        this.responder = responder;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        String model = prompt.getOptions() instanceof OpenAiChatOptions options ? options.getModel() : null;
+        StringBuilder text = new StringBuilder();
+        for (Message message : prompt.getInstructions()) {
+            text.append(message.getContent()).append('\n');
+        }
+        Call call = new Call(model, text.toString());
+        calls.add(call);
+        return new ChatResponse(List.of(new Generation(responder.apply(call))));
+    }
+
+    ModelRouter router(AppProperties appProperties) {
+        return new ModelRouter(this, appProperties, new RoutingMetrics(),
+                new StageMetrics(new SimpleMeterRegistry()), new ModelHealthIndicator());
+    }
+}
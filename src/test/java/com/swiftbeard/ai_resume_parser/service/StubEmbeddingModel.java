@@ -0,0 +1,58 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.vectorstore.ShardedVectorStore;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Embedding model for unit tests: embeds every text with {@code embedder} and records the texts. Without
+ * an embedder every text gets the same vector, which is enough to tell that something was embedded.
+ */
+class StubEmbeddingModel implements EmbeddingModel {
+
+    final List<String> texts = new CopyOnWriteArrayList<>();
+    private final Function<String, float[]> embedder;
+
+    StubEmbeddingModel() {
+        this(text -> new float[]{1f, 1f, 1f});
+    }
+
+    StubEmbeddingModel(Function<String, float[]> embedder) {
+        this.embedder = embedder;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getContent());
+    }
+
+    @Override
+    public float[] embed(String text) {
+        texts.add(text);
+        return embedder.apply(text);
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        return texts.stream().map(this::embed).toList();
+    }
+
+    /**
+     * A two-shard store that embeds with this model; the caller destroys it.
+     */
+    ShardedVectorStore store() {
+        return new ShardedVectorStore(this, 2, null, Set.of());
+    }
+}
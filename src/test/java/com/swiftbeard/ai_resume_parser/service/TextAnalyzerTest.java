@@ -0,0 +1,58 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.model.TextStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextAnalyzerTest {
+
+    private static final String RESUME = """
+            Jane Doe
+            jane.doe@example.com
+
+            SUMMARY
+            Backend engineer working with Java, Spring Boot and C++.
+
+            Experience
+            - Led the move of billing to Spring Boot services on Kubernetes
+            - Reduced Java GC pauses by 40% and mentored two engineers
+
+            Skills:
+            Java, Spring Boot, Kubernetes, C++, Node.js
+            """;
+
+    @Test
+    void testCountsWordsSkillsVerbsAndSections() {
+        TextStatistics statistics = TextAnalyzer.analyze(RESUME,
+                List.of("Java", "Spring Boot", "C++", "Node.js", "Kubernetes", "Terraform"));
+
+        assertEquals(43, statistics.getTotalWords());
+        assertEquals(Map.of("Java", 3, "Spring Boot", 3, "C++", 2, "Node.js", 1, "Kubernetes", 2, "Terraform", 0),
+                statistics.getSkillOccurrences());
+        assertEquals(3, statistics.getActionVerbs());
+        assertEquals(2, statistics.getBulletLines());
+        assertEquals(1, statistics.getQuantifiedBullets());
+        assertEquals(List.of("summary", "experience", "skills"), statistics.getSections());
+    }
+
+    @Test
+    void testUniqueWordsIgnoreCase() {
+        TextStatistics statistics = TextAnalyzer.analyze("Java java JAVA, spring  Spring\nboot", List.of());
+
+        assertEquals(6, statistics.getTotalWords());
+        assertEquals(3, statistics.getUniqueWords());
+        assertTrue(statistics.getSkillOccurrences().isEmpty());
+    }
+
+    @Test
+    void testSkillPhraseMustBeConsecutive() {
+        TextStatistics statistics = TextAnalyzer.analyze("Spring is not Boot, but Spring Boot is",
+                List.of("spring boot"));
+
+        assertEquals(1, statistics.getSkillOccurrences().get("spring boot"));
+    }
+}
@@ -0,0 +1,175 @@
+package com.swiftbeard.ai_resume_parser.service;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import com.swiftbeard.ai_resume_parser.vectorstore.ShardedVectorStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorStoreServiceTest {
+
+    private static final float[] QUERY = {1f, 0f};
+
+    // Chunks embed by the company they mention: "Exact" chunks have similarity 1.0 to QUERY, "Near" 0.8,
+    // "Far" about 0.7 and everything else 0
+    private final ShardedVectorStore store = new StubEmbeddingModel(VectorStoreServiceTest::embed).store();
+
+    @AfterEach
+    void tearDown() {
+        store.destroy();
+    }
+
+    @Test
+    void testReindexingShorterResumeDeletesStaleChunks() {
+        AppProperties appProperties = chunking("max", 4, 32);
+        appProperties.getVector().getChunking().setMaxChunkChars(200);
+        VectorStoreService service = service(appProperties);
+        ParsedResume longVersion = resume("resume-1", "Exact", "Near", "Far");
+        longVersion.setSummary("Backend engineer");
+        longVersion.getExperiences().get(0).setDescription("x".repeat(300)); // Split into two parts
+        service.storeResume(longVersion);
+        assertEquals(service.buildDocuments(longVersion).size(), store.size());
+
+        ParsedResume shortVersion = resume("resume-1", "Exact");
+        service.storeResume(shortVersion);
+
+        List<Document> current = service.buildDocuments(shortVersion);
+        assertEquals(2, current.size());
+        assertEquals(current.size(), store.size());
+        assertTrue(current.stream().allMatch(document -> store.getEmbedding(document.getId()).isPresent()));
+    }
+
+    @Test
+    void testReindexingShorterResumeDeletesStaleChunksFromSimpleStore() {
+        // The default store cannot be probed for stored chunks, so the ids written last time are used
+        SimpleVectorStore simpleStore = new SimpleVectorStore(new StubEmbeddingModel(VectorStoreServiceTest::embed));
+        VectorStoreService service = new VectorStoreService(simpleStore, chunking("max", 4, 32),
+                new StageMetrics(new SimpleMeterRegistry()));
+        service.storeResume(resume("resume-1", "Exact", "Near", "Far"));
+        service.storeResume(resume("resume-2", "Near"));
+        assertEquals(6, storedIds(simpleStore).size());
+
+        ParsedResume shortVersion = resume("resume-1", "Exact");
+        service.storeResume(shortVersion);
+
+        Set<String> expected = new HashSet<>();
+        service.buildDocuments(shortVersion).forEach(document -> expected.add(document.getId()));
+        service.buildDocuments(resume("resume-2", "Near")).forEach(document -> expected.add(document.getId()));
+        assertEquals(expected, Set.copyOf(storedIds(simpleStore)));
+
+        service.deleteResume(shortVersion);
+        assertEquals(2, storedIds(simpleStore).size());
+    }
+
+    @Test
+    void testReindexingLeavesOtherResumesAlone() {
+        VectorStoreService service = service(chunking("max", 4, 32));
+        service.storeResume(resume("resume-1", "Exact", "Near"));
+        service.storeResume(resume("resume-2", "Near"));
+
+        service.storeResume(resume("resume-1", "Exact"));
+
+        assertEquals(4, store.size());
+    }
+
+    @Test
+    void testChunkHitsAggregatedPerResume() {
+        // resume-1 has the single best chunk, resume-2 the most matching chunks
+        List<ParsedResume> resumes = List.of(resume("resume-1", "Exact"), resume("resume-2", "Near", "Near"));
+
+        VectorStoreService max = service(chunking("max", 4, 32));
+        resumes.forEach(max::storeResume);
+        List<Document> byMax = max.findMatchingResumes(QUERY, "backend", 2, null);
+
+        assertEquals(List.of("resume-1", "resume-2"), resumeIds(byMax));
+        assertEquals(1.0, (double) byMax.get(0).getMetadata().get("score"), 1e-5);
+        assertEquals(1, byMax.get(0).getMetadata().get("matchedChunks"));
+        assertEquals(0.8, (double) byMax.get(1).getMetadata().get("score"), 1e-5);
+        assertEquals(2, byMax.get(1).getMetadata().get("matchedChunks"));
+
+        List<Document> bySum = service(chunking("sum", 4, 32)).findMatchingResumes(QUERY, "backend", 2, null);
+
+        assertEquals(List.of("resume-2", "resume-1"), resumeIds(bySum));
+        assertEquals(1.6, (double) bySum.get(0).getMetadata().get("score"), 1e-5);
+    }
+
+    @Test
+    void testOverfetchesUntilEnoughDistinctResumes() {
+        // The six best chunks all belong to resume-1
+        List<ParsedResume> resumes = List.of(resume("resume-1", "Exact", "Exact", "Exact", "Exact", "Exact", "Exact"),
+                resume("resume-2", "Near"), resume("resume-3", "Far"));
+        VectorStoreService service = service(chunking("max", 1, 32));
+        resumes.forEach(service::storeResume);
+
+        assertEquals(List.of("resume-1", "resume-2"),
+                resumeIds(service.findMatchingResumes(QUERY, "backend", 2, null)));
+        // Capped before reaching past resume-1's chunks
+        assertEquals(List.of("resume-1"),
+                resumeIds(service(chunking("max", 1, 2)).findMatchingResumes(QUERY, "backend", 2, null)));
+    }
+
+    private VectorStoreService service(AppProperties appProperties) {
+        return new VectorStoreService(store, appProperties, new StageMetrics(new SimpleMeterRegistry()));
+    }
+
+    private static AppProperties chunking(String aggregation, int overfetchFactor, int maxOverfetchFactor) {
+        AppProperties appProperties = new AppProperties();
+        AppProperties.Chunking chunking = appProperties.getVector().getChunking();
+        chunking.setEnabled(true);
+        chunking.setAggregation(aggregation);
+        chunking.setOverfetchFactor(overfetchFactor);
+        chunking.setMaxOverfetchFactor(maxOverfetchFactor);
+        return appProperties;
+    }
+
+    /**
+     * A resume with a skills chunk and one experience chunk per company.
+     */
+    private static ParsedResume resume(String id, String... companies) {
+        return ParsedResume.builder()
+                .id(id)
+                .candidateName("Candidate " + id)
+                .skills(List.of("Java"))
+                .experiences(IntStream.range(0, companies.length)
+                        .mapToObj(i -> ParsedResume.Experience.builder()
+                                .company(companies[i])
+                                .position("Engineer " + i)
+                                .duration("2020 - 2022")
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private static float[] embed(String content) {
+        if (content.contains(" at Exact ")) {
+            return new float[]{1f, 0f};
+        }
+        if (content.contains(" at Near ")) {
+            return new float[]{0.8f, 0.6f};
+        }
+        if (content.contains(" at Far ")) {
+            return new float[]{0.7f, 0.71f};
+        }
+        return new float[]{0f, 1f};
+    }
+
+    private static List<String> storedIds(SimpleVectorStore simpleStore) {
+        return simpleStore.similaritySearch(SearchRequest.query("any").withTopK(100).withSimilarityThresholdAll())
+                .stream().map(Document::getId).toList();
+    }
+
+    private static List<String> resumeIds(List<Document> documents) {
+        return documents.stream().map(document -> (String) document.getMetadata().get("resumeId")).toList();
+    }
+}
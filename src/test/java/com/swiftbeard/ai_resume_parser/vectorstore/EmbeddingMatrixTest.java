@@ -0,0 +1,32 @@
+package com.swiftbeard.ai_resume_parser.vectorstore;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddingMatrixTest {
+
+    @Test
+    void testTopRowsByCosineSimilarity() {
+        EmbeddingMatrix matrix = new EmbeddingMatrix(List.of(
+                new float[]{1f, 0f, 0f},
+                new float[]{0f, 2f, 0f},
+                new float[]{3f, 3f, 0f},
+                new float[]{0f, 0f, -1f}));
+
+        List<EmbeddingMatrix.Hit> hits = matrix.top(new float[]{2f, 1f, 0f}, 3, 0.0);
+
+        assertEquals(List.of(2, 0, 1), hits.stream().map(EmbeddingMatrix.Hit::row).toList());
+        assertEquals(3 / Math.sqrt(10), hits.get(0).score(), 1e-6);
+        assertEquals(1, matrix.top(new float[]{0f, 0f, -5f}, 5, 0.5).size());
+        assertTrue(EmbeddingMatrix.EMPTY.top(new float[]{1f}, 3, 0.0).isEmpty());
+    }
+
+    @Test
+    void testRejectsMixedDimensions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new EmbeddingMatrix(List.of(new float[]{1f, 0f}, new float[]{1f, 0f, 0f})));
+    }
+}
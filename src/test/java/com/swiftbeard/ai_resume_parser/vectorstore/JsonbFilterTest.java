@@ -0,0 +1,39 @@
+package com.swiftbeard.ai_resume_parser.vectorstore;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonbFilterTest {
+
+    @Test
+    void testFilterValuesAreNormalizedArrays() {
+        String values = JsonbFilter.filterValues(Map.of("skills", List.of("Java", " AWS "), "yearsOfExperience", 7));
+
+        assertTrue(values.contains("\"skills\":[\"java\",\"aws\"]"));
+        assertTrue(values.contains("\"yearsOfExperience\":[7.0]"));
+    }
+
+    @Test
+    void testTranslatesToContainmentAndPathTests() {
+        JsonbFilter.Sql sql = JsonbFilter.toSql(MetadataFilter.parse(
+                "skills == 'Java' && certifications in ['AWS', 'GCP'] && yearsOfExperience >= 5"), "filter_values");
+
+        assertEquals("((filter_values @> ?::jsonb AND (filter_values @> ?::jsonb OR filter_values @> ?::jsonb))"
+                + " AND filter_values @? ?::jsonpath)", sql.condition());
+        assertEquals(List.of("{\"skills\":[\"java\"]}", "{\"certifications\":[\"aws\"]}",
+                "{\"certifications\":[\"gcp\"]}", "$.\"yearsOfExperience\"[*] ? (@ >= 5)"), sql.parameters());
+    }
+
+    @Test
+    void testNegationsAndGroups() {
+        JsonbFilter.Sql sql = JsonbFilter.toSql(MetadataFilter.parse(
+                "location != 'Berlin' || (type nin ['job'] && yearsOfExperience < 2.5)"), "f");
+
+        assertEquals("(NOT (f @> ?::jsonb) OR (NOT (f @> ?::jsonb) AND f @? ?::jsonpath))", sql.condition());
+        assertEquals("$.\"yearsOfExperience\"[*] ? (@ < 2.5)", sql.parameters().get(2));
+    }
+}
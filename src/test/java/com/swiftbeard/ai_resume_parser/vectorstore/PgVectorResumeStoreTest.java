@@ -0,0 +1,239 @@
+package com.swiftbeard.ai_resume_parser.vectorstore;
+
+import com.swiftbeard.ai_resume_parser.config.AppProperties;
+import com.swiftbeard.ai_resume_parser.model.ParsedResume;
+import com.swiftbeard.ai_resume_parser.repository.JdbcResumeRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against a throwaway Postgres with the pgvector extension; skipped when Docker is unavailable.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PgVectorResumeStoreTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PgVectorResumeStoreTest.class);
+    private static final int DIMENSIONS = 64;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            DockerImageName.parse("pgvector/pgvector:pg16").asCompatibleSubstituteFor("postgres"));
+
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        dataSource.setMaximumPoolSize(4);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void testCopyIngestionUpsertsAndSearchesExactly() {
+        PgVectorResumeStore store = new PgVectorResumeStore(jdbcTemplate, null, config("exact_vectors", "none", "copy"));
+        Random random = new Random(1);
+        List<Document> documents = documents(200);
+        List<float[]> embeddings = embeddings(random, 200);
+
+        store.add(documents, embeddings);
+        // Re-adding a slice overwrites rows instead of duplicating them
+        store.add(documents.subList(0, 50), embeddings.subList(0, 50));
+        assertEquals(200, store.count());
+
+        float[] query = embeddings(random, 1).get(0);
+        List<Document> results = store.search(query, 10, -1.0);
+
+        List<String> expected = IntStream.range(0, 200).boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> cosine(query, embeddings.get(i))).reversed())
+                .limit(10)
+                .map(i -> "doc-" + i)
+                .toList();
+        assertEquals(expected, results.stream().map(Document::getId).toList());
+        assertEquals(List.of("Java", "AWS"), results.get(0).getMetadata().get("skills"));
+        assertEquals(1.0 - cosine(query, embeddings.get(Integer.parseInt(expected.get(0).substring(4)))),
+                (double) results.get(0).getMetadata().get("distance"), 1e-4);
+
+        assertTrue(store.delete(List.of(expected.get(0))).orElse(false));
+        assertEquals(199, store.count());
+    }
+
+    @Test
+    void testBatchIngestionWithHnswIndex() {
+        PgVectorResumeStore store = new PgVectorResumeStore(jdbcTemplate, null, config("hnsw_vectors", "hnsw", "batch"));
+        List<float[]> embeddings = embeddings(new Random(2), 300);
+
+        store.add(documents(300), embeddings);
+
+        assertEquals(300, store.count());
+        List<Document> results = store.search(embeddings.get(42), 5, 0.5);
+        assertEquals("doc-42", results.get(0).getId());
+        assertTrue(results.stream().allMatch(doc -> 1.0 - (double) doc.getMetadata().get("distance") >= 0.5));
+    }
+
+    @Test
+    void testFilteredSearchRunsInSql() {
+        PgVectorResumeStore store = new PgVectorResumeStore(jdbcTemplate, null, config("filtered_vectors", "none", "batch"));
+        List<float[]> embeddings = embeddings(new Random(4), 100);
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            documents.add(new Document("doc-" + i, "Resume " + i, Map.of("resumeId", "resume-" + i,
+                    "skills", List.of(i % 10 == 0 ? "Rust" : "Java", "AWS"), "yearsOfExperience", i % 10)));
+        }
+        store.add(documents, embeddings);
+
+        List<Document> rust = store.search(embeddings.get(0), 20, -1.0, MetadataFilter.parse("skills == 'rust'"));
+        assertEquals(10, rust.size());
+        assertTrue(rust.stream().allMatch(doc -> ((List<?>) doc.getMetadata().get("skills")).contains("Rust")));
+        assertEquals("doc-0", rust.get(0).getId());
+
+        List<Document> senior = store.search(embeddings.get(0), 100, -1.0,
+                MetadataFilter.parse("skills in ['Java'] && yearsOfExperience >= 8"));
+        assertEquals(20, senior.size());
+        assertTrue(senior.stream().allMatch(doc -> MetadataFilter.matches(
+                MetadataFilter.parse("yearsOfExperience >= 8"), doc.getMetadata())));
+        assertTrue(store.search(embeddings.get(0), 10, -1.0, MetadataFilter.parse("skills == 'Go'")).isEmpty());
+    }
+
+    @Test
+    void testJdbcResumeRepositoryRoundTrip() {
+        JdbcResumeRepository repository = new JdbcResumeRepository(jdbcTemplate, true);
+        ParsedResume resume = ParsedResume.builder()
+                .id("resume-1")
+                .candidateName("Jane Doe")
+                .skills(List.of("Java", "Kubernetes"))
+                .parsedAt(LocalDateTime.now())
+                .build();
+
+        repository.save(resume);
+        resume.setCandidateName("Jane Smith");
+        repository.save(resume);
+
+        ParsedResume loaded = repository.findById("resume-1").orElseThrow();
+        assertEquals("Jane Smith", loaded.getCandidateName());
+        assertEquals(List.of("Java", "Kubernetes"), loaded.getSkills());
+        assertTrue(repository.findById("missing").isEmpty());
+        assertTrue(repository.findAll().stream().anyMatch(r -> r.getId().equals("resume-1")));
+    }
+
+    /**
+     * Not a benchmark, but enough to compare ingestion paths and search latency with the in-memory store
+     * on the same data; the figures are logged rather than asserted.
+     */
+    @Test
+    void testThroughputComparedWithInMemoryStore() {
+        int count = 5000;
+        int queries = 100;
+        Random random = new Random(3);
+        List<Document> documents = documents(count);
+        List<float[]> embeddings = embeddings(random, count);
+        List<float[]> queryEmbeddings = embeddings(random, queries);
+
+        PgVectorResumeStore copyStore = new PgVectorResumeStore(jdbcTemplate, null, config("copy_bench", "hnsw", "copy"));
+        PgVectorResumeStore batchStore = new PgVectorResumeStore(jdbcTemplate, null, config("batch_bench", "hnsw", "batch"));
+        ShardedVectorStore memoryStore = new ShardedVectorStore(null, Runtime.getRuntime().availableProcessors(),
+                null, Set.of("skills"));
+
+        try {
+            long copyNanos = time(() -> copyStore.add(documents, embeddings));
+            long batchNanos = time(() -> batchStore.add(documents, embeddings));
+            long memoryNanos = time(() -> memoryStore.add(documents, embeddings));
+            assertEquals(count, copyStore.count());
+            assertEquals(count, batchStore.count());
+            assertEquals(count, memoryStore.size());
+
+            long pgSearchNanos = time(() -> queryEmbeddings.forEach(query -> copyStore.search(query, 10, 0.0)));
+            long memorySearchNanos = time(() -> queryEmbeddings.forEach(query -> memoryStore.search(query, 10, 0.0, null)));
+
+            log.info("Ingest {} docs: COPY {} docs/s, JDBC batch {} docs/s, in-memory {} docs/s",
+                    count, rate(count, copyNanos), rate(count, batchNanos), rate(count, memoryNanos));
+            log.info("Search: pgvector HNSW {} q/s, in-memory sharded {} q/s",
+                    rate(queries, pgSearchNanos), rate(queries, memorySearchNanos));
+        } finally {
+            memoryStore.destroy();
+        }
+    }
+
+    private static AppProperties.Pgvector config(String table, String indexType, String ingestion) {
+        AppProperties.Pgvector config = new AppProperties.Pgvector();
+        config.setTable(table);
+        config.setDimensions(DIMENSIONS);
+        config.setIndexType(indexType);
+        config.setIngestion(ingestion);
+        config.setCopyThreshold(1);
+        config.getHnsw().setEfSearch(64);
+        return config;
+    }
+
+    private static List<Document> documents(int count) {
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            documents.add(new Document("doc-" + i, "Resume \"" + i + "\", with quotes and commas",
+                    Map.of("resumeId", "resume-" + i, "skills", List.of("Java", "AWS"))));
+        }
+        return documents;
+    }
+
+    private static List<float[]> embeddings(Random random, int count) {
+        List<float[]> embeddings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            float[] vector = new float[DIMENSIONS];
+            for (int d = 0; d < DIMENSIONS; d++) {
+                vector[d] = (float) random.nextGaussian();
+            }
+            embeddings.add(vector);
+        }
+        return embeddings;
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+
+    private static long time(Runnable runnable) {
+        long start = System.nanoTime();
+        runnable.run();
+        return System.nanoTime() - start;
+    }
+
+    private static long rate(int operations, long nanos) {
+        return Math.round(operations / (nanos / 1e9));
+    }
+}
@@ -0,0 +1,129 @@
+package com.swiftbeard.ai_resume_parser.vectorstore;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedVectorStoreTest {
+
+    private static final int DIMENSIONS = 37;
+
+    private final ShardedVectorStore store = new ShardedVectorStore(null, 4, null, Set.of("skills", "location", "yearsOfExperience"));
+
+    @AfterEach
+    void tearDown() {
+        store.destroy();
+    }
+
+    @Test
+    void testMergedTopKMatchesExhaustiveSearch() {
+        Random random = new Random(42);
+        List<Document> documents = new ArrayList<>();
+        List<float[]> embeddings = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            documents.add(new Document("doc-" + i, "content " + i, Map.of("index", i)));
+            embeddings.add(randomVector(random));
+        }
+        store.add(documents, embeddings);
+        float[] query = randomVector(random);
+
+        List<Document> results = store.search(query, 10, -1.0, null);
+
+        List<String> expected = IntStream.range(0, embeddings.size()).boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> cosine(query, embeddings.get(i))).reversed())
+                .limit(10)
+                .map(i -> "doc-" + i)
+                .toList();
+        assertEquals(expected, results.stream().map(Document::getId).toList());
+        double bestDistance = (double) results.get(0).getMetadata().get("distance");
+        assertEquals(1.0 - cosine(query, embeddings.get(Integer.parseInt(expected.get(0).substring(4)))), bestDistance, 1e-5);
+    }
+
+    @Test
+    void testThresholdReplaceAndDelete() {
+        store.add(List.of(new Document("a", "a", Map.of()), new Document("b", "b", Map.of())),
+                List.of(new float[]{1f, 0f}, new float[]{0f, 1f}));
+
+        List<Document> results = store.search(new float[]{1f, 0.1f}, 5, 0.5, null);
+        assertEquals(List.of("a"), results.stream().map(Document::getId).toList());
+
+        // Re-adding an id replaces its vector instead of duplicating the document
+        store.add(List.of(new Document("a", "a2", Map.of())), List.<float[]>of(new float[]{0f, 1f}));
+        assertEquals(2, store.size());
+        assertEquals(List.of("a", "b"), store.search(new float[]{0f, 1f}, 5, 0.5, null).stream()
+                .map(Document::getId).sorted().toList());
+
+        assertTrue(store.delete(List.of("a")).orElse(false));
+        assertFalse(store.delete(List.of("a")).orElse(true));
+        assertEquals(List.of("b"), store.search(new float[]{0f, 1f}, 5, 0.0, null).stream().map(Document::getId).toList());
+        assertTrue(store.getEmbedding("a").isEmpty());
+    }
+
+    @Test
+    void testFilteredSearchOnlyReturnsMatchingDocuments() {
+        Random random = new Random(7);
+        List<Document> documents = new ArrayList<>();
+        List<float[]> embeddings = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Map<String, Object> metadata = Map.of(
+                    "skills", i % 3 == 0 ? List.of("Java", "AWS") : List.of("Python"),
+                    "location", i % 2 == 0 ? List.of("Berlin, Germany", "Berlin", "Germany") : List.of("Paris"),
+                    "yearsOfExperience", (double) (i % 10));
+            documents.add(new Document("doc-" + i, "content " + i, metadata));
+            embeddings.add(randomVector(random));
+        }
+        store.add(documents, embeddings);
+        float[] query = randomVector(random);
+        Filter.Expression filter = MetadataFilter.parse(
+                "skills == 'java' && location in ['BERLIN'] && yearsOfExperience >= 5");
+
+        List<Document> results = store.search(query, 5, -1.0, filter);
+
+        List<String> expected = IntStream.range(0, documents.size()).boxed()
+                .filter(i -> MetadataFilter.matches(filter, documents.get(i).getMetadata()))
+                .sorted(Comparator.comparingDouble((Integer i) -> cosine(query, embeddings.get(i))).reversed())
+                .limit(5)
+                .map(i -> "doc-" + i)
+                .toList();
+        assertEquals(expected, results.stream().map(Document::getId).toList());
+
+        // Deleted documents drop out of the filter bitmaps, and negations only see live documents
+        store.delete(List.of(expected.get(0)));
+        assertFalse(store.search(query, 5, -1.0, filter).stream().anyMatch(doc -> doc.getId().equals(expected.get(0))));
+        assertEquals(200, store.search(query, 300, -1.0, MetadataFilter.parse("skills != 'Java'")).size());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> store.search(query, 5, -1.0, MetadataFilter.parse("email == 'a@b.com'")));
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+}
@@ -0,0 +1,64 @@
+package com.swiftbeard.ai_resume_parser.vectorstore;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorShardTest {
+
+    private final VectorShard shard = new VectorShard(2, Set.of("skills"));
+
+    @Test
+    void testFreedSlotIsReused() {
+        assertEquals(0, put("a", "Java", 1f, 0f));
+        assertEquals(1, put("b", "Rust", 0f, 1f));
+        assertEquals(2, put("c", "Java", 1f, 1f));
+
+        assertEquals(1, shard.remove("b"));
+        assertEquals(1, put("d", "Go", 0f, 1f));
+
+        assertEquals(3, shard.slotCount());
+        assertEquals(3, shard.liveCount());
+        assertArrayEquals(new float[]{0f, 1f}, shard.embedding("d"), 1e-6f);
+        assertNull(shard.embedding("b"));
+        // The reused slot carries only the new document's filter values
+        assertEquals(List.of("d"), ids(shard.search(new float[]{0f, 1f}, 5, -1f, MetadataFilter.parse("skills == 'Go'"))));
+        assertEquals(List.of(), ids(shard.search(new float[]{0f, 1f}, 5, -1f, MetadataFilter.parse("skills == 'Rust'"))));
+        assertEquals(List.of("d", "c", "a"), ids(shard.search(new float[]{0f, 1f}, 5, -1f, null)));
+    }
+
+    @Test
+    void testChurnDoesNotGrowSlots() {
+        for (int i = 0; i < 1000; i++) {
+            put("doc-" + i, "Java", 1f, i % 7);
+            if (i >= 10) {
+                shard.remove("doc-" + (i - 10));
+            }
+        }
+
+        assertEquals(10, shard.liveCount());
+        assertEquals(11, shard.slotCount());
+        assertEquals(10, shard.search(new float[]{1f, 0f}, 20, -1f, null).top().size());
+    }
+
+    private int put(String id, String skill, float x, float y) {
+        return shard.put(new Document(id, id, Map.of("skills", List.of(skill))), VectorShard.normalize(new float[]{x, y}));
+    }
+
+    /**
+     * Ids of the hits, best first.
+     */
+    private static List<String> ids(VectorShard.Hits hits) {
+        List<String> ids = new ArrayList<>();
+        for (int index : hits.top().descendingOrder()) {
+            ids.add(hits.documents()[index].getId());
+        }
+        return ids;
+    }
+}